@@ -0,0 +1,32 @@
+package com.payoyo.to_do_list.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Configuracion de la cache de resultados de consultas
+ * 
+ * @EnableCaching: Activa las anotaciones @Cacheable del repositorio
+ * 
+ * El proveedor (Caffeine), el tamaño maximo y el TTL se configuran en application.yml:
+ *  spring.cache.caffeine.spec: maximumSize=500,expireAfterWrite=60s,recordStats
+ * 
+ * Cada cache guarda el resultado de UN metodo de TaskRepository,
+ * usando como clave los argumentos del metodo (status, priority, fecha...)
+ * 
+ * Invalidacion: TaskCacheInvalidator elimina solo las claves afectadas
+ * por cada escritura (no se vacia toda la cache)
+ * 
+ * Metricas (recordStats): GET /actuator/metrics/cache.gets?tag=result:hit
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Nombres de las caches (deben coincidir con spring.cache.cache-names)
+    public static final String TASKS_BY_STATUS = "tasksByStatus";
+    public static final String TASKS_BY_PRIORITY = "tasksByPriority";
+    public static final String OVERDUE_TASKS = "overdueTasks";
+    public static final String TASK_COUNT_BY_STATUS = "taskCountByStatus";
+
+}
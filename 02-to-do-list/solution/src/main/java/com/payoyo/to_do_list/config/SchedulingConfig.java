@@ -0,0 +1,15 @@
+package com.payoyo.to_do_list.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+ * Activa las tareas programadas (@Scheduled)
+ * 
+ * Usado por TaskEventRecorder para guardar el historial por lotes
+ * fuera del hilo de la peticion
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,26 @@
+package com.payoyo.to_do_list.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.payoyo.to_do_list.tenant.TenantInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Configuracion de Spring MVC
+ *
+ * Registra el TenantInterceptor para todos los endpoints de la API
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TenantInterceptor tenantInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(tenantInterceptor).addPathPatterns("/api/**");
+    }
+}
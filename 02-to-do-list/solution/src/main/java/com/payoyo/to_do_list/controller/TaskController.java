@@ -4,6 +4,7 @@ import com.payoyo.to_do_list.service.TaskService;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -18,7 +19,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import com.payoyo.to_do_list.dto.BoardMoveRequest;
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+import com.payoyo.to_do_list.dto.TaskBoard;
 import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.TaskEvent;
 import com.payoyo.to_do_list.entity.enums.Priority;
 import com.payoyo.to_do_list.entity.enums.Status;
 
@@ -44,6 +49,12 @@ import lombok.RequiredArgsConstructor;
  * - Codigos HTTP semanticos (200, 201, 204, 404, etc)
  * - URIs descriptivas y consistentes
  * - Uso de ResponseEntity para el control total de la respuesta
+ * 
+ * CAMPOS PARCIALES (?fields=):
+ * - Los endpoints de consulta aceptan ?fields=title,status,dueDate
+ * - Solo se leen de la BD y se devuelven esas columnas (el id siempre)
+ * - Sin el parametro se devuelve la tarea completa, como siempre
+ * - Un campo desconocido devuelve 400
  */
 
  /*
@@ -118,10 +129,14 @@ public class TaskController {
      * - Retorna HTTP 404 con mensaje de error
      * 
      * @param id ID de la tarea a buscar
+     * @param fields Campos a devolver (opcional, ej: ?fields=title,status)
      * @return ResponseEntity con código 200 y la tarea encontrada
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id){
+    public ResponseEntity<?> getTaskById(@PathVariable Long id, @RequestParam(required = false) Set<String> fields){
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskById(id, fields));
+        }
         Task task = taskService.getTaskById(id);
         return ResponseEntity.ok(task);
     }
@@ -138,10 +153,16 @@ public class TaskController {
      * 
      * NOTA: Como ya he dicho, en sistemas con muchos datos, considerar paginación
      * 
+     * Con ?fields=title,status solo se leen esas columnas (listas mas ligeras,
+     * sin los 500 caracteres de description)
+     * 
      * @return ResponseEntity con código 200 y lista de tareas
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks(){
+    public ResponseEntity<List<?>> getAllTasks(@RequestParam(required = false) Set<String> fields){
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getAllTasks(fields));
+        }
         List<Task> tasks = taskService.getAllTasks();
         return ResponseEntity.ok(tasks);
     }
@@ -211,7 +232,10 @@ public class TaskController {
      * estado
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTaskByStatus(@PathVariable Status status) {
+    public ResponseEntity<List<?>> getTaskByStatus(@PathVariable Status status, @RequestParam(required = false) Set<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByStatus(status, fields));
+        }
         List<Task> tasks = taskService.getTasksByStatus(status);
         return ResponseEntity.ok(tasks);
     }
@@ -230,7 +254,10 @@ public class TaskController {
      * prioridad
      */
     @GetMapping("priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable Priority priority){
+    public ResponseEntity<List<?>> getTasksByPriority(@PathVariable Priority priority, @RequestParam(required = false) Set<String> fields){
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByPriority(priority, fields));
+        }
         List<Task> tasks = taskService.getTasksByPriority(priority);
         return ResponseEntity.ok(tasks);
     }
@@ -265,10 +292,14 @@ public class TaskController {
      * cumplen ambos criterios
      */
     @GetMapping("/filter")
-    public ResponseEntity<List<Task>> getTasksByStatusAndPriority(
+    public ResponseEntity<List<?>> getTasksByStatusAndPriority(
         @RequestParam Status status,
-        @RequestParam Priority priority
+        @RequestParam Priority priority,
+        @RequestParam(required = false) Set<String> fields
     ){
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByStatusAndPriority(status, priority, fields));
+        }
         List<Task> tasks = taskService.getTasksByStatusAndPriority(status, priority);
         return ResponseEntity.ok(tasks);
     }
@@ -294,10 +325,14 @@ public class TaskController {
      * rango
      */
     @GetMapping("/due-date-range")
-    public ResponseEntity<List<Task>> getTasksByDueDateRange(
+    public ResponseEntity<List<?>> getTasksByDueDateRange(
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+        @RequestParam(required = false) Set<String> fields
     ){
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByDueDateRange(startDate, endDate, fields));
+        }
         List<Task> tasks = taskService.getTasksByDueDateRange(startDate, endDate);
         return ResponseEntity.ok(tasks);
     }
@@ -310,7 +345,10 @@ public class TaskController {
      * @return ResponseEntity con lista de tareas vencidas
      */
     @GetMapping("/overdue")
-    public ResponseEntity<List<Task>> getOverdueTasks() {
+    public ResponseEntity<List<?>> getOverdueTasks(@RequestParam(required = false) Set<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getOverdueTasks(fields));
+        }
         List<Task> tasks = taskService.getOverdueTasks();
         return ResponseEntity.ok(tasks);
     }
@@ -324,7 +362,10 @@ public class TaskController {
      * vencen hoy
      */
     @GetMapping("/due-today")
-    public ResponseEntity<List<Task>> getTasksDueToday() {
+    public ResponseEntity<List<?>> getTasksDueToday(@RequestParam(required = false) Set<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksDueToday(fields));
+        }
         List<Task> tasks = taskService.getTasksDueToday();
         return ResponseEntity.ok(tasks);
     }
@@ -342,7 +383,10 @@ public class TaskController {
      * contienen el término
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Task>> searchTasks(@RequestParam String term){
+    public ResponseEntity<List<?>> searchTasks(@RequestParam String term, @RequestParam(required = false) Set<String> fields){
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.searchTasks(term, fields));
+        }
         List<Task> tasks = taskService.searchTasks(term);
         return ResponseEntity.ok(tasks);
     }
@@ -408,5 +452,119 @@ public class TaskController {
         Long count = taskService.countByStatus(status);
         return ResponseEntity.ok(count);
     }
+
+
+    // ========== TABLERO (KANBAN) ==========
+
+    /*
+     * Obtiene el tablero con las tres columnas
+     * 
+     * Endpoint: GET /api/tasks/board?limit=50
+     * 
+     * Sustituye a llamar tres veces a /status/{status} y ordenar en el cliente:
+     * una sola consulta devuelve cada columna ordenada por prioridad y
+     * fecha limite, con como maximo "limit" tareas por columna
+     * 
+     * @param limit Maximo de tareas por columna (por defecto 50, maximo 200)
+     * @return ResponseEntity con el tablero
+     */
+    @GetMapping("/board")
+    public ResponseEntity<TaskBoard> getBoard(@RequestParam(defaultValue = "50") int limit) {
+        TaskBoard board = taskService.getBoard(limit);
+        return ResponseEntity.ok(board);
+    }
+
+    /*
+     * Mueve una tarjeta del tablero (drag and drop)
+     * 
+     * Endpoint: PATCH /api/tasks/{id}/board-position
+     * 
+     * Body: { "status": "IN_PROGRESS", "previousId": 12, "nextId": 15 }
+     * 
+     * Solo se actualiza el rango de la tarjeta movida (y su estado si cambia de columna)
+     * 
+     * @param id ID de la tarea
+     * @param move Columna destino y tarjetas vecinas
+     * @return ResponseEntity con la tarea movida
+     */
+    @PatchMapping("/{id}/board-position")
+    public ResponseEntity<Task> moveOnBoard(@PathVariable Long id, @Valid @RequestBody BoardMoveRequest move) {
+        Task movedTask = taskService.moveOnBoard(id, move);
+        return ResponseEntity.ok(movedTask);
+    }
+
+    // ========== TAREAS RECURRENTES ==========
+
+    /*
+     * Completa una ocurrencia de una tarea recurrente
+     * 
+     * Endpoint: PATCH /api/tasks/{id}/occurrences/2025-11-17/complete
+     * 
+     * Las ocurrencias que devuelven /due-date-range, /due-today y /overdue
+     * no tienen id: se identifican por seriesId + occurrenceDate
+     * 
+     * @param id ID de la tarea que define la serie
+     * @param date Fecha de la ocurrencia (yyyy-MM-dd)
+     * @return ResponseEntity con la ocurrencia completada (ya con id propio)
+     */
+    @PatchMapping("/{id}/occurrences/{date}/complete")
+    public ResponseEntity<Task> completeOccurrence(
+        @PathVariable Long id,
+        @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ){
+        Task completedOccurrence = taskService.completeOccurrence(id, date);
+        return ResponseEntity.ok(completedOccurrence);
+    }
+
+    /*
+     * Modifica una ocurrencia de una tarea recurrente
+     * 
+     * Endpoint: PUT /api/tasks/{id}/occurrences/2025-11-17
+     * 
+     * Solo cambia esa ocurrencia; la serie y las demas ocurrencias no se modifican
+     * 
+     * @param id ID de la tarea que define la serie
+     * @param date Fecha de la ocurrencia (yyyy-MM-dd)
+     * @param task Nuevos datos de la ocurrencia
+     * @return ResponseEntity con la ocurrencia actualizada (ya con id propio)
+     */
+    @PutMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<Task> updateOccurrence(
+        @PathVariable Long id,
+        @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @Valid @RequestBody Task task
+    ){
+        Task updatedOccurrence = taskService.updateOccurrence(id, date, task);
+        return ResponseEntity.ok(updatedOccurrence);
+    }
+
+    // ========== HISTORIAL DE ACTIVIDAD ==========
+
+    /*
+     * Obtiene el historial de eventos de una tarea
+     * 
+     * Endpoint: GET /api/tasks/{id}/timeline
+     * 
+     * @param id ID de la tarea
+     * @return ResponseEntity con los eventos en orden cronologico
+     */
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<List<TaskEvent>> getTaskTimeline(@PathVariable Long id) {
+        List<TaskEvent> events = taskService.getTaskTimeline(id);
+        return ResponseEntity.ok(events);
+    }
+
+    /*
+     * Obtiene los percentiles de lead time y cycle time
+     * 
+     * Endpoint: GET /api/tasks/stats/cycle-time
+     * 
+     * @return ResponseEntity con los percentiles en segundos
+     */
+    @GetMapping("/stats/cycle-time")
+    public ResponseEntity<CycleTimeReport> getCycleTimeReport() {
+        CycleTimeReport report = taskService.getCycleTimeReport();
+        return ResponseEntity.ok(report);
+    }
     
 }
@@ -0,0 +1,23 @@
+package com.payoyo.to_do_list.dto;
+
+import com.payoyo.to_do_list.entity.enums.Status;
+
+import jakarta.validation.constraints.NotNull;
+
+/*
+ * Movimiento de una tarjeta en el tablero (drag and drop)
+ * 
+ * Se indica la columna destino y las tarjetas que quedan justo
+ * encima (previousId) y debajo (nextId). Ambas son opcionales:
+ * - Sin previousId -> la tarjeta se coloca la primera
+ * - Sin nextId -> la tarjeta se coloca la ultima
+ * 
+ * Ejemplo:
+ * { "status": "IN_PROGRESS", "previousId": 12, "nextId": 15 }
+ */
+public record BoardMoveRequest(
+    @NotNull(message = "La columna destino es obligatoria") Status status,
+    Long previousId,
+    Long nextId
+) {
+}
@@ -0,0 +1,11 @@
+package com.payoyo.to_do_list.dto;
+
+/*
+ * Duraciones de una tarea completada (proyeccion de TaskEvent)
+ * 
+ * @param tenantId -> Tenant de la tarea
+ * @param leadTimeSeconds -> Segundos desde la creacion hasta completarse
+ * @param cycleTimeSeconds -> Segundos desde el inicio (IN_PROGRESS) hasta completarse, null si nunca se inicio
+ */
+public record CompletionDurations(String tenantId, Long leadTimeSeconds, Long cycleTimeSeconds) {
+}
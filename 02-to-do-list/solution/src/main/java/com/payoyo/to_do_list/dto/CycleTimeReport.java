@@ -0,0 +1,23 @@
+package com.payoyo.to_do_list.dto;
+
+/*
+ * Percentiles de lead time y cycle time del tenant actual
+ * 
+ * - Lead time: creacion -> completada
+ * - Cycle time: inicio (IN_PROGRESS) -> completada
+ * 
+ * Ejemplo de respuesta:
+ * {
+ *   "leadTime":  {"count": 120, "p50Seconds": 86400, "p90Seconds": 432000, "p99Seconds": 1209600},
+ *   "cycleTime": {"count": 95,  "p50Seconds": 14400, "p90Seconds": 172800, "p99Seconds": 604800}
+ * }
+ */
+public record CycleTimeReport(Percentiles leadTime, Percentiles cycleTime) {
+
+    /*
+     * Percentiles aproximados (error relativo < 4%) en segundos
+     * Son null si todavia no hay tareas completadas
+     */
+    public record Percentiles(long count, Long p50Seconds, Long p75Seconds, Long p90Seconds, Long p99Seconds) {
+    }
+}
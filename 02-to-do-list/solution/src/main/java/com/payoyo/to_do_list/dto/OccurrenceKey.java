@@ -0,0 +1,12 @@
+package com.payoyo.to_do_list.dto;
+
+import java.time.LocalDate;
+
+/*
+ * Identifica una ocurrencia de una serie recurrente (proyeccion de Task)
+ * 
+ * @param seriesId -> ID de la tarea que define la serie
+ * @param occurrenceDate -> Fecha original de la ocurrencia
+ */
+public record OccurrenceKey(Long seriesId, LocalDate occurrenceDate) {
+}
@@ -0,0 +1,26 @@
+package com.payoyo.to_do_list.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Status;
+
+/*
+ * Tablero Kanban: una columna por estado
+ * 
+ * Cada columna viene ordenada por prioridad, rango y fecha limite,
+ * y contiene como maximo el limite pedido
+ * 
+ * Ejemplo de respuesta:
+ * {
+ *   "laneLimit": 50,
+ *   "lanes": {
+ *     "PENDING":     [ {...}, {...} ],
+ *     "IN_PROGRESS": [ {...} ],
+ *     "COMPLETED":   [ ]
+ *   }
+ * }
+ */
+public record TaskBoard(int laneLimit, Map<Status, List<Task>> lanes) {
+}
@@ -0,0 +1,120 @@
+package com.payoyo.to_do_list.entity;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.payoyo.to_do_list.entity.enums.RecurrenceFrequency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Regla de recurrencia de una tarea (subconjunto de RRULE: FREQ, INTERVAL, UNTIL)
+ * 
+ * Se guarda en columnas de la propia tabla tasks (@Embeddable).
+ * La primera ocurrencia es la fecha limite (dueDate) de la tarea que define la serie
+ * 
+ * Ejemplo: cada 2 semanas hasta fin de año
+ * { "frequency": "WEEKLY", "interval": 2, "until": "2025-12-31" }
+ * 
+ * Las ocurrencias NO se guardan: se calculan al consultar (occurrencesBetween).
+ * Solo se crea una fila cuando una ocurrencia se modifica o se completa
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurrenceRule {
+
+    /**
+     * Cada cuanto se repite (DAILY, WEEKLY, MONTHLY, YEARLY)
+     */
+    @NotNull(message = "La frecuencia de la recurrencia es obligatoria")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence_frequency", length = 10)
+    private RecurrenceFrequency frequency;
+
+    /**
+     * Numero de unidades entre ocurrencias (por defecto 1)
+     */
+    @Min(value = 1, message = "El intervalo de la recurrencia debe ser al menos 1")
+    @Max(value = 365, message = "El intervalo de la recurrencia no puede ser mayor que 365")
+    @Column(name = "recurrence_interval")
+    private Integer interval;
+
+    /**
+     * Ultimo dia en que puede haber ocurrencias (inclusivo).
+     * OPCIONAL: sin fecha la serie no termina
+     */
+    @Column(name = "recurrence_until")
+    private LocalDate until;
+
+    /**
+     * Calcula las fechas de las ocurrencias dentro de un rango.
+     * 
+     * Cada fecha se calcula desde el inicio de la serie (inicio + k * intervalo),
+     * no sumando a la anterior: una serie mensual del dia 31 cae el 28/29 en
+     * febrero y vuelve al 31 en marzo.
+     * 
+     * Coste proporcional a las ocurrencias del rango, no a la antiguedad de la serie.
+     * 
+     * @param seriesStart Primera ocurrencia de la serie (dueDate de la tarea)
+     * @param from Inicio del rango (inclusivo)
+     * @param to Fin del rango (inclusivo)
+     * @param limit Maximo de fechas a devolver
+     * @return Fechas de las ocurrencias en orden
+     */
+    public List<LocalDate> occurrencesBetween(LocalDate seriesStart, LocalDate from, LocalDate to, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate last = until != null && until.isBefore(to) ? until : to;
+        if (last.isBefore(from) || last.isBefore(seriesStart)) {
+            return dates;
+        }
+
+        ChronoUnit unit = frequency.getUnit();
+        int step = step();
+
+        // salto directo a la primera ocurrencia cercana a "from" (nunca posterior)
+        long k = from.isAfter(seriesStart) ? unit.between(seriesStart, from) / step : 0;
+        LocalDate date = seriesStart.plus(k * step, unit);
+        while (date.isBefore(from)) {
+            k++;
+            date = seriesStart.plus(k * step, unit);
+        }
+        while (!date.isAfter(last) && dates.size() < limit) {
+            dates.add(date);
+            k++;
+            date = seriesStart.plus(k * step, unit);
+        }
+        return dates;
+    }
+
+    /**
+     * Verifica si una fecha es una ocurrencia de la serie.
+     * 
+     * @param seriesStart Primera ocurrencia de la serie
+     * @param date Fecha a comprobar
+     * @return true si la serie tiene una ocurrencia ese dia
+     */
+    public boolean occursOn(LocalDate seriesStart, LocalDate date) {
+        return !occurrencesBetween(seriesStart, date, date, 1).isEmpty();
+    }
+
+    private int step() {
+        return interval != null ? interval : 1;
+    }
+}
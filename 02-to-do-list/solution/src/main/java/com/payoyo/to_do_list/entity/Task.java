@@ -3,13 +3,22 @@ package com.payoyo.to_do_list.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import com.payoyo.to_do_list.entity.enums.Priority;
 import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.tenant.TenantContext;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -17,7 +26,10 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -35,15 +47,32 @@ import lombok.Setter;
  * - Validaciones a nivel de entidad
  * - Indices en campos frecuentemente consultados
  * - Metodos de negocio encapsulados en la entidad (DDD)
+ * - Aislamiento por tenant (equipo) con un filtro de Hibernate
  * 
  */
 @Entity // Indica que esta clase es una entidad JPA que se mapea a una tabla
 @Table(name = "tasks", indexes = {
     // Los índices mejoran el rendimiento en consultas por estos campos
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_priority", columnList = "priority"),
-    @Index(name = "idx_due_date", columnList = "due_date"),
+    // Todos empiezan por tenant_id: cada consulta solo recorre las filas de su tenant,
+    // por lo que el coste no depende del numero total de tenants
+    @Index(name = "idx_tenant_status", columnList = "tenant_id, status"),
+    @Index(name = "idx_tenant_priority", columnList = "tenant_id, priority"),
+    @Index(name = "idx_tenant_due_date", columnList = "tenant_id, due_date"),
+    // Localiza rapido las series recurrentes (pocas filas con recurrence_frequency no nulo)
+    @Index(name = "idx_tenant_recurrence", columnList = "tenant_id, recurrence_frequency"),
+}, uniqueConstraints = {
+    // Una ocurrencia de una serie solo se materializa una vez
+    // Incluye tenant_id: asi es valida tambien con la tabla particionada por tenant
+    // (db/partitioning) y sirve a las consultas, que siempre filtran por tenant
+    @UniqueConstraint(name = "uk_series_occurrence", columnNames = {"tenant_id", "series_id", "occurrence_date"})
 })
+/*
+ * Filtro de Hibernate por tenant
+ * TenantFilterAspect lo activa antes de cada consulta de TaskRepository,
+ * añadiendo "tenant_id = :tenantId" a la clausula WHERE
+ */
+@FilterDef(name = TenantContext.FILTER_NAME, parameters = @ParamDef(name = TenantContext.FILTER_PARAM, type = String.class))
+@Filter(name = TenantContext.FILTER_NAME, condition = "tenant_id = :" + TenantContext.FILTER_PARAM)
 @Getter // Lombok: genera getters automáticamente
 @Setter // Lombok: genera setters automáticamente
 @NoArgsConstructor // Lombok: genera constructor sin argumentos (requerido por JPA)
@@ -55,6 +84,19 @@ public class Task {
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-incremento de ID en BD
     private Long id;
 
+    /**
+     * Tenant (equipo) propietario de la tarea.
+     * 
+     * Lo asigna el servicio a partir de TenantContext, nunca el cliente:
+     * - @JsonIgnore: no se lee ni se escribe en el JSON
+     * - updatable = false: una tarea no puede cambiar de tenant
+     * - @ColumnDefault: las filas existentes pasan al tenant por defecto
+     */
+    @JsonIgnore
+    @ColumnDefault("'" + TenantContext.DEFAULT_TENANT + "'")
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     /**
      * Título de la tarea.
      * Validaciones:
@@ -136,6 +178,87 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Momento en que la tarea pasó por primera vez a IN_PROGRESS.
+     * Se usa para calcular el cycle time (inicio -> completada).
+     * Lo gestiona changeStatus(), no el cliente (solo lectura en JSON).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    /**
+     * Momento en que la tarea se completó.
+     * Se usa para calcular el lead time (creada -> completada).
+     * Si la tarea se reabre vuelve a ser null.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Posicion de la tarea dentro de su columna del tablero (Kanban).
+     * 
+     * Dentro de cada prioridad, las tareas se ordenan por este valor.
+     * Los valores dejan huecos (BOARD_RANK_GAP) entre tareas: mover una tarjeta
+     * solo cambia SU rango (punto medio entre sus vecinas), sin reescribir la columna.
+     * 
+     * Lo gestiona el servicio (solo lectura en JSON). Puede ser null en tareas
+     * antiguas: se ordenan al final hasta que se reordena la columna.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "board_rank")
+    private Long boardRank;
+
+    /**
+     * Regla de recurrencia (OPCIONAL).
+     * 
+     * Si existe, esta tarea define una serie: su dueDate es la primera ocurrencia
+     * y las demas se calculan al consultar, sin crear filas.
+     * Completar la tarea que define la serie termina la serie.
+     */
+    @Valid
+    @Embedded
+    private RecurrenceRule recurrence;
+
+    /**
+     * ID de la serie a la que pertenece esta ocurrencia (null si no es una ocurrencia).
+     * Solo existe fila para las ocurrencias modificadas o completadas.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "series_id", updatable = false)
+    private Long seriesId;
+
+    /**
+     * Fecha original de la ocurrencia dentro de la serie.
+     * No cambia aunque se modifique la fecha limite de la ocurrencia.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "occurrence_date", updatable = false)
+    private LocalDate occurrenceDate;
+
+
+    /**
+     * Separacion entre rangos consecutivos del tablero.
+     * 2^16 permite 16 movimientos entre las mismas dos tarjetas antes de
+     * tener que reordenar la columna.
+     */
+    public static final long BOARD_RANK_GAP = 1L << 16;
+
+    /**
+     * Las tareas nuevas se colocan al final de su prioridad en el tablero.
+     * 
+     * El rango se deriva del instante de creacion (no necesita consultar
+     * el maximo de la columna) y mantiene BOARD_RANK_GAP entre tareas
+     * creadas con un milisegundo de diferencia.
+     */
+    @PrePersist
+    void assignBoardRank() {
+        if (boardRank == null) {
+            boardRank = System.currentTimeMillis() * BOARD_RANK_GAP;
+        }
+    }
+
 
     // ========== MÉTODOS DE NEGOCIO ==========
     /*
@@ -165,12 +288,43 @@ public class Task {
         return dueDate != null && dueDate.equals(LocalDate.now());
     }
 
+    /**
+     * Verifica si la tarea define una serie recurrente.
+     * 
+     * @return true si tiene regla de recurrencia
+     */
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Crea la ocurrencia de esta serie para una fecha.
+     * 
+     * Copia titulo, descripcion y prioridad; la ocurrencia empieza PENDING
+     * con la fecha limite de ese dia. Hasta que se guarda no tiene ID
+     * (es una ocurrencia calculada, identificada por seriesId + occurrenceDate).
+     * 
+     * @param date Fecha de la ocurrencia
+     * @return Nueva tarea (sin persistir) que representa la ocurrencia
+     */
+    public Task occurrenceOn(LocalDate date) {
+        return Task.builder()
+            .tenantId(tenantId)
+            .title(title)
+            .description(description)
+            .priority(priority)
+            .dueDate(date)
+            .seriesId(id)
+            .occurrenceDate(date)
+            .build();
+    }
+
     /**
      * Cambia el estado de la tarea a "En Progreso".
      * Encapsula la lógica de cambio de estado.
      */
     public void markAsInProgress() {
-        this.status = Status.IN_PROGRESS;
+        changeStatus(Status.IN_PROGRESS);
     }
 
     /**
@@ -178,6 +332,26 @@ public class Task {
      * Encapsula la lógica de cambio de estado.
      */
     public void markAsCompleted() {
-        this.status = Status.COMPLETED;
+        changeStatus(Status.COMPLETED);
+    }
+
+    /**
+     * Cambia el estado de la tarea registrando los tiempos del flujo:
+     * - startedAt: la primera vez que pasa a IN_PROGRESS
+     * - completedAt: al pasar a COMPLETED (se borra si se reabre)
+     * 
+     * @param newStatus Nuevo estado
+     */
+    public void changeStatus(Status newStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        if (newStatus == Status.IN_PROGRESS && startedAt == null) {
+            startedAt = now;
+        }
+        if (newStatus == Status.COMPLETED && status != Status.COMPLETED) {
+            completedAt = now;
+        } else if (newStatus != Status.COMPLETED) {
+            completedAt = null;
+        }
+        this.status = newStatus;
     }
 }
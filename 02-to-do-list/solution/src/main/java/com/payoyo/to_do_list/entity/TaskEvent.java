@@ -0,0 +1,108 @@
+package com.payoyo.to_do_list.entity;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.entity.enums.TaskEventType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+ * Evento del historial de actividad de una tarea (append-only)
+ * 
+ * Se registra un evento por cada create, update, markAs* y delete.
+ * Los eventos nunca se modifican ni se borran: no hay setters y
+ * todas las columnas son updatable = false.
+ * 
+ * No tiene relacion JPA con Task a proposito: el historial debe
+ * sobrevivir al borrado de la tarea.
+ */
+@Entity
+@Table(name = "task_events", indexes = {
+    // timeline de una tarea: WHERE tenant_id = ? AND task_id = ? ORDER BY occurred_at
+    @Index(name = "idx_task_events_timeline", columnList = "tenant_id, task_id, occurred_at"),
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TaskEvent {
+
+    /**
+     * ID generado con SECUENCIA (no IDENTITY).
+     * Con IDENTITY Hibernate desactiva los inserts por lotes (JDBC batching),
+     * con una secuencia y allocationSize = 50 reserva 50 IDs por viaje a la BD.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_events_seq")
+    @SequenceGenerator(name = "task_events_seq", sequenceName = "task_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false, updatable = false)
+    private Long taskId;
+
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private TaskEventType type;
+
+    /**
+     * Estado anterior (null en CREATED)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", updatable = false, length = 20)
+    private Status fromStatus;
+
+    /**
+     * Estado nuevo (null en DELETED)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", updatable = false, length = 20)
+    private Status toStatus;
+
+    /**
+     * Momento del cambio (se toma en la peticion, no al escribir el lote)
+     */
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    /**
+     * Solo en la transicion a COMPLETED: segundos desde la creacion
+     */
+    @Column(name = "lead_time_seconds", updatable = false)
+    private Long leadTimeSeconds;
+
+    /**
+     * Solo en la transicion a COMPLETED: segundos desde que empezo (IN_PROGRESS)
+     */
+    @Column(name = "cycle_time_seconds", updatable = false)
+    private Long cycleTimeSeconds;
+
+    /**
+     * Copia del evento sin ID, para reintentar su escritura.
+     * Un persist fallido ya asigno el ID de la secuencia: reintentar con ese
+     * ID haria un merge (SELECT por evento y sin lotes) en lugar de un INSERT.
+     * 
+     * @return Evento nuevo con los mismos datos
+     */
+    public TaskEvent copyForRetry() {
+        return toBuilder().id(null).build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.payoyo.to_do_list.entity.enums;
+
+import java.time.temporal.ChronoUnit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Frecuencia de una tarea recurrente (equivalente al FREQ de RRULE)
+ * 
+ * unit: unidad de tiempo entre ocurrencias (multiplicada por el intervalo de la regla)
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RecurrenceFrequency {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS),
+    YEARLY(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+}
@@ -0,0 +1,8 @@
+package com.payoyo.to_do_list.entity.enums;
+
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,54 @@
+package com.payoyo.to_do_list.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.payoyo.to_do_list.dto.CompletionDurations;
+import com.payoyo.to_do_list.entity.TaskEvent;
+
+import jakarta.persistence.QueryHint;
+
+/*
+ * Repositorio del historial de eventos de tareas
+ * 
+ * Solo se usan inserts (saveAll por lotes) y lecturas:
+ * la tabla es append-only
+ */
+@Repository
+public interface TaskEventRepository extends JpaRepository<TaskEvent, Long> {
+
+    /*
+     * Timeline de una tarea en orden cronologico
+     * 
+     * El tenant se pasa explicitamente (el filtro de Hibernate solo se activa en TaskRepository)
+     * Usa el indice idx_task_events_timeline
+     * 
+     * @param tenantId -> Tenant actual
+     * @param taskId -> ID de la tarea
+     * @return Eventos de la tarea, del mas antiguo al mas reciente
+     */
+    List<TaskEvent> findByTenantIdAndTaskIdOrderByOccurredAtAscIdAsc(String tenantId, Long taskId);
+
+    /*
+     * Recorre las duraciones de todas las transiciones a COMPLETED sin cargarlas en una lista
+     * 
+     * Se usa al arrancar para reconstruir los percentiles en memoria.
+     * - Proyeccion (constructor JPQL): no se crean entidades gestionadas
+     * - fetch_size: el driver trae las filas en bloques de 1000
+     * 
+     * IMPORTANTE: el Stream debe consumirse dentro de una transaccion y cerrarse
+     * 
+     * @return Stream de duraciones (tenant, lead time, cycle time)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.payoyo.to_do_list.dto.CompletionDurations(e.tenantId, e.leadTimeSeconds, e.cycleTimeSeconds) " +
+           "FROM TaskEvent e WHERE e.type = com.payoyo.to_do_list.entity.enums.TaskEventType.STATUS_CHANGED " +
+           "AND e.toStatus = com.payoyo.to_do_list.entity.enums.Status.COMPLETED")
+    Stream<CompletionDurations> streamCompletionDurations();
+}
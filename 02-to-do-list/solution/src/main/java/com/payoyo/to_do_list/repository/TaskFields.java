@@ -0,0 +1,82 @@
+package com.payoyo.to_do_list.repository;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.payoyo.to_do_list.entity.Task;
+
+/*
+ * Campos de Task que se pueden pedir con ?fields=
+ * 
+ * Lista blanca compartida por:
+ * - TaskRepositoryCustomImpl: columnas del SELECT
+ * - El servicio: proyeccion de las ocurrencias calculadas de tareas
+ *   recurrentes (no vienen de la BD)
+ */
+public final class TaskFields {
+
+    /*
+     * Nombre del campo (atributo de Task, igual que en el JSON completo) -> getter
+     */
+    private static final Map<String, Function<Task, Object>> SELECTABLE = Map.ofEntries(
+        Map.entry("id", Task::getId),
+        Map.entry("title", Task::getTitle),
+        Map.entry("description", Task::getDescription),
+        Map.entry("status", Task::getStatus),
+        Map.entry("priority", Task::getPriority),
+        Map.entry("dueDate", Task::getDueDate),
+        Map.entry("createdAt", Task::getCreatedAt),
+        Map.entry("updatedAt", Task::getUpdatedAt),
+        Map.entry("startedAt", Task::getStartedAt),
+        Map.entry("completedAt", Task::getCompletedAt),
+        Map.entry("seriesId", Task::getSeriesId),
+        Map.entry("occurrenceDate", Task::getOccurrenceDate)
+    );
+
+    private TaskFields() {
+    }
+
+    /*
+     * Valida los campos contra la lista blanca (nunca se concatena
+     * texto del cliente en la consulta) y añade el id al principio
+     * 
+     * @param fields -> Campos pedidos
+     * @return Campos a devolver, en el orden solicitado
+     * @throws IllegalArgumentException si algun campo no existe
+     */
+    public static Set<String> resolve(Set<String> fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE.containsKey(name)) {
+                throw new IllegalArgumentException(
+                    "Campo desconocido: '" + name + "'. Campos permitidos: " + SELECTABLE.keySet());
+            }
+            columns.add(name);
+        }
+        return columns;
+    }
+
+    /*
+     * Proyecta una tarea ya cargada en memoria con los campos pedidos
+     * (mismo formato que las filas de findFields)
+     * 
+     * @param task -> Tarea a proyectar
+     * @param fields -> Campos pedidos
+     * @return Mapa campo -> valor
+     */
+    public static Map<String, Object> project(Task task, Set<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String column : resolve(fields)) {
+            row.put(column, SELECTABLE.get(column).apply(task));
+        }
+        return row;
+    }
+}
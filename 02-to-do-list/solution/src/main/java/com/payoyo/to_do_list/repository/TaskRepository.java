@@ -1,14 +1,23 @@
 package com.payoyo.to_do_list.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.payoyo.to_do_list.config.CacheConfig;
+import com.payoyo.to_do_list.dto.OccurrenceKey;
 import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.tenant.TenantContext;
+
+import jakarta.persistence.LockModeType;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import com.payoyo.to_do_list.entity.enums.Status;
 import com.payoyo.to_do_list.entity.enums.Priority;
 
@@ -23,9 +32,19 @@ import com.payoyo.to_do_list.entity.enums.Priority;
  * JpaRepository<Task, Long>:
  *  - Task: Tipo de entidad que maneja este repositorio
  *  - Long: Tipo de dato del ID de la entidad
+ * 
+ * Multi-tenant:
+ *  - Todas las consultas se filtran por tenant (ver TenantFilterAspect)
+ *  - Las claves de cache se prefijan con el tenant (TENANT_KEY)
+ * 
+ * Proyeccion dinamica (?fields=):
+ *  - findFields() viene de TaskRepositoryCustom (Criteria API, ver TaskSpecifications)
  */
 @Repository // Indica que es un componente de persitencia de Spring
-public interface TaskRepository extends JpaRepository<Task, Long>{
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    // Clave de cache aislada por tenant: "<tenant>:<argumento>"
+    String TENANT_KEY = "T(com.payoyo.to_do_list.tenant.TenantContext).scopedKey(#p0)";
     
     // ========== MÉTODOS HEREDADOS DE JpaRepository ==========
     // Ya disponibles sin necesidad de declararlos:
@@ -48,8 +67,11 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
      * SELECT * FROM tasks WHERE status = ?
      * 
      * @param status -> Estado a buscar (del enum)
+     * @Cacheable: El resultado se guarda en cache (clave = tenant + status)
+     * 
      * @return Lista de tareas con ese estado
      */
+    @Cacheable(cacheNames = CacheConfig.TASKS_BY_STATUS, key = TENANT_KEY)
     List<Task> findByStatus(Status status);
 
     /*
@@ -59,8 +81,11 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
      * SELECT * FROM tasks WHERE priority = ?
      * 
      * @param priority -> Prioridad a buscar
+     * @Cacheable: El resultado se guarda en cache (clave = tenant + priority)
+     * 
      * @return Lista de tareas con esa prioridad
      */
+    @Cacheable(cacheNames = CacheConfig.TASKS_BY_PRIORITY, key = TENANT_KEY)
     List<Task> findByPriority(Priority priority);
 
     /*
@@ -97,11 +122,15 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
      * Ver todas las tareas que vencen esta semana
      * findByDueDateBetween(hoy, hoy.plusDays(7))
      * 
+     * Excluye las tareas que definen una serie recurrente: sus ocurrencias
+     * las calcula TaskOccurrenceExpander
+     * 
      * @param startDate -> Fecha inicial (inclusiva)
      * @param endDate -> Fecha inicial (inclusiva)
      * @return Lista de tareas en ese rango de fechas
      */
-    List<Task> findByDueDateBetween(LocalDate startDate, LocalDate endDate);
+    @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :startDate AND :endDate AND t.recurrence.frequency IS NULL")
+    List<Task> findByDueDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     /*
      * Busca tareas con una fecha limite exacta
@@ -137,10 +166,15 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
      * 
      * @Param("today"): Vincula el parámetro del método con :today en la query
      * 
+     * Las series recurrentes se excluyen (su dueDate es solo el inicio de la serie)
+     * 
      * @param today -> Fecha actual para comparar
+     * @Cacheable: El resultado se guarda en cache (clave = tenant + today)
+     * 
      * @return Lista de tareas vencidas
      */
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :today AND t.status != 'COMPLETED'")
+    @Cacheable(cacheNames = CacheConfig.OVERDUE_TASKS, key = TENANT_KEY)
+    @Query("SELECT t FROM Task t WHERE t.dueDate < :today AND t.status != 'COMPLETED' AND t.recurrence.frequency IS NULL")
     List<Task> findOverdueTasks(@Param("today") LocalDate today);
 
     /*
@@ -151,7 +185,7 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
      * @param today -> Fecha actual
      * @return Lista de tareas que vencen hoy
      */
-    @Query("SELECT t FROM Task t WHERE t.dueDate = :today AND t.status != 'COMPLETED'")
+    @Query("SELECT t FROM Task t WHERE t.dueDate = :today AND t.status != 'COMPLETED' AND t.recurrence.frequency IS NULL")
     List<Task> findTasksDueToday(@Param("today") LocalDate today);
 
     /*
@@ -193,9 +227,137 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
      * - countByStatus(COMPLETED) -> Cuantas tareas completadas hay?
      * 
      * @param status -> Estado a contar
+     * @Cacheable: El resultado se guarda en cache (clave = tenant + status)
+     * 
      * @return Numero de tareas con ese estado
      */
+    @Cacheable(cacheNames = CacheConfig.TASK_COUNT_BY_STATUS, key = TENANT_KEY)
     Long countByStatus(Status status);
 
+    // ========== TABLERO (KANBAN) ==========
+    /*
+     * Orden de las tarjetas dentro de una columna del tablero:
+     * prioridad (HIGH -> LOW), rango manual, fecha limite y, por ultimo, id
+     */
+
+    /*
+     * Las tres columnas del tablero en UNA sola consulta
+     * 
+     * ROW_NUMBER() OVER (PARTITION BY status ...) numera las tareas de cada
+     * columna en el orden del tablero; el WHERE externo se queda con las
+     * primeras :laneLimit de cada una. El limite se aplica en la BD, no se
+     * transfieren columnas completas para recortarlas en Java
+     * 
+     * Las series recurrentes no aparecen como tarjeta (si sus ocurrencias materializadas)
+     * 
+     * IMPORTANTE: Los filtros de Hibernate NO se aplican a consultas nativas,
+     * por eso el tenant se pasa como parametro explicito
+     * 
+     * @param tenantId -> Tenant actual
+     * @param laneLimit -> Maximo de tareas por columna
+     * @return Tareas de todas las columnas, agrupadas por estado y en orden del tablero
+     */
+    @Query(nativeQuery = true, value =
+        "SELECT * FROM (" +
+        "  SELECT t.*, ROW_NUMBER() OVER (" +
+        "    PARTITION BY t.status" +
+        "    ORDER BY CASE t.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END," +
+        "             t.board_rank NULLS LAST, t.due_date NULLS LAST, t.id" +
+        "  ) AS lane_position" +
+        "  FROM tasks t WHERE t.tenant_id = :tenantId AND t.recurrence_frequency IS NULL" +
+        ") lanes WHERE lanes.lane_position <= :laneLimit " +
+        "ORDER BY lanes.status, lanes.lane_position")
+    List<Task> findBoardLanes(@Param("tenantId") String tenantId, @Param("laneLimit") int laneLimit);
+
+    /*
+     * Columna completa en orden del tablero
+     * 
+     * Solo se usa para reasignar rangos cuando se agota el hueco entre
+     * dos tarjetas (caso poco frecuente)
+     * 
+     * Mismas tareas que findBoardLanes: sin las series recurrentes, que no
+     * son tarjetas del tablero
+     * 
+     * @param status -> Columna (estado)
+     * @return Tareas de la columna en orden del tablero
+     */
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.recurrence.frequency IS NULL ORDER BY " +
+           "CASE t.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END, " +
+           "t.boardRank NULLS LAST, t.dueDate NULLS LAST, t.id")
+    List<Task> findLaneInBoardOrder(@Param("status") Status status);
+
+    // ========== TAREAS RECURRENTES ==========
+
+    /*
+     * Series recurrentes con posibles ocurrencias en un rango
+     * 
+     * - La serie ya ha empezado antes del fin del rango (dueDate <= :to)
+     * - No ha terminado antes del inicio del rango (until)
+     * - No esta completada (completar la serie la termina)
+     * 
+     * Usa el indice idx_tenant_recurrence
+     * 
+     * @param from -> Inicio del rango
+     * @param to -> Fin del rango
+     * @return Tareas que definen series activas en el rango
+     */
+    @Query("SELECT t FROM Task t WHERE t.recurrence.frequency IS NOT NULL " +
+           "AND t.status != 'COMPLETED' AND t.dueDate <= :to " +
+           "AND (t.recurrence.until IS NULL OR t.recurrence.until >= :from)")
+    List<Task> findActiveSeries(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /*
+     * Ocurrencias ya materializadas (con fila propia) de unas series en un rango
+     * 
+     * Solo se leen dos columnas: se usan para NO calcular otra vez esas ocurrencias
+     * (aunque se les haya cambiado la fecha limite a otra fuera del rango)
+     * 
+     * Usa el indice unico uk_series_occurrence
+     * 
+     * @param seriesIds -> IDs de las series
+     * @param from -> Inicio del rango (fecha original de la ocurrencia)
+     * @param to -> Fin del rango
+     * @return Claves (serie, fecha) de las ocurrencias materializadas
+     */
+    @Query("SELECT new com.payoyo.to_do_list.dto.OccurrenceKey(t.seriesId, t.occurrenceDate) FROM Task t " +
+           "WHERE t.seriesId IN :seriesIds AND t.occurrenceDate BETWEEN :from AND :to")
+    List<OccurrenceKey> findMaterializedOccurrences(
+        @Param("seriesIds") Collection<Long> seriesIds,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /*
+     * Busca la fila de una ocurrencia concreta (si ya se materializo)
+     * 
+     * @param seriesId -> ID de la serie
+     * @param occurrenceDate -> Fecha original de la ocurrencia
+     * @return La ocurrencia materializada, si existe
+     */
+    Optional<Task> findBySeriesIdAndOccurrenceDate(Long seriesId, LocalDate occurrenceDate);
+
+    /*
+     * Ocurrencias materializadas de una serie (para borrarlas con ella)
+     * 
+     * @param seriesId -> ID de la serie
+     * @return Filas de las ocurrencias modificadas o completadas
+     */
+    List<Task> findBySeriesId(Long seriesId);
+
+    /*
+     * Carga una tarea bloqueando su fila hasta el commit (SELECT ... FOR UPDATE)
+     * 
+     * Se usa con las series recurrentes: materializar una ocurrencia o borrar
+     * la serie bloquea antes la fila de la serie, asi dos peticiones sobre la
+     * misma serie se ejecutan una detras de otra y la segunda ya ve lo que
+     * hizo la primera (no se crean ocurrencias duplicadas ni huerfanas)
+     * 
+     * @param id -> ID de la tarea
+     * @return La tarea bloqueada, si existe en el tenant actual
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") Long id);
+
 
 }
@@ -0,0 +1,33 @@
+package com.payoyo.to_do_list.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.payoyo.to_do_list.entity.Task;
+
+/*
+ * Consultas de TaskRepository que Spring Data no puede generar por nomenclatura
+ * 
+ * TaskRepository extiende esta interfaz y Spring combina automaticamente
+ * los metodos generados con la implementacion de TaskRepositoryCustomImpl
+ */
+public interface TaskRepositoryCustom {
+
+    /*
+     * Busca tareas leyendo SOLO las columnas pedidas
+     * 
+     * El SELECT se construye con las columnas solicitadas (no se carga la entidad),
+     * asi una lista que no pide "description" no lee ni transfiere los 500 caracteres
+     * 
+     * El id se incluye siempre (lo necesita el cliente para enlazar con la tarea)
+     * 
+     * @param fields -> Campos a devolver (ver TaskFields)
+     * @param filter -> Condicion WHERE (ver TaskSpecifications)
+     * @return Una fila por tarea con solo los campos pedidos, en el orden solicitado
+     * @throws IllegalArgumentException si algun campo no existe
+     */
+    List<Map<String, Object>> findFields(Set<String> fields, Specification<Task> filter);
+}
@@ -0,0 +1,64 @@
+package com.payoyo.to_do_list.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.payoyo.to_do_list.entity.Task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/*
+ * Implementacion de las consultas personalizadas de TaskRepository
+ * 
+ * Usa Criteria API con Tuple para construir el SELECT en tiempo de ejecucion:
+ * 
+ * ?fields=title,status ->
+ * SELECT t.id, t.title, t.status FROM tasks t WHERE ... AND tenant_id = ?
+ * 
+ * El nombre (NombreDelRepositorio + "Custom" + "Impl") es el que Spring Data
+ * busca para asociarla a TaskRepositoryCustom
+ */
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<String> fields, Specification<Task> filter) {
+        Set<String> columns = TaskFields.resolve(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            selections.add(root.get(column).alias(column));
+        }
+        query.multiselect(selections);
+        query.where(filter.toPredicate(root, query, cb));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : columns) {
+                row.put(column, tuple.get(column));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
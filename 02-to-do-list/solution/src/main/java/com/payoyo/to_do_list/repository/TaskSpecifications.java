@@ -0,0 +1,99 @@
+package com.payoyo.to_do_list.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.entity.enums.Status;
+
+/*
+ * Condiciones WHERE reutilizables para consultas con Criteria API
+ * 
+ * Son el equivalente de los query methods de TaskRepository
+ * (findByStatus, findOverdueTasks...) para las consultas con
+ * proyeccion dinamica de columnas (ver TaskRepositoryCustom)
+ * 
+ * El filtro de tenant NO hace falta aqui: lo añade Hibernate
+ * (TenantFilterAspect) igual que en el resto de consultas
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /*
+     * Sin condiciones (todas las tareas del tenant)
+     */
+    public static Specification<Task> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    /*
+     * Excluye las tareas que definen una serie recurrente
+     * (sus ocurrencias se calculan aparte, ver TaskOccurrenceExpander)
+     */
+    public static Specification<Task> notSeries() {
+        return (root, query, cb) -> cb.isNull(root.get("recurrence").get("frequency"));
+    }
+
+    /*
+     * WHERE id = :id
+     */
+    public static Specification<Task> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    /*
+     * WHERE status = :status
+     */
+    public static Specification<Task> hasStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /*
+     * WHERE priority = :priority
+     */
+    public static Specification<Task> hasPriority(Priority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    /*
+     * WHERE due_date BETWEEN :startDate AND :endDate
+     */
+    public static Specification<Task> dueBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> cb.between(root.get("dueDate"), startDate, endDate);
+    }
+
+    /*
+     * Tareas vencidas: due_date < :today AND status != 'COMPLETED'
+     */
+    public static Specification<Task> overdue(LocalDate today) {
+        return (root, query, cb) -> cb.and(
+            cb.lessThan(root.get("dueDate"), today),
+            cb.notEqual(root.get("status"), Status.COMPLETED));
+    }
+
+    /*
+     * Tareas que vencen hoy: due_date = :today AND status != 'COMPLETED'
+     */
+    public static Specification<Task> dueOn(LocalDate today) {
+        return (root, query, cb) -> cb.and(
+            cb.equal(root.get("dueDate"), today),
+            cb.notEqual(root.get("status"), Status.COMPLETED));
+    }
+
+    /*
+     * Busqueda case-insensitive en titulo o descripcion
+     * (misma logica que searchByTitleOrDescription)
+     */
+    public static Specification<Task> matches(String searchTerm) {
+        return (root, query, cb) -> {
+            String pattern = "%" + searchTerm.toLowerCase() + "%";
+            return cb.or(
+                cb.like(cb.lower(root.get("title")), pattern),
+                cb.like(cb.lower(root.get("description")), pattern));
+        };
+    }
+}
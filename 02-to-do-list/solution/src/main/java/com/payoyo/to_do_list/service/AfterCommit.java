@@ -0,0 +1,30 @@
+package com.payoyo.to_do_list.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Utilidad para ejecutar acciones DESPUES del commit de la transaccion actual
+ *
+ * Se usa para efectos secundarios que solo deben ocurrir si la escritura
+ * se confirma (invalidar cache, registrar eventos de auditoria...)
+ * Si no hay transaccion activa la accion se ejecuta inmediatamente
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
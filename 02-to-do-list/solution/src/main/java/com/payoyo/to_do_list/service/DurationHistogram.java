@@ -0,0 +1,82 @@
+package com.payoyo.to_do_list.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+
+/*
+ * Histograma de duraciones con cubetas logaritmicas
+ *
+ * Permite calcular percentiles de forma incremental:
+ * - record(): O(1), sin bloqueos (contadores atomicos)
+ * - percentiles(): O(numero de cubetas), independiente del numero de tareas
+ * - Memoria fija (~4 KB) aunque haya millones de tareas completadas
+ *
+ * Cada cubeta cubre un rango un 4% mas ancho que la anterior, asi que el
+ * percentil devuelto tiene un error relativo maximo del 4%
+ * (suficiente para metricas de lead/cycle time)
+ */
+class DurationHistogram {
+
+    // Crecimiento de cada cubeta respecto a la anterior
+    private static final double GROWTH = 1.04;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    // 520 cubetas cubren hasta ~2e9 segundos (mas de 60 años)
+    private static final int BUCKETS = 520;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /*
+     * Registra una duracion
+     *
+     * @param seconds -> Duracion en segundos (los negativos se tratan como 0)
+     */
+    void record(long seconds) {
+        counts.incrementAndGet(bucketOf(Math.max(0, seconds)));
+    }
+
+    /*
+     * Calcula los percentiles 50, 75, 90 y 99
+     *
+     * @return Percentiles (valores null si no hay datos)
+     */
+    CycleTimeReport.Percentiles percentiles() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return new CycleTimeReport.Percentiles(0, null, null, null, null);
+        }
+        return new CycleTimeReport.Percentiles(count,
+            valueAt(snapshot, count, 0.50),
+            valueAt(snapshot, count, 0.75),
+            valueAt(snapshot, count, 0.90),
+            valueAt(snapshot, count, 0.99));
+    }
+
+    private static Long valueAt(long[] snapshot, long count, double percentile) {
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private static int bucketOf(long seconds) {
+        int bucket = (int) (Math.log1p(seconds) / LOG_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    // Mayor duracion (en segundos) que cae en la cubeta
+    private static long upperBound(int bucket) {
+        return (long) Math.floor(Math.expm1((bucket + 1) * LOG_GROWTH));
+    }
+}
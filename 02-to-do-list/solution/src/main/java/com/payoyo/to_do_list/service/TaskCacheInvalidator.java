@@ -0,0 +1,88 @@
+package com.payoyo.to_do_list.service;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.payoyo.to_do_list.config.CacheConfig;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.tenant.TenantContext;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Invalidacion precisa de la cache de consultas de TaskRepository
+ *
+ * En lugar de vaciar todas las caches en cada escritura, solo se eliminan
+ * las claves que pueden contener la tarea modificada:
+ * - tasksByStatus / taskCountByStatus -> estado anterior y estado nuevo
+ * - tasksByPriority -> prioridad anterior y prioridad nueva
+ * - overdueTasks -> clave del dia actual (las de dias anteriores caducan por TTL)
+ *
+ * Todas las claves llevan el tenant como prefijo (TenantContext.scopedKey),
+ * asi una escritura de un equipo no invalida la cache de los demas
+ *
+ * IMPORTANTE: La invalidacion se ejecuta DESPUES del commit de la transaccion.
+ * Si se hiciera antes, una lectura concurrente podria volver a cachear
+ * los datos antiguos antes de que la escritura sea visible.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    /*
+     * Invalida las entradas afectadas por un cambio en una tarea
+     *
+     * @param oldStatus -> Estado antes del cambio (null si la tarea es nueva)
+     * @param newStatus -> Estado despues del cambio (null si se elimina)
+     * @param oldPriority -> Prioridad antes del cambio (null si la tarea es nueva)
+     * @param newPriority -> Prioridad despues del cambio (null si se elimina)
+     */
+    public void taskChanged(Status oldStatus, Status newStatus, Priority oldPriority, Priority newPriority) {
+        // el tenant se captura ahora: afterCommit podria ejecutarse con el contexto ya limpio
+        String tenantId = TenantContext.getTenantId();
+        AfterCommit.run(() -> {
+            evict(CacheConfig.TASKS_BY_STATUS, tenantId, oldStatus, newStatus);
+            evict(CacheConfig.TASK_COUNT_BY_STATUS, tenantId, oldStatus, newStatus);
+            evict(CacheConfig.TASKS_BY_PRIORITY, tenantId, oldPriority, newPriority);
+            evict(CacheConfig.OVERDUE_TASKS, tenantId, LocalDate.now());
+            log.debug("Cache invalidada para estados {}/{} y prioridades {}/{}", oldStatus, newStatus, oldPriority, newPriority);
+        });
+    }
+
+    /*
+     * Invalida las entradas afectadas al reasignar los rangos de una columna
+     * del tablero: cambian tareas de ese estado con cualquier prioridad
+     *
+     * @param status -> Columna reordenada
+     */
+    public void laneRebalanced(Status status) {
+        String tenantId = TenantContext.getTenantId();
+        AfterCommit.run(() -> {
+            evict(CacheConfig.TASKS_BY_STATUS, tenantId, status);
+            evict(CacheConfig.TASKS_BY_PRIORITY, tenantId, (Object[]) Priority.values());
+            evict(CacheConfig.OVERDUE_TASKS, tenantId, LocalDate.now());
+            log.debug("Cache invalidada por reordenacion de la columna {}", status);
+        });
+    }
+
+    private void evict(String cacheName, String tenantId, Object... keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        Stream.of(keys)
+            .filter(Objects::nonNull)
+            .distinct()
+            .forEach(key -> cache.evict(tenantId + ":" + key));
+    }
+}
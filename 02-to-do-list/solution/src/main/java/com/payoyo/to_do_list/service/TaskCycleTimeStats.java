@@ -0,0 +1,83 @@
+package com.payoyo.to_do_list.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.payoyo.to_do_list.dto.CompletionDurations;
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+import com.payoyo.to_do_list.entity.TaskEvent;
+import com.payoyo.to_do_list.repository.TaskEventRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Percentiles de lead time y cycle time calculados de forma incremental
+ *
+ * - Cada tenant tiene dos histogramas (lead y cycle) en memoria
+ * - Se actualizan cuando TaskEventRecorder guarda un evento de completado
+ * - Al arrancar se reconstruyen recorriendo el historial una sola vez (streaming)
+ *
+ * Consultar los percentiles nunca recorre la tabla de eventos
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCycleTimeStats {
+
+    private final TaskEventRepository taskEventRepository;
+
+    private final Map<String, TenantHistograms> histograms = new ConcurrentHashMap<>();
+
+    /*
+     * Reconstruye los histogramas a partir del historial guardado
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadHistory() {
+        try (Stream<CompletionDurations> completions = taskEventRepository.streamCompletionDurations()) {
+            completions.forEach(c -> add(c.tenantId(), c.leadTimeSeconds(), c.cycleTimeSeconds()));
+        }
+        log.info("Percentiles de lead/cycle time cargados para {} tenants", histograms.size());
+    }
+
+    /*
+     * Actualiza los histogramas con un evento recien guardado
+     * (solo cuenta si es un completado con duraciones)
+     */
+    void onEventStored(TaskEvent event) {
+        if (event.getLeadTimeSeconds() != null || event.getCycleTimeSeconds() != null) {
+            add(event.getTenantId(), event.getLeadTimeSeconds(), event.getCycleTimeSeconds());
+        }
+    }
+
+    /*
+     * @param tenantId -> Tenant a consultar
+     * @return Percentiles de lead time y cycle time del tenant
+     */
+    public CycleTimeReport report(String tenantId) {
+        TenantHistograms tenant = histograms.getOrDefault(tenantId, new TenantHistograms());
+        return new CycleTimeReport(tenant.lead.percentiles(), tenant.cycle.percentiles());
+    }
+
+    private void add(String tenantId, Long leadTimeSeconds, Long cycleTimeSeconds) {
+        TenantHistograms tenant = histograms.computeIfAbsent(tenantId, id -> new TenantHistograms());
+        if (leadTimeSeconds != null) {
+            tenant.lead.record(leadTimeSeconds);
+        }
+        if (cycleTimeSeconds != null) {
+            tenant.cycle.record(cycleTimeSeconds);
+        }
+    }
+
+    private static final class TenantHistograms {
+        private final DurationHistogram lead = new DurationHistogram();
+        private final DurationHistogram cycle = new DurationHistogram();
+    }
+}
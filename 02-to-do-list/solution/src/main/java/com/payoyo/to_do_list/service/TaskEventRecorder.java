@@ -0,0 +1,195 @@
+package com.payoyo.to_do_list.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.TaskEvent;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.entity.enums.TaskEventType;
+import com.payoyo.to_do_list.repository.TaskEventRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Registro asincrono del historial de eventos de tareas
+ *
+ * Objetivo: que escribir el historial NO añada latencia a los endpoints de escritura
+ *
+ * Flujo:
+ * 1. El servicio llama a record() dentro de su transaccion
+ * 2. Tras el commit, el evento se encola en memoria (offer, no bloquea)
+ * 3. Un hilo del scheduler vacia la cola cada flush-interval-ms y
+ *    persiste los eventos por lotes (saveAll + hibernate.jdbc.batch_size)
+ * 4. Los eventos de completado actualizan los percentiles de TaskCycleTimeStats
+ *
+ * Si la cola esta llena (BD caida mucho tiempo) el evento se descarta y se
+ * registra un warning: se prioriza la disponibilidad de la API
+ *
+ * Si un lote falla:
+ * - Error transitorio (BD caida, timeout): el lote vuelve a la cola y se
+ *   reintenta en el siguiente vaciado
+ * - Cualquier otro error: se guardan los eventos uno a uno para aislar el
+ *   evento que falla, que se descarta (contador "dropped"); el resto se guarda
+ */
+@Component
+@Slf4j
+public class TaskEventRecorder {
+
+    private final TaskEventRepository taskEventRepository;
+    private final TaskCycleTimeStats cycleTimeStats;
+    private final BlockingQueue<TaskEvent> queue;
+    private final int batchSize;
+    private final LongAdder dropped = new LongAdder();
+
+    public TaskEventRecorder(
+        TaskEventRepository taskEventRepository,
+        TaskCycleTimeStats cycleTimeStats,
+        @Value("${tasks.events.queue-capacity:100000}") int queueCapacity,
+        @Value("${tasks.events.batch-size:500}") int batchSize
+    ) {
+        this.taskEventRepository = taskEventRepository;
+        this.cycleTimeStats = cycleTimeStats;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    /*
+     * Registra un evento de la tarea (se encola tras el commit)
+     *
+     * Si el evento es la transicion a COMPLETED se calculan lead time y cycle time
+     * a partir de createdAt, startedAt y completedAt de la tarea
+     *
+     * @param task -> Tarea afectada (estado ya actualizado)
+     * @param type -> Tipo de evento
+     * @param fromStatus -> Estado anterior (null en CREATED)
+     * @param toStatus -> Estado nuevo (null en DELETED)
+     */
+    public void record(Task task, TaskEventType type, Status fromStatus, Status toStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        TaskEvent.TaskEventBuilder event = TaskEvent.builder()
+            .taskId(task.getId())
+            .tenantId(task.getTenantId())
+            .type(type)
+            .fromStatus(fromStatus)
+            .toStatus(toStatus)
+            .occurredAt(now);
+
+        if (type == TaskEventType.STATUS_CHANGED && toStatus == Status.COMPLETED) {
+            LocalDateTime completedAt = task.getCompletedAt() != null ? task.getCompletedAt() : now;
+            if (task.getCreatedAt() != null) {
+                event.leadTimeSeconds(Duration.between(task.getCreatedAt(), completedAt).toSeconds());
+            }
+            if (task.getStartedAt() != null) {
+                event.cycleTimeSeconds(Duration.between(task.getStartedAt(), completedAt).toSeconds());
+            }
+        }
+
+        TaskEvent built = event.build();
+        AfterCommit.run(() -> enqueue(built));
+    }
+
+    private void enqueue(TaskEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+            log.warn("Cola de eventos llena, evento descartado (tarea {}, total descartados: {})",
+                event.getTaskId(), dropped.sum());
+        }
+    }
+
+    /*
+     * Persiste los eventos pendientes por lotes
+     *
+     * fixedDelay: el siguiente vaciado empieza cuando termina el anterior
+     * (nunca hay dos vaciados concurrentes)
+     */
+    @Scheduled(fixedDelayString = "${tasks.events.flush-interval-ms:500}")
+    public void flush() {
+        List<TaskEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                // saveAll se ejecuta en una sola transaccion; Hibernate agrupa los INSERT en lotes JDBC
+                taskEventRepository.saveAll(batch);
+                batch.forEach(cycleTimeStats::onEventStored);
+            } catch (RuntimeException ex) {
+                if (isTransient(ex)) {
+                    log.error("No se pudieron guardar {} eventos de tareas, se reintentara", batch.size(), ex);
+                    requeue(batch);
+                    return;
+                }
+                log.warn("Fallo al guardar un lote de {} eventos, se guardaran uno a uno", batch.size(), ex);
+                if (!saveOneByOne(batch)) {
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /*
+     * Guarda los eventos de un lote fallido de uno en uno y descarta los que fallan
+     *
+     * @param batch -> Eventos del lote
+     * @return false si la BD dejo de responder (los eventos pendientes vuelven a la cola)
+     */
+    private boolean saveOneByOne(List<TaskEvent> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            TaskEvent event = batch.get(i).copyForRetry();
+            try {
+                taskEventRepository.save(event);
+                cycleTimeStats.onEventStored(event);
+            } catch (RuntimeException ex) {
+                if (isTransient(ex)) {
+                    log.error("No se pudieron guardar {} eventos de tareas, se reintentara", batch.size() - i, ex);
+                    requeue(batch.subList(i, batch.size()));
+                    return false;
+                }
+                dropped.increment();
+                log.error("Evento descartado, no se puede guardar (tarea {}, tipo {}, total descartados: {})",
+                    event.getTaskId(), event.getType(), dropped.sum(), ex);
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Devuelve eventos a la cola como copias sin ID: el reintento vuelve a ser
+     * un INSERT por lotes
+     */
+    private void requeue(List<TaskEvent> events) {
+        events.forEach(event -> enqueue(event.copyForRetry()));
+    }
+
+    /*
+     * Errores que no dependen del evento (conexion, timeout, bloqueo):
+     * reintentar mas tarde puede funcionar
+     */
+    private static boolean isTransient(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+            || ex instanceof RecoverableDataAccessException
+            || ex instanceof DataAccessResourceFailureException
+            || ex instanceof CannotCreateTransactionException;
+    }
+
+    /*
+     * Al parar la aplicacion se guardan los eventos que queden en la cola
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
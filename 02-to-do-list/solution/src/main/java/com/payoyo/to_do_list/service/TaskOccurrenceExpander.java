@@ -0,0 +1,93 @@
+package com.payoyo.to_do_list.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.payoyo.to_do_list.dto.OccurrenceKey;
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.repository.TaskRepository;
+
+/*
+ * Calcula las ocurrencias de las tareas recurrentes dentro de un rango de fechas
+ *
+ * Las ocurrencias no se guardan: la tabla crece con las modificaciones,
+ * no con el horizonte del calendario
+ *
+ * Flujo (2 consultas, independientes del numero de ocurrencias):
+ * 1. Series activas en el rango (findActiveSeries)
+ * 2. Ocurrencias de esas series que ya tienen fila (findMaterializedOccurrences)
+ * 3. Para cada serie se generan en memoria las fechas del rango que no tienen fila
+ *
+ * Las ocurrencias calculadas son tareas PENDING sin ID, identificadas por
+ * seriesId + occurrenceDate
+ */
+@Component
+public class TaskOccurrenceExpander {
+
+    private final TaskRepository taskRepository;
+    private final int overdueLookbackDays;
+    private final int maxOccurrences;
+
+    public TaskOccurrenceExpander(
+        TaskRepository taskRepository,
+        @Value("${tasks.recurrence.overdue-lookback-days:30}") int overdueLookbackDays,
+        @Value("${tasks.recurrence.max-occurrences:1000}") int maxOccurrences
+    ) {
+        this.taskRepository = taskRepository;
+        this.overdueLookbackDays = overdueLookbackDays;
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    /*
+     * Ocurrencias pendientes con fecha dentro del rango
+     *
+     * @param from -> Inicio del rango (inclusivo)
+     * @param to -> Fin del rango (inclusivo)
+     * @return Ocurrencias calculadas (sin persistir)
+     * @throws IllegalArgumentException si el rango genera mas de max-occurrences ocurrencias
+     */
+    public List<Task> between(LocalDate from, LocalDate to) {
+        List<Task> series = taskRepository.findActiveSeries(from, to);
+        if (series.isEmpty()) {
+            return List.of();
+        }
+
+        Set<OccurrenceKey> materialized = new HashSet<>(taskRepository.findMaterializedOccurrences(
+            series.stream().map(Task::getId).toList(), from, to));
+
+        List<Task> occurrences = new ArrayList<>();
+        for (Task task : series) {
+            int remaining = maxOccurrences - occurrences.size();
+            List<LocalDate> dates = task.getRecurrence().occurrencesBetween(task.getDueDate(), from, to, remaining + 1);
+            if (dates.size() > remaining) {
+                throw new IllegalArgumentException(
+                    "El rango genera mas de " + maxOccurrences + " ocurrencias de tareas recurrentes, reduce el rango");
+            }
+            for (LocalDate date : dates) {
+                if (!materialized.contains(new OccurrenceKey(task.getId(), date))) {
+                    occurrences.add(task.occurrenceOn(date));
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /*
+     * Ocurrencias vencidas: pendientes con fecha anterior a hoy
+     *
+     * Solo se miran los ultimos overdue-lookback-days dias: sin limite, una serie
+     * diaria antigua generaria miles de ocurrencias vencidas en cada consulta
+     *
+     * @param today -> Fecha actual
+     * @return Ocurrencias vencidas calculadas
+     */
+    public List<Task> overdue(LocalDate today) {
+        return between(today.minusDays(overdueLookbackDays), today.minusDays(1));
+    }
+}
@@ -2,8 +2,14 @@ package com.payoyo.to_do_list.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.payoyo.to_do_list.dto.BoardMoveRequest;
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+import com.payoyo.to_do_list.dto.TaskBoard;
 import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.TaskEvent;
 import com.payoyo.to_do_list.entity.enums.Priority;
 import com.payoyo.to_do_list.entity.enums.Status;
 import com.payoyo.to_do_list.exceptions.TaskNotFoundException;
@@ -85,6 +91,8 @@ public interface TaskService {
     /*
      * Elimina una tarea por su ID
      * 
+     * Si define una serie recurrente se eliminan tambien sus ocurrencias materializadas
+     * 
      * @param id -> ID de la tarea a eliminar
      * @throws TaskNotFoundException si no existe la tarea con ese ID
      */
@@ -241,5 +249,127 @@ public interface TaskService {
      * @return Número de tareas con ese estado
      */
     Long countByStatus(Status status);
+
+
+    // ========== HISTORIAL DE ACTIVIDAD ==========
+
+    /**
+     * Obtiene el historial de eventos de una tarea (creacion, cambios, borrado).
+     * 
+     * Caso de uso:
+     * - Ver cuando cambio de estado una tarea
+     * - Auditoria
+     * 
+     * @param id ID de la tarea
+     * @return Eventos en orden cronologico
+     */
+    List<TaskEvent> getTaskTimeline(Long id);
+
+    /**
+     * Obtiene los percentiles de lead time y cycle time.
+     * 
+     * - Lead time: creacion -> completada
+     * - Cycle time: inicio (IN_PROGRESS) -> completada
+     * 
+     * @return Percentiles p50/p75/p90/p99 en segundos
+     */
+    CycleTimeReport getCycleTimeReport();
+
+
+    // ========== TABLERO (KANBAN) ==========
+
+    /**
+     * Obtiene el tablero con las tres columnas (una por estado)
+     * 
+     * Cada columna se ordena por prioridad, rango manual y fecha limite,
+     * y se recorta a laneLimit tareas en la propia consulta
+     * 
+     * @param laneLimit Maximo de tareas por columna (1-200)
+     * @return Tablero con las columnas PENDING, IN_PROGRESS y COMPLETED
+     * @throws IllegalArgumentException si el limite esta fuera de rango
+     */
+    TaskBoard getBoard(int laneLimit);
+
+    /**
+     * Mueve una tarjeta del tablero (drag and drop)
+     * 
+     * Cambia el estado si la columna destino es otra y coloca la tarea
+     * entre sus nuevas vecinas actualizando solo su rango
+     * 
+     * Las columnas se ordenan por prioridad: la tarea solo se puede mover
+     * dentro del grupo de su prioridad
+     * 
+     * @param id ID de la tarea a mover
+     * @param move Columna destino y tarjetas vecinas
+     * @return Tarea movida
+     * @throws TaskNotFoundException si no existe la tarea o alguna vecina
+     * @throws IllegalArgumentException si las vecinas no estan en la columna destino
+     *         o la posicion rompe el orden por prioridad
+     */
+    Task moveOnBoard(Long id, BoardMoveRequest move);
+
+
+    // ========== TAREAS RECURRENTES ==========
+    /*
+     * Las ocurrencias de una serie se calculan al consultar (rango de fechas,
+     * vencen hoy, vencidas) y no tienen ID. Se identifican por la serie y la fecha
+     */
+
+    /**
+     * Completa una ocurrencia de una serie recurrente
+     * 
+     * @param seriesId ID de la tarea que define la serie
+     * @param occurrenceDate Fecha de la ocurrencia
+     * @return Ocurrencia completada (con ID propio)
+     * @throws TaskNotFoundException si la serie no existe
+     * @throws IllegalArgumentException si la tarea no es recurrente o no tiene ocurrencia ese dia
+     */
+    Task completeOccurrence(Long seriesId, LocalDate occurrenceDate);
+
+    /**
+     * Modifica una ocurrencia de una serie recurrente (sin cambiar la serie)
+     * 
+     * @param seriesId ID de la tarea que define la serie
+     * @param occurrenceDate Fecha de la ocurrencia
+     * @param task Nuevos datos de la ocurrencia
+     * @return Ocurrencia actualizada (con ID propio)
+     * @throws TaskNotFoundException si la serie no existe
+     * @throws IllegalArgumentException si la tarea no es recurrente o no tiene ocurrencia ese dia
+     */
+    Task updateOccurrence(Long seriesId, LocalDate occurrenceDate, Task task);
+
+
+    // ========== PROYECCION DE CAMPOS (?fields=) ==========
+    /*
+     * Variantes de las consultas anteriores que devuelven SOLO los campos pedidos
+     * 
+     * La proyeccion se hace en la consulta (SELECT de esas columnas), no al
+     * serializar: la BD lee menos columnas y la respuesta es mas pequeña
+     * 
+     * Cada fila es un mapa campo -> valor; el id se incluye siempre
+     * 
+     * @param fields -> Campos a devolver (id, title, description, status, priority,
+     *                  dueDate, createdAt, updatedAt, startedAt, completedAt,
+     *                  seriesId, occurrenceDate)
+     * @throws IllegalArgumentException si se pide un campo desconocido
+     * @throws TaskNotFoundException (getTaskById) si no existe la tarea con ese id
+     */
+    Map<String, Object> getTaskById(Long id, Set<String> fields);
+
+    List<Map<String, Object>> getAllTasks(Set<String> fields);
+
+    List<Map<String, Object>> getTasksByStatus(Status status, Set<String> fields);
+
+    List<Map<String, Object>> getTasksByPriority(Priority priority, Set<String> fields);
+
+    List<Map<String, Object>> getTasksByStatusAndPriority(Status status, Priority priority, Set<String> fields);
+
+    List<Map<String, Object>> getTasksByDueDateRange(LocalDate startDate, LocalDate endDate, Set<String> fields);
+
+    List<Map<String, Object>> getOverdueTasks(Set<String> fields);
+
+    List<Map<String, Object>> getTasksDueToday(Set<String> fields);
+
+    List<Map<String, Object>> searchTasks(String searchTerm, Set<String> fields);
     
 }
@@ -1,16 +1,33 @@
 package com.payoyo.to_do_list.service;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.payoyo.to_do_list.dto.BoardMoveRequest;
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+import com.payoyo.to_do_list.dto.TaskBoard;
+import com.payoyo.to_do_list.entity.RecurrenceRule;
 import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.TaskEvent;
 import com.payoyo.to_do_list.entity.enums.Priority;
 import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.entity.enums.TaskEventType;
 import com.payoyo.to_do_list.exceptions.TaskNotFoundException;
+import com.payoyo.to_do_list.repository.TaskEventRepository;
 import com.payoyo.to_do_list.repository.TaskRepository;
+import com.payoyo.to_do_list.repository.TaskFields;
+import com.payoyo.to_do_list.repository.TaskSpecifications;
+import com.payoyo.to_do_list.tenant.TenantContext;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -62,6 +79,31 @@ public class TaskServiceImpl implements TaskService{
      */
     private final TaskRepository taskRepository;
 
+    /*
+     * Repositorio del historial de eventos (solo lectura desde el servicio)
+     */
+    private final TaskEventRepository taskEventRepository;
+
+    /*
+     * Invalida las entradas de cache afectadas por cada escritura
+     */
+    private final TaskCacheInvalidator cacheInvalidator;
+
+    /*
+     * Historial de actividad (append-only, escrito por lotes fuera de la peticion)
+     */
+    private final TaskEventRecorder eventRecorder;
+
+    /*
+     * Percentiles de lead/cycle time calculados de forma incremental
+     */
+    private final TaskCycleTimeStats cycleTimeStats;
+
+    /*
+     * Calcula las ocurrencias de las tareas recurrentes (no se guardan en BD)
+     */
+    private final TaskOccurrenceExpander occurrenceExpander;
+
     // ========== OPERACIONES CRUD ==========
     /*
      * Crea una nueva tarea en el sistama.
@@ -88,7 +130,13 @@ public class TaskServiceImpl implements TaskService{
     public Task createTask(Task task) {
         log.info("Creando nueva tarea: {}", task.getId());
 
+        // la tarea pertenece siempre al tenant de la peticion
+        task.setTenantId(TenantContext.getTenantId());
+        validateRecurrence(task, task.getRecurrence(), task.getDueDate());
+
         Task taskSaved = taskRepository.save(task);
+        cacheInvalidator.taskChanged(null, taskSaved.getStatus(), null, taskSaved.getPriority());
+        eventRecorder.record(taskSaved, TaskEventType.CREATED, null, taskSaved.getStatus());
 
         log.info("Tarea creada exitosamente con ID: {}", taskSaved.getId());
         return taskSaved;
@@ -115,7 +163,23 @@ public class TaskServiceImpl implements TaskService{
     @Override
     public Task getTaskById(Long id) {
         log.debug("Buscando tarea con ID: {}", id);
+        return findTaskOrThrow(id);
+    }
+
+    /*
+     * Busca una tarea por ID dentro del tenant actual
+     * 
+     * findById usa em.find(), que NO aplica el filtro de Hibernate,
+     * asi que comprobamos el tenant explicitamente. Una tarea de otro
+     * tenant se trata igual que una inexistente (404), sin revelar que existe
+     * 
+     * @param id -> ID de la tarea
+     * @return Tarea del tenant actual
+     * @throws TaskNotFoundException si no existe o pertenece a otro tenant
+     */
+    private Task findTaskOrThrow(Long id) {
         return taskRepository.findById(id)
+            .filter(task -> TenantContext.getTenantId().equals(task.getTenantId()))
             .orElseThrow(() -> new TaskNotFoundException(id));
     }
 
@@ -169,15 +233,20 @@ public class TaskServiceImpl implements TaskService{
         log.info("Actualizando la tarea con ID: {}", id);
 
         //1. Buscar la tarea existente
-        Task existingTask = taskRepository.findById(id)
-            .orElseThrow(() -> new TaskNotFoundException(id));
+        Task existingTask = findTaskOrThrow(id);
+
+        // guardamos estado y prioridad previos para invalidar la cache
+        Status oldStatus = existingTask.getStatus();
+        Priority oldPriority = existingTask.getPriority();
 
         //2. Actualizar campos modificables
+        validateRecurrence(existingTask, task.getRecurrence(), task.getDueDate());
         existingTask.setTitle(task.getTitle());
         existingTask.setDescription(task.getDescription());
-        existingTask.setStatus(task.getStatus());
+        existingTask.changeStatus(task.getStatus());
         existingTask.setPriority(task.getPriority());
         existingTask.setDueDate(task.getDueDate());
+        existingTask.setRecurrence(task.getRecurrence());
 
         /*
          * 3. Persistir cambios
@@ -185,6 +254,9 @@ public class TaskServiceImpl implements TaskService{
          * pero es buena practica hacer save() explicito
          */
         Task updatedTask = taskRepository.save(existingTask);
+        cacheInvalidator.taskChanged(oldStatus, updatedTask.getStatus(), oldPriority, updatedTask.getPriority());
+        eventRecorder.record(updatedTask, TaskEventType.UPDATED, oldStatus, updatedTask.getStatus());
+        recordStatusChange(updatedTask, oldStatus);
 
         log.info("Tarea actualizada exitosamente");
         return updatedTask;
@@ -209,6 +281,10 @@ public class TaskServiceImpl implements TaskService{
      * - Lanza excepcion clara si no existe
      * - Mejor experiencia para el usuario
      * 
+     * Si la tarea define una serie recurrente se eliminan tambien sus
+     * ocurrencias materializadas (no pueden quedar apuntando a una serie
+     * que ya no existe)
+     * 
      * @param is -> ID de la tarea a eliminar
      * @throws TaskNotFoundExcepction si no existe
      */
@@ -217,17 +293,39 @@ public class TaskServiceImpl implements TaskService{
     public void deleteTask(Long id) {
         log.info("Eliminando tarea con ID: {}", id);
 
-        // verificar que existe
-        if (!taskRepository.existsById(id)) {
-            throw new TaskNotFoundException(id);
+        // verificar que existe (la cargamos para saber que entradas de cache invalidar)
+        Task task = findTaskOrThrow(id);
+
+        if (task.isRecurring()) {
+            deleteOccurrences(id);
         }
         
         //eliminar
-        taskRepository.deleteById(id);
+        remove(task);
 
         log.info("Tarea eliminada exitosamente");
     }
 
+    /*
+     * Elimina las ocurrencias materializadas de una serie
+     * 
+     * Bloquea antes la fila de la serie: una ocurrencia que se este
+     * materializando a la vez termina antes (y se borra aqui) o espera
+     * y ya no encuentra la serie (404)
+     */
+    private void deleteOccurrences(Long seriesId) {
+        findSeriesForUpdate(seriesId);
+        List<Task> occurrences = taskRepository.findBySeriesId(seriesId);
+        log.info("Eliminando {} ocurrencias materializadas de la serie {}", occurrences.size(), seriesId);
+        occurrences.forEach(this::remove);
+    }
+
+    private void remove(Task task) {
+        taskRepository.delete(task);
+        cacheInvalidator.taskChanged(task.getStatus(), null, task.getPriority(), null);
+        eventRecorder.record(task, TaskEventType.DELETED, task.getStatus(), null);
+    }
+
 
     // ========== FILTROS POR ESTADO Y PRIORIDAD =========
 
@@ -310,11 +408,11 @@ public class TaskServiceImpl implements TaskService{
         log.debug("Buscando tareas con fecha limite entre {} y {}", startDate, endDate);
 
         // validacion de negocio
-        if (startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
-        }
+        validateDateRange(startDate, endDate);
 
-        return taskRepository.findByDueDateBetween(startDate, endDate);
+        return withOccurrences(
+            taskRepository.findByDueDateBetween(startDate, endDate),
+            occurrenceExpander.between(startDate, endDate));
     }
 
     /*
@@ -326,6 +424,9 @@ public class TaskServiceImpl implements TaskService{
      * 
      * Esta logica esta implementada en el repositorio con @Query
      * 
+     * Incluye las ocurrencias vencidas de tareas recurrentes de los
+     * ultimos tasks.recurrence.overdue-lookback-days dias
+     * 
      * Casos de uso:
      * - Dashboard de alertas
      * - Notificaciones de tareas atrasadas
@@ -336,7 +437,10 @@ public class TaskServiceImpl implements TaskService{
     @Override
     public List<Task> getOverdueTasks() {
         log.debug("Buscando tareas vencidas");
-        return taskRepository.findOverdueTasks(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        return withOccurrences(
+            taskRepository.findOverdueTasks(today),
+            occurrenceExpander.overdue(today));
     }
 
     /*
@@ -354,7 +458,10 @@ public class TaskServiceImpl implements TaskService{
     @Override
     public List<Task> getTasksDueToday() {
         log.debug("Buscando tareas que vencen hoy");
-        return taskRepository.findTasksDueToday(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        return withOccurrences(
+            taskRepository.findTasksDueToday(today),
+            occurrenceExpander.between(today, today));
     }
 
 
@@ -383,9 +490,7 @@ public class TaskServiceImpl implements TaskService{
         log.debug("Buscando tareas con termino: {}", searchTerm);
 
         // validacion
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            throw new IllegalArgumentException("El termino no puede estar vacio");
-        }
+        validateSearchTerm(searchTerm);
 
         return taskRepository.searchByTitleOrDescription(searchTerm);
     }
@@ -419,13 +524,16 @@ public class TaskServiceImpl implements TaskService{
     public Task markTaskAsInProgress(Long id) {
         log.info("Marcando tarea {} como en progreso", id);
 
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new TaskNotFoundException(id));
+        Task task = findTaskOrThrow(id);
+
+        Status oldStatus = task.getStatus();
 
         // metodo de negocio de la entidad
         task.markAsInProgress();
 
         Task updatedTask = taskRepository.save(task);
+        cacheInvalidator.taskChanged(oldStatus, updatedTask.getStatus(), task.getPriority(), task.getPriority());
+        recordStatusChange(updatedTask, oldStatus);
 
         log.info("Tarea marca como en progreso exitosamente");
         return updatedTask;
@@ -453,13 +561,16 @@ public class TaskServiceImpl implements TaskService{
     public Task markTaskAsCompleted(Long id) {
         log.info("Marcando tarea {} como completada", id);
 
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new TaskNotFoundException(id));
+        Task task = findTaskOrThrow(id);
+
+        Status oldStatus = task.getStatus();
 
         // metodo de negocio de la entidad
         task.markAsCompleted();
 
         Task updatedTask = taskRepository.save(task);
+        cacheInvalidator.taskChanged(oldStatus, updatedTask.getStatus(), task.getPriority(), task.getPriority());
+        recordStatusChange(updatedTask, oldStatus);
 
         log.info("Tarea marcada como completada exitosamente");
         return updatedTask;
@@ -490,5 +601,489 @@ public class TaskServiceImpl implements TaskService{
         log.debug("Contando tareas por estado: {}", status);
         return taskRepository.countByStatus(status);
     }
+
+
+    // ========== HISTORIAL DE ACTIVIDAD ==========
+
+    /*
+     * Obtiene el historial de eventos de una tarea
+     * 
+     * No exige que la tarea exista: el historial de una tarea
+     * eliminada sigue siendo consultable (incluye el evento DELETED)
+     * 
+     * NOTA: los eventos se guardan por lotes, los de los ultimos
+     * milisegundos pueden tardar hasta flush-interval-ms en aparecer
+     * 
+     * @param id -> ID de la tarea
+     * @return Eventos en orden cronologico
+     */
+    @Override
+    public List<TaskEvent> getTaskTimeline(Long id) {
+        log.debug("Obteniendo historial de la tarea {}", id);
+        return taskEventRepository.findByTenantIdAndTaskIdOrderByOccurredAtAscIdAsc(TenantContext.getTenantId(), id);
+    }
+
+    /*
+     * Percentiles de lead time y cycle time del tenant actual
+     * 
+     * Se calculan en memoria de forma incremental (ver TaskCycleTimeStats),
+     * no recorren la tabla de eventos
+     * 
+     * @return Percentiles p50/p75/p90/p99
+     */
+    @Override
+    public CycleTimeReport getCycleTimeReport() {
+        return cycleTimeStats.report(TenantContext.getTenantId());
+    }
+
+    /*
+     * Registra la transicion de estado si realmente hubo cambio
+     * (marcar como completada una tarea ya completada no genera evento)
+     */
+    private void recordStatusChange(Task task, Status oldStatus) {
+        if (oldStatus != task.getStatus()) {
+            eventRecorder.record(task, TaskEventType.STATUS_CHANGED, oldStatus, task.getStatus());
+        }
+    }
+
+    // ========== TABLERO (KANBAN) ==========
+
+    /*
+     * Limite maximo de tareas por columna del tablero
+     */
+    private static final int MAX_LANE_LIMIT = 200;
+
+    /*
+     * Obtiene el tablero en una sola consulta
+     * 
+     * La consulta nativa devuelve las tareas ya ordenadas y recortadas por columna
+     * (ROW_NUMBER() OVER PARTITION BY status); aqui solo se reparten por estado
+     * 
+     * @param laneLimit -> Maximo de tareas por columna
+     * @return Tablero con las tres columnas (vacias si no hay tareas)
+     * @throws IllegalArgumentException si el limite esta fuera de rango
+     */
+    @Override
+    public TaskBoard getBoard(int laneLimit) {
+        log.debug("Obteniendo tablero con limite {} por columna", laneLimit);
+
+        if (laneLimit < 1 || laneLimit > MAX_LANE_LIMIT) {
+            throw new IllegalArgumentException("El limite por columna debe estar entre 1 y " + MAX_LANE_LIMIT);
+        }
+
+        Map<Status, List<Task>> lanes = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            lanes.put(status, new ArrayList<>());
+        }
+        for (Task task : taskRepository.findBoardLanes(TenantContext.getTenantId(), laneLimit)) {
+            lanes.get(task.getStatus()).add(task);
+        }
+        return new TaskBoard(laneLimit, lanes);
+    }
+
+    /*
+     * Mueve una tarjeta del tablero
+     * 
+     * Flujo:
+     * 1. Carga la tarea y sus vecinas (deben estar en la columna destino)
+     * 2. Comprueba que la posicion respeta el orden por prioridad de la columna
+     * 3. Calcula el rango como punto medio entre las vecinas
+     * 4. Solo si no queda hueco entre ellas (o alguna no tiene rango),
+     *    reasigna los rangos de la columna y vuelve a calcular
+     * 5. Cambia el estado si la columna es otra
+     * 
+     * El rango solo ordena las tarjetas de la misma prioridad: una vecina de
+     * otra prioridad solo marca el borde del grupo (la tarjeta va la primera
+     * o la ultima de su prioridad) y no limita el rango
+     * 
+     * En el caso normal solo se actualiza UNA fila (la tarjeta movida)
+     * 
+     * @param id -> ID de la tarea
+     * @param move -> Columna destino y vecinas
+     * @return Tarea movida
+     * @throws IllegalArgumentException si la posicion pide saltarse el orden por prioridad
+     */
+    @Override
+    @Transactional
+    public Task moveOnBoard(Long id, BoardMoveRequest move) {
+        log.info("Moviendo tarea {} a la columna {}", id, move.status());
+
+        Task task = findTaskOrThrow(id);
+        if (task.isRecurring()) {
+            throw new IllegalArgumentException("La tarea " + id + " define una serie recurrente y no esta en el tablero");
+        }
+        Task previous = samePriority(task, findNeighbour(move.previousId(), id, move.status()), true);
+        Task next = samePriority(task, findNeighbour(move.nextId(), id, move.status()), false);
+
+        Status oldStatus = task.getStatus();
+
+        Long rank = rankBetween(previous, next);
+        if (rank == null) {
+            // las vecinas son entidades gestionadas: reciben los rangos nuevos
+            rebalanceLane(move.status());
+            rank = rankBetween(previous, next);
+            if (rank == null) {
+                throw new IllegalArgumentException("La tarea previousId debe ir justo antes que nextId en la columna");
+            }
+        }
+
+        task.changeStatus(move.status());
+        task.setBoardRank(rank);
+
+        Task movedTask = taskRepository.save(task);
+        cacheInvalidator.taskChanged(oldStatus, movedTask.getStatus(), movedTask.getPriority(), movedTask.getPriority());
+        recordStatusChange(movedTask, oldStatus);
+
+        log.info("Tarea movida exitosamente");
+        return movedTask;
+    }
+
+    /*
+     * Carga una vecina del movimiento y comprueba que esta en la columna destino
+     */
+    private Task findNeighbour(Long neighbourId, Long movedId, Status lane) {
+        if (neighbourId == null) {
+            return null;
+        }
+        if (neighbourId.equals(movedId)) {
+            throw new IllegalArgumentException("Una tarea no puede ser vecina de si misma");
+        }
+        Task neighbour = findTaskOrThrow(neighbourId);
+        if (neighbour.getStatus() != lane || neighbour.isRecurring()) {
+            throw new IllegalArgumentException("La tarea " + neighbourId + " no esta en la columna " + lane);
+        }
+        return neighbour;
+    }
+
+    /*
+     * Comprueba que la vecina no rompe el orden por prioridad de la columna
+     * (HIGH -> LOW) y la descarta si es de otra prioridad
+     * 
+     * - La anterior debe tener la misma prioridad o mayor
+     * - La siguiente debe tener la misma prioridad o menor
+     * 
+     * @param task -> Tarea movida
+     * @param neighbour -> Vecina (null si no hay)
+     * @param before -> true si la vecina queda encima de la tarea
+     * @return La vecina si es de la misma prioridad, null si es de otra (borde del grupo)
+     * @throws IllegalArgumentException si la posicion pide saltarse el orden por prioridad
+     */
+    private Task samePriority(Task task, Task neighbour, boolean before) {
+        if (neighbour == null || neighbour.getPriority() == task.getPriority()) {
+            return neighbour;
+        }
+        boolean neighbourHigher = neighbour.getPriority().compareTo(task.getPriority()) > 0;
+        if (before != neighbourHigher) {
+            throw new IllegalArgumentException("La columna se ordena por prioridad: una tarea de prioridad "
+                + task.getPriority() + " no puede ir " + (before ? "despues" : "antes")
+                + " de la tarea " + neighbour.getId() + " (prioridad " + neighbour.getPriority()
+                + "). Cambia su prioridad para moverla a ese grupo");
+        }
+        return null;
+    }
+
+    /*
+     * Rango entre dos vecinas (null si hay que reordenar la columna)
+     * 
+     * - Sin vecinas: primer rango de una columna vacia
+     * - Solo siguiente: un hueco por encima de ella
+     * - Solo anterior: un hueco por debajo de ella
+     * - Ambas: punto medio (si no queda hueco -> null)
+     */
+    private Long rankBetween(Task previous, Task next) {
+        Long low = previous != null ? previous.getBoardRank() : null;
+        Long high = next != null ? next.getBoardRank() : null;
+
+        if (previous == null && next == null) {
+            return Task.BOARD_RANK_GAP;
+        }
+        if (previous == null) {
+            return high != null ? high - Task.BOARD_RANK_GAP : null;
+        }
+        if (next == null) {
+            return low != null ? low + Task.BOARD_RANK_GAP : null;
+        }
+        if (low == null || high == null || high - low < 2) {
+            return null;
+        }
+        return low + (high - low) / 2;
+    }
+
+    /*
+     * Reasigna los rangos de una columna en su orden actual, separados por BOARD_RANK_GAP
+     * 
+     * Es la unica operacion que reescribe la columna completa; solo ocurre
+     * cuando se agota el hueco entre dos tarjetas o hay tareas sin rango
+     */
+    private void rebalanceLane(Status status) {
+        List<Task> lane = taskRepository.findLaneInBoardOrder(status);
+        log.info("Reasignando rangos de la columna {} ({} tareas)", status, lane.size());
+
+        long rank = 0;
+        for (Task task : lane) {
+            rank += Task.BOARD_RANK_GAP;
+            task.setBoardRank(rank);
+        }
+        // dirty checking: Hibernate agrupa los UPDATE en lotes (hibernate.jdbc.batch_size)
+        cacheInvalidator.laneRebalanced(status);
+    }
+
+    // ========== TAREAS RECURRENTES ==========
+
+    /*
+     * Completa una ocurrencia de una serie recurrente
+     * 
+     * Si la ocurrencia solo existia calculada, se crea su fila primero
+     * (es el unico momento en que una ocurrencia ocupa espacio en la BD)
+     * 
+     * @param seriesId -> ID de la tarea que define la serie
+     * @param occurrenceDate -> Fecha de la ocurrencia
+     * @return Ocurrencia completada (ya con ID)
+     * @throws TaskNotFoundException si la serie no existe
+     * @throws IllegalArgumentException si la tarea no es recurrente o no hay ocurrencia ese dia
+     */
+    @Override
+    @Transactional
+    public Task completeOccurrence(Long seriesId, LocalDate occurrenceDate) {
+        log.info("Completando ocurrencia {} de la serie {}", occurrenceDate, seriesId);
+        Task occurrence = materializeOccurrence(seriesId, occurrenceDate);
+        return markTaskAsCompleted(occurrence.getId());
+    }
+
+    /*
+     * Modifica una ocurrencia de una serie recurrente (materializandola si hace falta)
+     * 
+     * Solo cambia esa ocurrencia, no la serie ni las demas ocurrencias
+     * 
+     * @param seriesId -> ID de la tarea que define la serie
+     * @param occurrenceDate -> Fecha de la ocurrencia
+     * @param task -> Nuevos datos de la ocurrencia
+     * @return Ocurrencia actualizada (ya con ID)
+     */
+    @Override
+    @Transactional
+    public Task updateOccurrence(Long seriesId, LocalDate occurrenceDate, Task task) {
+        log.info("Modificando ocurrencia {} de la serie {}", occurrenceDate, seriesId);
+        Task occurrence = materializeOccurrence(seriesId, occurrenceDate);
+        return updateTask(occurrence.getId(), task);
+    }
+
+    /*
+     * Devuelve la fila de una ocurrencia, creandola si todavia no existe
+     * 
+     * La fila de la serie queda bloqueada hasta el commit: si dos peticiones
+     * materializan la misma ocurrencia a la vez, la segunda espera y encuentra
+     * la fila que creo la primera (sin el bloqueo ambas la insertarian y
+     * una fallaria con uk_series_occurrence)
+     */
+    private Task materializeOccurrence(Long seriesId, LocalDate occurrenceDate) {
+        Task series = findSeriesForUpdate(seriesId);
+
+        if (!series.isRecurring()) {
+            throw new IllegalArgumentException("La tarea " + seriesId + " no es recurrente");
+        }
+        if (!series.getRecurrence().occursOn(series.getDueDate(), occurrenceDate)) {
+            throw new IllegalArgumentException("La serie " + seriesId + " no tiene ocurrencia el " + occurrenceDate);
+        }
+
+        return taskRepository.findBySeriesIdAndOccurrenceDate(seriesId, occurrenceDate)
+            .orElseGet(() -> createTask(series.occurrenceOn(occurrenceDate)));
+    }
+
+    /*
+     * Busca una tarea del tenant actual bloqueando su fila (ver findByIdForUpdate)
+     */
+    private Task findSeriesForUpdate(Long seriesId) {
+        return taskRepository.findByIdForUpdate(seriesId)
+            .filter(task -> TenantContext.getTenantId().equals(task.getTenantId()))
+            .orElseThrow(() -> new TaskNotFoundException(seriesId));
+    }
+
+    /*
+     * Reglas de las tareas recurrentes:
+     * - Una serie necesita fecha limite (es su primera ocurrencia)
+     * - Una ocurrencia no puede definir a su vez una serie
+     */
+    private void validateRecurrence(Task target, RecurrenceRule recurrence, LocalDate dueDate) {
+        if (recurrence == null) {
+            return;
+        }
+        if (target.getSeriesId() != null) {
+            throw new IllegalArgumentException("Una ocurrencia de una serie no puede ser recurrente");
+        }
+        if (dueDate == null) {
+            throw new IllegalArgumentException("Una tarea recurrente necesita fecha limite (primera ocurrencia)");
+        }
+    }
+
+    /*
+     * Añade las ocurrencias calculadas a las tareas de la consulta,
+     * ordenadas por fecha limite
+     */
+    private List<Task> withOccurrences(List<Task> tasks, List<Task> occurrences) {
+        if (occurrences.isEmpty()) {
+            return tasks;
+        }
+        // nueva lista: la de la consulta puede venir de la cache
+        List<Task> merged = new ArrayList<>(tasks.size() + occurrences.size());
+        merged.addAll(tasks);
+        merged.addAll(occurrences);
+        merged.sort(Comparator.comparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder())));
+        return merged;
+    }
+
+    /*
+     * Igual que withOccurrences, para consultas con ?fields=
+     * 
+     * Mismo orden que sin ?fields= (por fecha limite). Las filas deben venir
+     * de findFields(withDueDate(fields), ...): si el cliente no pidio dueDate
+     * se usa para ordenar y se quita de la respuesta
+     */
+    private List<Map<String, Object>> withOccurrences(
+        List<Map<String, Object>> rows, List<Task> occurrences, Set<String> fields
+    ) {
+        boolean dueDateRequested = requestsDueDate(fields);
+        if (occurrences.isEmpty()) {
+            if (!dueDateRequested) {
+                rows.forEach(row -> row.remove("dueDate"));
+            }
+            return rows;
+        }
+        List<Map<String, Object>> merged = new ArrayList<>(rows.size() + occurrences.size());
+        merged.addAll(rows);
+        Set<String> projected = withDueDate(fields);
+        for (Task occurrence : occurrences) {
+            merged.add(TaskFields.project(occurrence, projected));
+        }
+        merged.sort(Comparator.comparing(
+            (Map<String, Object> row) -> (LocalDate) row.get("dueDate"),
+            Comparator.nullsLast(Comparator.naturalOrder())));
+        if (!dueDateRequested) {
+            merged.forEach(row -> row.remove("dueDate"));
+        }
+        return merged;
+    }
+
+    /*
+     * Campos pedidos mas dueDate (necesario para ordenar con las ocurrencias)
+     */
+    private static Set<String> withDueDate(Set<String> fields) {
+        if (requestsDueDate(fields)) {
+            return fields;
+        }
+        Set<String> columns = new LinkedHashSet<>(fields);
+        columns.add("dueDate");
+        return columns;
+    }
+
+    private static boolean requestsDueDate(Set<String> fields) {
+        return fields.stream().anyMatch(field -> field.trim().equals("dueDate"));
+    }
+
+    // ========== PROYECCION DE CAMPOS (?fields=) ==========
+    /*
+     * Mismas consultas que arriba, pero con SELECT solo de los campos pedidos
+     * 
+     * - Las condiciones son las de TaskSpecifications (equivalentes a los query methods)
+     * - El filtro de tenant lo aplica Hibernate igual que en el resto de consultas
+     * - No pasan por la cache: cada combinacion de campos seria una entrada distinta
+     */
+
+    @Override
+    public Map<String, Object> getTaskById(Long id, Set<String> fields) {
+        log.debug("Buscando tarea con ID: {} (campos: {})", id, fields);
+        return findFields(fields, TaskSpecifications.hasId(id)).stream()
+            .findFirst()
+            .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllTasks(Set<String> fields) {
+        log.debug("Obteniendo todas las tareas (campos: {})", fields);
+        return findFields(fields, TaskSpecifications.all());
+    }
+
+    @Override
+    public List<Map<String, Object>> getTasksByStatus(Status status, Set<String> fields) {
+        log.debug("Buscando tareas por estado: {} (campos: {})", status, fields);
+        return findFields(fields, TaskSpecifications.hasStatus(status));
+    }
+
+    @Override
+    public List<Map<String, Object>> getTasksByPriority(Priority priority, Set<String> fields) {
+        log.debug("Buscando tareas por prioridad: {} (campos: {})", priority, fields);
+        return findFields(fields, TaskSpecifications.hasPriority(priority));
+    }
+
+    @Override
+    public List<Map<String, Object>> getTasksByStatusAndPriority(Status status, Priority priority, Set<String> fields) {
+        log.debug("Buscando tareas por estado: {} y prioridad: {} (campos: {})", status, priority, fields);
+        return findFields(fields,
+            TaskSpecifications.hasStatus(status).and(TaskSpecifications.hasPriority(priority)));
+    }
+
+    @Override
+    public List<Map<String, Object>> getTasksByDueDateRange(LocalDate startDate, LocalDate endDate, Set<String> fields) {
+        log.debug("Buscando tareas con fecha limite entre {} y {} (campos: {})", startDate, endDate, fields);
+        validateDateRange(startDate, endDate);
+        return withOccurrences(
+            findFields(withDueDate(fields), TaskSpecifications.dueBetween(startDate, endDate).and(TaskSpecifications.notSeries())),
+            occurrenceExpander.between(startDate, endDate), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getOverdueTasks(Set<String> fields) {
+        log.debug("Buscando tareas vencidas (campos: {})", fields);
+        LocalDate today = LocalDate.now();
+        return withOccurrences(
+            findFields(withDueDate(fields), TaskSpecifications.overdue(today).and(TaskSpecifications.notSeries())),
+            occurrenceExpander.overdue(today), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getTasksDueToday(Set<String> fields) {
+        log.debug("Buscando tareas que vencen hoy (campos: {})", fields);
+        LocalDate today = LocalDate.now();
+        return withOccurrences(
+            findFields(withDueDate(fields), TaskSpecifications.dueOn(today).and(TaskSpecifications.notSeries())),
+            occurrenceExpander.between(today, today), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> searchTasks(String searchTerm, Set<String> fields) {
+        log.debug("Buscando tareas con termino: {} (campos: {})", searchTerm, fields);
+        validateSearchTerm(searchTerm);
+        return findFields(fields, TaskSpecifications.matches(searchTerm));
+    }
+
+    /*
+     * findFields del repositorio con los campos ya validados
+     * 
+     * La lista blanca se comprueba aqui y no solo en el repositorio: el proxy
+     * del repositorio traduce IllegalArgumentException a
+     * InvalidDataAccessApiUsageException y el cliente recibiria un 500 en vez de un 400
+     */
+    private List<Map<String, Object>> findFields(Set<String> fields, Specification<Task> filter) {
+        TaskFields.resolve(fields);
+        return taskRepository.findFields(fields, filter);
+    }
+
+    /*
+     * startDate no puede ser posterior a endDate
+     */
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+    }
+
+    /*
+     * El termino de busqueda no puede estar vacio
+     */
+    private void validateSearchTerm(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            throw new IllegalArgumentException("El termino no puede estar vacio");
+        }
+    }
     
 }
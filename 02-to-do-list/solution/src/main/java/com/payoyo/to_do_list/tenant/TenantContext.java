@@ -0,0 +1,76 @@
+package com.payoyo.to_do_list.tenant;
+
+import java.util.regex.Pattern;
+
+/*
+ * Contexto del tenant (equipo) de la peticion actual
+ *
+ * Guarda el identificador del tenant en un ThreadLocal:
+ * - TenantInterceptor lo establece al inicio de cada peticion HTTP (cabecera X-Tenant-ID)
+ * - TenantFilterAspect lo usa para activar el filtro de Hibernate
+ * - TaskServiceImpl lo asigna a las tareas nuevas
+ * - Las claves de la cache de consultas se prefijan con el tenant
+ *
+ * Si la peticion no indica tenant se usa DEFAULT_TENANT,
+ * asi los clientes existentes siguen funcionando sin cambios
+ */
+public final class TenantContext {
+
+    // Nombre del filtro de Hibernate definido en la entidad Task
+    public static final String FILTER_NAME = "tenantFilter";
+
+    // Parametro del filtro (tenant_id = :tenantId)
+    public static final String FILTER_PARAM = "tenantId";
+
+    // Tenant usado cuando la peticion no indica ninguno
+    public static final String DEFAULT_TENANT = "default";
+
+    // Formato valido de un identificador de tenant
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /*
+     * Establece el tenant de la peticion actual
+     *
+     * @param tenantId -> Identificador del tenant
+     * @throws IllegalArgumentException si el formato no es valido
+     */
+    public static void setTenantId(String tenantId) {
+        if (tenantId == null || !VALID_TENANT.matcher(tenantId).matches()) {
+            throw new IllegalArgumentException("El identificador de tenant no es valido: " + tenantId);
+        }
+        CURRENT.set(tenantId);
+    }
+
+    /*
+     * @return Tenant de la peticion actual (DEFAULT_TENANT si no hay ninguno)
+     */
+    public static String getTenantId() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /*
+     * Limpia el contexto al terminar la peticion
+     * (los hilos del servidor se reutilizan entre peticiones)
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /*
+     * Construye una clave de cache aislada por tenant
+     *
+     * Ejemplo: scopedKey(Status.PENDING) -> "team-a:PENDING"
+     *
+     * @param key -> Argumento de la consulta cacheada
+     * @return Clave con el tenant como prefijo
+     */
+    public static String scopedKey(Object key) {
+        return getTenantId() + ":" + key;
+    }
+}
@@ -0,0 +1,39 @@
+package com.payoyo.to_do_list.tenant;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Aspecto que activa el filtro de tenant de Hibernate antes de
+ * cualquier llamada a TaskRepository
+ *
+ * El filtro "tenantFilter" (definido en Task) añade automaticamente
+ * "tenant_id = :tenantId" a todas las consultas JPQL/Criteria del repositorio
+ * (findByStatus, findOverdueTasks, countByStatus, findAll...)
+ *
+ * IMPORTANTE: Los filtros de Hibernate NO se aplican a findById (em.find),
+ * por eso TaskServiceImpl comprueba el tenant al buscar por ID
+ *
+ * El EntityManager inyectado es el proxy compartido de Spring: dentro de
+ * una transaccion apunta a la Session de esa transaccion, que es la
+ * misma que usara la consulta del repositorio
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TenantFilterAspect {
+
+    private final EntityManager entityManager;
+
+    @Before("target(com.payoyo.to_do_list.repository.TaskRepository)")
+    public void enableTenantFilter() {
+        Session session = entityManager.unwrap(Session.class);
+        session.enableFilter(TenantContext.FILTER_NAME)
+            .setParameter(TenantContext.FILTER_PARAM, TenantContext.getTenantId());
+    }
+}
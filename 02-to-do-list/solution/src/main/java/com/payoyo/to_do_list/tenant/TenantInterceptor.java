@@ -0,0 +1,48 @@
+package com.payoyo.to_do_list.tenant;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Interceptor que resuelve el tenant de cada peticion HTTP
+ *
+ * Lee la cabecera X-Tenant-ID y la guarda en TenantContext
+ * Al terminar la peticion limpia el contexto
+ *
+ * Ejemplo:
+ * GET /api/tasks/status/PENDING
+ * X-Tenant-ID: team-a
+ * -> Solo devuelve las tareas del equipo "team-a"
+ *
+ * FRONTERA DE CONFIANZA:
+ * La cabecera NO se autentica aqui. Un cliente que llegue directamente a la
+ * aplicacion puede leer y modificar las tareas de otro tenant solo con cambiar
+ * X-Tenant-ID. El aislamiento por tenant separa los datos, pero no protege
+ * frente a un cliente malicioso por si solo:
+ * - La aplicacion debe desplegarse detras de un gateway/proxy que autentique
+ *   al cliente y escriba X-Tenant-ID a partir de su identidad
+ * - El gateway debe eliminar la X-Tenant-ID que envie el cliente
+ * - El puerto de la aplicacion no debe ser accesible sin pasar por el gateway
+ */
+@Component
+public class TenantInterceptor implements HandlerInterceptor {
+
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (tenantId != null && !tenantId.isBlank()) {
+            TenantContext.setTenantId(tenantId.trim());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+}
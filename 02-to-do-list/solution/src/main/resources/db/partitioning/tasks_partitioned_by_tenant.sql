@@ -0,0 +1,81 @@
+-- =====================================================================
+-- Particionado OPCIONAL de la tabla tasks por hash de tenant (PostgreSQL)
+-- =====================================================================
+--
+-- Hibernate (ddl-auto: update) crea "tasks" como tabla normal. Para despliegues
+-- con muchos tenants este script la convierte en una tabla particionada
+-- por HASH(tenant_id): cada consulta filtrada por tenant (filtro de Hibernate)
+-- solo toca UNA particion (partition pruning), y dentro de ella los indices
+-- (tenant_id, ...) acotan la busqueda a las filas del tenant.
+--
+-- Ejecutar UNA sola vez con la aplicacion parada:
+--   psql -U postgres -d to_do_list -f tasks_partitioned_by_tenant.sql
+--
+-- Notas:
+-- - En PostgreSQL la clave primaria de una tabla particionada debe incluir
+--   la clave de particion, por eso pasa a ser (id, tenant_id). El id sigue
+--   siendo unico porque lo genera la misma secuencia.
+-- - Por el mismo motivo la restriccion unica uk_series_occurrence incluye
+--   tenant_id (igual que en la entidad Task).
+-- - La tabla nueva debe tener TODAS las columnas de la entidad Task: si se
+--   añade una columna a la entidad, hay que añadirla tambien aqui (CREATE TABLE
+--   e INSERT), o se perderia al borrar tasks_unpartitioned.
+-- - Ajustar el numero de particiones (MODULUS) al volumen esperado.
+
+BEGIN;
+
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+
+CREATE TABLE tasks (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    tenant_id   VARCHAR(64)  NOT NULL DEFAULT 'default',
+    title       VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    status      VARCHAR(20)  NOT NULL,
+    priority    VARCHAR(20)  NOT NULL,
+    due_date    DATE,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    started_at  TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    board_rank  BIGINT,
+    recurrence_frequency VARCHAR(10),
+    recurrence_interval  INTEGER,
+    recurrence_until     DATE,
+    series_id       BIGINT,
+    occurrence_date DATE,
+    PRIMARY KEY (id, tenant_id),
+    CONSTRAINT uk_series_occurrence UNIQUE (tenant_id, series_id, occurrence_date)
+) PARTITION BY HASH (tenant_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE tasks_p%s PARTITION OF tasks FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            i, i);
+    END LOOP;
+END $$;
+
+-- Indices equivalentes a los declarados en la entidad Task
+CREATE INDEX idx_tenant_status   ON tasks (tenant_id, status);
+CREATE INDEX idx_tenant_priority ON tasks (tenant_id, priority);
+CREATE INDEX idx_tenant_due_date ON tasks (tenant_id, due_date);
+CREATE INDEX idx_tenant_recurrence ON tasks (tenant_id, recurrence_frequency);
+
+INSERT INTO tasks (id, tenant_id, title, description, status, priority, due_date, created_at, updated_at,
+                   started_at, completed_at, board_rank,
+                   recurrence_frequency, recurrence_interval, recurrence_until,
+                   series_id, occurrence_date)
+SELECT id, tenant_id, title, description, status, priority, due_date, created_at, updated_at,
+       started_at, completed_at, board_rank,
+       recurrence_frequency, recurrence_interval, recurrence_until,
+       series_id, occurrence_date
+FROM tasks_unpartitioned;
+
+-- La identidad continua despues del ultimo id migrado
+SELECT setval(pg_get_serial_sequence('tasks', 'id'), COALESCE((SELECT MAX(id) FROM tasks), 0) + 1, false);
+
+DROP TABLE tasks_unpartitioned;
+
+COMMIT;
@@ -0,0 +1,35 @@
+package com.payoyo.to_do_list.controller;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+ * Guarda las sentencias SQL que genera Hibernate (solo en pruebas)
+ *
+ * Se registra con spring.jpa.properties.hibernate.session_factory.statement_inspector
+ */
+public class SelectCapture implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /*
+     * @return SELECT sobre la tabla tasks ejecutados desde el ultimo clear()
+     */
+    static List<String> taskSelects() {
+        return STATEMENTS.stream()
+            .filter(sql -> sql.startsWith("select") && sql.contains(" from tasks "))
+            .toList();
+    }
+}
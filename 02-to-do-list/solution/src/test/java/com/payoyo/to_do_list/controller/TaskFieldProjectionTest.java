@@ -0,0 +1,106 @@
+package com.payoyo.to_do_list.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.service.TaskService;
+import com.payoyo.to_do_list.tenant.TenantContext;
+import com.payoyo.to_do_list.tenant.TenantInterceptor;
+
+/*
+ * ?fields=: respuesta con solo los campos pedidos y SELECT con solo esas columnas
+ *
+ * SelectCapture guarda el SQL que genera Hibernate para comprobar que la
+ * proyeccion llega a la consulta (no se filtra despues, al serializar)
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:projection;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.payoyo.to_do_list.controller.SelectCapture",
+    "logging.level.com.payoyo=WARN"
+})
+@AutoConfigureMockMvc
+class TaskFieldProjectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final String tenant = "fields-" + UUID.randomUUID();
+
+    @BeforeEach
+    void createTask() {
+        TenantContext.setTenantId(tenant);
+        taskService.createTask(Task.builder()
+            .title("Revisar el informe")
+            .description("Informe trimestral ".repeat(20))
+            .priority(Priority.HIGH)
+            .build());
+        TenantContext.clear();
+        SelectCapture.clear();
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void responseHasOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/tasks/priority/HIGH").param("fields", "title,status")
+                .header(TenantInterceptor.TENANT_HEADER, tenant))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").isNumber())
+            .andExpect(jsonPath("$[0].title").value("Revisar el informe"))
+            .andExpect(jsonPath("$[0].status").value("PENDING"))
+            .andExpect(jsonPath("$[0].description").doesNotExist())
+            .andExpect(jsonPath("$[0].priority").doesNotExist());
+    }
+
+    @Test
+    void selectReadsOnlyRequestedColumns() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("fields", "title")
+                .header(TenantInterceptor.TENANT_HEADER, tenant))
+            .andExpect(status().isOk());
+
+        List<String> selects = SelectCapture.taskSelects();
+        assertEquals(1, selects.size());
+        String sql = selects.get(0);
+        assertTrue(sql.contains(".title"), sql);
+        assertFalse(sql.contains(".description"), sql);
+        assertFalse(sql.contains(".priority"), sql);
+    }
+
+    @Test
+    void unknownFieldIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("fields", "title,tenantId")
+                .header(TenantInterceptor.TENANT_HEADER, tenant))
+            .andExpect(status().isBadRequest());
+
+        assertTrue(SelectCapture.taskSelects().isEmpty());
+    }
+}
@@ -0,0 +1,340 @@
+package com.payoyo.to_do_list.perf;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Prueba de carga de la API de tareas (solo con: mvn -Pperf test)
+ *
+ * 1. Siembra perf.seed-rows tareas (1M por defecto) en una H2 en memoria,
+ *    repartidas en tenants de perf.tasks-per-tenant tareas
+ * 2. Lanza cada endpoint de TaskController a un ritmo FIJO (perf.rate peticiones/s,
+ *    o <escenario>.rate en perf-thresholds.properties) durante perf.duration-seconds,
+ *    tras un calentamiento descartado. Antes se calientan TODOS los escenarios una vez:
+ *    la compilacion JIT del arranque no debe caer en el primer escenario medido
+ * 3. Mide p50, p99 y throughput de cada escenario, los registra en el log y los
+ *    guarda en target/perf/task-api-results.csv
+ * 4. Falla si algun escenario supera los umbrales de perf-thresholds.properties
+ *
+ * El escenario DELETE borra tareas sembradas solo para el (en su propio tenant, para no
+ * cambiar los datos que leen los demas escenarios): tantas como peticiones va a lanzar,
+ * de modo que no depende de cuantas tareas haya creado el escenario POST
+ *
+ * La latencia se mide desde el instante PROGRAMADO de envio, no desde el envio real:
+ * si el servidor se atasca, las peticiones que debian salir en ese tiempo cuentan
+ * la espera (evita el "coordinated omission")
+ *
+ * Ejemplo con menos datos: mvn -Pperf test -Dperf.seed-rows=100000 -Dperf.duration-seconds=5
+ */
+@Tag("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:perf;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false",
+    "logging.level.com.payoyo=WARN",
+    "logging.level.com.payoyo.to_do_list.perf=INFO"
+})
+@Slf4j
+class TaskApiLoadTest {
+
+    private static final String TENANT = "tenant-0";
+    private static final String DELETE_TENANT = "tenant-delete";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${perf.seed-rows:1000000}")
+    private int seedRows;
+
+    @Value("${perf.tasks-per-tenant:1000}")
+    private int tasksPerTenant;
+
+    @Value("${perf.rate:50}")
+    private int rate;
+
+    @Value("${perf.duration-seconds:10}")
+    private int durationSeconds;
+
+    @Value("${perf.warmup-seconds:2}")
+    private int warmupSeconds;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    // IDs de tareas sembradas del tenant bajo prueba
+    private long[] tenantTaskIds;
+
+    // IDs sembrados para el escenario DELETE
+    private final Queue<Long> deletableIds = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    void seed() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        String[] statuses = {"PENDING", "IN_PROGRESS", "COMPLETED"};
+        String[] priorities = {"LOW", "MEDIUM", "HIGH"};
+        String description = "Revisar el informe trimestral y preparar la presentacion para el equipo. ".repeat(3);
+
+        int chunk = 10_000;
+        for (int from = 0; from < seedRows; from += chunk) {
+            int start = from;
+            int size = Math.min(chunk, seedRows - from);
+            List<Object[]> rows = new ArrayList<>(size);
+            for (int i = start; i < start + size; i++) {
+                rows.add(new Object[] {
+                    "tenant-" + (i / tasksPerTenant),
+                    "Tarea " + i + (i % 10 == 0 ? " informe" : ""),
+                    description,
+                    statuses[i % 3],
+                    priorities[(i / 3) % 3],
+                    Date.valueOf(today.plusDays((i % 121) - 60)),
+                    Timestamp.valueOf(now.minusDays(i % 90))
+                });
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO tasks (tenant_id, title, description, status, priority, due_date, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+        tenantTaskIds = jdbcTemplate.queryForList("SELECT id FROM tasks WHERE tenant_id = ?", Long.class, TENANT)
+            .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Test
+    void endpointsStayWithinThresholds() throws IOException {
+        Properties thresholds = loadThresholds();
+        LocalDate today = LocalDate.now();
+
+        List<Scenario> scenarios = List.of(
+            get("getAll", () -> "/api/tasks"),
+            get("getAllFields", () -> "/api/tasks?fields=title,status,priority,dueDate"),
+            get("getById", () -> "/api/tasks/" + randomTaskId()),
+            get("byStatus", () -> "/api/tasks/status/PENDING"),
+            get("byPriority", () -> "/api/tasks/priority/HIGH"),
+            get("filter", () -> "/api/tasks/filter?status=PENDING&priority=HIGH"),
+            get("dueDateRange", () -> "/api/tasks/due-date-range?startDate=" + today + "&endDate=" + today.plusDays(7)),
+            get("overdue", () -> "/api/tasks/overdue"),
+            get("dueToday", () -> "/api/tasks/due-today"),
+            get("search", () -> "/api/tasks/search?term=informe"),
+            get("countByStatus", () -> "/api/tasks/count/status/PENDING"),
+            get("timeline", () -> "/api/tasks/" + randomTaskId() + "/timeline"),
+            get("cycleTime", () -> "/api/tasks/stats/cycle-time"),
+            get("board", () -> "/api/tasks/board?limit=50"),
+            new Scenario("create", () -> request("/api/tasks")
+                .POST(HttpRequest.BodyPublishers.ofString(taskJson("Nueva tarea de carga"))).build()),
+            new Scenario("update", () -> request("/api/tasks/" + randomTaskId())
+                .PUT(HttpRequest.BodyPublishers.ofString(taskJson("Tarea actualizada"))).build()),
+            new Scenario("markInProgress", () -> request("/api/tasks/" + randomTaskId() + "/in-progress")
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()).build()),
+            new Scenario("markCompleted", () -> request("/api/tasks/" + randomTaskId() + "/complete")
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()).build()),
+            new Scenario("delete", () -> request("/api/tasks/" + nextDeletableId(), DELETE_TENANT)
+                .DELETE().build())
+        );
+
+        // Dos calentamientos y la medicion: una tarea por cada peticion DELETE
+        Scenario delete = scenarios.get(scenarios.size() - 1);
+        seedDeletable(rateOf(delete, thresholds) * (2 * warmupSeconds + durationSeconds));
+
+        List<String> violations = new ArrayList<>();
+        StringBuilder csv = new StringBuilder("scenario,requests,errors,p50_ms,p99_ms,throughput_rps\n");
+
+        for (Scenario scenario : scenarios) {
+            drive(scenario, rateOf(scenario, thresholds), warmupSeconds);
+        }
+
+        for (Scenario scenario : scenarios) {
+            int scenarioRate = rateOf(scenario, thresholds);
+            drive(scenario, scenarioRate, warmupSeconds);
+            Result result = drive(scenario, scenarioRate, durationSeconds);
+            csv.append(result.toCsv()).append('\n');
+            log.info(String.format("%-15s rate=%d/s n=%d errors=%d p50=%.1fms p99=%.1fms throughput=%.1f/s",
+                scenario.name(), scenarioRate, result.requests(), result.errors(), result.p50Ms(), result.p99Ms(), result.throughput()));
+            violations.addAll(result.check(thresholds, scenarioRate));
+        }
+
+        Path output = Path.of("target", "perf", "task-api-results.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, csv);
+
+        assertTrue(violations.isEmpty(), "Regresion de rendimiento:\n" + String.join("\n", violations));
+    }
+
+    // ========== GENERADOR DE CARGA A RITMO FIJO ==========
+
+    private Result drive(Scenario scenario, int rate, int seconds) {
+        int total = rate * seconds;
+        long intervalNanos = 1_000_000_000L / rate;
+        List<CompletableFuture<Sample>> futures = new ArrayList<>(total);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            HttpRequest request = scenario.request().get();
+            futures.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long latency = System.nanoTime() - scheduledAt;
+                    boolean ok = error == null && response.statusCode() < 400;
+                    return new Sample(latency, ok);
+                }));
+        }
+
+        List<Sample> samples = futures.stream().map(CompletableFuture::join).toList();
+        long elapsed = System.nanoTime() - start;
+        return Result.of(scenario.name(), samples, elapsed);
+    }
+
+    // ========== AUXILIARES ==========
+
+    private void seedDeletable(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {DELETE_TENANT, "Tarea a borrar " + i, "PENDING", "LOW", Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO tasks (tenant_id, title, status, priority, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+        deletableIds.addAll(jdbcTemplate.queryForList("SELECT id FROM tasks WHERE tenant_id = ?", Long.class, DELETE_TENANT));
+    }
+
+    private int rateOf(Scenario scenario, Properties thresholds) {
+        return Integer.parseInt(thresholds.getProperty(scenario.name() + ".rate", String.valueOf(rate)));
+    }
+
+    private Scenario get(String name, Supplier<String> path) {
+        return new Scenario(name, () -> request(path.get()).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return request(path, TENANT);
+    }
+
+    private HttpRequest.Builder request(String path, String tenant) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("X-Tenant-ID", tenant)
+            .header("Content-Type", "application/json");
+    }
+
+    private long randomTaskId() {
+        return tenantTaskIds[ThreadLocalRandom.current().nextInt(tenantTaskIds.length)];
+    }
+
+    private long nextDeletableId() {
+        Long id = deletableIds.poll();
+        return id != null ? id : -1L;
+    }
+
+    private static String taskJson(String title) {
+        return "{\"title\":\"" + title + "\",\"description\":\"Generada por la prueba de carga\"," +
+            "\"status\":\"PENDING\",\"priority\":\"HIGH\",\"dueDate\":\"" + LocalDate.now().plusDays(3) + "\"}";
+    }
+
+    private static Properties loadThresholds() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = TaskApiLoadTest.class.getResourceAsStream("/perf-thresholds.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    private record Scenario(String name, Supplier<HttpRequest> request) {
+    }
+
+    private record Sample(long latencyNanos, boolean ok) {
+    }
+
+    private record Result(String name, int requests, int errors, double p50Ms, double p99Ms, double throughput) {
+
+        static Result of(String name, List<Sample> samples, long elapsedNanos) {
+            long[] latencies = samples.stream().mapToLong(Sample::latencyNanos).sorted().toArray();
+            int errors = (int) samples.stream().filter(sample -> !sample.ok()).count();
+            double throughput = (samples.size() - errors) / (elapsedNanos / 1e9);
+            return new Result(name, samples.size(), errors,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), throughput);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        List<String> check(Properties thresholds, int rate) {
+            List<String> violations = new ArrayList<>();
+            double maxP50 = threshold(thresholds, "p50-ms", Double.MAX_VALUE);
+            double maxP99 = threshold(thresholds, "p99-ms", Double.MAX_VALUE);
+            double minThroughput = threshold(thresholds, "min-throughput-ratio", 0) * rate;
+            double maxErrors = threshold(thresholds, "max-error-ratio", 1) * requests;
+            if (p50Ms > maxP50) {
+                violations.add(String.format("%s: p50 %.1fms > %.1fms", name, p50Ms, maxP50));
+            }
+            if (p99Ms > maxP99) {
+                violations.add(String.format("%s: p99 %.1fms > %.1fms", name, p99Ms, maxP99));
+            }
+            if (throughput < minThroughput) {
+                violations.add(String.format("%s: throughput %.1f/s < %.1f/s", name, throughput, minThroughput));
+            }
+            if (errors > maxErrors) {
+                violations.add(String.format("%s: %d errores > %.0f", name, errors, maxErrors));
+            }
+            return violations;
+        }
+
+        private double threshold(Properties thresholds, String metric, double fallback) {
+            String value = thresholds.getProperty(name + "." + metric, thresholds.getProperty("default." + metric));
+            return value != null ? Double.parseDouble(value) : fallback;
+        }
+
+        String toCsv() {
+            return String.join(",", Arrays.asList(name, String.valueOf(requests), String.valueOf(errors),
+                String.format("%.2f", p50Ms), String.format("%.2f", p99Ms), String.format("%.2f", throughput)));
+        }
+    }
+}
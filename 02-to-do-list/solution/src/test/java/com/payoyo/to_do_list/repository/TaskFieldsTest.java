@@ -0,0 +1,57 @@
+package com.payoyo.to_do_list.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Status;
+
+/*
+ * Lista blanca de ?fields= y proyeccion de tareas en memoria
+ */
+class TaskFieldsTest {
+
+    @Test
+    void idGoesFirstAndRequestedOrderIsKept() {
+        Set<String> fields = new LinkedHashSet<>(List.of(" status", "title ", "", "id"));
+
+        assertEquals(List.of("id", "status", "title"), List.copyOf(TaskFields.resolve(fields)));
+    }
+
+    /*
+     * Atributos de Task que existen pero no se exponen: nunca llegan al SELECT
+     */
+    @Test
+    void attributesOutsideWhitelistAreRejected() {
+        for (String field : List.of("tenantId", "boardRank", "recurrence", "title;DROP TABLE tasks", "TITLE")) {
+            assertThrows(IllegalArgumentException.class, () -> TaskFields.resolve(Set.of(field)), field);
+        }
+    }
+
+    @Test
+    void projectKeepsOnlyRequestedFields() {
+        LocalDate dueDate = LocalDate.of(2025, 3, 14);
+        Task occurrence = Task.builder()
+            .title("Regar las plantas")
+            .description("Todas las de la terraza")
+            .dueDate(dueDate)
+            .seriesId(7L)
+            .occurrenceDate(dueDate)
+            .build();
+
+        Map<String, Object> row = TaskFields.project(occurrence, new LinkedHashSet<>(List.of("title", "status", "seriesId")));
+
+        assertEquals(List.of("id", "title", "status", "seriesId"), List.copyOf(row.keySet()));
+        assertEquals("Regar las plantas", row.get("title"));
+        assertEquals(Status.PENDING, row.get("status"));
+        assertEquals(7L, row.get("seriesId"));
+    }
+}
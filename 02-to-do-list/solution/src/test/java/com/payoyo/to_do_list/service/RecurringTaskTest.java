@@ -0,0 +1,182 @@
+package com.payoyo.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.payoyo.to_do_list.entity.RecurrenceRule;
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.entity.enums.RecurrenceFrequency;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.exceptions.TaskNotFoundException;
+import com.payoyo.to_do_list.tenant.TenantContext;
+
+/*
+ * Tareas recurrentes: ocurrencias calculadas, materializacion y borrado de la serie
+ *
+ * Cada prueba usa su propio tenant: no ve las tareas de las demas
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tasks;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+class RecurringTaskTest {
+
+    // Primera ocurrencia de la serie (en el futuro: ninguna ocurrencia esta vencida)
+    private static final LocalDate START = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tenant = "recurring-" + UUID.randomUUID();
+
+    @BeforeEach
+    void setTenant() {
+        TenantContext.setTenantId(tenant);
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void rangeExpandsOccurrencesWithoutStoringThem() {
+        Task series = createWeeklySeries();
+
+        List<Task> tasks = taskService.getTasksByDueDateRange(START, START.plusDays(20));
+
+        assertEquals(List.of(START, START.plusWeeks(1), START.plusWeeks(2)),
+            tasks.stream().map(Task::getDueDate).toList());
+        assertTrue(tasks.stream().allMatch(task -> task.getId() == null && series.getId().equals(task.getSeriesId())));
+        assertEquals(0, occurrenceRows(series));
+    }
+
+    @Test
+    void completedOccurrenceReplacesCalculatedOne() {
+        Task series = createWeeklySeries();
+
+        Task completed = taskService.completeOccurrence(series.getId(), START.plusWeeks(1));
+
+        assertEquals(Status.COMPLETED, completed.getStatus());
+        List<Task> tasks = taskService.getTasksByDueDateRange(START, START.plusDays(20));
+        assertEquals(3, tasks.size());
+        assertEquals(completed.getId(), tasks.get(1).getId());
+        assertEquals(1, occurrenceRows(series));
+    }
+
+    @Test
+    void occurrenceIsMaterializedOnce() {
+        Task series = createWeeklySeries();
+
+        Task updated = taskService.updateOccurrence(series.getId(), START, Task.builder()
+            .title("Regar las plantas de la terraza")
+            .status(Status.PENDING)
+            .priority(Priority.HIGH)
+            .dueDate(START)
+            .build());
+        Task completed = taskService.completeOccurrence(series.getId(), START);
+
+        assertEquals(updated.getId(), completed.getId());
+        assertEquals("Regar las plantas de la terraza", completed.getTitle());
+        assertEquals(1, occurrenceRows(series));
+    }
+
+    /*
+     * Sin el bloqueo de la serie las peticiones insertan la misma ocurrencia
+     * y todas menos una fallan con uk_series_occurrence
+     */
+    @Test
+    void concurrentRequestsMaterializeOneRow() throws Exception {
+        Task series = createWeeklySeries();
+        int requests = 4;
+        CyclicBarrier start = new CyclicBarrier(requests);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(() -> {
+                    TenantContext.setTenantId(tenant);
+                    try {
+                        start.await();
+                        return taskService.completeOccurrence(series.getId(), START).getId();
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<Long> result : results) {
+                ids.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, ids.size());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, occurrenceRows(series));
+    }
+
+    @Test
+    void dateOutsideSeriesIsRejected() {
+        Task series = createWeeklySeries();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> taskService.completeOccurrence(series.getId(), START.plusDays(1)));
+        assertEquals(0, occurrenceRows(series));
+    }
+
+    @Test
+    void deletingSeriesDeletesItsOccurrences() {
+        Task series = createWeeklySeries();
+        taskService.completeOccurrence(series.getId(), START);
+        taskService.completeOccurrence(series.getId(), START.plusWeeks(1));
+
+        taskService.deleteTask(series.getId());
+
+        assertEquals(0, occurrenceRows(series));
+        assertTrue(taskService.getTasksByDueDateRange(START, START.plusDays(20)).isEmpty());
+        assertThrows(TaskNotFoundException.class,
+            () -> taskService.completeOccurrence(series.getId(), START.plusWeeks(2)));
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private Task createWeeklySeries() {
+        return taskService.createTask(Task.builder()
+            .title("Regar las plantas")
+            .dueDate(START)
+            .recurrence(RecurrenceRule.builder().frequency(RecurrenceFrequency.WEEKLY).interval(1).build())
+            .build());
+    }
+
+    private int occurrenceRows(Task series) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE series_id = ?", Integer.class, series.getId());
+    }
+}
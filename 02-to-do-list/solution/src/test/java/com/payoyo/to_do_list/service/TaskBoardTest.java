@@ -0,0 +1,170 @@
+package com.payoyo.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.payoyo.to_do_list.dto.BoardMoveRequest;
+import com.payoyo.to_do_list.entity.RecurrenceRule;
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.entity.enums.RecurrenceFrequency;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.tenant.TenantContext;
+
+/*
+ * Tablero Kanban: movimientos de tarjetas y reasignacion de rangos de una columna
+ *
+ * Cada prueba usa su propio tenant: su tablero solo tiene las tareas que crea
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tasks;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+class TaskBoardTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setTenant() {
+        TenantContext.setTenantId("board-" + UUID.randomUUID());
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void moveBetweenNeighboursUpdatesOnlyMovedCard() {
+        createTasks(Priority.MEDIUM, 3);
+        List<Long> lane = pendingLane();
+        Long first = lane.get(0);
+        Long second = lane.get(1);
+        Long third = lane.get(2);
+        Long secondRank = boardRank(second);
+
+        taskService.moveOnBoard(third, new BoardMoveRequest(Status.PENDING, first, second));
+
+        assertEquals(List.of(first, third, second), pendingLane());
+        assertEquals(secondRank, boardRank(second));
+    }
+
+    @Test
+    void moveWithoutPreviousPutsCardFirst() {
+        createTasks(Priority.MEDIUM, 3);
+        List<Long> lane = pendingLane();
+
+        taskService.moveOnBoard(lane.get(2), new BoardMoveRequest(Status.PENDING, null, lane.get(0)));
+
+        assertEquals(List.of(lane.get(2), lane.get(0), lane.get(1)), pendingLane());
+    }
+
+    @Test
+    void moveToAnotherLaneChangesStatus() {
+        createTasks(Priority.MEDIUM, 2);
+        Long moved = pendingLane().get(0);
+
+        Task task = taskService.moveOnBoard(moved, new BoardMoveRequest(Status.IN_PROGRESS, null, null));
+
+        assertEquals(Status.IN_PROGRESS, task.getStatus());
+        assertEquals(List.of(moved), lane(Status.IN_PROGRESS));
+        assertEquals(1, pendingLane().size());
+    }
+
+    /*
+     * Sin hueco entre las vecinas se reasignan los rangos de la columna;
+     * la serie recurrente (que no es una tarjeta) conserva su rango
+     */
+    @Test
+    void exhaustedGapRebalancesLaneWithoutSeries() {
+        Task series = taskService.createTask(Task.builder()
+            .title("Sacar la basura")
+            .dueDate(LocalDate.now())
+            .recurrence(RecurrenceRule.builder().frequency(RecurrenceFrequency.DAILY).build())
+            .build());
+        Long seriesRank = boardRank(series.getId());
+        createTasks(Priority.MEDIUM, 3);
+        List<Long> lane = pendingLane();
+        jdbcTemplate.update("UPDATE tasks SET board_rank = ? WHERE id = ?", 100L, lane.get(0));
+        jdbcTemplate.update("UPDATE tasks SET board_rank = ? WHERE id = ?", 101L, lane.get(1));
+
+        taskService.moveOnBoard(lane.get(2), new BoardMoveRequest(Status.PENDING, lane.get(0), lane.get(1)));
+
+        assertEquals(List.of(lane.get(0), lane.get(2), lane.get(1)), pendingLane());
+        assertEquals(Task.BOARD_RANK_GAP, boardRank(lane.get(0)));
+        assertEquals(2 * Task.BOARD_RANK_GAP, boardRank(lane.get(1)));
+        assertEquals(seriesRank, boardRank(series.getId()));
+    }
+
+    @Test
+    void cardCannotJumpAboveHigherPriority() {
+        Long high = createTasks(Priority.HIGH, 1).get(0);
+        Long medium = createTasks(Priority.MEDIUM, 1).get(0);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> taskService.moveOnBoard(medium, new BoardMoveRequest(Status.PENDING, null, high)));
+        assertThrows(IllegalArgumentException.class,
+            () -> taskService.moveOnBoard(high, new BoardMoveRequest(Status.PENDING, medium, null)));
+        assertEquals(List.of(high, medium), pendingLane());
+    }
+
+    /*
+     * Vecina anterior de mayor prioridad: la tarjeta pasa a ser la primera de su grupo
+     */
+    @Test
+    void neighbourOfOtherPriorityMarksGroupEdge() {
+        Long high = createTasks(Priority.HIGH, 1).get(0);
+        List<Long> medium = createTasks(Priority.MEDIUM, 2);
+        List<Long> lane = pendingLane();
+        assertEquals(high, lane.get(0));
+
+        taskService.moveOnBoard(lane.get(2), new BoardMoveRequest(Status.PENDING, high, lane.get(1)));
+
+        assertEquals(List.of(high, lane.get(2), lane.get(1)), pendingLane());
+        assertTrue(medium.contains(lane.get(2)));
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private List<Long> createTasks(Priority priority, int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> taskService.createTask(Task.builder()
+                .title("Tarea " + priority + " " + i)
+                .priority(priority)
+                .build()).getId())
+            .toList();
+    }
+
+    private List<Long> pendingLane() {
+        return lane(Status.PENDING);
+    }
+
+    private List<Long> lane(Status status) {
+        return taskService.getBoard(200).lanes().get(status).stream().map(Task::getId).toList();
+    }
+
+    private Long boardRank(Long id) {
+        return jdbcTemplate.queryForObject("SELECT board_rank FROM tasks WHERE id = ?", Long.class, id);
+    }
+}
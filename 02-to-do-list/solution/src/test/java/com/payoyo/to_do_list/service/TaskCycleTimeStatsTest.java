@@ -0,0 +1,78 @@
+package com.payoyo.to_do_list.service;
+
+import static com.payoyo.to_do_list.service.TaskEventRecorderTest.assertWithinBucket;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.payoyo.to_do_list.dto.CompletionDurations;
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+import com.payoyo.to_do_list.repository.TaskEventRepository;
+
+/*
+ * Percentiles incrementales de lead/cycle time (histograma logaritmico)
+ */
+class TaskCycleTimeStatsTest {
+
+    @Test
+    void percentilesOfUniformDurations() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (long seconds = 1; seconds <= 1000; seconds++) {
+            histogram.record(seconds);
+        }
+
+        CycleTimeReport.Percentiles percentiles = histogram.percentiles();
+
+        assertEquals(1000, percentiles.count());
+        assertWithinBucket(500, percentiles.p50Seconds());
+        assertWithinBucket(750, percentiles.p75Seconds());
+        assertWithinBucket(900, percentiles.p90Seconds());
+        assertWithinBucket(990, percentiles.p99Seconds());
+    }
+
+    @Test
+    void emptyHistogramHasNoPercentiles() {
+        CycleTimeReport.Percentiles percentiles = new DurationHistogram().percentiles();
+
+        assertEquals(0, percentiles.count());
+        assertNull(percentiles.p50Seconds());
+        assertNull(percentiles.p99Seconds());
+    }
+
+    @Test
+    void negativeDurationCountsAsZero() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(-30);
+
+        assertEquals(0L, histogram.percentiles().p50Seconds());
+    }
+
+    /*
+     * Al arrancar se reconstruye por tenant desde el historial;
+     * una tarea que nunca se inicio no tiene cycle time
+     */
+    @Test
+    void historyIsLoadedPerTenant() {
+        TaskEventRepository repository = mock(TaskEventRepository.class);
+        when(repository.streamCompletionDurations()).thenReturn(Stream.of(
+            new CompletionDurations("team-a", 86_400L, 3_600L),
+            new CompletionDurations("team-a", 172_800L, null),
+            new CompletionDurations("team-b", 60L, 30L)));
+        TaskCycleTimeStats stats = new TaskCycleTimeStats(repository);
+
+        stats.loadHistory();
+
+        CycleTimeReport teamA = stats.report("team-a");
+        assertEquals(2, teamA.leadTime().count());
+        assertEquals(1, teamA.cycleTime().count());
+        assertWithinBucket(86_400, teamA.leadTime().p50Seconds());
+        assertWithinBucket(172_800, teamA.leadTime().p99Seconds());
+        assertEquals(1, stats.report("team-b").leadTime().count());
+        assertEquals(0, stats.report("team-c").leadTime().count());
+    }
+}
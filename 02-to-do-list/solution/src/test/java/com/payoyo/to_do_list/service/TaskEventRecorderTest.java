@@ -0,0 +1,200 @@
+package com.payoyo.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.payoyo.to_do_list.dto.CycleTimeReport;
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.TaskEvent;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.entity.enums.TaskEventType;
+import com.payoyo.to_do_list.repository.TaskEventRepository;
+
+/*
+ * Historial de eventos: cola tras el commit, escritura por lotes, reintentos
+ * y percentiles de lead/cycle time
+ *
+ * Sin contexto de Spring: el repositorio es un mock que guarda una copia de
+ * cada lote (flush reutiliza la lista del lote)
+ */
+class TaskEventRecorderTest {
+
+    private static final String TENANT = "team-a";
+
+    private TaskEventRepository repository;
+    private TaskCycleTimeStats cycleTimeStats;
+    private TaskEventRecorder recorder;
+
+    // Lotes recibidos por saveAll
+    private final List<List<TaskEvent>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void createRecorder() {
+        repository = mock(TaskEventRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TaskEvent> batch = invocation.getArgument(0);
+            batches.add(List.copyOf(batch));
+            return batch;
+        });
+        cycleTimeStats = new TaskCycleTimeStats(mock(TaskEventRepository.class));
+        recorder = new TaskEventRecorder(repository, cycleTimeStats, 100, 2);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eventsAreWrittenInBatches() {
+        for (long id = 1; id <= 5; id++) {
+            recorder.record(task(id), TaskEventType.CREATED, null, Status.PENDING);
+        }
+
+        recorder.flush();
+
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+            batches.stream().flatMap(List::stream).map(TaskEvent::getTaskId).toList());
+    }
+
+    @Test
+    void eventIsQueuedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        recorder.record(task(1), TaskEventType.CREATED, null, Status.PENDING);
+
+        recorder.flush();
+        verify(repository, never()).saveAll(anyList());
+
+        commit();
+        recorder.flush();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void rolledBackEventIsNeverWritten() {
+        TransactionSynchronizationManager.initSynchronization();
+        recorder.record(task(1), TaskEventType.CREATED, null, Status.PENDING);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        recorder.flush();
+
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void transientFailureRetriesBatchOnNextFlush() {
+        recorder.record(task(1), TaskEventType.CREATED, null, Status.PENDING);
+        doThrow(new QueryTimeoutException("timeout"))
+            .doAnswer(invocation -> {
+                List<TaskEvent> batch = invocation.getArgument(0);
+                batches.add(List.copyOf(batch));
+                return batch;
+            })
+            .when(repository).saveAll(anyList());
+
+        recorder.flush();
+        assertTrue(batches.isEmpty());
+
+        recorder.flush();
+        assertEquals(1, batches.size());
+        assertEquals(1L, batches.get(0).get(0).getTaskId());
+    }
+
+    /*
+     * Un evento que la BD rechaza siempre no bloquea la cola:
+     * se descarta y el resto del lote se guarda uno a uno
+     */
+    @Test
+    void poisonEventIsDroppedAndRestOfBatchIsSaved() {
+        recorder.record(task(1), TaskEventType.CREATED, null, Status.PENDING);
+        recorder.record(task(2), TaskEventType.CREATED, null, Status.PENDING);
+        doThrow(new DataIntegrityViolationException("tenant_id null")).when(repository).saveAll(anyList());
+        List<Long> saved = new ArrayList<>();
+        when(repository.save(any(TaskEvent.class))).thenAnswer(invocation -> {
+            TaskEvent event = invocation.getArgument(0);
+            if (event.getTaskId() == 1L) {
+                throw new DataIntegrityViolationException("tenant_id null");
+            }
+            saved.add(event.getTaskId());
+            return event;
+        });
+
+        recorder.flush();
+        recorder.flush();
+
+        assertEquals(List.of(2L), saved);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void completionFeedsCycleTimePercentiles() {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = task(1);
+        task.setCreatedAt(now.minusHours(2));
+        task.setStartedAt(now.minusHours(1));
+        task.setCompletedAt(now);
+
+        recorder.record(task, TaskEventType.STATUS_CHANGED, Status.IN_PROGRESS, Status.COMPLETED);
+        recorder.flush();
+
+        TaskEvent event = batches.get(0).get(0);
+        assertEquals(7200L, event.getLeadTimeSeconds());
+        assertEquals(3600L, event.getCycleTimeSeconds());
+
+        CycleTimeReport report = cycleTimeStats.report(TENANT);
+        assertEquals(1, report.leadTime().count());
+        assertWithinBucket(7200, report.leadTime().p50Seconds());
+        assertWithinBucket(3600, report.cycleTime().p50Seconds());
+    }
+
+    @Test
+    void otherEventsDoNotCountAsCompletions() {
+        recorder.record(task(1), TaskEventType.STATUS_CHANGED, Status.PENDING, Status.IN_PROGRESS);
+        recorder.flush();
+
+        assertEquals(0, cycleTimeStats.report(TENANT).leadTime().count());
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static Task task(long id) {
+        return Task.builder().id(id).tenantId(TENANT).title("Tarea " + id).build();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    // El histograma devuelve el limite superior de la cubeta (error relativo < 4%)
+    static void assertWithinBucket(long expected, Long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.04 + 1,
+            "Percentil " + actual + " fuera de la cubeta de " + expected);
+    }
+}
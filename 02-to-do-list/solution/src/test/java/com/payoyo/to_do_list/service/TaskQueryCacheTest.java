@@ -0,0 +1,196 @@
+package com.payoyo.to_do_list.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.payoyo.to_do_list.config.CacheConfig;
+import com.payoyo.to_do_list.dto.BoardMoveRequest;
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.tenant.TenantContext;
+
+/*
+ * Invalidacion de la cache de consultas en cada escritura
+ *
+ * Antes de cada escritura se llenan todas las caches del tenant; despues se
+ * comprueba que solo se han eliminado las claves que podian contener la tarea
+ * y que la siguiente lectura ya ve el cambio
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tasks;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+class TaskQueryCacheTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final String tenant = "cache-" + UUID.randomUUID();
+
+    // Tarea PENDING de prioridad LOW que ya existe antes de cada prueba
+    private Task task;
+
+    @BeforeEach
+    void createTask() {
+        TenantContext.setTenantId(tenant);
+        task = taskService.createTask(Task.builder()
+            .title("Preparar la demo")
+            .status(Status.PENDING)
+            .priority(Priority.LOW)
+            .build());
+        fillCaches();
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void createEvictsItsStatusAndPriority() {
+        Task created = taskService.createTask(Task.builder().title("Nueva tarea").priority(Priority.LOW).build());
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASK_COUNT_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASKS_BY_PRIORITY, Priority.LOW);
+        assertEvicted(CacheConfig.OVERDUE_TASKS, LocalDate.now());
+        assertKept(CacheConfig.TASKS_BY_STATUS, Status.COMPLETED);
+        assertKept(CacheConfig.TASKS_BY_PRIORITY, Priority.HIGH);
+
+        assertEquals(2L, taskService.countByStatus(Status.PENDING));
+        assertTrue(taskService.getTasksByStatus(Status.PENDING).stream().anyMatch(t -> t.getId().equals(created.getId())));
+    }
+
+    @Test
+    void updateEvictsOldAndNewValues() {
+        taskService.updateTask(task.getId(), Task.builder()
+            .title("Preparar la demo")
+            .status(Status.COMPLETED)
+            .priority(Priority.HIGH)
+            .build());
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.COMPLETED);
+        assertEvicted(CacheConfig.TASK_COUNT_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASK_COUNT_BY_STATUS, Status.COMPLETED);
+        assertEvicted(CacheConfig.TASKS_BY_PRIORITY, Priority.LOW);
+        assertEvicted(CacheConfig.TASKS_BY_PRIORITY, Priority.HIGH);
+        assertKept(CacheConfig.TASKS_BY_STATUS, Status.IN_PROGRESS);
+        assertKept(CacheConfig.TASKS_BY_PRIORITY, Priority.MEDIUM);
+
+        assertEquals(0L, taskService.countByStatus(Status.PENDING));
+        assertEquals(1, taskService.getTasksByPriority(Priority.HIGH).size());
+    }
+
+    @Test
+    void markAsInProgressEvictsBothStatuses() {
+        taskService.markTaskAsInProgress(task.getId());
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.IN_PROGRESS);
+        assertEvicted(CacheConfig.TASK_COUNT_BY_STATUS, Status.IN_PROGRESS);
+        assertEvicted(CacheConfig.TASKS_BY_PRIORITY, Priority.LOW);
+        assertKept(CacheConfig.TASKS_BY_STATUS, Status.COMPLETED);
+        assertKept(CacheConfig.TASKS_BY_PRIORITY, Priority.HIGH);
+
+        assertEquals(1, taskService.getTasksByStatus(Status.IN_PROGRESS).size());
+    }
+
+    @Test
+    void markAsCompletedEvictsBothStatuses() {
+        taskService.markTaskAsCompleted(task.getId());
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.COMPLETED);
+        assertEvicted(CacheConfig.TASK_COUNT_BY_STATUS, Status.COMPLETED);
+        assertKept(CacheConfig.TASKS_BY_STATUS, Status.IN_PROGRESS);
+
+        assertEquals(1L, taskService.countByStatus(Status.COMPLETED));
+    }
+
+    @Test
+    void deleteEvictsOldValues() {
+        taskService.deleteTask(task.getId());
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASK_COUNT_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASKS_BY_PRIORITY, Priority.LOW);
+        assertKept(CacheConfig.TASKS_BY_STATUS, Status.COMPLETED);
+
+        assertTrue(taskService.getTasksByStatus(Status.PENDING).isEmpty());
+    }
+
+    @Test
+    void boardMoveEvictsBothLanes() {
+        taskService.moveOnBoard(task.getId(), new BoardMoveRequest(Status.IN_PROGRESS, null, null));
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.IN_PROGRESS);
+        assertKept(CacheConfig.TASKS_BY_STATUS, Status.COMPLETED);
+
+        assertEquals(1L, taskService.countByStatus(Status.IN_PROGRESS));
+    }
+
+    @Test
+    void writeKeepsEntriesOfOtherTenants() {
+        String otherTenant = "cache-other-" + UUID.randomUUID();
+        TenantContext.setTenantId(otherTenant);
+        taskService.getTasksByStatus(Status.PENDING);
+
+        TenantContext.setTenantId(tenant);
+        taskService.markTaskAsCompleted(task.getId());
+
+        assertEvicted(CacheConfig.TASKS_BY_STATUS, Status.PENDING);
+        assertNotNull(cache(CacheConfig.TASKS_BY_STATUS).get(otherTenant + ":" + Status.PENDING));
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private void fillCaches() {
+        for (Status status : Status.values()) {
+            taskService.getTasksByStatus(status);
+            taskService.countByStatus(status);
+        }
+        for (Priority priority : Priority.values()) {
+            taskService.getTasksByPriority(priority);
+        }
+        taskService.getOverdueTasks();
+    }
+
+    private void assertEvicted(String cacheName, Object key) {
+        assertFalse(isCached(cacheName, key), cacheName + " conserva la clave " + key);
+    }
+
+    private void assertKept(String cacheName, Object key) {
+        assertTrue(isCached(cacheName, key), cacheName + " ha perdido la clave " + key);
+    }
+
+    private boolean isCached(String cacheName, Object key) {
+        return cache(cacheName).get(TenantContext.scopedKey(key)) != null;
+    }
+
+    private Cache cache(String cacheName) {
+        return cacheManager.getCache(cacheName);
+    }
+}
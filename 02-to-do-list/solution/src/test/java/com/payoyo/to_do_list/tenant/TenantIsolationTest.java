@@ -0,0 +1,148 @@
+package com.payoyo.to_do_list.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.payoyo.to_do_list.config.CacheConfig;
+import com.payoyo.to_do_list.entity.Task;
+import com.payoyo.to_do_list.entity.enums.Priority;
+import com.payoyo.to_do_list.entity.enums.Status;
+import com.payoyo.to_do_list.exceptions.TaskNotFoundException;
+import com.payoyo.to_do_list.service.TaskService;
+
+/*
+ * Aislamiento por tenant: un tenant nunca ve ni modifica las tareas de otro
+ *
+ * - Consultas del repositorio: filtro de Hibernate (TenantFilterAspect)
+ * - Busqueda por ID: comprobacion explicita en el servicio (em.find no aplica el filtro)
+ * - Cache de consultas: claves con el tenant como prefijo (TenantContext.scopedKey)
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tasks;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+class TenantIsolationTest {
+
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tenantA = "team-a-" + UUID.randomUUID();
+    private final String tenantB = "team-b-" + UUID.randomUUID();
+
+    private Task taskOfA;
+    private Task taskOfB;
+
+    @BeforeEach
+    void createTasks() {
+        taskOfA = as(tenantA, () -> taskService.createTask(task("Informe compartido A")));
+        taskOfB = as(tenantB, () -> taskService.createTask(task("Informe compartido B")));
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void findersOnlyReturnTasksOfCurrentTenant() {
+        TenantContext.setTenantId(tenantB);
+        List<Long> onlyB = List.of(taskOfB.getId());
+
+        assertEquals(onlyB, ids(taskService.getAllTasks()));
+        assertEquals(onlyB, ids(taskService.getTasksByStatus(Status.PENDING)));
+        assertEquals(onlyB, ids(taskService.getTasksByPriority(Priority.HIGH)));
+        assertEquals(onlyB, ids(taskService.getTasksByStatusAndPriority(Status.PENDING, Priority.HIGH)));
+        assertEquals(onlyB, ids(taskService.getOverdueTasks()));
+        assertEquals(onlyB, ids(taskService.getTasksByDueDateRange(YESTERDAY, YESTERDAY)));
+        assertEquals(onlyB, ids(taskService.searchTasks("Informe compartido")));
+        assertEquals(1L, taskService.countByStatus(Status.PENDING));
+        assertEquals(List.of(Map.of("id", taskOfB.getId(), "title", "Informe compartido B")),
+            taskService.getAllTasks(Set.of("title")));
+    }
+
+    @Test
+    void taskOfAnotherTenantIsNotFoundById() {
+        TenantContext.setTenantId(tenantB);
+        Long idOfA = taskOfA.getId();
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(idOfA));
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(idOfA, Set.of("title")));
+        assertThrows(TaskNotFoundException.class, () -> taskService.markTaskAsCompleted(idOfA));
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(idOfA, task("Cambiado por B")));
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(idOfA));
+
+        assertEquals("Informe compartido A", jdbcTemplate.queryForObject(
+            "SELECT title FROM tasks WHERE id = ? AND status = 'PENDING'", String.class, idOfA));
+    }
+
+    @Test
+    void cacheKeysAreScopedByTenant() {
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_BY_STATUS);
+
+        assertEquals(List.of(taskOfA.getId()), as(tenantA, () -> ids(taskService.getTasksByStatus(Status.PENDING))));
+        assertEquals(List.of(taskOfB.getId()), as(tenantB, () -> ids(taskService.getTasksByStatus(Status.PENDING))));
+
+        assertEquals(tenantA + ":PENDING", as(tenantA, () -> TenantContext.scopedKey(Status.PENDING)));
+        assertNotNull(cache.get(tenantA + ":PENDING"));
+        assertNotNull(cache.get(tenantB + ":PENDING"));
+    }
+
+    @Test
+    void invalidTenantIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TenantContext.setTenantId("../team-a"));
+        assertThrows(IllegalArgumentException.class, () -> TenantContext.setTenantId("t".repeat(65)));
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static Task task(String title) {
+        return Task.builder()
+            .title(title)
+            .status(Status.PENDING)
+            .priority(Priority.HIGH)
+            .dueDate(YESTERDAY)
+            .build();
+    }
+
+    private static <T> T as(String tenantId, Supplier<T> action) {
+        TenantContext.setTenantId(tenantId);
+        try {
+            return action.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
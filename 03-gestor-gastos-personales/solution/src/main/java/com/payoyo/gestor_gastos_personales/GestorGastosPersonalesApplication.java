@@ -2,8 +2,10 @@ package com.payoyo.gestor_gastos_personales;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GestorGastosPersonalesApplication {
 
 	public static void main(String[] args) {
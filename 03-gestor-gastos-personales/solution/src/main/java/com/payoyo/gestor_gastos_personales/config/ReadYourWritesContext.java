@@ -0,0 +1,111 @@
+package com.payoyo.gestor_gastos_personales.config;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Marca de lectura de lo recién escrito del cliente actual.
+ *
+ * Guarda en un ThreadLocal hasta cuándo (epoch en milisegundos) las lecturas
+ * de ese cliente deben ir a la principal:
+ *
+ * - Peticiones HTTP: ReadYourWritesInterceptor la carga de la cookie
+ *   read-primary-until al empezar y la limpia al terminar; cada escritura
+ *   confirmada la renueva y la devuelve en la misma cookie. Así la marca
+ *   viaja con el cliente aunque su siguiente petición la atienda otra instancia
+ * - Sin petición (tareas programadas, pruebas): la marca es del hilo
+ * - Consultas lanzadas en otros hilos en nombre del cliente (ReportQueryExecutor):
+ *   heredan su marca con propagate
+ *
+ * Las escrituras de un cliente no desvían a la principal las lecturas de los
+ * demás: solo quien acaba de escribir necesita ver su cambio al momento.
+ *
+ * Se usa hora de reloj (no System.nanoTime) porque la marca se compara en
+ * otras instancias.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+public final class ReadYourWritesContext {
+
+    static final String COOKIE = "read-primary-until";
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = ThreadLocal.withInitial(() -> 0L);
+
+    // Respuesta de la petición en curso, para devolver la cookie tras cada escritura
+    private static final ThreadLocal<HttpServletResponse> RESPONSE = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    /**
+     * Inicia el contexto de una petición HTTP.
+     *
+     * @param primaryUntil -> Marca recibida en la cookie (0 si no hay o no es válida)
+     * @param response -> Respuesta en la que se devolverá la marca renovada
+     */
+    static void begin(long primaryUntil, HttpServletResponse response) {
+        PRIMARY_UNTIL.set(primaryUntil);
+        RESPONSE.set(response);
+    }
+
+    /**
+     * @return true si el cliente actual escribió hace menos de replica-lag
+     */
+    static boolean readFromPrimary() {
+        return System.currentTimeMillis() < PRIMARY_UNTIL.get();
+    }
+
+    /**
+     * Registra una escritura confirmada del cliente actual: sus lecturas van a
+     * la principal durante lag.
+     *
+     * Se llama tras el commit, antes de que el controlador escriba la respuesta,
+     * así que la cookie todavía se puede añadir.
+     *
+     * @param lag -> Retraso máximo esperado de la réplica
+     */
+    static void wrote(Duration lag) {
+        long primaryUntil = System.currentTimeMillis() + lag.toMillis();
+        PRIMARY_UNTIL.set(primaryUntil);
+
+        HttpServletResponse response = RESPONSE.get();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(primaryUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, lag.toSeconds() + 1));
+            response.addCookie(cookie);
+        }
+    }
+
+    /**
+     * Envuelve una tarea que otro hilo ejecutará en nombre del cliente actual:
+     * la tarea lee de la misma base de datos que leería el cliente.
+     *
+     * @param task -> Tarea a ejecutar en otro hilo
+     * @return Tarea con la marca del cliente actual
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        long primaryUntil = PRIMARY_UNTIL.get();
+        return () -> {
+            PRIMARY_UNTIL.set(primaryUntil);
+            try {
+                return task.get();
+            } finally {
+                PRIMARY_UNTIL.remove();
+            }
+        };
+    }
+
+    /**
+     * Limpia el contexto al terminar la petición
+     * (los hilos del servidor se reutilizan entre peticiones).
+     */
+    static void clear() {
+        PRIMARY_UNTIL.remove();
+        RESPONSE.remove();
+    }
+}
@@ -0,0 +1,48 @@
+package com.payoyo.gestor_gastos_personales.config;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Carga en ReadYourWritesContext la marca de lectura de lo recién escrito
+ * que el cliente devuelve en la cookie read-primary-until.
+ *
+ * La marca solo decide de qué base de datos lee ese cliente: un valor
+ * manipulado como mucho envía sus lecturas a la principal durante más tiempo.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesContext.begin(primaryUntil(request), response);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReadYourWritesContext.clear();
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (ReadYourWritesContext.COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
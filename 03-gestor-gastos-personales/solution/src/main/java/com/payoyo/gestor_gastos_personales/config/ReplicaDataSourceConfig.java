@@ -0,0 +1,87 @@
+package com.payoyo.gestor_gastos_personales.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Réplica de solo lectura para listados y reportes (opcional).
+ *
+ * Solo se activa si se configura expenses.datasource.replica.jdbc-url; sin
+ * ella la aplicación usa una única base de datos (spring.datasource) como siempre.
+ *
+ * - primaryDataSource: pool de spring.datasource (+ spring.datasource.hikari.*)
+ * - replicaDataSource: pool de expenses.datasource.replica.* (jdbc-url, username,
+ *   password y cualquier otra propiedad de Hikari, p. ej. maximum-pool-size)
+ * - dataSource: el que usan JPA y JdbcTemplate, reparte las conexiones entre
+ *   los dos (ver ReplicaRoutingDataSource)
+ * - readYourWritesConfigurer: registra ReadYourWritesInterceptor, que lleva en una
+ *   cookie la marca de lectura de lo recién escrito de cada cliente
+ *
+ * Ejemplo (application.properties):
+ * expenses.datasource.replica.jdbc-url=jdbc:postgresql://replica:5432/gastos
+ * expenses.datasource.replica.username=postgres
+ * expenses.datasource.replica.password=admin
+ * expenses.datasource.replica-lag=PT1S
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "expenses.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("expenses.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * @param lag Retraso máximo esperado de la réplica: tras una escritura se lee
+     *            de la principal durante este tiempo
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${expenses.datasource.replica-lag:PT1S}") Duration lag
+    ) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lag));
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor());
+            }
+        };
+    }
+}
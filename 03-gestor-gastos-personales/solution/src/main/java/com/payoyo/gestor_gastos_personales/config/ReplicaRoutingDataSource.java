@@ -0,0 +1,64 @@
+package com.payoyo.gestor_gastos_personales.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Elige la base de datos de cada conexión según la transacción en curso:
+ *
+ * - Transacciones de solo lectura (@Transactional(readOnly = true): listados,
+ *   reportes, exportaciones) -> réplica
+ * - Todo lo demás (escrituras, lecturas sin transacción) -> principal
+ *
+ * Lectura de lo recién escrito: la réplica recibe los cambios con retraso, así
+ * que tras confirmar una transacción de escritura las lecturas DE ESE CLIENTE van
+ * a la principal durante replica-lag (p. ej. un GET justo después de crear un
+ * gasto lo encuentra). Las de los demás clientes siguen yendo a la réplica
+ * (ver ReadYourWritesContext).
+ *
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión real se
+ * pide en la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final Duration lag;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration lag) {
+        this.lag = lag;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReadYourWritesContext.readFromPrimary() ? Target.PRIMARY : Target.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Una conexión por transacción: se registra una sola vez.
+            // afterCommit se ejecuta en el hilo de la transacción, el del cliente que escribe
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadYourWritesContext.wrote(lag);
+                }
+            });
+        }
+        return Target.PRIMARY;
+    }
+}
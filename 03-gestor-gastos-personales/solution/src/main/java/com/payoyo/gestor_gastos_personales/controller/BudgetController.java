@@ -0,0 +1,121 @@
+package com.payoyo.gestor_gastos_personales.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.payoyo.gestor_gastos_personales.dto.BudgetStatus;
+import com.payoyo.gestor_gastos_personales.entity.Budget;
+import com.payoyo.gestor_gastos_personales.entity.BudgetAlert;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.service.BudgetService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controlador REST de los presupuestos mensuales por categoría.
+ * Todas las rutas comienzan con /api/budgets.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@RestController
+@RequestMapping("/api/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    /**
+     * Obtiene todos los presupuestos con lo gastado en el mes actual.
+     * Endpoint: GET /api/budgets
+     * 
+     * @return ResponseEntity con el estado de cada presupuesto y código 200 (OK)
+     * 
+     * Respuesta ejemplo:
+     * [
+     *   {
+     *     "category": "FOOD",
+     *     "month": "2024-11",
+     *     "monthlyLimit": 400.00,
+     *     "alertPercentage": 80,
+     *     "spentAmount": 325.50,
+     *     "remainingAmount": 74.50,
+     *     "percentUsed": 81.38
+     *   }
+     * ]
+     */
+    @GetMapping
+    public ResponseEntity<List<BudgetStatus>> getBudgets() {
+        return ResponseEntity.ok(budgetService.getBudgets());
+    }
+
+    /**
+     * Obtiene los avisos de presupuesto superado de un mes.
+     * Endpoint: GET /api/budgets/alerts?month=YYYY-MM
+     * 
+     * @param month Mes (opcional, por defecto el actual)
+     * @return ResponseEntity con los avisos y código 200 (OK)
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<BudgetAlert>> getAlerts(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(budgetService.getAlerts(month));
+    }
+
+    /**
+     * Obtiene el presupuesto de una categoría.
+     * Endpoint: GET /api/budgets/{category}
+     * 
+     * @param category Categoría
+     * @return ResponseEntity con el estado del presupuesto y código 200 (OK)
+     */
+    @GetMapping("/{category}")
+    public ResponseEntity<BudgetStatus> getBudget(@PathVariable CategoryEnum category) {
+        return ResponseEntity.ok(budgetService.getBudget(category));
+    }
+
+    /**
+     * Crea o modifica el presupuesto de una categoría.
+     * Endpoint: PUT /api/budgets/{category}
+     * 
+     * @param category Categoría
+     * @param budget Límite mensual y porcentaje de aviso (validados con @Valid)
+     * @return ResponseEntity con el estado del presupuesto y código 200 (OK)
+     * 
+     * Ejemplo de body:
+     * {
+     *   "monthlyLimit": 400.00,
+     *   "alertPercentage": 80
+     * }
+     */
+    @PutMapping("/{category}")
+    public ResponseEntity<BudgetStatus> saveBudget(
+            @PathVariable CategoryEnum category,
+            @Valid @RequestBody Budget budget) {
+        return ResponseEntity.ok(budgetService.saveBudget(category, budget));
+    }
+
+    /**
+     * Elimina el presupuesto de una categoría.
+     * Endpoint: DELETE /api/budgets/{category}
+     * 
+     * @param category Categoría
+     * @return ResponseEntity vacío con código 204 (No Content)
+     */
+    @DeleteMapping("/{category}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable CategoryEnum category) {
+        budgetService.deleteBudget(category);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.payoyo.gestor_gastos_personales.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.payoyo.gestor_gastos_personales.entity.ExchangeRate;
+import com.payoyo.gestor_gastos_personales.service.ExchangeRateService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controlador REST de los tipos de cambio a la moneda base.
+ * Todas las rutas comienzan con /api/exchange-rates.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@RestController
+@RequestMapping("/api/exchange-rates")
+@RequiredArgsConstructor
+public class ExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+
+    /**
+     * Obtiene los tipos de cambio, los más recientes primero.
+     * Endpoint: GET /api/exchange-rates?currency=USD
+     * 
+     * @param currency Moneda (opcional, por defecto todas)
+     * @return ResponseEntity con los tipos y código 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<List<ExchangeRate>> getRates(@RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(exchangeRateService.getRates(currency));
+    }
+
+    /**
+     * Crea o modifica el tipo de una moneda a partir de una fecha.
+     * Los gastos de esa moneda a los que se aplica se vuelven a convertir.
+     * Endpoint: PUT /api/exchange-rates/{currency}/{date}
+     * 
+     * @param currency Moneda (código ISO 4217)
+     * @param date Primer día en el que se aplica (YYYY-MM-DD)
+     * @param rate Tipo de cambio (validado con @Valid)
+     * @return ResponseEntity con el tipo guardado y código 200 (OK)
+     * 
+     * Ejemplo de body:
+     * {
+     *   "rate": 0.92
+     * }
+     */
+    @PutMapping("/{currency}/{date}")
+    public ResponseEntity<ExchangeRate> saveRate(
+            @PathVariable String currency,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Valid @RequestBody ExchangeRate rate) {
+        return ResponseEntity.ok(exchangeRateService.saveRate(currency, date, rate));
+    }
+
+    /**
+     * Elimina un tipo de cambio. Sus gastos pasan a usar el tipo anterior.
+     * Endpoint: DELETE /api/exchange-rates/{currency}/{date}
+     * 
+     * @param currency Moneda
+     * @param date Fecha del tipo (YYYY-MM-DD)
+     * @return ResponseEntity vacío con código 204 (No Content)
+     */
+    @DeleteMapping("/{currency}/{date}")
+    public ResponseEntity<Void> deleteRate(
+            @PathVariable String currency,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        exchangeRateService.deleteRate(currency, date);
+        return ResponseEntity.noContent().build();
+    }
+}
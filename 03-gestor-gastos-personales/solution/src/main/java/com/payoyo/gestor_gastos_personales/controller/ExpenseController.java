@@ -1,11 +1,17 @@
 package com.payoyo.gestor_gastos_personales.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +19,32 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.payoyo.gestor_gastos_personales.dto.CategoryReport;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseCreation;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseImportReport;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseOverview;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePage;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePageRequest;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchPage;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSort;
+import com.payoyo.gestor_gastos_personales.dto.ExportFormat;
+import com.payoyo.gestor_gastos_personales.dto.MonthReport;
+import com.payoyo.gestor_gastos_personales.dto.PeriodReport;
+import com.payoyo.gestor_gastos_personales.dto.SpendForecast;
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesReport;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
 import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseAnomaly;
 import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
 import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
 import com.payoyo.gestor_gastos_personales.exceptions.ExpenseNotFoundException;
@@ -39,6 +66,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ExpenseController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final ExpenseService expenseService;
 
     // ==================== OPERACIONES CRUD ====================
@@ -48,6 +78,7 @@ public class ExpenseController {
      * Endpoint: POST /api/expenses
      * 
      * @param expense Datos del gasto a crear (validados con @Valid)
+     * @param idempotencyKey Clave de la petición (opcional, hasta 100 caracteres)
      * @return ResponseEntity con el gasto creado y código 201 (Created)
      * 
      * Ejemplo de body:
@@ -58,22 +89,52 @@ public class ExpenseController {
      *   "date": "2024-11-19",
      *   "paymentMethod": "CREDIT_CARD"
      * }
+     * 
+     * Reintentos: con la cabecera Idempotency-Key (p. ej. un UUID generado por el
+     * cliente para cada gasto) repetir la petición no crea otro gasto. Se
+     * devuelve el gasto original con la cabecera Idempotent-Replayed: true.
+     * Responde 409 (Conflict) si la petición original sigue en curso o la clave
+     * se usó con otro gasto.
      */
     @PostMapping
-    public ResponseEntity<Expense> createExpense(@Valid @RequestBody Expense expense) {
-        Expense createdExpense = expenseService.createExpense(expense);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdExpense);
+    public ResponseEntity<Expense> createExpense(
+            @Valid @RequestBody Expense expense,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        ExpenseCreation creation = expenseService.createExpense(expense, idempotencyKey);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (idempotencyKey != null) {
+            response.header(IDEMPOTENT_REPLAYED, String.valueOf(creation.replayed()));
+        }
+        return response.body(creation.expense());
     }
 
     /**
-     * Obtiene todos los gastos ordenados por fecha descendente.
+     * Obtiene una página de todos los gastos (más recientes primero por defecto).
      * Endpoint: GET /api/expenses
      * 
-     * @return ResponseEntity con lista de todos los gastos y código 200 (OK)
+     * @param size Gastos por página (1-500, por defecto 50)
+     * @param cursor nextCursor de la página anterior (sin cursor = primera página)
+     * @param sort Orden: DATE_DESC (por defecto), DATE_ASC, AMOUNT_DESC o AMOUNT_ASC
+     * @return ResponseEntity con la página de gastos y código 200 (OK)
+     * 
+     * Ejemplo: GET /api/expenses?size=20 y después GET /api/expenses?size=20&cursor={nextCursor}
+     * 
+     * Respuesta ejemplo:
+     * {
+     *   "content": [ ... ],
+     *   "size": 20,
+     *   "hasNext": true,
+     *   "nextCursor": "REFURV9ERVNDfDIwMjQtMTEtMTl8MTIzNA",
+     *   "totalElements": 12873
+     * }
+     * totalElements solo se incluye en la primera página (null en las siguientes).
      */
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses() {
-        List<Expense> expenses = expenseService.getAllExpenses();
+    public ResponseEntity<ExpensePage> getAllExpenses(
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "DATE_DESC") ExpenseSort sort) {
+        ExpensePage expenses = expenseService.getAllExpenses(new ExpensePageRequest(size, cursor, sort));
         return ResponseEntity.ok(expenses);
     }
 
@@ -129,13 +190,21 @@ public class ExpenseController {
      * Endpoint: GET /api/expenses/category/{category}
      * 
      * @param category Categoría para filtrar (FOOD, TRANSPORT, etc.)
-     * @return ResponseEntity con lista de gastos de la categoría y código 200 (OK)
+     * @param size Gastos por página (1-500, por defecto 50)
+     * @param cursor nextCursor de la página anterior (sin cursor = primera página)
+     * @param sort Orden: DATE_DESC (por defecto), DATE_ASC, AMOUNT_DESC o AMOUNT_ASC
+     * @return ResponseEntity con la página de gastos de la categoría y código 200 (OK)
      * 
-     * Ejemplo: GET /api/expenses/category/FOOD
+     * Ejemplo: GET /api/expenses/category/FOOD?sort=AMOUNT_DESC
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Expense>> getExpensesByCategory(@PathVariable CategoryEnum category) {
-        List<Expense> expenses = expenseService.getExpensesByCategory(category);
+    public ResponseEntity<ExpensePage> getExpensesByCategory(
+            @PathVariable CategoryEnum category,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "DATE_DESC") ExpenseSort sort) {
+        ExpensePage expenses = expenseService.getExpensesByCategory(
+                category, new ExpensePageRequest(size, cursor, sort));
         return ResponseEntity.ok(expenses);
     }
 
@@ -145,17 +214,24 @@ public class ExpenseController {
      * 
      * @param startDate Fecha de inicio (formato: YYYY-MM-DD)
      * @param endDate Fecha de fin (formato: YYYY-MM-DD)
-     * @return ResponseEntity con lista de gastos en el rango y código 200 (OK)
+     * @param size Gastos por página (1-500, por defecto 50)
+     * @param cursor nextCursor de la página anterior (sin cursor = primera página)
+     * @param sort Orden: DATE_DESC (por defecto), DATE_ASC, AMOUNT_DESC o AMOUNT_ASC
+     * @return ResponseEntity con la página de gastos en el rango y código 200 (OK)
      * 
      * Ejemplo: GET /api/expenses/between?startDate=2024-11-01&endDate=2024-11-30
      * 
      * @DateTimeFormat asegura que Spring parsee correctamente las fechas
      */
     @GetMapping("/between")
-    public ResponseEntity<List<Expense>> getExpensesByDateBetween(
+    public ResponseEntity<ExpensePage> getExpensesByDateBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<Expense> expenses = expenseService.getExpensesByDateBetween(startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "DATE_DESC") ExpenseSort sort) {
+        ExpensePage expenses = expenseService.getExpensesByDateBetween(
+                startDate, endDate, new ExpensePageRequest(size, cursor, sort));
         return ResponseEntity.ok(expenses);
     }
 
@@ -164,24 +240,171 @@ public class ExpenseController {
      * Endpoint: GET /api/expenses/payment-method/{paymentMethod}
      * 
      * @param paymentMethod Método de pago para filtrar (CASH, CREDIT_CARD, etc.)
-     * @return ResponseEntity con lista de gastos del método de pago y código 200 (OK)
+     * @param size Gastos por página (1-500, por defecto 50)
+     * @param cursor nextCursor de la página anterior (sin cursor = primera página)
+     * @param sort Orden: DATE_DESC (por defecto), DATE_ASC, AMOUNT_DESC o AMOUNT_ASC
+     * @return ResponseEntity con la página de gastos del método de pago y código 200 (OK)
      * 
      * Ejemplo: GET /api/expenses/payment-method/CREDIT_CARD
      */
     @GetMapping("/payment-method/{paymentMethod}")
-    public ResponseEntity<List<Expense>> getExpensesByPaymentMethod(
-            @PathVariable PaymentMethodEnum paymentMethod) {
-        List<Expense> expenses = expenseService.getExpensesByPaymentMethod(paymentMethod);
+    public ResponseEntity<ExpensePage> getExpensesByPaymentMethod(
+            @PathVariable PaymentMethodEnum paymentMethod,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "DATE_DESC") ExpenseSort sort) {
+        ExpensePage expenses = expenseService.getExpensesByPaymentMethod(
+                paymentMethod, new ExpensePageRequest(size, cursor, sort));
         return ResponseEntity.ok(expenses);
     }
 
+    /**
+     * Obtiene los últimos gastos marcados como inusuales: cantidad muy por encima
+     * de la media de su categoría y método de pago (3 desviaciones típicas por defecto).
+     * Endpoint: GET /api/expenses/anomalies
+     * 
+     * @param size Número máximo de gastos (1-500, por defecto 50)
+     * @return ResponseEntity con los gastos marcados (más recientes primero) y código 200 (OK)
+     * 
+     * Respuesta ejemplo:
+     * [
+     *   {
+     *     "id": 3,
+     *     "expenseId": 1542,
+     *     "expenseDate": "2024-11-18",
+     *     "description": "Cena de empresa",
+     *     "category": "FOOD",
+     *     "paymentMethod": "CREDIT_CARD",
+     *     "amount": 480.00,
+     *     "mean": 32.40,
+     *     "standardDeviation": 18.75,
+     *     "zScore": 23.87,
+     *     "createdAt": "2024-11-18T21:04:11"
+     *   }
+     * ]
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<ExpenseAnomaly>> getAnomalies(@RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(expenseService.getAnomalies(size));
+    }
+
+    /**
+     * Busca gastos por texto en la descripción (tolera textos incompletos y erratas).
+     * Endpoint: GET /api/expenses/search
+     * 
+     * @param q Texto a buscar (3-200 caracteres)
+     * @param minAmount Cantidad mínima en la moneda base (opcional)
+     * @param maxAmount Cantidad máxima en la moneda base (opcional)
+     * @param category Categoría (opcional)
+     * @param startDate Fecha mínima (opcional)
+     * @param endDate Fecha máxima (opcional)
+     * @param page Número de página (por defecto 0)
+     * @param size Resultados por página (1-500, por defecto 20)
+     * @return ResponseEntity con los gastos encontrados (más relevantes primero) y código 200 (OK)
+     * 
+     * Ejemplo: GET /api/expenses/search?q=mercadna&category=FOOD&minAmount=10
+     * 
+     * Respuesta ejemplo:
+     * {
+     *   "content": [
+     *     { "expense": { "id": 1542, "description": "Compra en Mercadona", ... }, "relevance": 0.78 }
+     *   ],
+     *   "page": 0,
+     *   "size": 20,
+     *   "hasNext": false
+     * }
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseSearchPage> searchExpenses(
+            @RequestParam String q,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        ExpenseSearchFilter filter = new ExpenseSearchFilter(q, minAmount, maxAmount, category, startDate, endDate);
+        return ResponseEntity.ok(expenseService.searchExpenses(filter, page, size));
+    }
+
+    /**
+     * Exporta los gastos a CSV o Excel.
+     * Endpoint: GET /api/expenses/export
+     * 
+     * @param format Formato del fichero: CSV (por defecto) o XLSX
+     * @param startDate Fecha mínima (opcional)
+     * @param endDate Fecha máxima (opcional)
+     * @param category Categoría (opcional)
+     * @param paymentMethod Método de pago (opcional)
+     * @return ResponseEntity con el fichero como descarga y código 200 (OK)
+     * 
+     * Ejemplo: GET /api/expenses/export?format=XLSX&startDate=2024-01-01&endDate=2024-12-31
+     * 
+     * El fichero se genera mientras se envía (StreamingResponseBody): los gastos
+     * se leen de la base de datos con un cursor y se escriben directamente en la
+     * respuesta, sin cargar la lista completa en memoria.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) CategoryEnum category,
+            @RequestParam(required = false) PaymentMethodEnum paymentMethod) {
+        // Se valida antes de empezar a escribir (después ya no se puede devolver un 400)
+        ExpenseFilter filter = new ExpenseFilter(startDate, endDate, category, paymentMethod);
+        StreamingResponseBody body = out -> expenseService.exportExpenses(filter, format, out);
+
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename("expenses." + format.extension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(body);
+    }
+
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Importa gastos de forma masiva desde un CSV.
+     * Endpoint: POST /api/expenses/import (multipart/form-data, campo "file")
+     * 
+     * @param file CSV en UTF-8 con cabecera date, description, amount, category, paymentMethod
+     * @return ResponseEntity con el resumen de la importación y código 200 (OK)
+     * @throws IOException si falla la lectura del fichero
+     * 
+     * Ejemplo: curl -F file=@extracto.csv http://localhost:8080/api/expenses/import
+     * 
+     * Respuesta ejemplo:
+     * {
+     *   "totalRows": 1200,
+     *   "imported": 1150,
+     *   "duplicates": 48,
+     *   "rejected": 2,
+     *   "errors": [
+     *     {"line": 17, "message": "amount: '12,50' no es una cantidad válida (p. ej. 25.50)"},
+     *     {"line": 803, "message": "date: La fecha del gasto no puede ser futura"}
+     *   ],
+     *   "errorsTruncated": false
+     * }
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ExpenseImportReport> importExpenses(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(expenseService.importExpenses(in));
+        }
+    }
+
     // ==================== REPORTES ====================
 
     /**
      * Genera reporte de gastos agrupados por categoría.
      * Endpoint: GET /api/expenses/reports/by-category
      * 
-     * @return ResponseEntity con lista de Maps (categoría, total, cantidad) y código 200 (OK)
+     * @return ResponseEntity con lista de reportes (categoría, total, cantidad) y código 200 (OK)
      * 
      * Respuesta ejemplo:
      * [
@@ -190,8 +413,8 @@ public class ExpenseController {
      * ]
      */
     @GetMapping("/reports/by-category")
-    public ResponseEntity<List<Map<String, Object>>> getReportByCategory() {
-        List<Map<String, Object>> report = expenseService.getReportByCategory();
+    public ResponseEntity<List<CategoryReport>> getReportByCategory() {
+        List<CategoryReport> report = expenseService.getCategoryReport();
         return ResponseEntity.ok(report);
     }
 
@@ -201,7 +424,7 @@ public class ExpenseController {
      * 
      * @param startDate Fecha de inicio del período
      * @param endDate Fecha de fin del período
-     * @return ResponseEntity con Map de estadísticas del período y código 200 (OK)
+     * @return ResponseEntity con las estadísticas del período y código 200 (OK)
      * 
      * Ejemplo: GET /api/expenses/reports/period?startDate=2024-11-01&endDate=2024-11-30
      * 
@@ -215,10 +438,10 @@ public class ExpenseController {
      * }
      */
     @GetMapping("/reports/period")
-    public ResponseEntity<Map<String, Object>> getReportByPeriod(
+    public ResponseEntity<PeriodReport> getReportByPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        Map<String, Object> report = expenseService.getReportByPeriod(startDate, endDate);
+        PeriodReport report = expenseService.getPeriodReport(startDate, endDate);
         return ResponseEntity.ok(report);
     }
 
@@ -226,7 +449,7 @@ public class ExpenseController {
      * Genera reporte del mes actual.
      * Endpoint: GET /api/expenses/reports/current-month
      * 
-     * @return ResponseEntity con Map de estadísticas del mes actual y código 200 (OK)
+     * @return ResponseEntity con las estadísticas del mes actual y código 200 (OK)
      * 
      * Respuesta ejemplo:
      * {
@@ -239,9 +462,137 @@ public class ExpenseController {
      * }
      */
     @GetMapping("/reports/current-month")
-    public ResponseEntity<Map<String, Object>> getCurrentMonthReport() {
-        Map<String, Object> report = expenseService.getCurrentMonthReport();
+    public ResponseEntity<MonthReport> getCurrentMonthReport() {
+        MonthReport report = expenseService.getMonthReport();
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Resumen completo de un período para un panel: totales, reparto por
+     * categoría y por método de pago y los gastos más altos.
+     * Endpoint: GET /api/expenses/reports/overview
+     * 
+     * @param startDate Primer día (opcional, por defecto el día 1 del mes actual)
+     * @param endDate Último día (opcional, por defecto el último día del mes actual)
+     * @param top Número de gastos más altos (1 a 50, por defecto 5)
+     * @return ResponseEntity con el resumen y código 200 (OK)
+     * 
+     * Ejemplo: GET /api/expenses/reports/overview?startDate=2024-11-01&endDate=2024-11-30&top=1
+     * 
+     * Respuesta ejemplo:
+     * {
+     *   "period": {
+     *     "startDate": "2024-11-01",
+     *     "endDate": "2024-11-30",
+     *     "totalAmount": 1250.75,
+     *     "expenseCount": 45,
+     *     "averageExpense": 27.79
+     *   },
+     *   "byCategory": [
+     *     {"category": "FOOD", "totalAmount": 820.50, "expenseCount": 38},
+     *     {"category": "TRANSPORT", "totalAmount": 430.25, "expenseCount": 7}
+     *   ],
+     *   "byPaymentMethod": [
+     *     {"paymentMethod": "CREDIT_CARD", "totalAmount": 1100.75, "expenseCount": 40},
+     *     {"paymentMethod": "CASH", "totalAmount": 150.00, "expenseCount": 5}
+     *   ],
+     *   "topExpenses": [
+     *     {"id": 812, "description": "Compra semanal", "amount": 120.40, ...}
+     *   ]
+     * }
+     */
+    @GetMapping("/reports/overview")
+    public ResponseEntity<ExpenseOverview> getOverview(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "5") int top) {
+        return ResponseEntity.ok(expenseService.getOverview(startDate, endDate, top));
+    }
+
+    /**
+     * Genera la serie temporal de gastos (tendencias para gráficas).
+     * Endpoint: GET /api/expenses/reports/timeseries
+     * 
+     * @param granularity Tamaño de los intervalos: DAY, WEEK, MONTH (por defecto) o YEAR
+     * @param splitBy Separar por CATEGORY o PAYMENT_METHOD (por defecto NONE: una sola serie)
+     * @param startDate Primer día (opcional, por defecto el día 1 de hace 11 meses)
+     * @param endDate Último día (opcional, por defecto hoy)
+     * @return ResponseEntity con la serie temporal en formato columnar y código 200 (OK)
+     * 
+     * Ejemplo: GET /api/expenses/reports/timeseries?granularity=WEEK&splitBy=CATEGORY&startDate=2024-01-01
+     * 
+     * Respuesta ejemplo:
+     * {
+     *   "granularity": "MONTH",
+     *   "splitBy": "NONE",
+     *   "startDate": "2024-01-01",
+     *   "endDate": "2024-03-31",
+     *   "buckets": ["2024-01-01", "2024-02-01", "2024-03-01"],
+     *   "series": [
+     *     {"key": "TOTAL", "totalAmounts": [390.20, 95.50, 355.75], "expenseCounts": [18, 5, 15]}
+     *   ]
+     * }
+     */
+    @GetMapping("/reports/timeseries")
+    public ResponseEntity<TimeSeriesReport> getTimeSeries(
+            @RequestParam(defaultValue = "MONTH") TimeGranularity granularity,
+            @RequestParam(defaultValue = "NONE") TimeSeriesSplit splitBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        TimeSeriesReport report = expenseService.getTimeSeries(granularity, splitBy, startDate, endDate);
         return ResponseEntity.ok(report);
     }
+
+    /**
+     * Previsión del gasto a final del mes actual por categoría, con el ritmo
+     * de gasto del mes y los gastos recurrentes que faltan.
+     * Endpoint: GET /api/expenses/reports/forecast
+     * 
+     * @return ResponseEntity con la previsión y código 200 (OK)
+     * 
+     * Respuesta ejemplo (día 10 de un mes de 30 días):
+     * {
+     *   "month": "2024-11",
+     *   "asOf": "2024-11-10",
+     *   "daysElapsed": 10,
+     *   "daysInMonth": 30,
+     *   "spentAmount": 850.00,
+     *   "projectedAmount": 1060.00,
+     *   "categories": [
+     *     {"category": "FOOD", "spentAmount": 100.00, "recurringAmount": 0.00,
+     *      "pendingRecurringAmount": 0.00, "projectedAmount": 300.00},
+     *     {"category": "UTILITIES", "spentAmount": 750.00, "recurringAmount": 750.00,
+     *      "pendingRecurringAmount": 10.00, "projectedAmount": 760.00}
+     *   ]
+     * }
+     */
+    @GetMapping("/reports/forecast")
+    public ResponseEntity<SpendForecast> getSpendForecast() {
+        return ResponseEntity.ok(expenseService.getSpendForecast());
+    }
+
+    /**
+     * Reconstruye los acumulados diarios en los que se basan los reportes.
+     * Endpoint: POST /api/expenses/reports/rollups/rebuild
+     * 
+     * @param startDate Primer día a reconstruir (opcional)
+     * @param endDate Último día a reconstruir (opcional)
+     * @return ResponseEntity con el número de filas generadas y código 200 (OK)
+     * 
+     * Ejemplo: POST /api/expenses/reports/rollups/rebuild?startDate=2024-11-01&endDate=2024-11-30
+     * Sin parámetros se reconstruye todo el histórico (recorre toda la tabla de gastos).
+     * 
+     * Respuesta ejemplo:
+     * {
+     *   "rebuiltRows": 240
+     * }
+     */
+    @PostMapping("/reports/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = expenseService.rebuildRollups(startDate, endDate);
+        return ResponseEntity.ok(Map.of("rebuiltRows", rows));
+    }
     
 }
@@ -0,0 +1,109 @@
+package com.payoyo.gestor_gastos_personales.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+import com.payoyo.gestor_gastos_personales.service.RecurringExpenseService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controlador REST de las plantillas de gastos recurrentes.
+ * Todas las rutas comienzan con /api/recurring-expenses.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@RestController
+@RequestMapping("/api/recurring-expenses")
+@RequiredArgsConstructor
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    /**
+     * Obtiene todas las plantillas, las de repetición más próxima primero.
+     * Endpoint: GET /api/recurring-expenses
+     * 
+     * @return ResponseEntity con las plantillas y código 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringExpense>> getRecurringExpenses() {
+        return ResponseEntity.ok(recurringExpenseService.getRecurringExpenses());
+    }
+
+    /**
+     * Obtiene una plantilla por su ID.
+     * Endpoint: GET /api/recurring-expenses/{id}
+     * 
+     * @param id ID de la plantilla
+     * @return ResponseEntity con la plantilla y código 200 (OK)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringExpense> getRecurringExpense(@PathVariable Long id) {
+        return ResponseEntity.ok(recurringExpenseService.getRecurringExpense(id));
+    }
+
+    /**
+     * Crea una plantilla. Las repeticiones con fecha hasta hoy se generan ya.
+     * Endpoint: POST /api/recurring-expenses
+     * 
+     * @param recurringExpense Datos de la plantilla (validados con @Valid)
+     * @return ResponseEntity con la plantilla creada y código 201 (Created)
+     * 
+     * Ejemplo de body:
+     * {
+     *   "description": "Alquiler",
+     *   "amount": 750.00,
+     *   "category": "UTILITIES",
+     *   "paymentMethod": "BANK_TRANSFER",
+     *   "frequency": "MONTHLY",
+     *   "startDate": "2024-01-01"
+     * }
+     */
+    @PostMapping
+    public ResponseEntity<RecurringExpense> createRecurringExpense(
+            @Valid @RequestBody RecurringExpense recurringExpense) {
+        RecurringExpense created = recurringExpenseService.createRecurringExpense(recurringExpense);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * Modifica una plantilla. Los gastos ya generados no cambian.
+     * Endpoint: PUT /api/recurring-expenses/{id}
+     * 
+     * @param id ID de la plantilla
+     * @param recurringExpense Nuevos valores (validados con @Valid)
+     * @return ResponseEntity con la plantilla modificada y código 200 (OK)
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<RecurringExpense> updateRecurringExpense(
+            @PathVariable Long id,
+            @Valid @RequestBody RecurringExpense recurringExpense) {
+        return ResponseEntity.ok(recurringExpenseService.updateRecurringExpense(id, recurringExpense));
+    }
+
+    /**
+     * Elimina una plantilla. Los gastos ya generados se conservan.
+     * Endpoint: DELETE /api/recurring-expenses/{id}
+     * 
+     * @param id ID de la plantilla
+     * @return ResponseEntity vacío con código 204 (No Content)
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringExpense(@PathVariable Long id) {
+        recurringExpenseService.deleteRecurringExpense(id);
+        return ResponseEntity.noContent().build();
+    }
+}
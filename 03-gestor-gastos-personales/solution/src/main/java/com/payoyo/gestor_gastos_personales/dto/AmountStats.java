@@ -0,0 +1,27 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Número, suma y suma de cuadrados de las cantidades de una categoría y método
+ * de pago (resultado de una consulta agregada, en la moneda base).
+ * 
+ * @param category -> Categoría
+ * @param paymentMethod -> Método de pago
+ * @param expenseCount -> Número de gastos
+ * @param sum -> Suma de las cantidades
+ * @param sumOfSquares -> Suma de los cuadrados de las cantidades
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record AmountStats(
+        CategoryEnum category,
+        PaymentMethodEnum paymentMethod,
+        Long expenseCount,
+        BigDecimal sum,
+        BigDecimal sumOfSquares
+) {
+}
@@ -0,0 +1,17 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Total gastado en un intervalo de una serie temporal (resultado de una consulta agregada).
+ * 
+ * @param bucket -> Inicio del intervalo (date_trunc)
+ * @param key -> Categoría o método de pago de la serie (null si no se separa)
+ * @param totalAmount -> Suma de los importes
+ * @param expenseCount -> Número de gastos
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record BucketTotal(LocalDate bucket, String key, BigDecimal totalAmount, long expenseCount) {
+}
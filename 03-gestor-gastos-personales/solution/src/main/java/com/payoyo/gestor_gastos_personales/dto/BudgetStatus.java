@@ -0,0 +1,30 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Estado de un presupuesto en el mes actual.
+ * 
+ * @param category -> Categoría del presupuesto
+ * @param month -> Mes al que corresponde lo gastado
+ * @param monthlyLimit -> Límite mensual
+ * @param alertPercentage -> Porcentaje de aviso
+ * @param spentAmount -> Total gastado en el mes
+ * @param remainingAmount -> Lo que queda hasta el límite (negativo si se ha superado)
+ * @param percentUsed -> Porcentaje del límite gastado (con 2 decimales)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record BudgetStatus(
+        CategoryEnum category,
+        YearMonth month,
+        BigDecimal monthlyLimit,
+        int alertPercentage,
+        BigDecimal spentAmount,
+        BigDecimal remainingAmount,
+        BigDecimal percentUsed
+) {
+}
@@ -0,0 +1,73 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Fila del reporte de gastos por categoría.
+ * Endpoint: GET /api/expenses/reports/by-category
+ * 
+ * Se serializa con JsonWriter, que escribe los campos directamente en el
+ * JsonGenerator (sin reflexión ni Map intermedio). El JSON es el mismo que
+ * generaba la versión anterior basada en Map:
+ * {"category": "FOOD", "totalAmount": 325.50, "expenseCount": 12}
+ * 
+ * @param category -> Categoría
+ * @param totalAmount -> Suma total de gastos
+ * @param expenseCount -> Cantidad de gastos
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@JsonSerialize(using = CategoryReport.JsonWriter.class)
+public record CategoryReport(CategoryEnum category, BigDecimal totalAmount, int expenseCount) {
+
+    /**
+     * Crea la fila a partir del resultado de la consulta agregada.
+     * 
+     * @param total Total de la categoría
+     * @return Fila del reporte
+     */
+    public static CategoryReport of(CategoryTotal total) {
+        return new CategoryReport(total.category(), total.totalAmount(), total.expenseCount().intValue());
+    }
+
+    /**
+     * Formato anterior (Map) para los clientes que aún lo usan.
+     * 
+     * @return Map con "category", "totalAmount" y "expenseCount"
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("category", category.name());
+        map.put("totalAmount", totalAmount);
+        map.put("expenseCount", expenseCount);
+        return map;
+    }
+
+    /**
+     * Serializador en streaming: escribe cada campo sin pasar por reflexión.
+     */
+    public static class JsonWriter extends StdSerializer<CategoryReport> {
+
+        public JsonWriter() {
+            super(CategoryReport.class);
+        }
+
+        @Override
+        public void serialize(CategoryReport report, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("category", report.category().name());
+            gen.writeNumberField("totalAmount", report.totalAmount());
+            gen.writeNumberField("expenseCount", report.expenseCount());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Total gastado en una categoría (resultado de una consulta agregada).
+ * 
+ * @param category -> Categoría
+ * @param totalAmount -> Suma de los importes
+ * @param expenseCount -> Número de gastos
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record CategoryTotal(CategoryEnum category, BigDecimal totalAmount, Long expenseCount) {
+}
@@ -0,0 +1,14 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+
+/**
+ * Resultado de un alta de gasto con Idempotency-Key.
+ * 
+ * @param expense -> Gasto creado (en un reintento, el de la petición original)
+ * @param replayed -> true si es un reintento y no se ha creado nada
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseCreation(Expense expense, boolean replayed) {
+}
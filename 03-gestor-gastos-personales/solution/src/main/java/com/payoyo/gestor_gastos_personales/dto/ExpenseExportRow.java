@@ -0,0 +1,27 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Fila de la exportación de gastos.
+ * 
+ * Se lee con una proyección JPQL (SELECT new ...): al no ser una entidad,
+ * Hibernate no la guarda en el contexto de persistencia y la memoria no
+ * crece con el número de filas exportadas.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseExportRow(
+        Long id,
+        LocalDate date,
+        String description,
+        CategoryEnum category,
+        PaymentMethodEnum paymentMethod,
+        BigDecimal amount,
+        String currency
+) {
+}
@@ -0,0 +1,33 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.time.LocalDate;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Filtros opcionales sobre los gastos (null = sin filtrar por ese campo).
+ * 
+ * @param startDate -> Fecha mínima (inclusive)
+ * @param endDate -> Fecha máxima (inclusive)
+ * @param category -> Categoría
+ * @param paymentMethod -> Método de pago
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseFilter(
+        LocalDate startDate,
+        LocalDate endDate,
+        CategoryEnum category,
+        PaymentMethodEnum paymentMethod
+) {
+
+    /**
+     * @throws IllegalArgumentException si startDate es posterior a endDate
+     */
+    public ExpenseFilter {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate no puede ser posterior a endDate");
+        }
+    }
+}
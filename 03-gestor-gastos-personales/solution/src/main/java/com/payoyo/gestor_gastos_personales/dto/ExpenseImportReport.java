@@ -0,0 +1,34 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de gastos.
+ *
+ * @param totalRows -> Filas de datos leídas (sin contar la cabecera)
+ * @param imported -> Gastos insertados
+ * @param duplicates -> Filas descartadas porque el gasto ya existía (misma fecha, cantidad, moneda y descripción)
+ * @param rejected -> Filas con errores de formato o validación
+ * @param errors -> Detalle de las filas rechazadas (como mucho las primeras 1000)
+ * @param errorsTruncated -> true si hay más filas rechazadas que las detalladas en errors
+ *
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseImportReport(
+        long totalRows,
+        long imported,
+        long duplicates,
+        long rejected,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+
+    /**
+     * Error de una fila del fichero.
+     *
+     * @param line -> Línea del fichero donde empieza la fila (la cabecera es la 1)
+     * @param message -> Motivo del rechazo
+     */
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+
+/**
+ * Resumen completo de un período: totales, reparto por categoría y por método
+ * de pago y los gastos más altos.
+ * Endpoint: GET /api/expenses/reports/overview
+ * 
+ * Cada parte sale de una consulta independiente; se lanzan a la vez
+ * (ver ReportQueryExecutor).
+ * 
+ * @param period -> Total, número de gastos y promedio del período
+ * @param byCategory -> Totales por categoría, mayor gasto primero
+ * @param byPaymentMethod -> Totales por método de pago, mayor gasto primero
+ * @param topExpenses -> Gastos con mayor cantidad (en la moneda base) del período
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseOverview(
+        PeriodReport period,
+        List<CategoryTotal> byCategory,
+        List<PaymentMethodTotal> byPaymentMethod,
+        List<Expense> topExpenses
+) {
+}
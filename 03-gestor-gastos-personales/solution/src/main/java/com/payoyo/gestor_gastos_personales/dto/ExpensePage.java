@@ -0,0 +1,30 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+
+/**
+ * Página de un listado de gastos.
+ * 
+ * Para pedir la siguiente página se envía nextCursor en el parámetro cursor
+ * (con el mismo size y sort). El cursor guarda la posición del último gasto de
+ * la página: la base de datos salta directamente a ella por el índice, sin
+ * recorrer las páginas anteriores como haría un OFFSET.
+ * 
+ * @param content -> Gastos de la página
+ * @param size -> Tamaño de página pedido
+ * @param hasNext -> true si hay más gastos después de esta página
+ * @param nextCursor -> Cursor de la página siguiente (null si es la última)
+ * @param totalElements -> Total de gastos del listado, solo en la primera página (null en las demás)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpensePage(
+        List<Expense> content,
+        int size,
+        boolean hasNext,
+        String nextCursor,
+        Long totalElements
+) {
+}
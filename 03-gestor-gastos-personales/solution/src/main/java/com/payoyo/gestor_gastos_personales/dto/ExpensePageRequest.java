@@ -0,0 +1,35 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+/**
+ * Página pedida de un listado de gastos (paginación por cursor).
+ * 
+ * @param size -> Gastos por página (entre 1 y MAX_SIZE)
+ * @param cursor -> nextCursor de la página anterior (null = primera página)
+ * @param sort -> Orden del listado (debe ser el mismo en todas las páginas)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpensePageRequest(int size, String cursor, ExpenseSort sort) {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * @throws IllegalArgumentException si size está fuera de rango
+     */
+    public ExpensePageRequest {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + MAX_SIZE);
+        }
+        if (sort == null) {
+            sort = ExpenseSort.DATE_DESC;
+        }
+    }
+
+    /**
+     * @return true si es la primera página (sin cursor)
+     */
+    public boolean isFirst() {
+        return cursor == null || cursor.isBlank();
+    }
+}
@@ -0,0 +1,51 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Búsqueda de gastos por texto en la descripción con filtros opcionales
+ * (null = sin filtrar por ese campo).
+ * 
+ * @param query -> Texto a buscar (se compara en minúsculas, al menos MIN_QUERY_LENGTH caracteres)
+ * @param minAmount -> Cantidad mínima en la moneda base (inclusive)
+ * @param maxAmount -> Cantidad máxima en la moneda base (inclusive)
+ * @param category -> Categoría
+ * @param startDate -> Fecha mínima (inclusive)
+ * @param endDate -> Fecha máxima (inclusive)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseSearchFilter(
+        String query,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        CategoryEnum category,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+
+    // Los índices de trigramas necesitan al menos 3 caracteres para acotar la búsqueda
+    public static final int MIN_QUERY_LENGTH = 3;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    /**
+     * @throws IllegalArgumentException si el texto es demasiado corto o largo o algún rango está invertido
+     */
+    public ExpenseSearchFilter {
+        query = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (query.length() < MIN_QUERY_LENGTH || query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "q debe tener entre " + MIN_QUERY_LENGTH + " y " + MAX_QUERY_LENGTH + " caracteres");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("minAmount no puede ser mayor que maxAmount");
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate no puede ser posterior a endDate");
+        }
+    }
+}
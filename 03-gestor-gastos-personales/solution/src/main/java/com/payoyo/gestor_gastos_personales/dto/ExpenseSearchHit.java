@@ -0,0 +1,14 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+
+/**
+ * Gasto encontrado por una búsqueda de texto.
+ * 
+ * @param expense -> Gasto
+ * @param relevance -> Parecido entre el texto buscado y la descripción (0 a 1, 1 = aparece completo)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseSearchHit(Expense expense, double relevance) {
+}
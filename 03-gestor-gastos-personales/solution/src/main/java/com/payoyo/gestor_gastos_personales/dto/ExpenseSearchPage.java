@@ -0,0 +1,25 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una búsqueda de texto, de más a menos relevante.
+ * 
+ * A diferencia de ExpensePage se pagina por número de página: el orden por
+ * relevancia depende del texto buscado y no hay un índice por el que saltar
+ * con un cursor. Las búsquedas devuelven pocas páginas útiles.
+ * 
+ * @param content -> Gastos encontrados con su relevancia
+ * @param page -> Número de página (empieza en 0)
+ * @param size -> Tamaño de página pedido
+ * @param hasNext -> true si hay más resultados después de esta página
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseSearchPage(
+        List<ExpenseSearchHit> content,
+        int page,
+        int size,
+        boolean hasNext
+) {
+}
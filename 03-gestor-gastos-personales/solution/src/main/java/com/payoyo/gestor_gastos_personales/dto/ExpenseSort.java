@@ -0,0 +1,49 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orden de los listados paginados de gastos.
+ * 
+ * El ID se añade siempre como desempate: el orden es total y el cursor de
+ * la página siguiente (fecha o cantidad + ID) identifica una única posición.
+ * 
+ * - DATE_DESC: más recientes primero (por defecto, servido por los índices de fecha)
+ * - DATE_ASC: más antiguos primero
+ * - AMOUNT_DESC: mayor cantidad primero
+ * - AMOUNT_ASC: menor cantidad primero
+ * 
+ * Las cantidades se comparan en la moneda base (baseAmount), igual que en los
+ * reportes: 100 JPY no van delante de 50 EUR.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public enum ExpenseSort {
+
+    DATE_DESC("date", Sort.Direction.DESC),
+    DATE_ASC("date", Sort.Direction.ASC),
+    AMOUNT_DESC("baseAmount", Sort.Direction.DESC),
+    AMOUNT_ASC("baseAmount", Sort.Direction.ASC);
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    ExpenseSort(String property, Sort.Direction direction) {
+        this.property = property;
+        this.direction = direction;
+    }
+
+    /**
+     * @return Propiedad de Expense por la que se ordena (date o baseAmount)
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * @return Orden para Spring Data: la propiedad y después el ID, en la misma dirección
+     */
+    public Sort toSort() {
+        return Sort.by(direction, property, "id");
+    }
+}
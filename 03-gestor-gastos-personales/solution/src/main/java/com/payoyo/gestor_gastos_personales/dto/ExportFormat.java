@@ -0,0 +1,30 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de exportación de gastos.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public enum ExportFormat {
+
+    CSV("text/csv;charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return MediaType.parseMediaType(mediaType);
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,15 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Suma de los cierres mensuales de un rango de meses (resultado de una consulta agregada).
+ * 
+ * @param totalAmount -> Suma de los importes (null si no hay cierres)
+ * @param expenseCount -> Número de gastos (null si no hay cierres)
+ * @param months -> Número de meses con cierre en el rango
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record LedgerTotal(BigDecimal totalAmount, Long expenseCount, Long months) {
+}
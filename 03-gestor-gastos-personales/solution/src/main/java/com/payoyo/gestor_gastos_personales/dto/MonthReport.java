@@ -0,0 +1,91 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Month;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Reporte resumen de un mes.
+ * Endpoint: GET /api/expenses/reports/current-month
+ * 
+ * Se serializa con JsonWriter (streaming, sin reflexión ni Map intermedio)
+ * con el mismo JSON que la versión anterior basada en Map:
+ * {
+ *   "month": "NOVEMBER",
+ *   "year": 2024,
+ *   "totalAmount": 856.30,
+ *   "expenseCount": 28,
+ *   "mostExpensiveCategory": "FOOD",
+ *   "leastExpensiveCategory": "EDUCATION"
+ * }
+ * 
+ * @param month -> Mes
+ * @param year -> Año
+ * @param totalAmount -> Suma total de gastos
+ * @param expenseCount -> Cantidad de gastos
+ * @param mostExpensiveCategory -> Categoría con mayor gasto (null si no hay gastos)
+ * @param leastExpensiveCategory -> Categoría con menor gasto (null si no hay gastos)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@JsonSerialize(using = MonthReport.JsonWriter.class)
+public record MonthReport(
+        Month month,
+        int year,
+        BigDecimal totalAmount,
+        int expenseCount,
+        CategoryEnum mostExpensiveCategory,
+        CategoryEnum leastExpensiveCategory
+) {
+
+    /**
+     * Formato anterior (Map) para los clientes que aún lo usan.
+     * 
+     * @return Map con "month", "year", "totalAmount", "expenseCount",
+     *         "mostExpensiveCategory" y "leastExpensiveCategory"
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("month", month.name());
+        map.put("year", year);
+        map.put("totalAmount", totalAmount);
+        map.put("expenseCount", expenseCount);
+        map.put("mostExpensiveCategory", nameOf(mostExpensiveCategory));
+        map.put("leastExpensiveCategory", nameOf(leastExpensiveCategory));
+        return map;
+    }
+
+    private static String nameOf(CategoryEnum category) {
+        return category != null ? category.name() : null;
+    }
+
+    /**
+     * Serializador en streaming: escribe cada campo sin pasar por reflexión.
+     */
+    public static class JsonWriter extends StdSerializer<MonthReport> {
+
+        public JsonWriter() {
+            super(MonthReport.class);
+        }
+
+        @Override
+        public void serialize(MonthReport report, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("month", report.month().name());
+            gen.writeNumberField("year", report.year());
+            gen.writeNumberField("totalAmount", report.totalAmount());
+            gen.writeNumberField("expenseCount", report.expenseCount());
+            gen.writeStringField("mostExpensiveCategory", nameOf(report.mostExpensiveCategory()));
+            gen.writeStringField("leastExpensiveCategory", nameOf(report.leastExpensiveCategory()));
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Total gastado en un mes (resultado de una consulta agregada).
+ * 
+ * @param year -> Año
+ * @param month -> Mes (1 a 12)
+ * @param totalAmount -> Suma de los importes
+ * @param expenseCount -> Número de gastos
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record MonthTotal(Integer year, Integer month, BigDecimal totalAmount, Long expenseCount) {
+
+    public YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+}
@@ -0,0 +1,17 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Total gastado con un método de pago (resultado de una consulta agregada).
+ * 
+ * @param paymentMethod -> Método de pago
+ * @param totalAmount -> Suma de los importes
+ * @param expenseCount -> Número de gastos
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record PaymentMethodTotal(PaymentMethodEnum paymentMethod, BigDecimal totalAmount, Long expenseCount) {
+}
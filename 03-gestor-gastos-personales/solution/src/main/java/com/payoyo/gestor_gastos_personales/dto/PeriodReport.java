@@ -0,0 +1,80 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Reporte de gastos de un período.
+ * Endpoint: GET /api/expenses/reports/period?startDate=YYYY-MM-DD&endDate=YYYY-MM-DD
+ * 
+ * Se serializa con JsonWriter (streaming, sin reflexión ni Map intermedio)
+ * con el mismo JSON que la versión anterior basada en Map:
+ * {
+ *   "startDate": "2024-11-01",
+ *   "endDate": "2024-11-30",
+ *   "totalAmount": 1250.75,
+ *   "expenseCount": 45,
+ *   "averageExpense": 27.79
+ * }
+ * 
+ * @param startDate -> Fecha inicial
+ * @param endDate -> Fecha final
+ * @param totalAmount -> Suma total de gastos
+ * @param expenseCount -> Cantidad de gastos
+ * @param averageExpense -> Promedio por gasto (2 decimales, 0 si no hay gastos)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@JsonSerialize(using = PeriodReport.JsonWriter.class)
+public record PeriodReport(
+        LocalDate startDate,
+        LocalDate endDate,
+        BigDecimal totalAmount,
+        int expenseCount,
+        BigDecimal averageExpense
+) {
+
+    /**
+     * Formato anterior (Map) para los clientes que aún lo usan.
+     * 
+     * @return Map con "startDate", "endDate", "totalAmount", "expenseCount" y "averageExpense"
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("startDate", startDate.toString());
+        map.put("endDate", endDate.toString());
+        map.put("totalAmount", totalAmount);
+        map.put("expenseCount", expenseCount);
+        map.put("averageExpense", averageExpense);
+        return map;
+    }
+
+    /**
+     * Serializador en streaming: escribe cada campo sin pasar por reflexión.
+     */
+    public static class JsonWriter extends StdSerializer<PeriodReport> {
+
+        public JsonWriter() {
+            super(PeriodReport.class);
+        }
+
+        @Override
+        public void serialize(PeriodReport report, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("startDate", report.startDate().toString());
+            gen.writeStringField("endDate", report.endDate().toString());
+            gen.writeNumberField("totalAmount", report.totalAmount());
+            gen.writeNumberField("expenseCount", report.expenseCount());
+            gen.writeNumberField("averageExpense", report.averageExpense());
+            gen.writeEndObject();
+        }
+    }
+}
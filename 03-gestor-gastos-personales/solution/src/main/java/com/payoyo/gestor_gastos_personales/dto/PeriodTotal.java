@@ -0,0 +1,31 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Total gastado en un período (resultado de una consulta agregada).
+ * 
+ * Si no hay gastos en el período, SUM devuelve null: usar los métodos
+ * total() y count() que lo convierten en 0.
+ * 
+ * @param totalAmount -> Suma de los importes (null si no hay gastos)
+ * @param expenseCount -> Número de gastos (null si no hay gastos)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record PeriodTotal(BigDecimal totalAmount, Long expenseCount) {
+
+    /**
+     * @return Suma de los importes, 0 si no hay gastos
+     */
+    public BigDecimal total() {
+        return totalAmount != null ? totalAmount : BigDecimal.ZERO;
+    }
+
+    /**
+     * @return Número de gastos, 0 si no hay gastos
+     */
+    public long count() {
+        return expenseCount != null ? expenseCount : 0L;
+    }
+}
@@ -0,0 +1,55 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Previsión de lo que se habrá gastado a final del mes actual.
+ * Endpoint: GET /api/expenses/reports/forecast
+ * 
+ * Por categoría: lo gastado hasta hoy, más lo que falta al ritmo diario del
+ * mes (sin contar los gastos recurrentes), más las repeticiones pendientes
+ * de los gastos recurrentes.
+ * 
+ * @param month -> Mes de la previsión
+ * @param asOf -> Día hasta el que se cuenta lo gastado (hoy)
+ * @param daysElapsed -> Días transcurridos del mes (incluido hoy)
+ * @param daysInMonth -> Días del mes
+ * @param spentAmount -> Total gastado hasta hoy
+ * @param projectedAmount -> Total previsto a final de mes
+ * @param categories -> Previsión de cada categoría con gastos o repeticiones en el mes
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record SpendForecast(
+        YearMonth month,
+        LocalDate asOf,
+        int daysElapsed,
+        int daysInMonth,
+        BigDecimal spentAmount,
+        BigDecimal projectedAmount,
+        List<CategoryForecast> categories
+) {
+
+    /**
+     * Previsión de una categoría.
+     * 
+     * @param category -> Categoría
+     * @param spentAmount -> Gastado hasta hoy (incluye los recurrentes ya generados)
+     * @param recurringAmount -> Parte de spentAmount que son gastos recurrentes
+     * @param pendingRecurringAmount -> Repeticiones de gastos recurrentes que faltan este mes
+     * @param projectedAmount -> Total previsto a final de mes
+     */
+    public record CategoryForecast(
+            CategoryEnum category,
+            BigDecimal spentAmount,
+            BigDecimal recurringAmount,
+            BigDecimal pendingRecurringAmount,
+            BigDecimal projectedAmount
+    ) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Tamaño de los intervalos (buckets) de una serie temporal de gastos.
+ * 
+ * Cada intervalo se identifica por su primer día, igual que date_trunc de PostgreSQL:
+ * - DAY: el propio día
+ * - WEEK: el lunes de la semana (semana ISO)
+ * - MONTH: el día 1 del mes
+ * - YEAR: el 1 de enero
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public enum TimeGranularity {
+
+    DAY(ChronoUnit.DAYS, "day"),
+    WEEK(ChronoUnit.WEEKS, "week"),
+    MONTH(ChronoUnit.MONTHS, "month"),
+    YEAR(ChronoUnit.YEARS, "year");
+
+    private final ChronoUnit unit;
+    private final String truncUnit;
+
+    TimeGranularity(ChronoUnit unit, String truncUnit) {
+        this.unit = unit;
+        this.truncUnit = truncUnit;
+    }
+
+    /**
+     * Unidad de la función trunc() de HQL ('day', 'week', 'month' o 'year').
+     * Hibernate la traduce a date_trunc en PostgreSQL y a su equivalente en otras bases de datos.
+     * 
+     * @return Unidad de truncado
+     */
+    public String truncUnit() {
+        return truncUnit;
+    }
+
+    /**
+     * Primer día del intervalo que contiene la fecha.
+     * 
+     * @param date Fecha cualquiera
+     * @return Inicio del intervalo
+     */
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * Inicio del intervalo siguiente.
+     * 
+     * @param bucketStart Inicio de un intervalo
+     * @return Inicio del intervalo siguiente
+     */
+    public LocalDate next(LocalDate bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Número de intervalos completos entre dos inicios de intervalo.
+     * 
+     * @param from Inicio del primer intervalo
+     * @param to Inicio de otro intervalo posterior
+     * @return Posición de "to" contando desde "from" (0 si son el mismo)
+     */
+    public int between(LocalDate from, LocalDate to) {
+        return (int) unit.between(from, to);
+    }
+}
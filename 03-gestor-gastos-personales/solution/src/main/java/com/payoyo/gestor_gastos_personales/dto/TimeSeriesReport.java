@@ -0,0 +1,55 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Serie temporal de gastos en formato columnar (listo para gráficas).
+ * Endpoint: GET /api/expenses/reports/timeseries
+ * 
+ * "buckets" tiene el inicio de cada intervalo; cada serie tiene un array de
+ * totales y otro de cantidades con la misma longitud y en el mismo orden.
+ * Los intervalos sin gastos aparecen con total 0 (relleno de huecos).
+ * 
+ * Ejemplo de respuesta (granularity=MONTH, splitBy=CATEGORY):
+ * {
+ *   "granularity": "MONTH",
+ *   "splitBy": "CATEGORY",
+ *   "startDate": "2024-01-01",
+ *   "endDate": "2024-03-31",
+ *   "buckets": ["2024-01-01", "2024-02-01", "2024-03-01"],
+ *   "series": [
+ *     {"key": "FOOD", "totalAmounts": [310.20, 0.00, 295.75], "expenseCounts": [14, 0, 12]},
+ *     {"key": "TRANSPORT", "totalAmounts": [80.00, 95.50, 60.00], "expenseCounts": [4, 5, 3]}
+ *   ]
+ * }
+ * 
+ * @param granularity -> Tamaño de los intervalos
+ * @param splitBy -> Cómo se separan las series
+ * @param startDate -> Primer día incluido
+ * @param endDate -> Último día incluido
+ * @param buckets -> Inicio de cada intervalo
+ * @param series -> Una serie por clave con gastos (siempre una en NONE)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record TimeSeriesReport(
+        TimeGranularity granularity,
+        TimeSeriesSplit splitBy,
+        LocalDate startDate,
+        LocalDate endDate,
+        List<LocalDate> buckets,
+        List<Series> series
+) {
+
+    /**
+     * Valores de una serie (una posición por intervalo).
+     * 
+     * @param key -> "TOTAL", nombre de la categoría o del método de pago
+     * @param totalAmounts -> Suma de gastos de cada intervalo
+     * @param expenseCounts -> Cantidad de gastos de cada intervalo
+     */
+    public record Series(String key, BigDecimal[] totalAmounts, long[] expenseCounts) {
+    }
+}
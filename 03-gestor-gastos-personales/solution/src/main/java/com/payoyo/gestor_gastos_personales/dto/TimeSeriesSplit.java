@@ -0,0 +1,70 @@
+package com.payoyo.gestor_gastos_personales.dto;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Cómo se separa una serie temporal de gastos.
+ * 
+ * - NONE: una sola serie ("TOTAL") con todos los gastos
+ * - CATEGORY: una serie por categoría
+ * - PAYMENT_METHOD: una serie por método de pago
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public enum TimeSeriesSplit {
+
+    NONE,
+    CATEGORY,
+    PAYMENT_METHOD;
+
+    private static final String[] TOTAL_KEY = {"TOTAL"};
+
+    /**
+     * @return Nombre de cada serie, en orden de índice
+     */
+    public String[] keys() {
+        return switch (this) {
+            case NONE -> TOTAL_KEY.clone();
+            case CATEGORY -> names(CategoryEnum.values());
+            case PAYMENT_METHOD -> names(PaymentMethodEnum.values());
+        };
+    }
+
+    /**
+     * Índice de la serie a la que pertenece un grupo (categoría, método de pago).
+     * 
+     * @param category Categoría del grupo
+     * @param paymentMethod Método de pago del grupo
+     * @return Índice en keys()
+     */
+    public int seriesOf(CategoryEnum category, PaymentMethodEnum paymentMethod) {
+        return switch (this) {
+            case NONE -> 0;
+            case CATEGORY -> category.ordinal();
+            case PAYMENT_METHOD -> paymentMethod.ordinal();
+        };
+    }
+
+    /**
+     * Índice de la serie a partir de su nombre (el que devuelve la consulta SQL).
+     * 
+     * @param key Nombre de la categoría o del método de pago (ignorado en NONE)
+     * @return Índice en keys()
+     */
+    public int seriesOf(String key) {
+        return switch (this) {
+            case NONE -> 0;
+            case CATEGORY -> CategoryEnum.valueOf(key).ordinal();
+            case PAYMENT_METHOD -> PaymentMethodEnum.valueOf(key).ordinal();
+        };
+    }
+
+    private static String[] names(Enum<?>[] values) {
+        String[] names = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name();
+        }
+        return names;
+    }
+}
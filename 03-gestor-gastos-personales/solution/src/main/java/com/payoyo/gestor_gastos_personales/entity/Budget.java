@@ -0,0 +1,97 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Presupuesto mensual de una categoría de gastos.
+ * 
+ * Como mucho hay un presupuesto por categoría (columna única). Cuando lo gastado
+ * en el mes actual supera alertPercentage % del límite, y otra vez al llegar al 100 %,
+ * se registra un aviso (ver BudgetAlert y BudgetTracker).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "budgets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Budget {
+
+    /*
+     * Identificador único del presupuesto (auto-incremento)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*
+     * Categoría a la que se aplica el presupuesto.
+     * Se toma de la URL (PUT /api/budgets/{category}), no del body.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, unique = true)
+    private CategoryEnum category;
+
+    /*
+     * Cantidad máxima a gastar en la categoría cada mes.
+     * Mismas reglas que la cantidad de un gasto.
+     */
+    @NotNull(message = "El límite mensual es obligatorio")
+    @DecimalMin(value = "0.01", message = "El límite mensual debe ser mayor a 0")
+    @Digits(integer = 10, fraction = 2, message = "El límite debe tener máximo 10 dígitos enteros y 2 decimales")
+    @Column(name = "monthly_limit", nullable = false, precision = 12, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    /*
+     * Porcentaje del límite a partir del cual se avisa (por defecto 80).
+     * Al llegar al 100 % se avisa siempre.
+     */
+    @NotNull(message = "El porcentaje de aviso es obligatorio")
+    @Min(value = 1, message = "El porcentaje de aviso debe estar entre 1 y 100")
+    @Max(value = 100, message = "El porcentaje de aviso debe estar entre 1 y 100")
+    @Column(name = "alert_percentage", nullable = false)
+    @Builder.Default
+    private Integer alertPercentage = 80;
+
+    /*
+     * Timestamp de creación del registro
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /*
+     * Timestamp de última actualización del registro
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
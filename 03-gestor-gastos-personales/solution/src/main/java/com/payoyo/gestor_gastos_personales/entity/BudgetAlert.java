@@ -0,0 +1,86 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aviso generado cuando lo gastado en un mes supera un porcentaje del presupuesto.
+ * 
+ * Se registra una sola vez por (categoría, mes, porcentaje): si el gasto baja
+ * y vuelve a superar el umbral no se repite el aviso.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "budget_alerts", uniqueConstraints =
+        @UniqueConstraint(columnNames = {"category", "budget_month", "threshold_percentage"}))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetAlert {
+
+    /*
+     * Identificador único del aviso (auto-incremento)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*
+     * Categoría del presupuesto superado
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoryEnum category;
+
+    /*
+     * Primer día del mes al que corresponde el aviso
+     */
+    @Column(name = "budget_month", nullable = false)
+    private LocalDate month;
+
+    /*
+     * Porcentaje superado (el de aviso del presupuesto o 100)
+     */
+    @Column(name = "threshold_percentage", nullable = false)
+    private int thresholdPercentage;
+
+    /*
+     * Total gastado en el mes al superar el umbral
+     */
+    @Column(name = "spent_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal spentAmount;
+
+    /*
+     * Límite mensual del presupuesto en ese momento
+     */
+    @Column(name = "monthly_limit", nullable = false, precision = 12, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    /*
+     * Momento en que se superó el umbral
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
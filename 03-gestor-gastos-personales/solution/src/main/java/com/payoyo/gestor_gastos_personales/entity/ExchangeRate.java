@@ -0,0 +1,89 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tipo de cambio de una moneda a la moneda base (expenses.currency.base) a partir de una fecha.
+ * 
+ * Un tipo se aplica desde su fecha hasta el día anterior al siguiente tipo de la
+ * misma moneda: con un tipo por mes (o por semana) basta, no hace falta uno por día.
+ * Como mucho hay un tipo por (moneda, fecha).
+ * 
+ * Ejemplo: currency = "USD", rateDate = 2024-11-01, rate = 0.92
+ * -> un gasto de 10 USD del 2024-11-19 son 9.20 en la moneda base
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "exchange_rates", uniqueConstraints =
+        @UniqueConstraint(columnNames = {"currency", "rate_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExchangeRate {
+
+    /*
+     * Identificador único del tipo de cambio (auto-incremento)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*
+     * Moneda (código ISO 4217). Se toma de la URL, no del body.
+     */
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    /*
+     * Primer día en el que se aplica el tipo. Se toma de la URL, no del body.
+     */
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    /*
+     * Unidades de la moneda base que vale 1 unidad de la moneda.
+     */
+    @NotNull(message = "El tipo de cambio es obligatorio")
+    @DecimalMin(value = "0.00000001", message = "El tipo de cambio debe ser mayor a 0")
+    @Digits(integer = 10, fraction = 8, message = "El tipo de cambio debe tener máximo 10 dígitos enteros y 8 decimales")
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal rate;
+
+    /*
+     * Timestamp de creación del registro
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /*
+     * Timestamp de última actualización del registro
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,12 +1,21 @@
 package com.payoyo.gestor_gastos_personales.entity;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
 import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
 
@@ -17,6 +26,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
@@ -37,16 +49,41 @@ import lombok.Setter;
  * incluyendo descripcion, cantidad, categoria, fecha y metodo de pago.
  * Tambien mantiene timestamps atomaticos de creacion y actualizacion
  * 
+ * Cada gasto guarda su moneda y la cantidad convertida a la moneda base
+ * (baseAmount), que es la que suman los reportes.
+ * 
+ * Índices (todas las consultas de ExpenseRepository filtran por categoría,
+ * método de pago o fecha y ordenan por fecha e ID, en cualquier dirección):
+ * - (category, date DESC, id DESC): filtro por categoría (y rango de fechas) ya ordenado
+ * - (payment_method, date DESC, id DESC): filtro por método de pago ya ordenado
+ * - (date DESC, id DESC): rangos de fechas, listado completo y exportación
+ *   sin ordenar en memoria
+ * - (base_amount DESC, id DESC): listado completo ordenado por cantidad en moneda base
+ * El ID al final permite que el cursor de la paginación (date, id) sea una
+ * condición del índice y no un filtro posterior.
+ * - (dedup_hash): detección de repetidos al importar
+ * - GIN de trigramas sobre lower(description): búsqueda de texto en PostgreSQL.
+ *   No se puede declarar con @Index: lo crea ExpenseTextSearch al arrancar
+ * Ver ExpenseRepositoryQueryPlanTest, que lo comprueba con EXPLAIN en PostgreSQL.
+ * 
  * @author Jose Luis (Payoyo)
  */
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_category_date", columnList = "category, date DESC, id DESC"),
+        @Index(name = "idx_expenses_payment_method_date", columnList = "payment_method, date DESC, id DESC"),
+        @Index(name = "idx_expenses_date", columnList = "date DESC, id DESC"),
+        @Index(name = "idx_expenses_base_amount", columnList = "base_amount DESC, id DESC"),
+        @Index(name = "idx_expenses_dedup_hash", columnList = "dedup_hash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Expense {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
     
     /*
      * Identificador unico del gasto
@@ -89,6 +126,31 @@ public class Expense {
     @Column(nullable = false, precision = 12, scale = 2) // presion=12 permite 10 enteros + 2 decimales
     private BigDecimal amount;
 
+    /*
+     * Moneda del gasto (código ISO 4217 de 3 letras: EUR, USD, GBP...).
+     * 
+     * Si no se indica se usa la moneda base (expenses.currency.base), que es
+     * en la que se calculan todos los reportes.
+     * 
+     * Ejemplo: "USD"
+     */
+    @jakarta.validation.constraints.Pattern(regexp = "[A-Z]{3}",
+            message = "La moneda debe ser un código ISO de 3 letras en mayúsculas (p. ej. EUR)")
+    @Column(length = 3)
+    private String currency;
+
+    /*
+     * Cantidad convertida a la moneda base con el tipo de cambio del día del gasto
+     * (ver CurrencyConverter).
+     * 
+     * Se calcula al guardar el gasto y se recalcula si cambia el tipo de cambio:
+     * los reportes y acumulados suman esta columna sin convertir nada al leer.
+     * Solo lectura en la API.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "base_amount", precision = 15, scale = 2)
+    private BigDecimal baseAmount;
+
     /*
      * Categoría a la que pertenece el gasto.
      * 
@@ -159,4 +221,52 @@ public class Expense {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    /*
+     * Huella de (fecha, cantidad, moneda, descripción) para detectar gastos repetidos
+     * al importar extractos bancarios.
+     * 
+     * Se calcula sola antes de cada INSERT/UPDATE (@PrePersist / @PreUpdate).
+     * No es única: dos gastos iguales el mismo día pueden ser legítimos.
+     * No se expone en la API (@JsonIgnore).
+     */
+    @JsonIgnore
+    @Column(name = "dedup_hash")
+    private Long dedupHash;
+
+    @PrePersist
+    @PreUpdate
+    private void computeDedupHash() {
+        if (date != null && amount != null && currency != null && description != null) {
+            dedupHash = dedupHashOf(date, amount, currency, description);
+        }
+    }
+
+    /**
+     * Calcula la huella de un gasto: primeros 8 bytes del SHA-256 de
+     * "fecha|cantidad con 2 decimales|moneda|descripción normalizada".
+     * 
+     * La descripción se normaliza (sin espacios en los extremos, espacios
+     * seguidos reducidos a uno y en minúsculas) para que "Mercadona  " y
+     * "MERCADONA" cuenten como el mismo gasto.
+     * 
+     * @param date Fecha del gasto
+     * @param amount Cantidad del gasto
+     * @param currency Moneda del gasto
+     * @param description Descripción del gasto
+     * @return Huella de 64 bits
+     */
+    public static long dedupHashOf(LocalDate date, BigDecimal amount, String currency, String description) {
+        String key = date + "|"
+                + amount.setScale(2, RoundingMode.HALF_UP).toPlainString() + "|"
+                + currency + "|"
+                + WHITESPACE.matcher(description.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las JVM incluyen SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
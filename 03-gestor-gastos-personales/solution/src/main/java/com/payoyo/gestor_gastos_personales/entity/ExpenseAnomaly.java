@@ -0,0 +1,102 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Gasto marcado como inusual: su cantidad está muy por encima de la media de
+ * los gastos de su categoría y método de pago (ver ExpenseAnomalyDetector).
+ * 
+ * Como mucho hay una marca por gasto: al modificarlo se vuelve a evaluar y al
+ * eliminarlo se borra.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "expense_anomalies", indexes =
+        @Index(name = "idx_expense_anomalies_created_at", columnList = "created_at DESC"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseAnomaly {
+
+    /*
+     * Identificador único de la marca (auto-incremento)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*
+     * Gasto marcado
+     */
+    @Column(name = "expense_id", nullable = false, unique = true)
+    private Long expenseId;
+
+    @Column(name = "expense_date", nullable = false)
+    private LocalDate expenseDate;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoryEnum category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethodEnum paymentMethod;
+
+    /*
+     * Cantidad del gasto en la moneda base
+     */
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    /*
+     * Media y desviación típica de su categoría y método de pago al evaluarlo
+     * (sin contar el propio gasto)
+     */
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal mean;
+
+    @Column(name = "standard_deviation", nullable = false, precision = 15, scale = 2)
+    private BigDecimal standardDeviation;
+
+    /*
+     * Desviaciones típicas por encima de la media: (amount - mean) / standardDeviation,
+     * con 2 decimales. Sin @JsonProperty Jackson lo llamaría "zscore" (getZScore).
+     */
+    @Getter(onMethod_ = @JsonProperty("zScore"))
+    @Column(name = "z_score", nullable = false)
+    private double zScore;
+
+    /*
+     * Momento en que se marcó
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Acumulado diario de gastos por categoría y método de pago.
+ * 
+ * Tabla pre-agregada que sustituye a recorrer todos los gastos en los reportes:
+ * - Una fila por (día, categoría, método de pago) con el total y el número de gastos
+ * - Se mantiene de forma incremental en cada alta, modificación o baja de un gasto
+ *   (ver ExpenseRollupMaintainer)
+ * - Como maximo 8 categorías x 5 métodos de pago = 40 filas por día,
+ *   independientemente de cuantos gastos haya
+ * 
+ * Se puede reconstruir desde la tabla expenses en cualquier momento (backfill).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "expense_daily_rollups")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseDailyRollup {
+
+    /*
+     * Clave compuesta (día, categoría, método de pago)
+     */
+    @EmbeddedId
+    private ExpenseRollupId id;
+
+    /*
+     * Suma de los importes de los gastos del grupo.
+     * precision = 19 admite la suma de muchos gastos de hasta 10 dígitos enteros
+     */
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    /*
+     * Número de gastos del grupo (puede quedar en 0 tras eliminar gastos)
+     */
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+}
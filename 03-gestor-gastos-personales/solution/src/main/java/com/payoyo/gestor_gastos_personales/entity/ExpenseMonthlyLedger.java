@@ -0,0 +1,64 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cierre de un mes: total y número de gastos de un mes ya terminado.
+ * 
+ * Los meses cerrados no cambian, así que los reportes de varios meses suman
+ * una fila por mes en lugar de los acumulados diarios (ver ExpenseMonthCloser):
+ * - Se crea al terminar el mes (y al arrancar, para los meses que falten)
+ * - No se modifica nunca: si llega un gasto con fecha de un mes cerrado (o se
+ *   modifica o elimina uno), el cierre se borra en la misma transacción y se
+ *   vuelve a calcular tras el commit
+ * - Los meses sin gastos también tienen su fila (total 0)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "expense_monthly_ledgers")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseMonthlyLedger {
+
+    /*
+     * Primer día del mes
+     */
+    @Id
+    @Column(name = "ledger_month")
+    private LocalDate month;
+
+    /*
+     * Suma de los importes del mes (en la moneda base)
+     */
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    /*
+     * Número de gastos del mes
+     */
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+
+    /*
+     * Momento en el que se calculó el cierre
+     */
+    @CreationTimestamp
+    @Column(name = "closed_at", nullable = false, updatable = false)
+    private LocalDateTime closedAt;
+}
@@ -0,0 +1,52 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clave primaria compuesta de ExpenseDailyRollup: (día, categoría, método de pago).
+ * 
+ * El orden de las columnas (fecha primero) hace que la clave primaria sirva
+ * también como indice para los reportes por rango de fechas.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ExpenseRollupId implements Serializable {
+
+    /*
+     * Día al que corresponden los gastos acumulados
+     */
+    @Column(name = "expense_date", nullable = false)
+    private LocalDate date;
+
+    /*
+     * Categoría de los gastos acumulados
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoryEnum category;
+
+    /*
+     * Método de pago de los gastos acumulados
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethodEnum paymentMethod;
+}
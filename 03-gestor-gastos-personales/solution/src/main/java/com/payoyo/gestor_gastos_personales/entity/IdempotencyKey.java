@@ -0,0 +1,85 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta guardada de un alta de gasto con cabecera Idempotency-Key.
+ * 
+ * Solo se usa si expenses.idempotency.persistent=true (ver IdempotencyKeyStore):
+ * - Se inserta en la misma transacción que el gasto: si el alta se deshace,
+ *   la clave queda libre para el siguiente reintento
+ * - La clave primaria impide que dos instancias de la aplicación creen el
+ *   mismo gasto a la vez
+ * - Las filas caducadas se borran periódicamente (índice por expires_at)
+ * - Nunca se modifican: isNew() siempre es true para que save() haga un INSERT
+ *   (con un merge, una clave guardada por otra instancia se sobrescribiría)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes =
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey implements Persistable<String> {
+
+    // Longitud máxima de una clave
+    public static final int MAX_LENGTH = 100;
+
+    /*
+     * Valor de la cabecera Idempotency-Key enviada por el cliente
+     */
+    @Id
+    @Column(name = "idempotency_key", length = MAX_LENGTH)
+    private String key;
+
+    /*
+     * Huella del cuerpo de la petición: la misma clave con otro gasto es un error del cliente
+     */
+    @Column(name = "request_hash", nullable = false)
+    private long requestHash;
+
+    /*
+     * Gasto creado, en JSON (se devuelve tal cual en los reintentos)
+     */
+    @Column(name = "response_body", nullable = false, length = 4000)
+    private String responseBody;
+
+    /*
+     * Momento del alta
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /*
+     * A partir de este momento la clave se olvida (expenses.idempotency.ttl)
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+package com.payoyo.gestor_gastos_personales.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.RecurrenceFrequencyEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Plantilla de un gasto que se repite (alquiler, suscripciones, cuotas...).
+ * 
+ * RecurringExpenseScheduler crea un gasto normal por cada repetición cuando
+ * llega su fecha: startDate, startDate + 1 periodo, startDate + 2 periodos...
+ * hasta endDate (sin fin si es null).
+ * 
+ * Índice (next_date): el planificador solo lee las plantillas con una
+ * repetición pendiente, no todas.
+ * 
+ * Ejemplo: "Alquiler", 750.00, UTILITIES, MONTHLY desde 2024-01-01
+ * -> un gasto de 750.00 el día 1 de cada mes
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Entity
+@Table(name = "recurring_expenses", indexes =
+        @Index(name = "idx_recurring_expenses_next_date", columnList = "next_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringExpense {
+
+    /*
+     * Identificador único de la plantilla (auto-incremento)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*
+     * Descripción de los gastos generados. Mismas reglas que la de un gasto.
+     */
+    @NotBlank(message = "La descripcion del gasto es obligatoria")
+    @Size(min = 3, max = 200, message = "La descripcion del gasto debe contener entre 3 y 200 caracteres")
+    @Column(nullable = false)
+    private String description;
+
+    /*
+     * Cantidad de cada repetición. Mismas reglas que la de un gasto.
+     */
+    @NotNull(message = "La cantidad del gasto es obligatoria")
+    @DecimalMin(value = "0.01", message = "La cantidad debe ser mayor a 0")
+    @Digits(integer = 10, fraction = 2, message = "La cantidad debe tener máximo 10 dígitos enteros y 2 decimales")
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    /*
+     * Moneda de la cantidad (null = moneda base). Cada gasto generado se
+     * convierte con el tipo de cambio de su fecha.
+     */
+    @Pattern(regexp = "[A-Z]{3}",
+            message = "La moneda debe ser un código ISO de 3 letras en mayúsculas (p. ej. EUR)")
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @NotNull(message = "La categoria del gasto es obligatoria")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoryEnum category;
+
+    @NotNull(message = "El metodo de pago es obligatorio")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethodEnum paymentMethod;
+
+    /*
+     * Cada cuánto se repite: WEEKLY, MONTHLY o YEARLY.
+     */
+    @NotNull(message = "La frecuencia es obligatoria")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequencyEnum frequency;
+
+    /*
+     * Fecha de la primera repetición (puede ser pasada: se crean las que falten).
+     */
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    /*
+     * Última fecha en la que puede haber una repetición (null = sin fin).
+     */
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    /*
+     * Repeticiones anteriores a nextDate: convertidas en gastos (o saltadas al
+     * cambiar la programación, ver RecurringExpenseService). Solo lectura en la API.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "generated_count", nullable = false)
+    private long generatedCount;
+
+    /*
+     * Fecha de la siguiente repetición pendiente (null = terminada).
+     * Solo lectura en la API.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "next_date")
+    private LocalDate nextDate;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Fecha de una repetición, o null si cae después de endDate.
+     * 
+     * @param index Número de repetición (0 = la primera)
+     * @return Fecha de la repetición
+     */
+    public LocalDate occurrence(long index) {
+        LocalDate date = frequency.occurrence(startDate, index);
+        return endDate != null && date.isAfter(endDate) ? null : date;
+    }
+}
@@ -0,0 +1,22 @@
+package com.payoyo.gestor_gastos_personales.entity.enums;
+
+import java.time.LocalDate;
+
+public enum RecurrenceFrequencyEnum {
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    /**
+     * Fecha de la repetición número index (0 = la primera) contando desde start.
+     * Se calcula siempre desde start para no arrastrar ajustes de fin de mes
+     * (31 de enero -> 28 de febrero -> 31 de marzo, no 28 de marzo).
+     */
+    public LocalDate occurrence(LocalDate start, long index) {
+        return switch (this) {
+            case WEEKLY -> start.plusWeeks(index);
+            case MONTHLY -> start.plusMonths(index);
+            case YEARLY -> start.plusYears(index);
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.payoyo.gestor_gastos_personales.events;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Evento publicado por BudgetServiceImpl al crear, modificar o eliminar un presupuesto.
+ * 
+ * BudgetTracker recarga los límites cuando la transacción se confirma.
+ * 
+ * @param category -> Categoría del presupuesto modificado
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record BudgetChangedEvent(CategoryEnum category) {
+}
@@ -0,0 +1,13 @@
+package com.payoyo.gestor_gastos_personales.events;
+
+/**
+ * Evento publicado por ExchangeRateServiceImpl al crear, modificar o eliminar un tipo de cambio.
+ * 
+ * CurrencyConverter recarga los tipos en memoria cuando la transacción se confirma.
+ * 
+ * @param currency -> Moneda del tipo modificado
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExchangeRatesChangedEvent(String currency) {
+}
@@ -0,0 +1,29 @@
+package com.payoyo.gestor_gastos_personales.events;
+
+/**
+ * Evento publicado por ExpenseServiceImpl cada vez que se crea, modifica o elimina un gasto.
+ * 
+ * - Alta: before = null, after = gasto creado
+ * - Modificación: before = valores anteriores, after = valores nuevos
+ * - Baja: before = gasto eliminado, after = null
+ * 
+ * Se publica dentro de la transacción de la escritura: los listeners síncronos
+ * (@EventListener) actualizan sus datos derivados en la misma transacción,
+ * así que nunca quedan desalineados con la tabla expenses.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseChangedEvent(ExpenseSnapshot before, ExpenseSnapshot after) {
+
+    public static ExpenseChangedEvent created(ExpenseSnapshot after) {
+        return new ExpenseChangedEvent(null, after);
+    }
+
+    public static ExpenseChangedEvent updated(ExpenseSnapshot before, ExpenseSnapshot after) {
+        return new ExpenseChangedEvent(before, after);
+    }
+
+    public static ExpenseChangedEvent deleted(ExpenseSnapshot before) {
+        return new ExpenseChangedEvent(before, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.payoyo.gestor_gastos_personales.events;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado por ExpenseRollupMaintainer tras regenerar los acumulados
+ * diarios desde la tabla de gastos (backfill o reconstrucción manual).
+ * 
+ * Los datos derivados de los acumulados (ver ExpenseTimeSeriesCache y
+ * ExpenseMonthCloser) deben recargarse cuando la transacción se confirme.
+ * 
+ * @param startDate -> Primer día regenerado (null si se regeneró todo el histórico)
+ * @param endDate -> Último día regenerado (null si se regeneró todo el histórico)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseRollupsRebuiltEvent(LocalDate startDate, LocalDate endDate) {
+}
@@ -0,0 +1,46 @@
+package com.payoyo.gestor_gastos_personales.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Copia inmutable de los datos de un gasto en un momento dado.
+ * 
+ * Se usa en ExpenseChangedEvent para saber como era el gasto ANTES y DESPUÉS
+ * de un cambio (la entidad es mutable y JPA la modifica en el sitio).
+ * 
+ * Guarda la cantidad en la moneda base (baseAmount): es la que suman los
+ * acumulados, la caché de series temporales y los presupuestos.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpenseSnapshot(
+        Long id,
+        String description,
+        BigDecimal baseAmount,
+        CategoryEnum category,
+        LocalDate date,
+        PaymentMethodEnum paymentMethod
+) {
+
+    /**
+     * Crea la copia a partir de la entidad.
+     * 
+     * @param expense Gasto a copiar
+     * @return Snapshot con los valores actuales del gasto
+     */
+    public static ExpenseSnapshot of(Expense expense) {
+        return new ExpenseSnapshot(
+                expense.getId(),
+                expense.getDescription(),
+                expense.getBaseAmount(),
+                expense.getCategory(),
+                expense.getDate(),
+                expense.getPaymentMethod()
+        );
+    }
+}
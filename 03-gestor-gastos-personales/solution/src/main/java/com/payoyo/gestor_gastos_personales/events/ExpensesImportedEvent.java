@@ -0,0 +1,20 @@
+package com.payoyo.gestor_gastos_personales.events;
+
+import java.util.List;
+
+/**
+ * Evento publicado por ExpenseImporter tras insertar un bloque de gastos importados
+ * (y por RecurringExpenseScheduler tras generar un bloque de gastos recurrentes).
+ * 
+ * Equivale a un ExpenseChangedEvent.created(...) por cada gasto, pero en un solo
+ * evento para que los listeners puedan agrupar el trabajo (p. ej. un UPDATE de
+ * acumulados por grupo en lugar de uno por gasto).
+ * 
+ * Se publica dentro de la transacción del bloque, igual que ExpenseChangedEvent.
+ * 
+ * @param expenses -> Gastos insertados, con el id generado (ver ExpenseBatchInsert)
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public record ExpensesImportedEvent(List<ExpenseSnapshot> expenses) {
+}
@@ -0,0 +1,21 @@
+package com.payoyo.gestor_gastos_personales.exceptions;
+
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Excepción lanzada cuando una categoría no tiene presupuesto.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public class BudgetNotFoundException extends RuntimeException {
+
+    /**
+     * @param category -> Categoría sin presupuesto
+     * 
+     * Ejemplo: new BudgetNotFoundException(CategoryEnum.FOOD)
+     * Genera: "No hay presupuesto para la categoría: FOOD"
+     */
+    public BudgetNotFoundException(CategoryEnum category) {
+        super("No hay presupuesto para la categoría: " + category);
+    }
+}
@@ -0,0 +1,22 @@
+package com.payoyo.gestor_gastos_personales.exceptions;
+
+import java.time.LocalDate;
+
+/**
+ * Excepción lanzada cuando no existe un tipo de cambio para una moneda y fecha.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public class ExchangeRateNotFoundException extends RuntimeException {
+
+    /**
+     * @param currency -> Moneda
+     * @param rateDate -> Fecha del tipo
+     * 
+     * Ejemplo: new ExchangeRateNotFoundException("USD", LocalDate.of(2024, 11, 1))
+     * Genera: "No hay tipo de cambio de USD con fecha 2024-11-01"
+     */
+    public ExchangeRateNotFoundException(String currency, LocalDate rateDate) {
+        super("No hay tipo de cambio de " + currency + " con fecha " + rateDate);
+    }
+}
@@ -52,6 +52,111 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Maneja BudgetNotFoundException cuando una categoría no tiene presupuesto.
+     * Devuelve una respuesta HTTP 404 (Not Found).
+     * 
+     * @param ex -> Excepción capturada
+     * @return ResponseEntity con ErrorResponse y status 404
+     */
+    @ExceptionHandler(BudgetNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBudgetNotFound(BudgetNotFoundException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(ex.getMessage())
+                .error("Not Found")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    /**
+     * Maneja ExchangeRateNotFoundException cuando no existe el tipo de cambio pedido.
+     * Devuelve una respuesta HTTP 404 (Not Found).
+     * 
+     * @param ex -> Excepción capturada
+     * @return ResponseEntity con ErrorResponse y status 404
+     */
+    @ExceptionHandler(ExchangeRateNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleExchangeRateNotFound(ExchangeRateNotFoundException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(ex.getMessage())
+                .error("Not Found")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    /**
+     * Maneja RecurringExpenseNotFoundException cuando no existe la plantilla pedida.
+     * Devuelve una respuesta HTTP 404 (Not Found).
+     * 
+     * @param ex -> Excepción capturada
+     * @return ResponseEntity con ErrorResponse y status 404
+     */
+    @ExceptionHandler(RecurringExpenseNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleRecurringExpenseNotFound(RecurringExpenseNotFoundException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(ex.getMessage())
+                .error("Not Found")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    /**
+     * Maneja IdempotencyKeyConflictException cuando se repite una Idempotency-Key
+     * cuya petición sigue en curso o que se usó con otro gasto.
+     * Devuelve una respuesta HTTP 409 (Conflict).
+     * 
+     * @param ex -> Excepción capturada
+     * @return ResponseEntity con ErrorResponse y status 409
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .message(ex.getMessage())
+                .error("Conflict")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja IllegalArgumentException lanzada por las validaciones de negocio
+     * (fecha futura, rango de fechas invertido, etc.).
+     * Devuelve una respuesta HTTP 400 (Bad Request) con el motivo.
+     * 
+     * @param ex -> Excepción capturada
+     * @return ResponseEntity con ErrorResponse y status 400
+     * 
+     * Ejemplo de respuesta:
+     * {
+     *   "timestamp": "2024-11-19 14:30:45",
+     *   "status": 400,
+     *   "message": "La fecha del gasto no puede ser futura",
+     *   "error": "Bad Request"
+     * }
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(ex.getMessage())
+                .error("Bad Request")
+                .build();
+
+        return ResponseEntity.badRequest().body(error);
+    }
+
     /**
      * Maneja errores de validación de Bean Validation (@NotNull, @Size, etc.).
      * Devuelve una respuesta HTTP 400 (Bad Request) con todos los errores de validación.
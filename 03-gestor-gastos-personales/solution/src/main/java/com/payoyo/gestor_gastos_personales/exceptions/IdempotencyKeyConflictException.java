@@ -0,0 +1,19 @@
+package com.payoyo.gestor_gastos_personales.exceptions;
+
+/**
+ * Excepción lanzada cuando una cabecera Idempotency-Key no se puede atender:
+ * la petición original aún se está procesando o la clave ya se usó con otro gasto.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    /**
+     * @param message -> Motivo del conflicto
+     * 
+     * Ejemplo: new IdempotencyKeyConflictException("La petición con Idempotency-Key abc aún se está procesando")
+     */
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
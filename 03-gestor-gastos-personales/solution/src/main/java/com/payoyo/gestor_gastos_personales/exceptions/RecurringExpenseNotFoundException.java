@@ -0,0 +1,19 @@
+package com.payoyo.gestor_gastos_personales.exceptions;
+
+/**
+ * Excepción lanzada cuando no existe una plantilla de gasto recurrente.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public class RecurringExpenseNotFoundException extends RuntimeException {
+
+    /**
+     * @param id -> ID de la plantilla
+     * 
+     * Ejemplo: new RecurringExpenseNotFoundException(5L)
+     * Genera: "No se encontró el gasto recurrente con ID: 5"
+     */
+    public RecurringExpenseNotFoundException(Long id) {
+        super(String.format("No se encontró el gasto recurrente con ID: %d", id));
+    }
+}
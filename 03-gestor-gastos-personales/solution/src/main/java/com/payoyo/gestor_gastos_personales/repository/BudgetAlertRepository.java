@@ -0,0 +1,35 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.payoyo.gestor_gastos_personales.entity.BudgetAlert;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Repositorio de los avisos de presupuesto superado.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    /**
+     * Avisos de un mes, los más recientes primero.
+     * 
+     * @param month -> Primer día del mes
+     * @return Lista de avisos del mes
+     */
+    List<BudgetAlert> findByMonthOrderByCreatedAtDesc(LocalDate month);
+
+    /**
+     * Comprueba si ya se avisó de un umbral en un mes.
+     * 
+     * @param category -> Categoría
+     * @param month -> Primer día del mes
+     * @param thresholdPercentage -> Porcentaje del umbral
+     * @return true si el aviso ya existe
+     */
+    boolean existsByCategoryAndMonthAndThresholdPercentage(CategoryEnum category, LocalDate month, int thresholdPercentage);
+}
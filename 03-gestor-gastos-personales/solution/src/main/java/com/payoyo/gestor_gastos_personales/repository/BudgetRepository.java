@@ -0,0 +1,24 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.payoyo.gestor_gastos_personales.entity.Budget;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Repositorio de los presupuestos mensuales (uno por categoría como mucho).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    /**
+     * Presupuesto de una categoría.
+     * 
+     * @param category -> Categoría
+     * @return Presupuesto, o vacío si la categoría no tiene
+     */
+    Optional<Budget> findByCategory(CategoryEnum category);
+}
@@ -0,0 +1,62 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.payoyo.gestor_gastos_personales.entity.ExchangeRate;
+
+/**
+ * Repositorio de los tipos de cambio a la moneda base.
+ * 
+ * La conversión de los gastos no consulta esta tabla: usa los tipos cargados
+ * en memoria por CurrencyConverter.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+
+    /**
+     * Tipo de una moneda en una fecha exacta.
+     * 
+     * @param currency -> Moneda
+     * @param rateDate -> Fecha del tipo
+     * @return Tipo, o vacío si no hay ninguno con esa fecha
+     */
+    Optional<ExchangeRate> findByCurrencyAndRateDate(String currency, LocalDate rateDate);
+
+    /**
+     * Siguiente tipo de una moneda (el que deja de aplicar el de rateDate).
+     * 
+     * @param currency -> Moneda
+     * @param rateDate -> Fecha de referencia (exclusive)
+     * @return Primer tipo posterior, o vacío si no hay
+     */
+    Optional<ExchangeRate> findFirstByCurrencyAndRateDateAfterOrderByRateDateAsc(String currency, LocalDate rateDate);
+
+    /**
+     * Tipo anterior de una moneda (el que vuelve a aplicar si se borra el de rateDate).
+     * 
+     * @param currency -> Moneda
+     * @param rateDate -> Fecha de referencia (exclusive)
+     * @return Último tipo anterior, o vacío si no hay
+     */
+    Optional<ExchangeRate> findFirstByCurrencyAndRateDateBeforeOrderByRateDateDesc(String currency, LocalDate rateDate);
+
+    /**
+     * Tipos de una moneda, los más recientes primero.
+     * 
+     * @param currency -> Moneda
+     * @return Tipos de la moneda
+     */
+    List<ExchangeRate> findByCurrencyOrderByRateDateDesc(String currency);
+
+    /**
+     * Todos los tipos ordenados por moneda y fecha descendente.
+     * 
+     * @return Tipos de todas las monedas
+     */
+    List<ExchangeRate> findAllByOrderByCurrencyAscRateDateDesc();
+}
@@ -0,0 +1,36 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.payoyo.gestor_gastos_personales.entity.ExpenseAnomaly;
+
+/**
+ * Repositorio de los gastos marcados como inusuales.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface ExpenseAnomalyRepository extends JpaRepository<ExpenseAnomaly, Long> {
+
+    /**
+     * Últimas marcas, las más recientes primero.
+     * 
+     * @param limit -> Número máximo de marcas
+     * @return Marcas ordenadas por fecha de creación descendente
+     */
+    List<ExpenseAnomaly> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    /**
+     * Borra la marca de un gasto (si la tiene) con una sola sentencia.
+     * 
+     * @param expenseId -> ID del gasto
+     * @return Marcas borradas (0 o 1)
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseAnomaly a WHERE a.expenseId = :expenseId")
+    int deleteByExpenseId(Long expenseId);
+}
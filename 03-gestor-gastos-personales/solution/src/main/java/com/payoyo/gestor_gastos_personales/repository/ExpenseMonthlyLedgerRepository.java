@@ -0,0 +1,60 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.payoyo.gestor_gastos_personales.dto.LedgerTotal;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseMonthlyLedger;
+
+/**
+ * Repositorio de los cierres mensuales (ver ExpenseMonthCloser).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface ExpenseMonthlyLedgerRepository extends JpaRepository<ExpenseMonthlyLedger, LocalDate> {
+
+    /**
+     * Suma de los cierres de un rango de meses y cuántos meses tienen cierre.
+     * 
+     * @param firstMonth -> Primer día del primer mes (inclusive)
+     * @param lastMonth -> Primer día del último mes (inclusive)
+     * @return Totales de los cierres del rango
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.LedgerTotal(" +
+            "SUM(l.totalAmount), SUM(l.expenseCount), COUNT(l)) " +
+            "FROM ExpenseMonthlyLedger l WHERE l.month BETWEEN :firstMonth AND :lastMonth")
+    LedgerTotal sumBetween(@Param("firstMonth") LocalDate firstMonth, @Param("lastMonth") LocalDate lastMonth);
+
+    /**
+     * Cierres de un rango de meses, del más antiguo al más reciente.
+     * 
+     * @param firstMonth -> Primer día del primer mes (inclusive)
+     * @param lastMonth -> Primer día del último mes (inclusive)
+     * @return Un cierre por mes cerrado del rango (los meses sin cierre no aparecen)
+     */
+    List<ExpenseMonthlyLedger> findByMonthBetweenOrderByMonthAsc(LocalDate firstMonth, LocalDate lastMonth);
+
+    /**
+     * Meses con cierre.
+     * 
+     * @return Primer día de cada mes cerrado
+     */
+    @Query("SELECT l.month FROM ExpenseMonthlyLedger l")
+    List<LocalDate> findMonths();
+
+    /**
+     * Borra los cierres de un rango de meses (invalidación).
+     * 
+     * @param firstMonth -> Primer día del primer mes (inclusive)
+     * @param lastMonth -> Primer día del último mes (inclusive)
+     * @return Número de cierres borrados
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseMonthlyLedger l WHERE l.month BETWEEN :firstMonth AND :lastMonth")
+    int deleteByMonthBetween(@Param("firstMonth") LocalDate firstMonth, @Param("lastMonth") LocalDate lastMonth);
+}
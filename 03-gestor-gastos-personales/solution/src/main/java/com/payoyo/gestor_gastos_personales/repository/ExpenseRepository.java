@@ -1,13 +1,30 @@
 package com.payoyo.gestor_gastos_personales.repository;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.payoyo.gestor_gastos_personales.dto.AmountStats;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseExportRow;
 import com.payoyo.gestor_gastos_personales.entity.Expense;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
 import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para la gestion de datos personales
  * 
@@ -22,71 +39,320 @@ import java.time.LocalDate;
  */
 public interface ExpenseRepository extends JpaRepository<Expense, Long>{
     
+    /*
+     * Los listados se recorren por páginas con un cursor (keyset): cada consulta
+     * lleva un WHERE (date, id) < (último de la página anterior) y un LIMIT, así
+     * que el coste de una página no depende de cuántas haya antes. El orden
+     * (ExpenseSort) siempre termina en el ID para que la posición sea única.
+     */
+
     /**
-     * Encuentra todos los gastos de una categoría específica.
-     * Ordena los resultados por fecha de forma descendente (más recientes primero).
+     * Encuentra una página de gastos de una categoría específica.
      * 
      * @param category -> Categoría por la cual filtrar los gastos
-     * @return Lista de gastos de la categoría especificada, ordenados por fecha descendente
+     * @param position -> Posición desde la que continuar (ScrollPosition.keyset() = desde el principio)
+     * @param sort -> Orden (ver ExpenseSort)
+     * @param limit -> Gastos por página
+     * @return Ventana con los gastos y la posición de cada uno
      * 
-     * Ejemplo: findByCategory(CategoryEnum.FOOD)
-     * SQL generado: SELECT * FROM expenses WHERE category = ? ORDER BY date DESC
+     * Ejemplo: findByCategory(CategoryEnum.FOOD, ScrollPosition.keyset(), ExpenseSort.DATE_DESC.toSort(), Limit.of(50))
+     * SQL generado: SELECT * FROM expenses WHERE category = ? ORDER BY date DESC, id DESC LIMIT 51
+     * (usa idx_expenses_category_date)
      */
-    List<Expense> findByCategoryOrderByDateDesc(CategoryEnum category);
+    Window<Expense> findByCategory(CategoryEnum category, ScrollPosition position, Sort sort, Limit limit);
 
     /**
-     * Encuentra todos los gastos realizados con un método de pago específico.
-     * Ordena los resultados por fecha de forma descendente (más recientes primero).
+     * Encuentra una página de gastos realizados con un método de pago específico.
      * 
      * @param paymentMethod Método de pago por el cual filtrar los gastos
-     * @return Lista de gastos del método de pago especificado, ordenados por fecha descendente
+     * @param position -> Posición desde la que continuar
+     * @param sort -> Orden (ver ExpenseSort)
+     * @param limit -> Gastos por página
+     * @return Ventana con los gastos y la posición de cada uno
      * 
-     * Ejemplo: findByPaymentMethod(PaymentMethodEnum.CREDIT_CARD)
-     * SQL generado: SELECT * FROM expenses WHERE payment_method = ? ORDER BY date DESC
+     * SQL generado: SELECT * FROM expenses WHERE payment_method = ? ORDER BY date DESC, id DESC LIMIT 51
+     * (usa idx_expenses_payment_method_date)
      */
-    List<Expense> findByPaymentMethodOrderByDateDesc(PaymentMethodEnum paymentMethod);
+    Window<Expense> findByPaymentMethod(
+            PaymentMethodEnum paymentMethod,
+            ScrollPosition position,
+            Sort sort,
+            Limit limit
+    );
 
     /**
-     * Encuentra todos los gastos dentro de un rango de fechas (inclusive).
-     * Ordena los resultados por fecha de forma descendente (más recientes primero).
+     * Encuentra una página de gastos dentro de un rango de fechas (inclusive).
      * 
      * @param startDate Fecha de inicio del rango (inclusive)
      * @param endDate Fecha de fin del rango (inclusive)
-     * @return Lista de gastos en el rango de fechas especificado, ordenados por fecha descendente
+     * @param position -> Posición desde la que continuar
+     * @param sort -> Orden (ver ExpenseSort)
+     * @param limit -> Gastos por página
+     * @return Ventana con los gastos y la posición de cada uno
      * 
-     * Ejemplo: findByDateBetween(LocalDate.of(2024, 11, 1), LocalDate.of(2024, 11, 30))
-     * SQL generado: SELECT * FROM expenses WHERE date BETWEEN ? AND ? ORDER BY date DESC
+     * SQL generado: SELECT * FROM expenses WHERE date BETWEEN ? AND ? ORDER BY date DESC, id DESC LIMIT 51
+     * (usa idx_expenses_date)
      */
-    List<Expense> findByDateBetweenOrderByDateDesc(LocalDate startDate, LocalDate endDate);
+    Window<Expense> findByDateBetween(
+            LocalDate startDate,
+            LocalDate endDate,
+            ScrollPosition position,
+            Sort sort,
+            Limit limit
+    );
 
     /**
-     * Encuentra los gastos más recientes limitando el número de resultados.
-     * Útil para mostrar un resumen de gastos recientes en la interfaz.
+     * Encuentra los gastos más altos (en la moneda base) de un rango de fechas.
      * 
-     * @return Lista de todos los gastos ordenados por fecha descendente (más recientes primero)
+     * @param startDate -> Fecha de inicio del rango (inclusive)
+     * @param endDate -> Fecha de fin del rango (inclusive)
+     * @param limit -> Número de gastos
+     * @return Gastos de mayor a menor cantidad (a igual cantidad, el más reciente primero)
      * 
-     * Nota: Puedes limitar los resultados usando Pageable en el Service
-     * SQL generado: SELECT * FROM expenses ORDER BY date DESC
+     * SQL generado: SELECT * FROM expenses WHERE date BETWEEN ? AND ?
+     * ORDER BY base_amount DESC, id DESC LIMIT 5 (usa idx_expenses_date y un top-N en memoria)
      */
-    List<Expense> findAllByOrderByDateDesc();
+    List<Expense> findByDateBetweenOrderByBaseAmountDescIdDesc(LocalDate startDate, LocalDate endDate, Limit limit);
 
     /**
-     * Encuentra todos los gastos de una categoría en un rango de fechas.
+     * Encuentra una página de todos los gastos.
+     * 
+     * @param position -> Posición desde la que continuar
+     * @param sort -> Orden (ver ExpenseSort)
+     * @param limit -> Gastos por página
+     * @return Ventana con los gastos y la posición de cada uno
+     * 
+     * SQL generado: SELECT * FROM expenses ORDER BY date DESC, id DESC LIMIT 51
+     * (usa idx_expenses_date)
+     */
+    Window<Expense> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Encuentra una página de gastos de una categoría en un rango de fechas.
      * Útil para reportes específicos de categoría en un período determinado.
      * 
      * @param category -> Categoría del gasto
      * @param startDate -> Fecha de inicio del rango (inclusive)
      * @param endDate -> Fecha de fin del rango (inclusive)
-     * @return Lista de gastos que cumplen ambos criterios, ordenados por fecha descendente
+     * @param position -> Posición desde la que continuar
+     * @param sort -> Orden (ver ExpenseSort)
+     * @param limit -> Gastos por página
+     * @return Ventana con los gastos y la posición de cada uno
      * 
-     * Ejemplo: findByCategoryAndDateBetween(CategoryEnum.FOOD, inicio, fin)
-     * SQL generado: SELECT * FROM expenses WHERE category = ? AND date BETWEEN ? AND ? ORDER BY date DESC
+     * SQL generado: SELECT * FROM expenses WHERE category = ? AND date BETWEEN ? AND ?
+     * ORDER BY date DESC, id DESC LIMIT 51 (usa idx_expenses_category_date)
      */
-    List<Expense> findByCategoryAndDateBetweenOrderByDateDesc(
+    Window<Expense> findByCategoryAndDateBetween(
             CategoryEnum category,
             LocalDate startDate,
-            LocalDate endDate
+            LocalDate endDate,
+            ScrollPosition position,
+            Sort sort,
+            Limit limit
+    );
+
+    /**
+     * Fecha del gasto más antiguo y del más reciente.
+     * Se usa para reconstruir los acumulados de todo el histórico.
+     * 
+     * @return Array [mínima, máxima] (ambas null si no hay gastos)
+     */
+    @Query("SELECT MIN(e.date), MAX(e.date) FROM Expense e")
+    List<Object[]> findDateRange();
+
+    /**
+     * Recorre los gastos que cumplen los filtros sin cargarlos todos en memoria.
+     * Útil para exportaciones de cualquier tamaño.
+     * 
+     * - Proyección a ExpenseExportRow: no se crean entidades gestionadas
+     * - fetch size 1000: el driver trae las filas del cursor de 1000 en 1000
+     *   (en PostgreSQL solo funciona dentro de una transacción)
+     * - El Stream se debe cerrar (try-with-resources) para liberar el cursor
+     * - CAST en las fechas: el driver de PostgreSQL envía los LocalDate sin tipo
+     *   y "? IS NULL" necesita uno
+     * 
+     * @param startDate -> Fecha mínima (null = sin límite)
+     * @param endDate -> Fecha máxima (null = sin límite)
+     * @param category -> Categoría (null = todas)
+     * @param paymentMethod -> Método de pago (null = todos)
+     * @return Stream de filas ordenadas por fecha descendente
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.ExpenseExportRow(" +
+            "e.id, e.date, e.description, e.category, e.paymentMethod, e.amount, e.currency) " +
+            "FROM Expense e " +
+            "WHERE (CAST(:startDate AS LocalDate) IS NULL OR e.date >= :startDate) " +
+            "AND (CAST(:endDate AS LocalDate) IS NULL OR e.date <= :endDate) " +
+            "AND (:category IS NULL OR e.category = :category) " +
+            "AND (:paymentMethod IS NULL OR e.paymentMethod = :paymentMethod) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    Stream<ExpenseExportRow> streamForExport(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("category") CategoryEnum category,
+            @Param("paymentMethod") PaymentMethodEnum paymentMethod
+    );
+
+    /**
+     * Vuelve a convertir a la moneda base los gastos de una moneda en un rango de
+     * días con un tipo de cambio nuevo. Una sola sentencia UPDATE: no se carga
+     * ningún gasto en memoria.
+     * 
+     * @param currency -> Moneda de los gastos
+     * @param rate -> Tipo de cambio a aplicar
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Número de gastos actualizados
+     */
+    @Modifying
+    @Query("UPDATE Expense e SET e.baseAmount = ROUND(e.amount * :rate, 2) " +
+            "WHERE e.currency = :currency AND e.date BETWEEN :startDate AND :endDate")
+    int convertToBase(
+            @Param("currency") String currency,
+            @Param("rate") BigDecimal rate,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Indica si hay gastos de una moneda en un rango de días.
+     * 
+     * @param currency -> Moneda
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return true si hay al menos uno
+     */
+    boolean existsByCurrencyAndDateBetween(String currency, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * ID más alto de la tabla de gastos (null si está vacía).
+     * Marca qué gastos existían antes de empezar una importación.
+     * 
+     * @return ID máximo
+     */
+    @Query("SELECT MAX(e.id) FROM Expense e")
+    Long findMaxId();
+
+    /**
+     * Devuelve cuáles de las huellas indicadas tienen ya un gasto con ID menor
+     * o igual que maxId. Se usa en la importación masiva para descartar gastos
+     * ya registrados (usa el índice idx_expenses_dedup_hash).
+     * 
+     * @param hashes -> Huellas a comprobar (ver Expense.dedupHashOf)
+     * @param maxId -> Solo se comparan los gastos con ID menor o igual
+     * @return Huellas encontradas (puede contener repetidas)
+     */
+    @Query("SELECT e.dedupHash FROM Expense e WHERE e.dedupHash IN :hashes AND e.id <= :maxId")
+    List<Long> findExistingDedupHashes(@Param("hashes") Collection<Long> hashes, @Param("maxId") Long maxId);
+
+    /**
+     * Número, suma y suma de cuadrados de las cantidades (en la moneda base)
+     * por categoría y método de pago: como mucho 40 filas.
+     * 
+     * Recorre toda la tabla: solo se usa para cargar las estadísticas de
+     * ExpenseAnomalyDetector al arrancar o tras reconstruir los acumulados.
+     * 
+     * @return Una fila por combinación con gastos
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.AmountStats(" +
+            "e.category, e.paymentMethod, COUNT(e), SUM(e.baseAmount), SUM(e.baseAmount * e.baseAmount)) " +
+            "FROM Expense e GROUP BY e.category, e.paymentMethod")
+    List<AmountStats> findAmountStats();
+
+    /**
+     * Busca gastos por texto en la descripción (PostgreSQL con pg_trgm), de más
+     * a menos relevante.
+     * 
+     * - Coincide si la descripción contiene el texto (LIKE) o se parece a él
+     *   (operador <%: word_similarity mayor o igual que pg_trgm.word_similarity_threshold, 0.6 por defecto)
+     * - Las dos condiciones usan el índice GIN de trigramas idx_expenses_description_trgm
+     *   sobre lower(description) (lo crea ExpenseTextSearch al arrancar)
+     * - Relevancia: word_similarity, a igual relevancia el gasto más reciente (ID) primero
+     * - Solo devuelve ID y relevancia: los gastos de la página se cargan después por ID
+     * - CAST en los filtros opcionales: "? IS NULL" necesita un tipo
+     * 
+     * @param query -> Texto a buscar en minúsculas
+     * @param pattern -> Patrón LIKE "%texto%" con los comodines del texto escapados
+     * @param minAmount -> Cantidad mínima en la moneda base (null = sin límite)
+     * @param maxAmount -> Cantidad máxima en la moneda base (null = sin límite)
+     * @param category -> Nombre de la categoría (null = todas)
+     * @param startDate -> Fecha mínima (null = sin límite)
+     * @param endDate -> Fecha máxima (null = sin límite)
+     * @param offset -> Resultados a saltar
+     * @param limit -> Resultados a devolver
+     * @return Filas [id, relevancia]
+     */
+    @Query(nativeQuery = true, value = "SELECT e.id, word_similarity(:query, lower(e.description)) AS relevance " +
+            "FROM expenses e " +
+            "WHERE (lower(e.description) LIKE :pattern OR :query <% lower(e.description)) " +
+            "AND (CAST(:minAmount AS numeric) IS NULL OR e.base_amount >= :minAmount) " +
+            "AND (CAST(:maxAmount AS numeric) IS NULL OR e.base_amount <= :maxAmount) " +
+            "AND (CAST(:category AS varchar) IS NULL OR e.category = :category) " +
+            "AND (CAST(:startDate AS date) IS NULL OR e.date >= :startDate) " +
+            "AND (CAST(:endDate AS date) IS NULL OR e.date <= :endDate) " +
+            "ORDER BY relevance DESC, e.id DESC " +
+            "OFFSET :offset LIMIT :limit")
+    List<Object[]> searchByDescription(
+            @Param("query") String query,
+            @Param("pattern") String pattern,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount,
+            @Param("category") String category,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("offset") int offset,
+            @Param("limit") int limit
     );
 
+    /**
+     * Busca gastos cuya descripción contiene el texto (PostgreSQL sin pg_trgm),
+     * del más reciente al más antiguo.
+     * 
+     * Alternativa a searchByDescription cuando no se puede crear la extensión:
+     * sin índice de trigramas el LIKE recorre la tabla y no encuentra erratas.
+     * Todas las filas tienen relevancia 1 (contienen el texto).
+     * 
+     * @param pattern -> Patrón LIKE "%texto%" con los comodines del texto escapados
+     * @param minAmount -> Cantidad mínima en la moneda base (null = sin límite)
+     * @param maxAmount -> Cantidad máxima en la moneda base (null = sin límite)
+     * @param category -> Nombre de la categoría (null = todas)
+     * @param startDate -> Fecha mínima (null = sin límite)
+     * @param endDate -> Fecha máxima (null = sin límite)
+     * @param offset -> Resultados a saltar
+     * @param limit -> Resultados a devolver
+     * @return Filas [id, relevancia]
+     */
+    @Query(nativeQuery = true, value = "SELECT e.id, 1.0 AS relevance " +
+            "FROM expenses e " +
+            "WHERE lower(e.description) LIKE :pattern " +
+            "AND (CAST(:minAmount AS numeric) IS NULL OR e.base_amount >= :minAmount) " +
+            "AND (CAST(:maxAmount AS numeric) IS NULL OR e.base_amount <= :maxAmount) " +
+            "AND (CAST(:category AS varchar) IS NULL OR e.category = :category) " +
+            "AND (CAST(:startDate AS date) IS NULL OR e.date >= :startDate) " +
+            "AND (CAST(:endDate AS date) IS NULL OR e.date <= :endDate) " +
+            "ORDER BY e.id DESC " +
+            "OFFSET :offset LIMIT :limit")
+    List<Object[]> searchByDescriptionLike(
+            @Param("pattern") String pattern,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount,
+            @Param("category") String category,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("offset") int offset,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Recorre todos los gastos como ExpenseSnapshot (sin crear entidades gestionadas).
+     * Se usa para cargar el índice de búsqueda en memoria de ExpenseTextSearch
+     * cuando la base de datos no es PostgreSQL.
+     * 
+     * @return Stream de copias de los gastos (se debe cerrar)
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot(" +
+            "e.id, e.description, e.baseAmount, e.category, e.date, e.paymentMethod) FROM Expense e")
+    Stream<ExpenseSnapshot> streamSnapshots();
 
 }
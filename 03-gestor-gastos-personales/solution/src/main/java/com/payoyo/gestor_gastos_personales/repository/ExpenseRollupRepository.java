@@ -0,0 +1,214 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.payoyo.gestor_gastos_personales.dto.CategoryTotal;
+import com.payoyo.gestor_gastos_personales.dto.MonthTotal;
+import com.payoyo.gestor_gastos_personales.dto.PaymentMethodTotal;
+import com.payoyo.gestor_gastos_personales.dto.PeriodTotal;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseDailyRollup;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseRollupId;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/**
+ * Repositorio de los acumulados diarios de gastos (expense_daily_rollups).
+ * 
+ * Los reportes leen de aquí en lugar de la tabla expenses: el coste depende
+ * del número de días del rango, no del número de gastos.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface ExpenseRollupRepository extends JpaRepository<ExpenseDailyRollup, ExpenseRollupId>, ExpenseRollupRepositoryCustom {
+
+    /**
+     * Upsert atómico de PostgreSQL usado por applyDelta y applyDeltas.
+     */
+    String APPLY_DELTA_SQL =
+            "INSERT INTO expense_daily_rollups (expense_date, category, payment_method, total_amount, expense_count) " +
+            "VALUES (:date, :category, :paymentMethod, :amount, :count) " +
+            "ON CONFLICT (expense_date, category, payment_method) DO UPDATE SET " +
+            "total_amount = expense_daily_rollups.total_amount + EXCLUDED.total_amount, " +
+            "expense_count = expense_daily_rollups.expense_count + EXCLUDED.expense_count";
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Suma (o resta, con valores negativos) un importe y un número de gastos a un grupo.
+     * 
+     * Upsert atómico de PostgreSQL: si la fila no existe se crea, si existe se
+     * incrementa. Dos altas concurrentes en el mismo grupo no se pisan.
+     * 
+     * @param date -> Día del grupo
+     * @param category -> Categoría (nombre del enum)
+     * @param paymentMethod -> Método de pago (nombre del enum)
+     * @param amount -> Importe a sumar (negativo para restar)
+     * @param count -> Gastos a sumar (1, -1 o 0)
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = APPLY_DELTA_SQL)
+    void applyDelta(
+            @Param("date") LocalDate date,
+            @Param("category") String category,
+            @Param("paymentMethod") String paymentMethod,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count
+    );
+
+    // ==================== RECONSTRUCCION (BACKFILL) ====================
+
+    /**
+     * Elimina los acumulados de un rango de días.
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Número de filas eliminadas
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "DELETE FROM expense_daily_rollups WHERE expense_date BETWEEN :startDate AND :endDate")
+    int deleteRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recalcula los acumulados de un rango de días desde la tabla expenses.
+     * 
+     * Un solo INSERT ... SELECT ... GROUP BY: la agregación la hace la base de datos,
+     * no se carga ningun gasto en memoria. Suma las cantidades ya convertidas a la
+     * moneda base (base_amount).
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Número de filas de acumulados creadas
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO expense_daily_rollups (expense_date, category, payment_method, total_amount, expense_count) " +
+            "SELECT e.date, e.category, e.payment_method, SUM(e.base_amount), COUNT(*) FROM expenses e " +
+            "WHERE e.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY e.date, e.category, e.payment_method")
+    int insertRangeFromExpenses(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ==================== CONSULTAS DE REPORTES ====================
+
+    /**
+     * Total y número de gastos por categoría (todo el histórico).
+     * Ordenado por total descendente (mayor gasto primero).
+     * 
+     * @return Una fila por categoría con gastos
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.CategoryTotal(" +
+            "r.id.category, SUM(r.totalAmount), SUM(r.expenseCount)) " +
+            "FROM ExpenseDailyRollup r GROUP BY r.id.category " +
+            "HAVING SUM(r.expenseCount) > 0 ORDER BY SUM(r.totalAmount) DESC")
+    List<CategoryTotal> sumByCategory();
+
+    /**
+     * Total y número de gastos por categoría en un rango de días.
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Una fila por categoría con gastos en el rango
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.CategoryTotal(" +
+            "r.id.category, SUM(r.totalAmount), SUM(r.expenseCount)) " +
+            "FROM ExpenseDailyRollup r WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.category HAVING SUM(r.expenseCount) > 0")
+    List<CategoryTotal> sumByCategoryBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Total y número de gastos por método de pago en un rango de días.
+     * Ordenado por total descendente (mayor gasto primero).
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Una fila por método de pago con gastos en el rango
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.PaymentMethodTotal(" +
+            "r.id.paymentMethod, SUM(r.totalAmount), SUM(r.expenseCount)) " +
+            "FROM ExpenseDailyRollup r WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.paymentMethod HAVING SUM(r.expenseCount) > 0 ORDER BY SUM(r.totalAmount) DESC")
+    List<PaymentMethodTotal> sumByPaymentMethodBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Total y número de gastos de un rango de días.
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Totales del rango (campos null si no hay acumulados)
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.PeriodTotal(" +
+            "SUM(r.totalAmount), SUM(r.expenseCount)) " +
+            "FROM ExpenseDailyRollup r WHERE r.id.date BETWEEN :startDate AND :endDate")
+    PeriodTotal sumBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Total y número de gastos por mes en un rango de días (para los cierres mensuales).
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Una fila por mes con acumulados en el rango
+     */
+    @Query("SELECT new com.payoyo.gestor_gastos_personales.dto.MonthTotal(" +
+            "YEAR(r.id.date), MONTH(r.id.date), SUM(r.totalAmount), SUM(r.expenseCount)) " +
+            "FROM ExpenseDailyRollup r WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY YEAR(r.id.date), MONTH(r.id.date)")
+    List<MonthTotal> sumByMonthBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Primer día con acumulados.
+     * 
+     * @return Fecha del acumulado más antiguo (null si no hay ninguno)
+     */
+    @Query("SELECT MIN(r.id.date) FROM ExpenseDailyRollup r")
+    LocalDate findFirstDate();
+
+    /**
+     * Número de gastos que cumplen los filtros, sumando los contadores diarios.
+     * Es el total de los listados paginados: lee como mucho 40 filas por día
+     * en lugar de contar los gastos uno a uno.
+     * (CAST en las fechas: ver ExpenseRepository.streamForExport)
+     * 
+     * @param startDate -> Primer día (null = sin límite)
+     * @param endDate -> Último día (null = sin límite)
+     * @param category -> Categoría (null = todas)
+     * @param paymentMethod -> Método de pago (null = todos)
+     * @return Número de gastos (0 si no hay ninguno)
+     */
+    @Query("SELECT COALESCE(SUM(r.expenseCount), 0) FROM ExpenseDailyRollup r " +
+            "WHERE (CAST(:startDate AS LocalDate) IS NULL OR r.id.date >= :startDate) " +
+            "AND (CAST(:endDate AS LocalDate) IS NULL OR r.id.date <= :endDate) " +
+            "AND (:category IS NULL OR r.id.category = :category) " +
+            "AND (:paymentMethod IS NULL OR r.id.paymentMethod = :paymentMethod)")
+    long countExpenses(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("category") CategoryEnum category,
+            @Param("paymentMethod") PaymentMethodEnum paymentMethod
+    );
+
+    /**
+     * Acumulados de un rango de días (para cargar la caché de series temporales).
+     * Como mucho 40 filas por día (8 categorías x 5 métodos de pago).
+     * 
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Acumulados del rango
+     */
+    List<ExpenseDailyRollup> findByIdDateBetween(LocalDate startDate, LocalDate endDate);
+}
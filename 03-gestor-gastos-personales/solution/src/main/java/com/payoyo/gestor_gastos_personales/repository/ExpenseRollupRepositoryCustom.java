@@ -0,0 +1,48 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.dto.BucketTotal;
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseDailyRollup;
+
+/**
+ * Consultas de ExpenseRollupRepository que no se pueden declarar con @Query.
+ * 
+ * ExpenseRollupRepository extiende esta interfaz y Spring combina automáticamente
+ * los métodos generados con la implementación de ExpenseRollupRepositoryCustomImpl.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface ExpenseRollupRepositoryCustom {
+
+    /**
+     * Totales por intervalo (trunc de HQL, date_trunc en PostgreSQL) y, opcionalmente, por categoría o método de pago.
+     * 
+     * La agrupación la hace la base de datos sobre los acumulados diarios: como
+     * mucho devuelve una fila por intervalo y serie. Los intervalos sin gastos
+     * no aparecen (el relleno de huecos se hace en el servicio).
+     * 
+     * @param granularity -> Tamaño de los intervalos
+     * @param split -> Columna por la que separar las series
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Una fila por (intervalo, serie) con gastos, ordenadas por intervalo
+     */
+    List<BucketTotal> sumByBucket(TimeGranularity granularity, TimeSeriesSplit split,
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Aplica varios incrementos con el mismo upsert que applyDelta, enviados
+     * en un único lote JDBC (un viaje a la base de datos en lugar de uno por grupo).
+     * 
+     * Conviene pasarlos ordenados por clave: dos lotes concurrentes bloquean
+     * las filas en el mismo orden y no se interbloquean.
+     * 
+     * @param deltas -> Incrementos por grupo (importe y número de gastos a sumar)
+     */
+    void applyDeltas(Collection<ExpenseDailyRollup> deltas);
+}
@@ -0,0 +1,110 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Session;
+
+import com.payoyo.gestor_gastos_personales.dto.BucketTotal;
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseDailyRollup;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación de las consultas personalizadas de ExpenseRollupRepository.
+ * 
+ * La consulta de series temporales se construye en tiempo de ejecución porque
+ * la unidad de truncado y la columna de separación cambian con la petición:
+ * 
+ * granularity=MONTH, splitBy=CATEGORY ->
+ * SELECT trunc(r.id.date, month), r.id.category, SUM(r.totalAmount), SUM(r.expenseCount)
+ * FROM ExpenseDailyRollup r WHERE r.id.date BETWEEN ? AND ? GROUP BY 1, 2
+ * 
+ * trunc() de HQL se traduce a date_trunc en PostgreSQL (semanas ISO, empiezan en lunes)
+ * y Hibernate lo emula con la misma semántica en otras bases de datos.
+ * 
+ * Solo se concatenan valores de los enums TimeGranularity y TimeSeriesSplit
+ * (nunca texto de la petición), así que no hay riesgo de inyección.
+ * 
+ * Los incrementos por lotes usan la conexión JDBC de la transacción en curso
+ * (Session.doWork) para enviar todos los upserts en un solo executeBatch.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+class ExpenseRollupRepositoryCustomImpl implements ExpenseRollupRepositoryCustom {
+
+    // JDBC no admite parámetros con nombre: mismo SQL que applyDelta con "?"
+    private static final String APPLY_DELTA_JDBC_SQL = ExpenseRollupRepository.APPLY_DELTA_SQL.replaceAll(":\\w+", "?");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BucketTotal> sumByBucket(TimeGranularity granularity, TimeSeriesSplit split,
+            LocalDate startDate, LocalDate endDate) {
+        String bucket = "trunc(r.id.date, " + granularity.truncUnit() + ")";
+        String key = switch (split) {
+            case NONE -> null;
+            case CATEGORY -> "r.id.category";
+            case PAYMENT_METHOD -> "r.id.paymentMethod";
+        };
+        String groupBy = key != null ? bucket + ", " + key : bucket;
+
+        String jpql = "SELECT " + groupBy + ", SUM(r.totalAmount), SUM(r.expenseCount)"
+                + " FROM ExpenseDailyRollup r"
+                + " WHERE r.id.date BETWEEN :startDate AND :endDate"
+                + " GROUP BY " + groupBy
+                + " HAVING SUM(r.expenseCount) > 0"
+                + " ORDER BY 1";
+
+        List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+
+        int amount = key != null ? 2 : 1;
+        List<BucketTotal> totals = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            totals.add(new BucketTotal(
+                    toLocalDate(row[0]),
+                    key != null ? ((Enum<?>) row[1]).name() : null,
+                    (BigDecimal) row[amount],
+                    ((Number) row[amount + 1]).longValue()
+            ));
+        }
+        return totals;
+    }
+
+    @Override
+    public void applyDeltas(Collection<ExpenseDailyRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(APPLY_DELTA_JDBC_SQL)) {
+                for (ExpenseDailyRollup delta : deltas) {
+                    statement.setObject(1, delta.getId().getDate());
+                    statement.setString(2, delta.getId().getCategory().name());
+                    statement.setString(3, delta.getId().getPaymentMethod().name());
+                    statement.setBigDecimal(4, delta.getTotalAmount());
+                    statement.setLong(5, delta.getExpenseCount());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // Según la base de datos, trunc() puede devolver java.sql.Date o LocalDate
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.payoyo.gestor_gastos_personales.entity.IdempotencyKey;
+
+/**
+ * Repositorio de las respuestas guardadas por Idempotency-Key (ver IdempotencyKeyStore).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Borra las claves caducadas (usa idx_idempotency_keys_expires_at).
+     * 
+     * @param now -> Momento actual
+     * @return Número de claves borradas
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
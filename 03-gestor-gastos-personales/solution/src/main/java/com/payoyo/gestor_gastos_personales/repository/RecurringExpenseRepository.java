@@ -0,0 +1,52 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repositorio de las plantillas de gastos recurrentes.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    /**
+     * Siguiente bloque de plantillas con alguna repetición pendiente, por ID.
+     * 
+     * Las filas quedan bloqueadas (SELECT ... FOR UPDATE) hasta el commit: si
+     * dos instancias ejecutan el planificador a la vez, la segunda espera y ya
+     * no ve como pendientes las repeticiones que generó la primera.
+     * 
+     * @param date -> Fecha hasta la que generar (normalmente hoy)
+     * @param afterId -> ID de la última plantilla del bloque anterior (0 en el primero)
+     * @param limit -> Tamaño del bloque
+     * @return Plantillas con nextDate <= date e ID > afterId
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<RecurringExpense> findByNextDateLessThanEqualAndIdGreaterThanOrderByIdAsc(
+            LocalDate date, Long afterId, Limit limit);
+
+    /**
+     * Plantillas que aún pueden tener repeticiones a partir de una fecha
+     * (sin terminar o con endDate posterior). Son pocas: se usan para la previsión.
+     * 
+     * @param date -> Fecha de referencia
+     * @return Plantillas sin fin o que terminan en date o después
+     */
+    List<RecurringExpense> findByEndDateIsNullOrEndDateGreaterThanEqual(LocalDate date);
+
+    /**
+     * Todas las plantillas, las más próximas primero (las terminadas al final).
+     * 
+     * @return Plantillas ordenadas por la siguiente repetición
+     */
+    List<RecurringExpense> findAllByOrderByNextDateAscIdAsc();
+}
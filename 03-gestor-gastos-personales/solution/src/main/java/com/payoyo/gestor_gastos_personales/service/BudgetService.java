@@ -0,0 +1,63 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.dto.BudgetStatus;
+import com.payoyo.gestor_gastos_personales.entity.Budget;
+import com.payoyo.gestor_gastos_personales.entity.BudgetAlert;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+
+/**
+ * Servicio de presupuestos mensuales por categoría.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface BudgetService {
+
+    /**
+     * Obtiene todos los presupuestos con lo gastado en el mes actual.
+     * Endpoint: GET /api/budgets
+     * 
+     * @return Estado de cada presupuesto
+     */
+    List<BudgetStatus> getBudgets();
+
+    /**
+     * Obtiene el presupuesto de una categoría con lo gastado en el mes actual.
+     * Endpoint: GET /api/budgets/{category}
+     * 
+     * @param category Categoría
+     * @return Estado del presupuesto
+     * @throws com.payoyo.gestor_gastos_personales.exceptions.BudgetNotFoundException si la categoría no tiene presupuesto
+     */
+    BudgetStatus getBudget(CategoryEnum category);
+
+    /**
+     * Crea o modifica el presupuesto de una categoría.
+     * Endpoint: PUT /api/budgets/{category}
+     * 
+     * @param category Categoría
+     * @param budget Límite mensual y porcentaje de aviso
+     * @return Estado del presupuesto guardado
+     */
+    BudgetStatus saveBudget(CategoryEnum category, Budget budget);
+
+    /**
+     * Elimina el presupuesto de una categoría.
+     * Endpoint: DELETE /api/budgets/{category}
+     * 
+     * @param category Categoría
+     * @throws com.payoyo.gestor_gastos_personales.exceptions.BudgetNotFoundException si la categoría no tiene presupuesto
+     */
+    void deleteBudget(CategoryEnum category);
+
+    /**
+     * Obtiene los avisos de presupuesto superado de un mes.
+     * Endpoint: GET /api/budgets/alerts?month=YYYY-MM
+     * 
+     * @param month Mes (null = mes actual)
+     * @return Avisos del mes, los más recientes primero
+     */
+    List<BudgetAlert> getAlerts(YearMonth month);
+}
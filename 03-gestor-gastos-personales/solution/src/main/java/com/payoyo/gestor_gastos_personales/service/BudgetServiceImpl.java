@@ -0,0 +1,86 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.payoyo.gestor_gastos_personales.dto.BudgetStatus;
+import com.payoyo.gestor_gastos_personales.entity.Budget;
+import com.payoyo.gestor_gastos_personales.entity.BudgetAlert;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.events.BudgetChangedEvent;
+import com.payoyo.gestor_gastos_personales.exceptions.BudgetNotFoundException;
+import com.payoyo.gestor_gastos_personales.repository.BudgetAlertRepository;
+import com.payoyo.gestor_gastos_personales.repository.BudgetRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación del servicio de presupuestos.
+ * 
+ * Lo gastado en el mes se lee de BudgetTracker (memoria), no de la tabla de gastos.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BudgetServiceImpl implements BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository alertRepository;
+    private final BudgetTracker budgetTracker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<BudgetStatus> getBudgets() {
+        return budgetRepository.findAll().stream()
+                .sorted(Comparator.comparing(Budget::getCategory))
+                .map(budgetTracker::statusOf)
+                .toList();
+    }
+
+    @Override
+    public BudgetStatus getBudget(CategoryEnum category) {
+        return budgetTracker.statusOf(findBudget(category));
+    }
+
+    /**
+     * Crea el presupuesto si la categoría no tiene, o actualiza el existente.
+     * Los límites en memoria se recargan tras el commit (BudgetChangedEvent).
+     */
+    @Override
+    @Transactional
+    public BudgetStatus saveBudget(CategoryEnum category, Budget budget) {
+        Budget saved = budgetRepository.findByCategory(category)
+                .orElseGet(() -> Budget.builder().category(category).build());
+        saved.setMonthlyLimit(budget.getMonthlyLimit());
+        saved.setAlertPercentage(budget.getAlertPercentage());
+        saved = budgetRepository.save(saved);
+
+        eventPublisher.publishEvent(new BudgetChangedEvent(category));
+        return budgetTracker.statusOf(saved);
+    }
+
+    @Override
+    @Transactional
+    public void deleteBudget(CategoryEnum category) {
+        budgetRepository.delete(findBudget(category));
+        eventPublisher.publishEvent(new BudgetChangedEvent(category));
+    }
+
+    @Override
+    public List<BudgetAlert> getAlerts(YearMonth month) {
+        YearMonth requested = month != null ? month : YearMonth.now();
+        return alertRepository.findByMonthOrderByCreatedAtDesc(requested.atDay(1));
+    }
+
+    private Budget findBudget(CategoryEnum category) {
+        return budgetRepository.findByCategory(category)
+                .orElseThrow(() -> new BudgetNotFoundException(category));
+    }
+}
@@ -0,0 +1,347 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.dto.BudgetStatus;
+import com.payoyo.gestor_gastos_personales.entity.Budget;
+import com.payoyo.gestor_gastos_personales.entity.BudgetAlert;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.events.BudgetChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.BudgetAlertRepository;
+import com.payoyo.gestor_gastos_personales.repository.BudgetRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lleva en memoria el total gastado en el mes actual por categoría y comprueba
+ * los presupuestos en cada alta, modificación, baja o importación.
+ *
+ * - Un contador de céntimos por categoría: comprobar un gasto cuesta O(1),
+ *   nunca se vuelve a sumar el mes
+ * - Los límites de los presupuestos también están en memoria (se recargan
+ *   al cambiar un presupuesto)
+ * - Los cambios se aplican DESPUÉS del commit, como en ExpenseTimeSeriesCache
+ * - Al empezar un mes los totales empiezan en 0 sin consultar la BD: no hay
+ *   gastos con fecha futura, así que todo gasto del mes nuevo pasa por aquí
+ * - Si un gasto hace que el total supere el porcentaje de aviso o el 100 %
+ *   se registra un BudgetAlert (una vez por categoría, mes y umbral)
+ *
+ * Conciliación: cada expenses.budgets.reconcile-interval (10 min por defecto)
+ * y tras reconstruir los acumulados, los totales se recalculan desde
+ * expense_daily_rollups (8 filas como mucho). La recarga no se cruza con los
+ * cambios en curso (ver CommittedChanges): un gasto confirmado mientras se
+ * recalcula no se cuenta dos veces ni genera un aviso falso. Si la memoria se
+ * había desviado (p. ej. un cambio hecho por otra instancia) se corrige y se
+ * avisa en el log. Tras una reconstrucción no se avisa: los totales pueden
+ * cambiar a propósito (p. ej. al cambiar un tipo de cambio se vuelven a convertir los gastos).
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class BudgetTracker {
+
+    private static final int CATEGORIES = CategoryEnum.values().length;
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository alertRepository;
+    private final ExpenseRollupRepository rollupRepository;
+    private final TransactionTemplate newTransaction;
+    private final Clock clock;
+    private final CommittedChanges changes = new CommittedChanges();
+
+    // null hasta la primera carga; se sustituyen enteros al recargar
+    private volatile MonthTotals totals;
+    private volatile Limit[] limits = new Limit[CATEGORIES];
+
+    @Autowired
+    public BudgetTracker(
+            BudgetRepository budgetRepository,
+            BudgetAlertRepository alertRepository,
+            ExpenseRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this(budgetRepository, alertRepository, rollupRepository, transactionManager, Clock.systemDefaultZone());
+    }
+
+    // Con un reloj fijo en las pruebas (cambio de mes)
+    BudgetTracker(
+            BudgetRepository budgetRepository,
+            BudgetAlertRepository alertRepository,
+            ExpenseRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            Clock clock
+    ) {
+        this.budgetRepository = budgetRepository;
+        this.alertRepository = alertRepository;
+        this.rollupRepository = rollupRepository;
+        // Los listeners se ejecutan tras el commit: cada acceso a la BD necesita su propia transacción
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    // ==================== CARGA Y CONCILIACIÓN ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reloadBudgets();
+        reconcile();
+    }
+
+    /**
+     * Recalcula los totales del mes actual desde los acumulados diarios.
+     */
+    @Scheduled(fixedDelayString = "${expenses.budgets.reconcile-interval:PT10M}",
+            initialDelayString = "${expenses.budgets.reconcile-interval:PT10M}")
+    public void reconcile() {
+        reload(true);
+    }
+
+    @TransactionalEventListener
+    public void onRollupsRebuilt(ExpenseRollupsRebuiltEvent event) {
+        reload(false);
+    }
+
+    private void reload(boolean warnOnDrift) {
+        Supplier<MonthTotals> query = () -> {
+            YearMonth month = YearMonth.now(clock);
+            MonthTotals loaded = new MonthTotals(month);
+            newTransaction.execute(status -> rollupRepository.sumByCategoryBetween(month.atDay(1), month.atEndOfMonth()))
+                    .forEach(sum -> loaded.cents.set(sum.category().ordinal(), Cents.of(sum.totalAmount())));
+            return loaded;
+        };
+        if (changes.reload(query, loaded -> install(loaded, warnOnDrift))) {
+            return;
+        }
+        if (totals == null) {
+            log.warn("Gastos en curso durante la carga de los presupuestos: se cargan igualmente");
+            changes.forceReload(query, loaded -> install(loaded, false));
+        } else {
+            log.info("Gastos en curso durante la conciliación de los presupuestos: se deja para la siguiente");
+        }
+    }
+
+    private synchronized void install(MonthTotals loaded, boolean warnOnDrift) {
+        MonthTotals previous = totals;
+        if (warnOnDrift && previous != null && previous.month.equals(loaded.month)) {
+            for (int i = 0; i < CATEGORIES; i++) {
+                if (previous.cents.get(i) != loaded.cents.get(i)) {
+                    log.warn("Total de {} en memoria desviado: {} céntimos en memoria, {} en la BD",
+                            CategoryEnum.values()[i], previous.cents.get(i), loaded.cents.get(i));
+                }
+            }
+        }
+        totals = loaded;
+    }
+
+    @TransactionalEventListener
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        reloadBudgets();
+    }
+
+    private synchronized void reloadBudgets() {
+        Limit[] loaded = new Limit[CATEGORIES];
+        for (Budget budget : newTransaction.execute(status -> budgetRepository.findAll())) {
+            loaded[budget.getCategory().ordinal()] = new Limit(
+                    budget.getMonthlyLimit(), Cents.of(budget.getMonthlyLimit()), budget.getAlertPercentage());
+        }
+        limits = loaded;
+    }
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Aplica el cambio de un gasto cuando se confirme y avisa si se supera un umbral.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        changes.afterCommit(() -> apply(event));
+    }
+
+    private void apply(ExpenseChangedEvent event) {
+        List<Crossing> crossings = new ArrayList<>(1);
+        synchronized (this) {
+            MonthTotals current = currentMonth();
+            if (current == null) {
+                return;
+            }
+            if (event.before() != null && current.contains(event.before().date())) {
+                current.add(event.before().category(), -Cents.of(event.before().baseAmount()));
+            }
+            if (event.after() != null && current.contains(event.after().date())) {
+                add(current, event.after().category(), Cents.of(event.after().baseAmount()), crossings);
+            }
+        }
+        crossings.forEach(this::recordAlert);
+    }
+
+    /**
+     * Aplica un bloque de gastos importados cuando se confirme: una suma por categoría.
+     *
+     * @param event -> Gastos insertados
+     */
+    @EventListener
+    public void onExpensesImported(ExpensesImportedEvent event) {
+        changes.afterCommit(() -> apply(event));
+    }
+
+    private void apply(ExpensesImportedEvent event) {
+        List<Crossing> crossings = new ArrayList<>(1);
+        synchronized (this) {
+            MonthTotals current = currentMonth();
+            if (current == null) {
+                return;
+            }
+            long[] cents = new long[CATEGORIES];
+            for (ExpenseSnapshot expense : event.expenses()) {
+                if (current.contains(expense.date())) {
+                    cents[expense.category().ordinal()] += Cents.of(expense.baseAmount());
+                }
+            }
+            for (CategoryEnum category : CategoryEnum.values()) {
+                if (cents[category.ordinal()] != 0) {
+                    add(current, category, cents[category.ordinal()], crossings);
+                }
+            }
+        }
+        crossings.forEach(this::recordAlert);
+    }
+
+    /**
+     * Suma al total de la categoría y comprueba los umbrales: dos comparaciones, O(1).
+     */
+    private void add(MonthTotals current, CategoryEnum category, long cents, List<Crossing> crossings) {
+        long after = current.add(category, cents);
+        long before = after - cents;
+        Limit limit = limits[category.ordinal()];
+        if (limit == null) {
+            return;
+        }
+        if (crosses(before, after, limit.cents(), limit.alertPercentage())) {
+            crossings.add(new Crossing(category, current.month, limit.alertPercentage(), after, limit));
+        }
+        if (limit.alertPercentage() < 100 && crosses(before, after, limit.cents(), 100)) {
+            crossings.add(new Crossing(category, current.month, 100, after, limit));
+        }
+    }
+
+    // before < limit * pct / 100 <= after, sin divisiones (céntimos x 100 cabe en un long)
+    private static boolean crosses(long before, long after, long limitCents, int percentage) {
+        long threshold = limitCents * percentage;
+        return before * 100 < threshold && after * 100 >= threshold;
+    }
+
+    /**
+     * Totales del mes actual; al cambiar de mes empiezan en 0.
+     * null antes de la primera carga: la carga ya incluirá el cambio (ver CommittedChanges).
+     */
+    private MonthTotals currentMonth() {
+        MonthTotals current = totals;
+        YearMonth month = YearMonth.now(clock);
+        if (current != null && !current.month.equals(month)) {
+            current = new MonthTotals(month);
+            totals = current;
+        }
+        return current;
+    }
+
+    private void recordAlert(Crossing crossing) {
+        LocalDate month = crossing.month().atDay(1);
+        BigDecimal spent = Cents.toAmount(crossing.spentCents());
+        newTransaction.executeWithoutResult(status -> {
+            if (!alertRepository.existsByCategoryAndMonthAndThresholdPercentage(
+                    crossing.category(), month, crossing.percentage())) {
+                log.warn("Presupuesto de {} al {} % en {}: {} de {}", crossing.category(), crossing.percentage(),
+                        crossing.month(), spent, crossing.limit().amount());
+                alertRepository.save(BudgetAlert.builder()
+                        .category(crossing.category())
+                        .month(month)
+                        .thresholdPercentage(crossing.percentage())
+                        .spentAmount(spent)
+                        .monthlyLimit(crossing.limit().amount())
+                        .build());
+            }
+        });
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Estado de un presupuesto con lo gastado en el mes actual (leído de memoria).
+     *
+     * @param budget Presupuesto
+     * @return Límite, gastado, restante y porcentaje usado
+     */
+    BudgetStatus statusOf(Budget budget) {
+        MonthTotals current = totals;
+        YearMonth month = YearMonth.now(clock);
+        long cents = current != null && current.month.equals(month)
+                ? current.cents.get(budget.getCategory().ordinal())
+                : 0;
+        BigDecimal spent = Cents.toAmount(cents);
+        // Centésimas de porcentaje: gastado x 100 x 100 / límite
+        BigDecimal percentUsed = Cents.toAmount(
+                Cents.divideHalfUp(cents * 10_000, Cents.of(budget.getMonthlyLimit())));
+        return new BudgetStatus(
+                budget.getCategory(),
+                month,
+                budget.getMonthlyLimit(),
+                budget.getAlertPercentage(),
+                spent,
+                budget.getMonthlyLimit().subtract(spent),
+                percentUsed
+        );
+    }
+
+    private record Limit(BigDecimal amount, long cents, int alertPercentage) {
+    }
+
+    private record Crossing(CategoryEnum category, YearMonth month, int percentage, long spentCents, Limit limit) {
+    }
+
+    /**
+     * Céntimos gastados en un mes, uno por categoría (índice = ordinal).
+     */
+    private static final class MonthTotals {
+
+        private final YearMonth month;
+        private final AtomicLongArray cents = new AtomicLongArray(CATEGORIES);
+
+        private MonthTotals(YearMonth month) {
+            this.month = month;
+        }
+
+        private boolean contains(LocalDate date) {
+            return YearMonth.from(date).equals(month);
+        }
+
+        private long add(CategoryEnum category, long amountCents) {
+            return cents.addAndGet(category.ordinal(), amountCents);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Importes en céntimos (long) para sumar, promediar y agrupar sin crear objetos.
+ *
+ * Las cantidades tienen como mucho 2 decimales (@Digits en Expense y numeric(.., 2)
+ * en la base de datos), así que un long de céntimos las representa de forma exacta:
+ * - BigDecimal -> céntimos solo al entrar (of) y céntimos -> BigDecimal solo al
+ *   salir hacia la API (toAmount)
+ * - Sumar céntimos da exactamente el mismo resultado que BigDecimal::add,
+ *   sin un objeto nuevo por elemento
+ * - Un long admite totales de hasta ~92 billones de euros
+ *
+ * @author Jose Luis (Payoyo)
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    /**
+     * Convierte una cantidad a céntimos.
+     *
+     * @param amount Cantidad con 2 decimales como mucho
+     * @return Céntimos
+     * @throws ArithmeticException si tiene más de 2 decimales (se perdería precisión)
+     */
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Convierte céntimos a cantidad (escala 2, como las columnas de importes).
+     *
+     * @param cents Céntimos
+     * @return Cantidad con 2 decimales
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * División redondeando al entero más cercano y los empates hacia fuera del cero:
+     * mismo resultado que BigDecimal.divide(divisor, 2, RoundingMode.HALF_UP)
+     * aplicado a la cantidad en euros.
+     *
+     * @param cents Dividendo en céntimos
+     * @param divisor Divisor (distinto de 0)
+     * @return Cociente en céntimos
+     */
+    public static long divideHalfUp(long cents, long divisor) {
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += Long.signum(cents) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,120 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pone de acuerdo la recarga de unos datos en memoria (una consulta a la BD)
+ * con los cambios de gastos que se aplican a esos datos tras el commit.
+ *
+ * Sin coordinación un gasto puede contarse dos veces o ninguna:
+ * - Dos veces: se confirma, la recarga lo lee de la BD y después su listener
+ *   lo vuelve a sumar
+ * - Ninguna: su listener lo suma a los datos viejos y la recarga, que lo leyó
+ *   antes del commit, los sustituye
+ *
+ * Solución (como un seqlock): cada cambio se cuenta como "en curso" desde que
+ * se publica, dentro de su transacción, hasta que se ha aplicado tras el commit.
+ * La recarga solo lanza la consulta si no hay ningún cambio en curso y solo
+ * instala el resultado si no ha empezado ninguno mientras tanto; si no, lo
+ * vuelve a intentar. Un cambio que empieza después de instalar se confirma
+ * después de la consulta (no está en ella) y se aplica sobre los datos nuevos.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+final class CommittedChanges {
+
+    private static final int RELOAD_ATTEMPTS = 5;
+    private static final Duration RELOAD_BACKOFF = Duration.ofMillis(20);
+
+    // Protegidos por el monitor de esta instancia
+    private long started;
+    private int inFlight;
+
+    /**
+     * Aplica un cambio cuando se confirme la transacción en curso (o ya, si no hay ninguna).
+     *
+     * @param change -> Cambio a aplicar en memoria
+     */
+    void afterCommit(Runnable change) {
+        begin();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                change.run();
+            } finally {
+                end();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                end();
+            }
+        });
+    }
+
+    /**
+     * Lanza la consulta e instala su resultado sin cruzarse con ningún cambio.
+     *
+     * @param query -> Consulta de recarga (sin bloquear: puede tardar)
+     * @param install -> Sustituye los datos en memoria por el resultado
+     * @return false si tras varios intentos siempre había cambios en curso (no se instala nada)
+     */
+    <T> boolean reload(Supplier<T> query, Consumer<T> install) {
+        for (int attempt = 1; attempt <= RELOAD_ATTEMPTS; attempt++) {
+            long before = quietPoint();
+            if (before >= 0) {
+                T result = query.get();
+                synchronized (this) {
+                    if (started == before) {
+                        install.accept(result);
+                        return true;
+                    }
+                }
+            }
+            try {
+                Thread.sleep(RELOAD_BACKOFF.multipliedBy(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Instala el resultado de la consulta aunque haya cambios en curso.
+     * Solo para la primera carga, cuando no hay datos que conservar: un desvío
+     * lo corrige la siguiente conciliación.
+     */
+    <T> void forceReload(Supplier<T> query, Consumer<T> install) {
+        T result = query.get();
+        synchronized (this) {
+            install.accept(result);
+        }
+    }
+
+    // Cambios empezados, o -1 si hay alguno en curso
+    private synchronized long quietPoint() {
+        return inFlight == 0 ? started : -1;
+    }
+
+    private synchronized void begin() {
+        started++;
+        inFlight++;
+    }
+
+    private synchronized void end() {
+        inFlight--;
+    }
+}
@@ -0,0 +1,87 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpenseExportRow;
+
+/**
+ * Exportación de gastos a CSV (RFC 4180, UTF-8).
+ * 
+ * - Empieza con BOM para que Excel reconozca UTF-8 (tildes y eñes)
+ * - Los textos con comas, comillas o saltos de línea van entre comillas
+ * - Las descripciones que empiezan por = + - @ llevan un apóstrofo delante
+ *   para que una hoja de cálculo no las ejecute como fórmulas
+ * - Se vuelca a la respuesta cada 1000 filas: el cliente empieza a recibir
+ *   el fichero enseguida y el buffer nunca crece
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+class CsvExpenseWriter implements ExpenseExportWriter {
+
+    private static final String HEADER = "id,date,description,category,paymentMethod,amount,currency";
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final Writer writer;
+    private long rows;
+
+    CsvExpenseWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF');
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(ExpenseExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(row.date().toString());
+        writer.write(',');
+        writeText(row.description());
+        writer.write(',');
+        writer.write(row.category().name());
+        writer.write(',');
+        writer.write(row.paymentMethod().name());
+        writer.write(',');
+        writer.write(row.amount().toPlainString());
+        writer.write(',');
+        writer.write(row.currency());
+        writer.write("\r\n");
+
+        if (++rows % FLUSH_EVERY_ROWS == 0) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // La salida es de la respuesta HTTP: se vacía el buffer pero no se cierra
+        writer.flush();
+    }
+
+    private void writeText(String value) throws IOException {
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
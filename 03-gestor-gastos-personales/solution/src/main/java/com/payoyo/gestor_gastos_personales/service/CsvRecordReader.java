@@ -0,0 +1,136 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) registro a registro.
+ *
+ * - Lee de un buffer de 64 KB: la memoria no depende del tamaño del fichero
+ * - Campos entre comillas con comas, saltos de línea y comillas dobles ("")
+ * - Acepta finales de línea \n y \r\n, ignora el BOM inicial y las líneas vacías
+ * - Los campos se devuelven tal cual (sin recortar espacios)
+ *
+ * @author Jose Luis (Payoyo)
+ */
+class CsvRecordReader implements Closeable {
+
+    // Una comilla sin cerrar haría que el resto del fichero fuera un solo campo
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean started;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Campos del registro, o null al final del fichero
+     * @throws IllegalArgumentException si hay comillas sin cerrar o un campo demasiado largo
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                line++;
+            }
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean fieldStart = true;
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Línea " + recordLine + ": comillas sin cerrar");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        // Comilla de cierre: el carácter leído se procesa fuera de las comillas
+                        quoted = false;
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                append(c);
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return Línea del fichero donde empieza el último registro leído
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void append(int c) {
+        if (field.length() == MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Línea " + recordLine + ": campo de más de "
+                    + MAX_FIELD_LENGTH + " caracteres");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+            if (!started) {
+                started = true;
+                if (buffer[0] == '\uFEFF') {
+                    position = 1;
+                    return read();
+                }
+            }
+        }
+        return buffer[position++];
+    }
+}
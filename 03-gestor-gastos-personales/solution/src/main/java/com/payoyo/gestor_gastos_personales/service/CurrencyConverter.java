@@ -0,0 +1,158 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.entity.ExchangeRate;
+import com.payoyo.gestor_gastos_personales.events.ExchangeRatesChangedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExchangeRateRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conversión de cantidades a la moneda base (expenses.currency.base, EUR por defecto).
+ *
+ * - Todos los tipos de cambio están en memoria: un mapa ordenado por fecha por
+ *   moneda. Convertir un gasto es una búsqueda en memoria (el tipo vigente es el
+ *   de fecha igual o anterior más cercana), nunca una consulta por fila
+ * - Se convierte al guardar cada gasto (baseAmount): los acumulados y reportes
+ *   suman cantidades ya convertidas y no pagan nada por tener varias monedas
+ * - Los tipos se recargan DESPUÉS del commit de cada cambio (ExchangeRatesChangedEvent)
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class CurrencyConverter {
+
+    private final ExchangeRateRepository rateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final String baseCurrency;
+
+    // null hasta la primera carga; se sustituye entero al recargar
+    private volatile Map<String, NavigableMap<LocalDate, BigDecimal>> rates;
+
+    public CurrencyConverter(
+            ExchangeRateRepository rateRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${expenses.currency.base:EUR}") String baseCurrency
+    ) {
+        this.rateRepository = rateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.baseCurrency = baseCurrency;
+    }
+
+    // ==================== CONVERSIÓN ====================
+
+    /**
+     * @return Moneda en la que se calculan los reportes
+     */
+    public String baseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Moneda a guardar en un gasto.
+     *
+     * @param currency Moneda indicada (null o vacía = moneda base)
+     * @return Moneda del gasto
+     */
+    public String currencyOf(String currency) {
+        return currency == null || currency.isBlank() ? baseCurrency : currency;
+    }
+
+    /**
+     * Convierte una cantidad a la moneda base con el tipo vigente en una fecha.
+     *
+     * @param amount Cantidad en la moneda indicada
+     * @param currency Moneda de la cantidad
+     * @param date Fecha del gasto
+     * @return Cantidad en la moneda base, redondeada a 2 decimales (HALF_UP)
+     * @throws IllegalArgumentException si no hay tipo de cambio para esa fecha o anterior
+     */
+    public BigDecimal toBase(BigDecimal amount, String currency, LocalDate date) {
+        if (currency.equals(baseCurrency)) {
+            return amount;
+        }
+        return amount.multiply(rateOf(currency, date)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Tipo de cambio vigente de una moneda en una fecha.
+     *
+     * @param currency Moneda distinta de la base
+     * @param date Fecha
+     * @return Tipo de fecha igual o anterior más cercana
+     * @throws IllegalArgumentException si no hay tipo de cambio para esa fecha o anterior
+     */
+    public BigDecimal rateOf(String currency, LocalDate date) {
+        NavigableMap<LocalDate, BigDecimal> byDate = rates().get(currency);
+        Map.Entry<LocalDate, BigDecimal> rate = byDate != null ? byDate.floorEntry(date) : null;
+        if (rate == null) {
+            throw new IllegalArgumentException("No hay tipo de cambio de " + currency + " a " + baseCurrency
+                    + " para el " + date + " (ni anterior)");
+        }
+        return rate.getValue();
+    }
+
+    // ==================== CARGA ====================
+
+    @TransactionalEventListener
+    public void onRatesChanged(ExchangeRatesChangedEvent event) {
+        reload();
+    }
+
+    private Map<String, NavigableMap<LocalDate, BigDecimal>> rates() {
+        Map<String, NavigableMap<LocalDate, BigDecimal>> current = rates;
+        return current != null ? current : reload();
+    }
+
+    private synchronized Map<String, NavigableMap<LocalDate, BigDecimal>> reload() {
+        Map<String, NavigableMap<LocalDate, BigDecimal>> loaded = new HashMap<>();
+        for (ExchangeRate rate : newTransaction.execute(status -> rateRepository.findAll())) {
+            loaded.computeIfAbsent(rate.getCurrency(), currency -> new TreeMap<>())
+                    .put(rate.getRateDate(), rate.getRate());
+        }
+        rates = loaded;
+        return loaded;
+    }
+
+    /**
+     * Al arrancar, asigna la moneda base a los gastos guardados antes de que
+     * existieran las columnas currency y base_amount (una sola sentencia).
+     *
+     * Se ejecuta antes que el resto de tareas de arranque (acumulados, huellas de
+     * duplicados): la huella incluye la moneda y se vuelve a calcular.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrateLegacyExpenses() {
+        Integer updated = newTransaction.execute(status -> jdbcTemplate.update(
+                "UPDATE expenses SET currency = ?, base_amount = amount, dedup_hash = NULL WHERE currency IS NULL",
+                baseCurrency));
+        if (updated != null && updated > 0) {
+            log.info("Moneda {} asignada a {} gastos existentes", baseCurrency, updated);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.entity.ExchangeRate;
+
+/**
+ * Servicio de tipos de cambio a la moneda base.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface ExchangeRateService {
+
+    /**
+     * Obtiene los tipos de cambio, los más recientes primero.
+     * Endpoint: GET /api/exchange-rates?currency=USD
+     * 
+     * @param currency Moneda (null = todas)
+     * @return Tipos de cambio
+     */
+    List<ExchangeRate> getRates(String currency);
+
+    /**
+     * Crea o modifica el tipo de una moneda a partir de una fecha y vuelve a
+     * convertir los gastos a los que se aplica.
+     * Endpoint: PUT /api/exchange-rates/{currency}/{date}
+     * 
+     * @param currency Moneda (código ISO 4217, distinta de la base)
+     * @param rateDate Primer día en el que se aplica
+     * @param rate Tipo de cambio
+     * @return Tipo guardado
+     * @throws IllegalArgumentException si la moneda no es válida o es la moneda base
+     */
+    ExchangeRate saveRate(String currency, LocalDate rateDate, ExchangeRate rate);
+
+    /**
+     * Elimina un tipo de cambio y vuelve a convertir sus gastos con el tipo anterior.
+     * Endpoint: DELETE /api/exchange-rates/{currency}/{date}
+     * 
+     * @param currency Moneda
+     * @param rateDate Fecha del tipo
+     * @throws com.payoyo.gestor_gastos_personales.exceptions.ExchangeRateNotFoundException si no existe
+     * @throws IllegalArgumentException si hay gastos que se quedarían sin tipo de cambio
+     */
+    void deleteRate(String currency, LocalDate rateDate);
+}
@@ -0,0 +1,119 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.payoyo.gestor_gastos_personales.entity.ExchangeRate;
+import com.payoyo.gestor_gastos_personales.events.ExchangeRatesChangedEvent;
+import com.payoyo.gestor_gastos_personales.exceptions.ExchangeRateNotFoundException;
+import com.payoyo.gestor_gastos_personales.repository.ExchangeRateRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementación del servicio de tipos de cambio.
+ * 
+ * Cambiar un tipo afecta a los gastos de esa moneda desde su fecha hasta el
+ * día anterior al siguiente tipo. Se vuelven a convertir con un único UPDATE
+ * y se reconstruyen los acumulados solo de ese rango; los tipos en memoria de
+ * CurrencyConverter se recargan tras el commit (ExchangeRatesChangedEvent).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class ExchangeRateServiceImpl implements ExchangeRateService {
+
+    private final ExchangeRateRepository rateRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupMaintainer rollupMaintainer;
+    private final CurrencyConverter currencyConverter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<ExchangeRate> getRates(String currency) {
+        if (currency == null || currency.isBlank()) {
+            return rateRepository.findAllByOrderByCurrencyAscRateDateDesc();
+        }
+        return rateRepository.findByCurrencyOrderByRateDateDesc(currency);
+    }
+
+    @Override
+    @Transactional
+    public ExchangeRate saveRate(String currency, LocalDate rateDate, ExchangeRate rate) {
+        if (!currency.matches("[A-Z]{3}")) {
+            throw new IllegalArgumentException("La moneda debe ser un código ISO 4217 de 3 letras mayúsculas");
+        }
+        if (currency.equals(currencyConverter.baseCurrency())) {
+            throw new IllegalArgumentException("La moneda " + currency + " es la moneda base");
+        }
+
+        ExchangeRate saved = rateRepository.findByCurrencyAndRateDate(currency, rateDate)
+                .orElseGet(() -> ExchangeRate.builder().currency(currency).rateDate(rateDate).build());
+        saved.setRate(rate.getRate());
+        saved = rateRepository.save(saved);
+
+        reconvert(currency, rateDate, saved.getRate());
+        eventPublisher.publishEvent(new ExchangeRatesChangedEvent(currency));
+        return saved;
+    }
+
+    /**
+     * Si el tipo borrado era el primero de la moneda, sus gastos se quedarían
+     * sin tipo: se rechaza mientras existan.
+     */
+    @Override
+    @Transactional
+    public void deleteRate(String currency, LocalDate rateDate) {
+        ExchangeRate rate = rateRepository.findByCurrencyAndRateDate(currency, rateDate)
+                .orElseThrow(() -> new ExchangeRateNotFoundException(currency, rateDate));
+        Optional<ExchangeRate> previous =
+                rateRepository.findFirstByCurrencyAndRateDateBeforeOrderByRateDateDesc(currency, rateDate);
+        LocalDate endDate = endOf(currency, rateDate);
+
+        if (previous.isEmpty()) {
+            if (!endDate.isBefore(rateDate) && expenseRepository.existsByCurrencyAndDateBetween(currency, rateDate, endDate)) {
+                throw new IllegalArgumentException("Hay gastos en " + currency + " desde el " + rateDate
+                        + " que se quedarían sin tipo de cambio");
+            }
+            rateRepository.delete(rate);
+        } else {
+            rateRepository.delete(rate);
+            reconvert(currency, rateDate, previous.get().getRate());
+        }
+        eventPublisher.publishEvent(new ExchangeRatesChangedEvent(currency));
+    }
+
+    /**
+     * Vuelve a convertir los gastos de una moneda desde una fecha hasta el
+     * siguiente tipo (o hasta hoy) y reconstruye los acumulados de esos días.
+     */
+    private void reconvert(String currency, LocalDate startDate, BigDecimal rate) {
+        LocalDate endDate = endOf(currency, startDate);
+        if (endDate.isBefore(startDate)) {
+            return;
+        }
+        int updated = expenseRepository.convertToBase(currency, rate, startDate, endDate);
+        if (updated > 0) {
+            log.info("{} gastos en {} convertidos de nuevo entre {} y {}", updated, currency, startDate, endDate);
+            rollupMaintainer.rebuild(startDate, endDate);
+        }
+    }
+
+    // Último día en el que se aplica el tipo de startDate
+    private LocalDate endOf(String currency, LocalDate startDate) {
+        return rateRepository.findFirstByCurrencyAndRateDateAfterOrderByRateDateAsc(currency, startDate)
+                .map(next -> next.getRateDate().minusDays(1))
+                .orElseGet(LocalDate::now);
+    }
+}
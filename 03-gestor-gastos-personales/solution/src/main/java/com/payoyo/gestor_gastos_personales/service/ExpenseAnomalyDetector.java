@@ -0,0 +1,316 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.dto.AmountStats;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseAnomaly;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseAnomalyRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Marca los gastos cuya cantidad está muy por encima de lo normal en su
+ * categoría y método de pago.
+ *
+ * - Media y varianza de las cantidades (en la moneda base) por categoría y
+ *   método de pago en memoria, con el algoritmo de Welford: añadir o quitar
+ *   un gasto cuesta O(1) y nunca se vuelve a recorrer el histórico
+ * - Cada alta o modificación se compara con las estadísticas SIN el propio
+ *   gasto: se marca si está expenses.anomalies.z-threshold desviaciones
+ *   típicas (3 por defecto) por encima de la media y hay al menos
+ *   expenses.anomalies.min-samples gastos (10 por defecto) para compararlo
+ * - Solo se marcan cantidades altas: un gasto pequeño no es una alerta
+ * - Los cambios se aplican DESPUÉS del commit, como en BudgetTracker
+ * - Los gastos importados o recurrentes se evalúan igual, uno a uno en el
+ *   orden del bloque (ExpenseBatchInsert rellena su ID); las marcas del
+ *   bloque se guardan en una sola transacción
+ *
+ * Las estadísticas se cargan con una consulta agregada (40 filas como mucho)
+ * al arrancar, tras reconstruir los acumulados (p. ej. al cambiar un tipo de
+ * cambio, que es cuando pueden cambiar las cantidades en la moneda base) y
+ * cada expenses.anomalies.reconcile-interval (10 min por defecto), que corrige
+ * los cambios hechos por otras instancias. La recarga no se cruza con los
+ * cambios en curso (ver CommittedChanges): un gasto confirmado mientras se
+ * recarga no se cuenta dos veces.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class ExpenseAnomalyDetector {
+
+    private static final int PAYMENT_METHODS = PaymentMethodEnum.values().length;
+    private static final int GROUPS = CategoryEnum.values().length * PAYMENT_METHODS;
+
+    // Por debajo de 1 céntimo todos los gastos del grupo son iguales: no hay escala
+    private static final double MIN_STANDARD_DEVIATION = 0.01;
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseAnomalyRepository anomalyRepository;
+    private final TransactionTemplate newTransaction;
+    private final double zThreshold;
+    private final int minSamples;
+    private final CommittedChanges changes = new CommittedChanges();
+
+    // null hasta la primera carga; se sustituye entero al recargar y cada grupo
+    // se bloquea por separado al actualizarlo
+    private volatile Welford[] stats;
+
+    public ExpenseAnomalyDetector(
+            ExpenseRepository expenseRepository,
+            ExpenseAnomalyRepository anomalyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${expenses.anomalies.z-threshold:3.0}") double zThreshold,
+            @Value("${expenses.anomalies.min-samples:10}") int minSamples
+    ) {
+        this.expenseRepository = expenseRepository;
+        this.anomalyRepository = anomalyRepository;
+        // Los listeners se ejecutan tras el commit: cada acceso a la BD necesita su propia transacción
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+    }
+
+    // ==================== CARGA Y CONCILIACIÓN ====================
+
+    /**
+     * Recalcula las estadísticas desde la tabla expenses.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Supplier<Welford[]> query = () -> {
+            Welford[] loaded = newStats();
+            for (AmountStats row : newTransaction.execute(status -> expenseRepository.findAmountStats())) {
+                loaded[groupOf(row.category(), row.paymentMethod())].load(row);
+            }
+            return loaded;
+        };
+        if (changes.reload(query, loaded -> stats = loaded)) {
+            return;
+        }
+        if (stats == null) {
+            log.warn("Gastos en curso durante la carga de las estadísticas de gastos inusuales: se cargan igualmente");
+            changes.forceReload(query, loaded -> stats = loaded);
+        } else {
+            log.info("Gastos en curso durante la recarga de las estadísticas de gastos inusuales: se deja para la siguiente");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expenses.anomalies.reconcile-interval:PT10M}",
+            initialDelayString = "${expenses.anomalies.reconcile-interval:PT10M}")
+    public void reconcile() {
+        load();
+    }
+
+    @TransactionalEventListener
+    public void onRollupsRebuilt(ExpenseRollupsRebuiltEvent event) {
+        load();
+    }
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Actualiza las estadísticas con un gasto ya confirmado y lo marca si es inusual.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        changes.afterCommit(() -> apply(event));
+    }
+
+    private void apply(ExpenseChangedEvent event) {
+        // Antes de la primera carga: la carga ya incluirá el cambio
+        Welford[] current = stats;
+        if (current == null) {
+            return;
+        }
+        if (event.before() != null) {
+            Welford group = current[groupOf(event.before())];
+            synchronized (group) {
+                group.remove(event.before().baseAmount().doubleValue());
+            }
+        }
+
+        ExpenseAnomaly anomaly = null;
+        if (event.after() != null) {
+            Welford group = current[groupOf(event.after())];
+            double amount = event.after().baseAmount().doubleValue();
+            synchronized (group) {
+                anomaly = evaluate(group, event.after(), amount);
+                group.add(amount);
+            }
+        }
+
+        // Un gasto nuevo no tiene marca previa: solo se consulta la BD si se marca
+        if (event.before() != null || anomaly != null) {
+            ExpenseAnomaly flagged = anomaly;
+            Long id = event.before() != null ? event.before().id() : event.after().id();
+            newTransaction.executeWithoutResult(status -> {
+                if (event.before() != null) {
+                    anomalyRepository.deleteByExpenseId(id);
+                }
+                if (flagged != null) {
+                    log.info("Gasto {} inusual en {}/{}: {} ({} desviaciones sobre la media {})",
+                            id, flagged.getCategory(), flagged.getPaymentMethod(), flagged.getAmount(),
+                            flagged.getZScore(), flagged.getMean());
+                    anomalyRepository.save(flagged);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evalúa los gastos importados y los añade a las estadísticas cuando se confirmen.
+     *
+     * @param event -> Gastos insertados, con su ID
+     */
+    @EventListener
+    public void onExpensesImported(ExpensesImportedEvent event) {
+        changes.afterCommit(() -> apply(event));
+    }
+
+    private void apply(ExpensesImportedEvent event) {
+        Welford[] current = stats;
+        if (current == null) {
+            return;
+        }
+        List<ExpenseAnomaly> flagged = new ArrayList<>();
+        for (ExpenseSnapshot expense : event.expenses()) {
+            Welford group = current[groupOf(expense)];
+            double amount = expense.baseAmount().doubleValue();
+            synchronized (group) {
+                ExpenseAnomaly anomaly = evaluate(group, expense, amount);
+                if (anomaly != null) {
+                    flagged.add(anomaly);
+                }
+                group.add(amount);
+            }
+        }
+
+        if (!flagged.isEmpty()) {
+            log.info("{} gastos inusuales en un bloque de {} gastos importados", flagged.size(), event.expenses().size());
+            newTransaction.executeWithoutResult(status -> anomalyRepository.saveAll(flagged));
+        }
+    }
+
+    /**
+     * Compara la cantidad con la media del grupo: O(1).
+     *
+     * @return Marca a guardar, o null si el gasto es normal
+     */
+    private ExpenseAnomaly evaluate(Welford group, ExpenseSnapshot expense, double amount) {
+        if (group.count < minSamples) {
+            return null;
+        }
+        double standardDeviation = group.standardDeviation();
+        if (standardDeviation < MIN_STANDARD_DEVIATION) {
+            return null;
+        }
+        double zScore = (amount - group.mean) / standardDeviation;
+        if (zScore < zThreshold) {
+            return null;
+        }
+        return ExpenseAnomaly.builder()
+                .expenseId(expense.id())
+                .expenseDate(expense.date())
+                .description(expense.description())
+                .category(expense.category())
+                .paymentMethod(expense.paymentMethod())
+                .amount(expense.baseAmount())
+                .mean(toAmount(group.mean))
+                .standardDeviation(toAmount(standardDeviation))
+                .zScore(Math.round(zScore * 100) / 100.0)
+                .build();
+    }
+
+    private static int groupOf(ExpenseSnapshot expense) {
+        return groupOf(expense.category(), expense.paymentMethod());
+    }
+
+    private static int groupOf(CategoryEnum category, PaymentMethodEnum paymentMethod) {
+        return category.ordinal() * PAYMENT_METHODS + paymentMethod.ordinal();
+    }
+
+    private static BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Welford[] newStats() {
+        Welford[] groups = new Welford[GROUPS];
+        for (int i = 0; i < GROUPS; i++) {
+            groups[i] = new Welford();
+        }
+        return groups;
+    }
+
+    /**
+     * Media y suma de cuadrados de las desviaciones (m2) de un grupo, actualizadas
+     * de una en una (Welford): numéricamente estable y sin guardar las cantidades.
+     * No es thread-safe: se bloquea desde fuera.
+     */
+    private static final class Welford {
+
+        private long count;
+        private double mean;
+        private double m2;
+
+        private void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        // Inversa de add: deja el grupo como si el valor no se hubiera añadido
+        private void remove(double x) {
+            if (count <= 1) {
+                count = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            count--;
+            double delta = x - mean;
+            mean -= delta / count;
+            m2 = Math.max(0, m2 - delta * (x - mean));
+        }
+
+        // Desde la consulta agregada: m2 = suma de cuadrados - suma^2 / n (exacto en BigDecimal)
+        private void load(AmountStats row) {
+            count = row.expenseCount();
+            BigDecimal n = BigDecimal.valueOf(count);
+            mean = row.sum().divide(n, 10, RoundingMode.HALF_UP).doubleValue();
+            m2 = row.sumOfSquares()
+                    .subtract(row.sum().multiply(row.sum()).divide(n, 10, RoundingMode.HALF_UP))
+                    .doubleValue();
+        }
+
+        // Desviación típica de la población
+        private double standardDeviation() {
+            return Math.sqrt(m2 / count);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+/**
+ * INSERT por lotes JDBC de gastos que devuelve los IDs generados.
+ *
+ * Lo usan ExpenseImporter y RecurringExpenseScheduler: cada gasto recibe su ID
+ * antes de publicar ExpensesImportedEvent, así los listeners que guardan gastos
+ * por ID (el índice en memoria de ExpenseTextSearch) pueden usar el evento.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+final class ExpenseBatchInsert {
+
+    private static final String[] ID_COLUMN = {"id"};
+
+    private ExpenseBatchInsert() {
+    }
+
+    /**
+     * Inserta las filas en lotes de batchSize y asigna a cada una su ID.
+     *
+     * @param jdbcTemplate JdbcTemplate de la transacción actual
+     * @param sql INSERT con un parámetro por columna
+     * @param rows Filas a insertar
+     * @param batchSize Filas por lote JDBC
+     * @param setter Rellena los parámetros de una fila
+     * @param idAssigner Recibe cada fila con el ID que le ha dado la base de datos
+     */
+    static <T> void insert(JdbcTemplate jdbcTemplate, String sql, List<T> rows, int batchSize,
+            ParameterizedPreparedStatementSetter<T> setter, ObjLongConsumer<T> idAssigner) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<T> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(sql, ID_COLUMN),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setter.setValues(ps, batch.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    },
+                    keys);
+
+            List<Map<String, Object>> generated = keys.getKeyList();
+            for (int i = 0; i < batch.size(); i++) {
+                Number id = (Number) generated.get(i).values().iterator().next();
+                idAssigner.accept(batch.get(i), id.longValue());
+            }
+        }
+    }
+}
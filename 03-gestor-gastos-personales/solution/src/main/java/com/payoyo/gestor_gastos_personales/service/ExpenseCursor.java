@@ -0,0 +1,82 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpensePageRequest;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSort;
+
+/**
+ * Cursor de los listados paginados de gastos.
+ * 
+ * Guarda la posición del último gasto de una página (valor de la propiedad de
+ * orden + ID) en un texto opaco para el cliente: "DATE_DESC|2024-11-19|1234"
+ * en Base64 URL. El orden va dentro para rechazar un cursor usado con otro sort.
+ * En los órdenes por cantidad el valor es la cantidad en moneda base (baseAmount).
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+final class ExpenseCursor {
+
+    private static final String ID = "id";
+
+    private ExpenseCursor() {
+    }
+
+    /**
+     * Posición desde la que leer la página pedida.
+     * 
+     * @param page Página pedida
+     * @return Inicio del listado si no hay cursor, o la posición guardada en él
+     * @throws IllegalArgumentException si el cursor no es válido o es de otro orden
+     */
+    static ScrollPosition decode(ExpensePageRequest page) {
+        if (page.isFirst()) {
+            return ScrollPosition.keyset();
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(page.cursor()), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor no válido");
+        }
+        if (parts.length != 3 || !parts[0].equals(page.sort().name())) {
+            throw new IllegalArgumentException("cursor no válido para el orden " + page.sort());
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(page.sort().property(), switch (page.sort()) {
+                case DATE_DESC, DATE_ASC -> LocalDate.parse(parts[1]);
+                case AMOUNT_DESC, AMOUNT_ASC -> new BigDecimal(parts[1]);
+            });
+            keys.put(ID, Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("cursor no válido");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Cursor de la página siguiente.
+     * 
+     * @param sort Orden del listado
+     * @param position Posición del último gasto de la página (Window.positionAt)
+     * @return Cursor para el parámetro cursor
+     */
+    static String encode(ExpenseSort sort, ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        Object value = keys.get(sort.property());
+        String text = sort.name() + "|"
+                + (value instanceof BigDecimal amount ? amount.toPlainString() : value) + "|"
+                + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpenseExportRow;
+import com.payoyo.gestor_gastos_personales.dto.ExportFormat;
+
+/**
+ * Escribe filas de gastos en un formato de exportación, una a una.
+ * 
+ * Ninguna implementación guarda las filas: cada fila se escribe en la salida
+ * (o en el buffer acotado del formato) en cuanto llega del cursor.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+interface ExpenseExportWriter extends AutoCloseable {
+
+    /**
+     * @param format Formato de salida
+     * @param out Salida (no se cierra al terminar)
+     * @return Escritor del formato indicado
+     */
+    static ExpenseExportWriter of(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvExpenseWriter(out);
+            case XLSX -> new XlsxExpenseWriter(out);
+        };
+    }
+
+    /**
+     * Escribe una fila.
+     * 
+     * @param row Gasto a exportar
+     */
+    void write(ExpenseExportRow row) throws IOException;
+
+    /**
+     * Completa el documento y lo vuelca en la salida.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Libera los recursos del formato (no cierra la salida).
+     */
+    @Override
+    void close() throws IOException;
+}
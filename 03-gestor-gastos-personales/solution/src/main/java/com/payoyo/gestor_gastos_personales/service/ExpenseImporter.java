@@ -0,0 +1,394 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpenseImportReport;
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación masiva de gastos desde CSV (p. ej. extractos bancarios).
+ *
+ * Proceso por bloques de 5000 filas:
+ * 1. Lectura en streaming (CsvRecordReader): nunca se carga el fichero entero
+ * 2. Conversión y validación del bloque en paralelo (mismas reglas que la entidad)
+ * 3. Descarte de los gastos que ya existían (misma fecha, cantidad, moneda y descripción,
+ *    ver Expense.dedupHashOf) con una sola consulta por bloque
+ * 4. INSERT por lotes JDBC de 1000 filas y un evento ExpensesImportedEvent
+ *    para actualizar los acumulados
+ *
+ * Cada bloque va en su propia transacción: si la importación se corta, lo ya
+ * importado se queda y al repetirla esas filas salen como repetidas.
+ *
+ * Solo cuentan como repetidos los gastos que existían ANTES de empezar: dos filas
+ * iguales dentro del mismo fichero se importan las dos (dos cafés iguales el mismo día).
+ *
+ * Formato: cabecera con las columnas date, description, amount, category y
+ * paymentMethod en cualquier orden (el resto se ignora). La columna currency es
+ * opcional (vacía o sin columna = moneda base). Acepta el CSV de la exportación.
+ *
+ * Las cantidades se convierten a la moneda base en memoria con CurrencyConverter
+ * durante la validación en paralelo (sin consultas por fila).
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class ExpenseImporter {
+
+    private static final int CHUNK_SIZE = 5000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String[] COLUMNS = {"date", "description", "amount", "category", "paymentMethod"};
+    private static final int DATE = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int AMOUNT = 2;
+    private static final int CATEGORY = 3;
+    private static final int PAYMENT_METHOD = 4;
+    // Opcional: -1 si el fichero no la tiene
+    private static final String CURRENCY_COLUMN = "currency";
+    private static final int CURRENCY = 5;
+
+    private static final String INSERT_SQL = "INSERT INTO expenses "
+            + "(description, amount, currency, base_amount, category, date, payment_method, "
+            + "created_at, updated_at, dedup_hash) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ExpenseRepository expenseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CurrencyConverter currencyConverter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ExpenseImporter(
+            ExpenseRepository expenseRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            CurrencyConverter currencyConverter,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.expenseRepository = expenseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.currencyConverter = currencyConverter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Importa los gastos de un CSV en UTF-8.
+     *
+     * @param csv Contenido del fichero (no se cierra)
+     * @return Resumen con filas importadas, repetidas y rechazadas
+     * @throws IllegalArgumentException si la cabecera no es válida o el CSV está mal formado
+     * @throws IOException si falla la lectura
+     */
+    public ExpenseImportReport importCsv(InputStream csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        int[] columns = readHeader(reader);
+
+        Long maxId = expenseRepository.findMaxId();
+        Progress progress = new Progress(maxId != null ? maxId : 0L);
+
+        List<RawRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            chunk.add(new RawRow(reader.recordLine(), fields));
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, columns, progress);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, columns, progress);
+        }
+
+        ExpenseImportReport report = progress.toReport();
+        log.info("Importación terminada: {} filas, {} importadas, {} repetidas, {} rechazadas",
+                report.totalRows(), report.imported(), report.duplicates(), report.rejected());
+        return report;
+    }
+
+    /**
+     * Lee la cabecera y devuelve la posición de cada columna necesaria.
+     * Los nombres no distinguen mayúsculas ni guiones bajos (payment_method = paymentMethod).
+     */
+    private static int[] readHeader(CsvRecordReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("El fichero está vacío");
+        }
+        List<String> names = header.stream().map(ExpenseImporter::columnKey).toList();
+
+        int[] columns = new int[COLUMNS.length + 1];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columns[i] = names.indexOf(columnKey(COLUMNS[i]));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Falta la columna '" + COLUMNS[i] + "' en la cabecera. "
+                        + "Columnas obligatorias: " + String.join(", ", COLUMNS));
+            }
+        }
+        columns[CURRENCY] = names.indexOf(CURRENCY_COLUMN);
+        return columns;
+    }
+
+    private static String columnKey(String name) {
+        return name.strip().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private void importChunk(List<RawRow> chunk, int[] columns, Progress progress) {
+        // Conversión y validación en paralelo (toList conserva el orden de las filas)
+        List<ParsedRow> parsed = chunk.parallelStream()
+                .map(row -> parse(row, columns))
+                .toList();
+
+        List<ParsedRow> valid = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                progress.reject(row.line(), row.error());
+            } else {
+                valid.add(row);
+            }
+        }
+        progress.totalRows += chunk.size();
+
+        if (!valid.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> insertNew(valid, progress));
+        }
+    }
+
+    /**
+     * Inserta las filas válidas del bloque que no existían antes de empezar.
+     */
+    private void insertNew(List<ParsedRow> rows, Progress progress) {
+        Set<Long> existing = Set.of();
+        if (progress.maxIdBefore > 0) {
+            Set<Long> hashes = new HashSet<>(rows.size() * 2);
+            for (ParsedRow row : rows) {
+                hashes.add(row.hash());
+            }
+            existing = new HashSet<>(expenseRepository.findExistingDedupHashes(hashes, progress.maxIdBefore));
+        }
+
+        List<ParsedRow> toInsert = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (existing.contains(row.hash())) {
+                progress.duplicates++;
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ExpenseBatchInsert.insert(jdbcTemplate, INSERT_SQL, toInsert, BATCH_SIZE, (ps, row) -> {
+            Expense expense = row.expense();
+            ps.setString(1, expense.getDescription());
+            ps.setBigDecimal(2, expense.getAmount());
+            ps.setString(3, expense.getCurrency());
+            ps.setBigDecimal(4, expense.getBaseAmount());
+            ps.setString(5, expense.getCategory().name());
+            ps.setObject(6, expense.getDate());
+            ps.setString(7, expense.getPaymentMethod().name());
+            ps.setObject(8, now);
+            ps.setObject(9, now);
+            ps.setLong(10, row.hash());
+        }, (row, id) -> row.expense().setId(id));
+        progress.imported += toInsert.size();
+
+        eventPublisher.publishEvent(new ExpensesImportedEvent(
+                toInsert.stream().map(row -> ExpenseSnapshot.of(row.expense())).toList()));
+    }
+
+    // ==================== CONVERSIÓN Y VALIDACIÓN ====================
+
+    /**
+     * Convierte una fila en Expense, la valida con las anotaciones de la entidad
+     * (@NotBlank, @Size, @DecimalMin, @Digits, @PastOrPresent...) y convierte la
+     * cantidad a la moneda base.
+     * Se ejecuta en paralelo: solo lee estado compartido (los tipos de cambio en memoria).
+     */
+    private ParsedRow parse(RawRow row, int[] columns) {
+        try {
+            Expense expense = Expense.builder()
+                    .date(parseDate(field(row, columns[DATE])))
+                    .description(parseDescription(field(row, columns[DESCRIPTION])))
+                    .amount(parseAmount(field(row, columns[AMOUNT])))
+                    .category(parseEnum(CategoryEnum.class, field(row, columns[CATEGORY]), "category"))
+                    .paymentMethod(parseEnum(PaymentMethodEnum.class, field(row, columns[PAYMENT_METHOD]), "paymentMethod"))
+                    .currency(currencyConverter.currencyOf(
+                            columns[CURRENCY] >= 0 ? field(row, columns[CURRENCY]).toUpperCase(Locale.ROOT) : null))
+                    .build();
+
+            Set<ConstraintViolation<Expense>> violations = validator.validate(expense);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                return ParsedRow.error(row.line(), message);
+            }
+            expense.setBaseAmount(currencyConverter.toBase(expense.getAmount(), expense.getCurrency(), expense.getDate()));
+            long hash = Expense.dedupHashOf(
+                    expense.getDate(), expense.getAmount(), expense.getCurrency(), expense.getDescription());
+            return new ParsedRow(row.line(), expense, hash, null);
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.error(row.line(), e.getMessage());
+        }
+    }
+
+    private static String field(RawRow row, int column) {
+        if (column >= row.fields().size()) {
+            throw new IllegalArgumentException("La fila tiene " + row.fields().size() + " columnas");
+        }
+        return row.fields().get(column).strip();
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date: '" + value + "' no es una fecha válida (AAAA-MM-DD)");
+        }
+    }
+
+    /**
+     * Quita el apóstrofo que la exportación añade delante de = + - @ (protección contra fórmulas).
+     */
+    private static String parseDescription(String value) {
+        if (value.length() > 1 && value.charAt(0) == '\'' && "=+-@".indexOf(value.charAt(1)) >= 0) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount: '" + value + "' no es una cantidad válida (p. ej. 25.50)");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(column + ": '" + value + "' no es válido. Valores posibles: "
+                    + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    // ==================== HUELLAS DE GASTOS ANTERIORES ====================
+
+    /**
+     * Al arrancar, calcula la huella de los gastos guardados antes de que existiera
+     * la columna dedup_hash, o antes de que la huella incluyera la moneda
+     * (por bloques de 1000, cada uno en su transacción).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDedupHashes() {
+        long total = 0;
+        int updated;
+        do {
+            Integer rows = transactionTemplate.execute(status -> {
+                List<Object[]> pending = jdbcTemplate.query(
+                        "SELECT id, date, amount, currency, description FROM expenses "
+                                + "WHERE dedup_hash IS NULL LIMIT " + BATCH_SIZE,
+                        (rs, rowNum) -> new Object[] {
+                                Expense.dedupHashOf(rs.getObject(2, LocalDate.class), rs.getBigDecimal(3),
+                                        rs.getString(4), rs.getString(5)),
+                                rs.getLong(1)
+                        });
+                if (!pending.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE expenses SET dedup_hash = ? WHERE id = ?", pending);
+                }
+                return pending.size();
+            });
+            updated = rows != null ? rows : 0;
+            total += updated;
+        } while (updated == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Huellas de duplicados calculadas para {} gastos existentes", total);
+        }
+    }
+
+    // ==================== ESTADO DE LA IMPORTACIÓN ====================
+
+    private record RawRow(long line, List<String> fields) {
+    }
+
+    private record ParsedRow(long line, Expense expense, long hash, String error) {
+
+        static ParsedRow error(long line, String message) {
+            return new ParsedRow(line, null, 0, message);
+        }
+    }
+
+    /**
+     * Contadores de la importación en curso (solo los toca el hilo que lee el fichero).
+     */
+    private static final class Progress {
+
+        private final long maxIdBefore;
+        private final List<ExpenseImportReport.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        private Progress(long maxIdBefore) {
+            this.maxIdBefore = maxIdBefore;
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ExpenseImportReport.RowError(line, message));
+            }
+        }
+
+        private ExpenseImportReport toReport() {
+            return new ExpenseImportReport(totalRows, imported, duplicates, rejected,
+                    List.copyOf(errors), rejected > errors.size());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.dto.LedgerTotal;
+import com.payoyo.gestor_gastos_personales.dto.MonthTotal;
+import com.payoyo.gestor_gastos_personales.dto.PeriodTotal;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseMonthlyLedger;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseMonthlyLedgerRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cierres mensuales (expense_monthly_ledgers): total y número de gastos de
+ * cada mes terminado, para que los reportes de varios años sumen una fila por
+ * mes en lugar de una por día, categoría y método de pago.
+ *
+ * Cierre:
+ * - El día 1 de cada mes (expenses.ledgers.cron) y al arrancar se cierran los
+ *   meses terminados que no tengan cierre, desde el primer día con gastos
+ * - Un cierre se calcula desde los acumulados diarios del mes
+ *
+ * Invalidación (solo si cambia un gasto con fecha de un mes cerrado):
+ * - Alta, modificación, baja o importación: el cierre del mes se borra en la
+ *   misma transacción (los reportes no leen nunca un cierre desfasado) y se
+ *   vuelve a calcular tras el commit
+ * - Reconstrucción de los acumulados: igual con los meses del rango
+ *
+ * Los cálculos van de uno en uno (synchronized) y cada uno confirma antes de
+ * soltar el bloqueo: un cierre calculado antes de que se confirme un gasto con
+ * fecha atrasada lo sobrescribe el recálculo de ese gasto, que llega después.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class ExpenseMonthCloser {
+
+    private final ExpenseMonthlyLedgerRepository ledgerRepository;
+    private final ExpenseRollupRepository rollupRepository;
+    private final TransactionTemplate newTransaction;
+    private final Clock clock;
+
+    @Autowired
+    public ExpenseMonthCloser(
+            ExpenseMonthlyLedgerRepository ledgerRepository,
+            ExpenseRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this(ledgerRepository, rollupRepository, transactionManager, Clock.systemDefaultZone());
+    }
+
+    // Con un reloj fijo en las pruebas (mes en curso)
+    ExpenseMonthCloser(
+            ExpenseMonthlyLedgerRepository ledgerRepository,
+            ExpenseRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            Clock clock
+    ) {
+        this.ledgerRepository = ledgerRepository;
+        this.rollupRepository = rollupRepository;
+        // Los recálculos se ejecutan tras el commit: cada uno necesita su propia transacción
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Total y número de gastos de un rango de días:
+     * - Meses completos y cerrados del rango: una fila por mes (cierres)
+     * - Días sueltos al principio y al final, mes en curso y meses sin cierre
+     *   (p. ej. recién invalidados): acumulados diarios
+     *
+     * Un rango de varios años cuesta una suma de una fila por mes más como mucho
+     * dos rangos de días (el mes parcial del principio y el del final). Solo si
+     * falta algún cierre se leen los cierres uno a uno para sumar los huecos.
+     *
+     * @param startDate Primer día (inclusive)
+     * @param endDate Último día (inclusive)
+     * @return Totales del rango (campos null si no hay gastos)
+     */
+    public PeriodTotal sumBetween(LocalDate startDate, LocalDate endDate) {
+        YearMonth firstFull = startDate.getDayOfMonth() == 1
+                ? YearMonth.from(startDate)
+                : YearMonth.from(startDate).plusMonths(1);
+        YearMonth lastFull = endDate.equals(YearMonth.from(endDate).atEndOfMonth())
+                ? YearMonth.from(endDate)
+                : YearMonth.from(endDate).minusMonths(1);
+        YearMonth lastClosed = YearMonth.now(clock).minusMonths(1);
+        if (lastFull.isAfter(lastClosed)) {
+            lastFull = lastClosed;
+        }
+        if (firstFull.isAfter(lastFull)) {
+            return rollupRepository.sumBetween(startDate, endDate);
+        }
+
+        // Céntimos y número de gastos
+        long[] sums = new long[2];
+        boolean found = false;
+        LocalDate firstMonth = firstFull.atDay(1);
+        LocalDate lastMonth = lastFull.atDay(1);
+
+        LedgerTotal ledgers = ledgerRepository.sumBetween(firstMonth, lastMonth);
+        if (ledgers.months() == ChronoUnit.MONTHS.between(firstFull, lastFull) + 1) {
+            if (startDate.isBefore(firstMonth)) {
+                found |= add(sums, rollupRepository.sumBetween(startDate, firstMonth.minusDays(1)));
+            }
+            if (ledgers.expenseCount() > 0) {
+                sums[0] += Cents.of(ledgers.totalAmount());
+                sums[1] += ledgers.expenseCount();
+                found = true;
+            }
+            LocalDate afterLast = lastFull.plusMonths(1).atDay(1);
+            if (!afterLast.isAfter(endDate)) {
+                found |= add(sums, rollupRepository.sumBetween(afterLast, endDate));
+            }
+            return found ? new PeriodTotal(Cents.toAmount(sums[0]), sums[1]) : new PeriodTotal(null, null);
+        }
+
+        // Faltan cierres: los huecos entre cierres se suman de los acumulados
+        LocalDate uncovered = startDate;
+        for (ExpenseMonthlyLedger ledger : ledgerRepository.findByMonthBetweenOrderByMonthAsc(firstMonth, lastMonth)) {
+            if (uncovered.isBefore(ledger.getMonth())) {
+                found |= add(sums, rollupRepository.sumBetween(uncovered, ledger.getMonth().minusDays(1)));
+            }
+            sums[0] += Cents.of(ledger.getTotalAmount());
+            sums[1] += ledger.getExpenseCount();
+            found |= ledger.getExpenseCount() > 0;
+            uncovered = ledger.getMonth().plusMonths(1);
+        }
+        if (!uncovered.isAfter(endDate)) {
+            found |= add(sums, rollupRepository.sumBetween(uncovered, endDate));
+        }
+        return found ? new PeriodTotal(Cents.toAmount(sums[0]), sums[1]) : new PeriodTotal(null, null);
+    }
+
+    private static boolean add(long[] sums, PeriodTotal total) {
+        sums[0] += Cents.of(total.total());
+        sums[1] += total.count();
+        return total.count() > 0;
+    }
+
+    // ==================== CIERRE ====================
+
+    /**
+     * Cierra los meses terminados que no tienen cierre (desde el primer día con gastos).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${expenses.ledgers.cron:0 10 0 1 * *}")
+    public void closeMonths() {
+        LocalDate firstDate = newTransaction.execute(status -> rollupRepository.findFirstDate());
+        if (firstDate == null) {
+            return;
+        }
+        Set<LocalDate> closed = new HashSet<>(newTransaction.execute(status -> ledgerRepository.findMonths()));
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = YearMonth.from(firstDate); month.isBefore(YearMonth.now(clock)); month = month.plusMonths(1)) {
+            if (!closed.contains(month.atDay(1))) {
+                firstMissing = firstMissing == null ? month : firstMissing;
+                lastMissing = month;
+            }
+        }
+        if (firstMissing != null) {
+            close(firstMissing, lastMissing);
+        }
+    }
+
+    /**
+     * Calcula (o vuelve a calcular) los cierres de un rango de meses desde los
+     * acumulados diarios. Los meses no terminados se ignoran.
+     *
+     * @param first Primer mes
+     * @param last Último mes
+     */
+    private synchronized void close(YearMonth first, YearMonth last) {
+        YearMonth lastClosed = YearMonth.now(clock).minusMonths(1);
+        YearMonth end = last.isAfter(lastClosed) ? lastClosed : last;
+        if (first.isAfter(end)) {
+            return;
+        }
+        int months = newTransaction.execute(status -> {
+            ledgerRepository.deleteByMonthBetween(first.atDay(1), end.atDay(1));
+            Map<YearMonth, MonthTotal> totals = rollupRepository.sumByMonthBetween(first.atDay(1), end.atEndOfMonth())
+                    .stream()
+                    .collect(Collectors.toMap(MonthTotal::yearMonth, Function.identity()));
+
+            List<ExpenseMonthlyLedger> ledgers = new ArrayList<>();
+            for (YearMonth month = first; !month.isAfter(end); month = month.plusMonths(1)) {
+                MonthTotal total = totals.get(month);
+                ledgers.add(ExpenseMonthlyLedger.builder()
+                        .month(month.atDay(1))
+                        .totalAmount(total != null ? total.totalAmount() : Cents.toAmount(0))
+                        .expenseCount(total != null ? total.expenseCount() : 0)
+                        .build());
+            }
+            ledgerRepository.saveAll(ledgers);
+            return ledgers.size();
+        });
+        log.info("Cierres mensuales calculados de {} a {}: {} meses", first, end, months);
+    }
+
+    // ==================== INVALIDACIÓN ====================
+
+    /**
+     * Borra, en la transacción del cambio, el cierre de los meses del gasto
+     * antes y después del cambio.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        for (YearMonth month : closedMonths(event)) {
+            invalidate(month, month);
+        }
+    }
+
+    /**
+     * Vuelve a calcular los cierres invalidados por el cambio, ya confirmado.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @TransactionalEventListener
+    public void afterExpenseChanged(ExpenseChangedEvent event) {
+        for (YearMonth month : closedMonths(event)) {
+            close(month, month);
+        }
+    }
+
+    /**
+     * Borra, en la transacción de la importación, los cierres de los meses
+     * entre el gasto importado más antiguo y el más reciente.
+     *
+     * @param event -> Gastos insertados
+     */
+    @EventListener
+    public void onExpensesImported(ExpensesImportedEvent event) {
+        YearMonth[] range = closedRange(event);
+        if (range != null) {
+            invalidate(range[0], range[1]);
+        }
+    }
+
+    /**
+     * Vuelve a calcular los cierres invalidados por la importación, ya confirmada.
+     *
+     * @param event -> Gastos insertados
+     */
+    @TransactionalEventListener
+    public void afterExpensesImported(ExpensesImportedEvent event) {
+        YearMonth[] range = closedRange(event);
+        if (range != null) {
+            close(range[0], range[1]);
+        }
+    }
+
+    /**
+     * Borra, en la transacción de la reconstrucción, los cierres de los meses
+     * del rango reconstruido (todos si se reconstruyó el histórico).
+     *
+     * @param event -> Rango reconstruido
+     */
+    @EventListener
+    public void onRollupsRebuilt(ExpenseRollupsRebuiltEvent event) {
+        if (event.startDate() == null) {
+            ledgerRepository.deleteAllInBatch();
+        } else {
+            invalidate(YearMonth.from(event.startDate()), YearMonth.from(event.endDate()));
+        }
+    }
+
+    /**
+     * Vuelve a calcular los cierres tras la reconstrucción, ya confirmada.
+     *
+     * @param event -> Rango reconstruido
+     */
+    @TransactionalEventListener
+    public void afterRollupsRebuilt(ExpenseRollupsRebuiltEvent event) {
+        if (event.startDate() == null) {
+            closeMonths();
+        } else {
+            close(YearMonth.from(event.startDate()), YearMonth.from(event.endDate()));
+        }
+    }
+
+    private void invalidate(YearMonth first, YearMonth last) {
+        YearMonth lastClosed = YearMonth.now(clock).minusMonths(1);
+        if (!first.isAfter(lastClosed)) {
+            ledgerRepository.deleteByMonthBetween(first.atDay(1), (last.isAfter(lastClosed) ? lastClosed : last).atDay(1));
+        }
+    }
+
+    private List<YearMonth> closedMonths(ExpenseChangedEvent event) {
+        YearMonth current = YearMonth.now(clock);
+        List<YearMonth> months = new ArrayList<>(2);
+        for (ExpenseSnapshot expense : new ExpenseSnapshot[] {event.before(), event.after()}) {
+            if (expense != null) {
+                YearMonth month = YearMonth.from(expense.date());
+                if (month.isBefore(current) && !months.contains(month)) {
+                    months.add(month);
+                }
+            }
+        }
+        return months;
+    }
+
+    // [mes más antiguo, mes más reciente] de los gastos de meses cerrados, o null si no hay ninguno
+    private YearMonth[] closedRange(ExpensesImportedEvent event) {
+        LocalDate firstOfCurrent = YearMonth.now(clock).atDay(1);
+        LocalDate min = null;
+        LocalDate max = null;
+        for (ExpenseSnapshot expense : event.expenses()) {
+            if (expense.date().isBefore(firstOfCurrent)) {
+                min = min == null || expense.date().isBefore(min) ? expense.date() : min;
+                max = max == null || expense.date().isAfter(max) ? expense.date() : max;
+            }
+        }
+        return min == null ? null : new YearMonth[] {YearMonth.from(min), YearMonth.from(max)};
+    }
+}
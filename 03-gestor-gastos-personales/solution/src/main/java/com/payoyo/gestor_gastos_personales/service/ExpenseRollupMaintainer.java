@@ -0,0 +1,184 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.payoyo.gestor_gastos_personales.entity.ExpenseDailyRollup;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseRollupId;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene la tabla de acumulados diarios (expense_daily_rollups).
+ *
+ * - Alta: suma el importe al grupo (día, categoría, método de pago) del gasto
+ * - Baja: lo resta de su grupo
+ * - Modificación: resta del grupo anterior y suma al nuevo
+ *   (si el grupo no cambia, un solo UPDATE con la diferencia de importe)
+ * - Importación: agrupa el bloque importado y envía un upsert por grupo en un solo lote
+ *
+ * Escucha ExpenseChangedEvent y ExpensesImportedEvent de forma síncrona, así que la actualización
+ * ocurre en la misma transacción que la escritura del gasto: si algo falla,
+ * se deshacen las dos cosas.
+ *
+ * Tras una reconstrucción publica ExpenseRollupsRebuiltEvent para que se
+ * recarguen los datos derivados de los acumulados.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseRollupMaintainer {
+
+    private static final Comparator<ExpenseRollupId> GROUP_ORDER = Comparator
+            .comparing(ExpenseRollupId::getDate)
+            .thenComparing(ExpenseRollupId::getCategory)
+            .thenComparing(ExpenseRollupId::getPaymentMethod);
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Aplica a los acumulados el cambio de un gasto.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseSnapshot before = event.before();
+        ExpenseSnapshot after = event.after();
+
+        if (before != null && after != null && sameGroup(before, after)) {
+            // Mismo grupo: solo cambia el importe, el número de gastos no varía
+            if (before.baseAmount().compareTo(after.baseAmount()) != 0) {
+                apply(after, after.baseAmount().subtract(before.baseAmount()), 0);
+            }
+            return;
+        }
+
+        if (before != null) {
+            apply(before, before.baseAmount().negate(), -1);
+        }
+        if (after != null) {
+            apply(after, after.baseAmount(), 1);
+        }
+    }
+
+    /**
+     * Aplica a los acumulados un bloque de gastos importados: agrupa antes por
+     * (día, categoría, método de pago) y envía un upsert por grupo en un solo lote.
+     *
+     * @param event -> Gastos insertados
+     */
+    @EventListener
+    public void onExpensesImported(ExpensesImportedEvent event) {
+        // Ordenados por clave para que dos importaciones concurrentes no se interbloqueen.
+        // Por grupo: [céntimos, número de gastos]
+        Map<ExpenseRollupId, long[]> groups = new TreeMap<>(GROUP_ORDER);
+        for (ExpenseSnapshot expense : event.expenses()) {
+            ExpenseRollupId group = new ExpenseRollupId(expense.date(), expense.category(), expense.paymentMethod());
+            long[] sums = groups.computeIfAbsent(group, key -> new long[2]);
+            sums[0] += Cents.of(expense.baseAmount());
+            sums[1]++;
+        }
+
+        List<ExpenseDailyRollup> deltas = new ArrayList<>(groups.size());
+        groups.forEach((group, sums) -> deltas.add(new ExpenseDailyRollup(group, Cents.toAmount(sums[0]), sums[1])));
+        rollupRepository.applyDeltas(deltas);
+    }
+
+    private void apply(ExpenseSnapshot expense, BigDecimal amount, long count) {
+        rollupRepository.applyDelta(
+                expense.date(),
+                expense.category().name(),
+                expense.paymentMethod().name(),
+                amount,
+                count
+        );
+    }
+
+    private static boolean sameGroup(ExpenseSnapshot a, ExpenseSnapshot b) {
+        return a.date().equals(b.date())
+                && a.category() == b.category()
+                && a.paymentMethod() == b.paymentMethod();
+    }
+
+    // ==================== RECONSTRUCCIÓN (BACKFILL) ====================
+
+    /**
+     * Recalcula los acumulados de un rango de días desde la tabla expenses.
+     *
+     * Borra los acumulados del rango y los vuelve a generar con un único
+     * INSERT ... SELECT ... GROUP BY. Recorre todos los gastos del rango:
+     * conviene lanzarlo en horas de poco tráfico.
+     *
+     * @param startDate -> Primer día (inclusive)
+     * @param endDate -> Último día (inclusive)
+     * @return Número de filas de acumulados generadas
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        int rows = rebuildRange(startDate, endDate);
+        eventPublisher.publishEvent(new ExpenseRollupsRebuiltEvent(startDate, endDate));
+        return rows;
+    }
+
+    /**
+     * Recalcula los acumulados de todo el histórico de gastos.
+     *
+     * @return Número de filas de acumulados generadas (0 si no hay gastos)
+     */
+    @Transactional
+    public int rebuildAll() {
+        List<Object[]> range = expenseRepository.findDateRange();
+        rollupRepository.deleteAllInBatch();
+        int rows = 0;
+        if (!range.isEmpty() && range.get(0)[0] != null) {
+            rows = rebuildRange((LocalDate) range.get(0)[0], (LocalDate) range.get(0)[1]);
+        }
+        eventPublisher.publishEvent(new ExpenseRollupsRebuiltEvent(null, null));
+        return rows;
+    }
+
+    private int rebuildRange(LocalDate startDate, LocalDate endDate) {
+        rollupRepository.deleteRange(startDate, endDate);
+        int rows = rollupRepository.insertRangeFromExpenses(startDate, endDate);
+        log.info("Acumulados diarios reconstruidos entre {} y {}: {} filas", startDate, endDate, rows);
+        return rows;
+    }
+
+    /**
+     * Al arrancar, si ya hay gastos pero la tabla de acumulados está vacía
+     * (primer despliegue de esta versión), se genera desde cero.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOnStartup() {
+        if (rollupRepository.count() == 0 && expenseRepository.count() > 0) {
+            log.info("Tabla de acumulados vacía, generando desde el histórico de gastos");
+            rebuildAll();
+        }
+    }
+}
@@ -1,12 +1,33 @@
 package com.payoyo.gestor_gastos_personales.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import com.payoyo.gestor_gastos_personales.dto.CategoryReport;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseCreation;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseImportReport;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseOverview;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePage;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePageRequest;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchPage;
+import com.payoyo.gestor_gastos_personales.dto.ExportFormat;
+import com.payoyo.gestor_gastos_personales.dto.MonthReport;
+import com.payoyo.gestor_gastos_personales.dto.PeriodReport;
+import com.payoyo.gestor_gastos_personales.dto.SpendForecast;
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesReport;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
 import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseAnomaly;
 import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
 import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.exceptions.IdempotencyKeyConflictException;
 
 /**
  * Servicio que define la lógica de negocio para la gestión de gastos personales.
@@ -18,7 +39,7 @@ import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
  */
 public interface ExpenseService {
     
-    // ==================== OPERACIONES CRUD (5 métodos) ====================
+    // ==================== OPERACIONES CRUD (6 métodos) ====================
     
     /**
      * Crea un nuevo gasto en el sistema.
@@ -28,14 +49,31 @@ public interface ExpenseService {
      * @return Expense creado con su ID generado
      */
     Expense createExpense(Expense expense);
+
+    /**
+     * Crea un gasto una sola vez por clave, aunque el cliente repita la petición.
+     * Endpoint: POST /api/expenses con cabecera Idempotency-Key
+     * 
+     * Si la clave ya se usó con el mismo gasto se devuelve el gasto creado
+     * entonces, sin crear otro ni consultar la tabla de gastos (ver IdempotencyKeyStore).
+     * 
+     * @param expense Objeto Expense con los datos del gasto a crear
+     * @param idempotencyKey Clave enviada por el cliente (null = alta normal)
+     * @return Gasto creado (o el de la petición original) y si es un reintento
+     * @throws IllegalArgumentException si la clave está vacía o supera los 100 caracteres
+     * @throws IdempotencyKeyConflictException si la petición original sigue en curso o era otro gasto
+     */
+    ExpenseCreation createExpense(Expense expense, String idempotencyKey);
     
     /**
-     * Obtiene todos los gastos registrados ordenados por fecha descendente.
+     * Obtiene una página de todos los gastos registrados.
      * Endpoint: GET /api/expenses
      * 
-     * @return Lista de todos los gastos
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos (con el total solo en la primera)
+     * @throws IllegalArgumentException si el cursor no es válido
      */
-    List<Expense> getAllExpenses();
+    ExpensePage getAllExpenses(ExpensePageRequest page);
     
     /**
      * Obtiene un gasto por su ID.
@@ -67,43 +105,107 @@ public interface ExpenseService {
      */
     void deleteExpense(Long id);
     
-    // ==================== FILTROS Y CONSULTAS (3 métodos) ====================
+    // ==================== FILTROS Y CONSULTAS (6 métodos) ====================
     
     /**
-     * Obtiene todos los gastos de una categoría específica.
+     * Obtiene una página de los gastos de una categoría específica.
      * Endpoint: GET /api/expenses/category/{category}
      * 
      * @param category Categoría por la cual filtrar
-     * @return Lista de gastos de la categoría especificada, ordenados por fecha descendente
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos de la categoría especificada
+     * @throws IllegalArgumentException si el cursor no es válido
      */
-    List<Expense> getExpensesByCategory(CategoryEnum category);
+    ExpensePage getExpensesByCategory(CategoryEnum category, ExpensePageRequest page);
     
     /**
-     * Obtiene todos los gastos dentro de un rango de fechas.
+     * Obtiene una página de los gastos dentro de un rango de fechas.
      * Endpoint: GET /api/expenses/between?startDate=YYYY-MM-DD&endDate=YYYY-MM-DD
      * 
      * @param startDate Fecha de inicio del período (inclusive)
      * @param endDate Fecha de fin del período (inclusive)
-     * @return Lista de gastos en el rango especificado, ordenados por fecha descendente
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos en el rango especificado
+     * @throws IllegalArgumentException si startDate es posterior a endDate o el cursor no es válido
      */
-    List<Expense> getExpensesByDateBetween(LocalDate startDate, LocalDate endDate);
+    ExpensePage getExpensesByDateBetween(LocalDate startDate, LocalDate endDate, ExpensePageRequest page);
     
     /**
-     * Obtiene todos los gastos realizados con un método de pago específico.
+     * Obtiene una página de los gastos realizados con un método de pago específico.
      * Endpoint: GET /api/expenses/payment-method/{paymentMethod}
      * 
      * @param paymentMethod Método de pago por el cual filtrar
-     * @return Lista de gastos del método de pago especificado, ordenados por fecha descendente
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos del método de pago especificado
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    ExpensePage getExpensesByPaymentMethod(PaymentMethodEnum paymentMethod, ExpensePageRequest page);
+
+    /**
+     * Obtiene los últimos gastos marcados como inusuales (cantidad muy por encima
+     * de la media de su categoría y método de pago).
+     * Endpoint: GET /api/expenses/anomalies?size=50
+     * 
+     * @param size Número máximo de gastos (entre 1 y ExpensePageRequest.MAX_SIZE)
+     * @return Gastos marcados, los más recientes primero
+     * @throws IllegalArgumentException si size está fuera de rango
+     */
+    List<ExpenseAnomaly> getAnomalies(int size);
+
+    /**
+     * Busca gastos por texto en la descripción, con filtros opcionales de
+     * cantidad, categoría y fechas, de más a menos relevante.
+     * Endpoint: GET /api/expenses/search?q=mercadona&page=0&size=20
+     * 
+     * Tolera textos incompletos y erratas (comparación por trigramas, ver ExpenseTextSearch).
+     * 
+     * @param filter Texto y filtros
+     * @param page Número de página (empieza en 0)
+     * @param size Resultados por página (entre 1 y ExpensePageRequest.MAX_SIZE)
+     * @return Página de gastos con su relevancia
+     * @throws IllegalArgumentException si page o size están fuera de rango
+     */
+    ExpenseSearchPage searchExpenses(ExpenseSearchFilter filter, int page, int size);
+
+    /**
+     * Exporta los gastos que cumplen los filtros escribiéndolos directamente en la salida.
+     * Endpoint: GET /api/expenses/export?format=CSV|XLSX
+     * 
+     * Los gastos se leen con un cursor y se escriben uno a uno: la memoria usada
+     * no depende del número de gastos exportados.
+     * 
+     * @param filter Filtros de fecha, categoría y método de pago (null = sin filtrar)
+     * @param format Formato del fichero
+     * @param out Salida donde escribir (no se cierra)
+     * @return Número de gastos exportados
+     * @throws IOException si falla la escritura (p. ej. el cliente cancela la descarga)
      */
-    List<Expense> getExpensesByPaymentMethod(PaymentMethodEnum paymentMethod);
+    long exportExpenses(ExpenseFilter filter, ExportFormat format, OutputStream out) throws IOException;
     
-    // ==================== REPORTES (3 métodos) ====================
+    // ==================== IMPORTACIÓN (1 método) ====================
+
+    /**
+     * Importa gastos de forma masiva desde un CSV (p. ej. un extracto bancario).
+     * Endpoint: POST /api/expenses/import (multipart, campo "file")
+     * 
+     * Las filas se validan con las mismas reglas que createExpense. Las filas
+     * con errores se rechazan sin detener la importación y las que coinciden
+     * en fecha, cantidad y descripción con un gasto ya existente se descartan.
+     * 
+     * @param csv Contenido del fichero en UTF-8 (no se cierra)
+     * @return Resumen con filas importadas, repetidas y rechazadas (con su línea y motivo)
+     * @throws IllegalArgumentException si falta alguna columna en la cabecera o el CSV está mal formado
+     * @throws IOException si falla la lectura
+     */
+    ExpenseImportReport importExpenses(InputStream csv) throws IOException;
+
+    // ==================== REPORTES (6 métodos) ====================
     
     /**
      * Genera un reporte con el total gastado por cada categoría.
      * Endpoint: GET /api/expenses/reports/by-category
      * 
-     * @return Lista de Maps, cada uno con "category", "totalAmount" y "expenseCount"
+     * @return Lista de reportes por categoría, ordenada por total descendente
      * 
      * Ejemplo de respuesta:
      * [
@@ -111,7 +213,7 @@ public interface ExpenseService {
      *   {"category": "TRANSPORT", "totalAmount": 180.00, "expenseCount": 8}
      * ]
      */
-    List<Map<String, Object>> getReportByCategory();
+    List<CategoryReport> getCategoryReport();
     
     /**
      * Genera un reporte del total gastado en un período específico.
@@ -119,7 +221,7 @@ public interface ExpenseService {
      * 
      * @param startDate Fecha de inicio del período
      * @param endDate Fecha de fin del período
-     * @return Map con "startDate", "endDate", "totalAmount", "expenseCount" y "averageExpense"
+     * @return Reporte con "startDate", "endDate", "totalAmount", "expenseCount" y "averageExpense"
      * 
      * Ejemplo de respuesta:
      * {
@@ -130,13 +232,13 @@ public interface ExpenseService {
      *   "averageExpense": 27.79
      * }
      */
-    Map<String, Object> getReportByPeriod(LocalDate startDate, LocalDate endDate);
+    PeriodReport getPeriodReport(LocalDate startDate, LocalDate endDate);
     
     /**
      * Genera un reporte resumen del mes actual.
      * Endpoint: GET /api/expenses/reports/current-month
      * 
-     * @return Map con "month", "year", "totalAmount", "expenseCount", 
+     * @return Reporte con "month", "year", "totalAmount", "expenseCount", 
      *         "mostExpensiveCategory" y "leastExpensiveCategory"
      * 
      * Ejemplo de respuesta:
@@ -149,5 +251,101 @@ public interface ExpenseService {
      *   "leastExpensiveCategory": "EDUCATION"
      * }
      */
-    Map<String, Object> getCurrentMonthReport();
+    MonthReport getMonthReport();
+
+    /**
+     * Resumen completo de un período: totales, reparto por categoría y por
+     * método de pago y los gastos más altos.
+     * Endpoint: GET /api/expenses/reports/overview?startDate=YYYY-MM-DD&endDate=YYYY-MM-DD&top=5
+     * 
+     * Las cuatro consultas son independientes y se lanzan a la vez, cada una con
+     * su propia conexión: el tiempo de respuesta es el de la más lenta, no la suma.
+     * 
+     * @param startDate Primer día (null = día 1 del mes actual)
+     * @param endDate Último día (null = último día del mes actual)
+     * @param top Número de gastos más altos a devolver (1 a 50)
+     * @return Resumen del período
+     * @throws IllegalArgumentException si el rango está invertido o top está fuera de límites
+     */
+    ExpenseOverview getOverview(LocalDate startDate, LocalDate endDate, int top);
+
+    /**
+     * Genera la serie temporal de gastos por día, semana, mes o año.
+     * Endpoint: GET /api/expenses/reports/timeseries?granularity=MONTH&splitBy=CATEGORY
+     * 
+     * Los intervalos sin gastos se devuelven con total 0. Los rangos dentro de los
+     * últimos meses se responden desde una caché en memoria; el resto se agrupa
+     * en la base de datos con date_trunc.
+     * 
+     * @param granularity Tamaño de los intervalos
+     * @param split Cómo separar las series (NONE, CATEGORY o PAYMENT_METHOD)
+     * @param startDate Primer día (null = día 1 de hace 11 meses)
+     * @param endDate Último día (null = hoy)
+     * @return Serie temporal en formato columnar
+     * @throws IllegalArgumentException si el rango está invertido o tiene demasiados intervalos
+     */
+    TimeSeriesReport getTimeSeries(TimeGranularity granularity, TimeSeriesSplit split,
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Previsión del gasto a final del mes actual por categoría.
+     * Endpoint: GET /api/expenses/reports/forecast
+     * 
+     * Se calcula con los acumulados diarios del mes (8 filas como mucho) y las
+     * plantillas de gastos recurrentes, sin recorrer gastos.
+     * 
+     * @return Gastado hasta hoy y previsto a final de mes, total y por categoría
+     */
+    SpendForecast getSpendForecast();
+
+    /**
+     * Reconstruye la tabla de acumulados diarios en la que se basan los reportes.
+     * Endpoint: POST /api/expenses/reports/rollups/rebuild?startDate=YYYY-MM-DD&endDate=YYYY-MM-DD
+     * 
+     * Los acumulados se mantienen solos en cada alta, modificación y baja; esto solo
+     * hace falta tras cargas masivas directas en la base de datos o para corregir desvíos.
+     * 
+     * @param startDate Primer día a reconstruir (null junto con endDate = todo el histórico)
+     * @param endDate Último día a reconstruir
+     * @return Número de filas de acumulados generadas
+     */
+    int rebuildRollups(LocalDate startDate, LocalDate endDate);
+
+    // ==================== COMPATIBILIDAD (formato Map) ====================
+
+    /**
+     * Reporte por categoría en el formato anterior (lista de Maps).
+     * 
+     * @return Lista de Maps con "category", "totalAmount" y "expenseCount"
+     * @deprecated Usar {@link #getCategoryReport()}, que no crea un Map por fila
+     */
+    @Deprecated
+    default List<Map<String, Object>> getReportByCategory() {
+        return getCategoryReport().stream().map(CategoryReport::toMap).toList();
+    }
+
+    /**
+     * Reporte de un período en el formato anterior (Map).
+     * 
+     * @param startDate Fecha de inicio del período
+     * @param endDate Fecha de fin del período
+     * @return Map con "startDate", "endDate", "totalAmount", "expenseCount" y "averageExpense"
+     * @deprecated Usar {@link #getPeriodReport(LocalDate, LocalDate)}
+     */
+    @Deprecated
+    default Map<String, Object> getReportByPeriod(LocalDate startDate, LocalDate endDate) {
+        return getPeriodReport(startDate, endDate).toMap();
+    }
+
+    /**
+     * Reporte del mes actual en el formato anterior (Map).
+     * 
+     * @return Map con "month", "year", "totalAmount", "expenseCount",
+     *         "mostExpensiveCategory" y "leastExpensiveCategory"
+     * @deprecated Usar {@link #getMonthReport()}
+     */
+    @Deprecated
+    default Map<String, Object> getCurrentMonthReport() {
+        return getMonthReport().toMap();
+    }
 }
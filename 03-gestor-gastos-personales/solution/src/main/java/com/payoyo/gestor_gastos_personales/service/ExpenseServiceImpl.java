@@ -1,21 +1,62 @@
 package com.payoyo.gestor_gastos_personales.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.payoyo.gestor_gastos_personales.dto.BucketTotal;
+import com.payoyo.gestor_gastos_personales.dto.CategoryReport;
+import com.payoyo.gestor_gastos_personales.dto.CategoryTotal;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseCreation;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseExportRow;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseImportReport;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseOverview;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePage;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePageRequest;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchHit;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchPage;
+import com.payoyo.gestor_gastos_personales.dto.ExportFormat;
+import com.payoyo.gestor_gastos_personales.dto.MonthReport;
+import com.payoyo.gestor_gastos_personales.dto.PaymentMethodTotal;
+import com.payoyo.gestor_gastos_personales.dto.PeriodReport;
+import com.payoyo.gestor_gastos_personales.dto.PeriodTotal;
+import com.payoyo.gestor_gastos_personales.dto.SpendForecast;
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesReport;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
 import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseAnomaly;
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
 import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
 import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
 import com.payoyo.gestor_gastos_personales.exceptions.ExpenseNotFoundException;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseAnomalyRepository;
 import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+import com.payoyo.gestor_gastos_personales.repository.RecurringExpenseRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,42 +64,110 @@ import lombok.RequiredArgsConstructor;
 Implementacion del servicio de gestion de gastos personales
 
 Esta clase contiene toda la lógica de negocio para operaciones CRUD, filtros y generación de reportes con cálculos financieros.
+
+Los reportes se calculan sobre la tabla de acumulados diarios (ExpenseDailyRollup),
+que se mantiene en la misma transacción que cada escritura (ver ExpenseRollupMaintainer).
 @author Jose Luis (Payoyo)
 */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ExpenseServiceImpl implements ExpenseService{
 
+    // Límite de intervalos por serie temporal (p. ej. ~13 años día a día)
+    private static final int MAX_TIMESERIES_BUCKETS = 5000;
+
+    // Rango por defecto de la serie temporal (mismo que la caché por defecto)
+    private static final int DEFAULT_TIMESERIES_MONTHS = 12;
+
+    // Límite de gastos más altos en el resumen de un período
+    private static final int MAX_OVERVIEW_TOP = 50;
+
+    // Resultados que puede saltar una búsqueda de texto (el OFFSET recorre los anteriores)
+    private static final int MAX_SEARCH_OFFSET = 10_000;
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupRepository rollupRepository;
+    private final ExpenseRollupMaintainer rollupMaintainer;
+    private final ExpenseTimeSeriesCache timeSeriesCache;
+    private final ExpenseMonthCloser monthCloser;
+    private final ExpenseTextSearch textSearch;
+    private final IdempotencyKeyStore idempotencyStore;
+    private final ExpenseImporter expenseImporter;
+    private final RecurringExpenseRepository recurringRepository;
+    private final ExpenseAnomalyRepository anomalyRepository;
+    private final CurrencyConverter currencyConverter;
+    private final ReportQueryExecutor reportQueries;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== OPERACIONES CRUD ====================
 
     /**
      * Crea un nuevo gasto en el sistema.
-     * Valida que la fecha no sea futura antes de guardar.
+     * Valida que la fecha no sea futura antes de guardar y convierte la
+     * cantidad a la moneda base.
      * 
      * @param expense Gasto a crear
      * @return Gasto creado con ID generado
-     * @throws IllegalArgumentException si la fecha es futura
+     * @throws IllegalArgumentException si la fecha es futura o no hay tipo de cambio para la moneda
      */
     @Override
+    @Transactional
     public Expense createExpense(Expense expense) {
         // validacion -> la fecha no puede ser futura
         if (expense.getDate().isAfter(LocalDate.now())) {
             throw new IllegalArgumentException("La fecha del gasto no puede ser futura");
         }
+        expense.setCurrency(currencyConverter.currencyOf(expense.getCurrency()));
+        expense.setBaseAmount(currencyConverter.toBase(expense.getAmount(), expense.getCurrency(), expense.getDate()));
+
+        Expense saved = expenseRepository.save(expense);
+        eventPublisher.publishEvent(ExpenseChangedEvent.created(ExpenseSnapshot.of(saved)));
+        return saved;
+    }
+
+    /**
+     * La clave se reserva y el gasto se crea en la misma transacción: si el alta
+     * falla, la clave queda libre para el siguiente reintento.
+     */
+    @Override
+    @Transactional
+    public ExpenseCreation createExpense(Expense expense, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new ExpenseCreation(createExpense(expense), false);
+        }
+        long requestHash = requestHashOf(expense);
+        Optional<Expense> original = idempotencyStore.claim(idempotencyKey, requestHash);
+        if (original.isPresent()) {
+            return new ExpenseCreation(original.get(), true);
+        }
+        Expense created = createExpense(expense);
+        idempotencyStore.record(idempotencyKey, requestHash, created);
+        return new ExpenseCreation(created, false);
+    }
 
-        return expenseRepository.save(expense);
+    /*
+     * Huella del gasto pedido: la de los repetidos al importar más categoría y método de pago.
+     * Con el nombre de los enums (su hashCode cambia en cada arranque y la huella se guarda en la BD)
+     */
+    private static long requestHashOf(Expense expense) {
+        long hash = Expense.dedupHashOf(expense.getDate(), expense.getAmount(),
+                String.valueOf(expense.getCurrency()), expense.getDescription());
+        hash = 31 * hash + String.valueOf(expense.getCategory()).hashCode();
+        return 31 * hash + String.valueOf(expense.getPaymentMethod()).hashCode();
     }
 
     /**
-     * Obtiene todos los gastos ordenados por fecha descendente.
+     * Obtiene una página de todos los gastos.
      * 
-     * @return Lista de todos los gastos (más recientes primero)
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos (más recientes primero por defecto)
      */
     @Override
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAllByOrderByDateDesc();
+    public ExpensePage getAllExpenses(ExpensePageRequest page) {
+        Window<Expense> window = expenseRepository.findAllBy(
+                ExpenseCursor.decode(page), page.sort().toSort(), Limit.of(page.size()));
+        return toPage(page, window, new ExpenseFilter(null, null, null, null));
     }
 
     /**
@@ -82,9 +191,10 @@ public class ExpenseServiceImpl implements ExpenseService{
      * @param expense Datos actualizados del gasto
      * @return Gasto actualizado
      * @throws ExpenseNotFoundException si el ID no existe
-     * @throws IllegalArgumentException si la fecha es futura
+     * @throws IllegalArgumentException si la fecha es futura o no hay tipo de cambio para la moneda
      */
     @Override
+    @Transactional
     public Expense updateExpense(Long id, Expense expense) {
         // Verificar que el gasto existe
         Expense existingExpense = getExpenseById(id);
@@ -94,14 +204,22 @@ public class ExpenseServiceImpl implements ExpenseService{
             throw new IllegalArgumentException("La fecha del gasto no puede ser futura");
         }
         
+        // Copia de los valores anteriores para ajustar los acumulados
+        ExpenseSnapshot before = ExpenseSnapshot.of(existingExpense);
+
         // Actualizar campos (manteniendo el ID original)
         existingExpense.setDescription(expense.getDescription());
         existingExpense.setAmount(expense.getAmount());
         existingExpense.setCategory(expense.getCategory());
         existingExpense.setDate(expense.getDate());
         existingExpense.setPaymentMethod(expense.getPaymentMethod());
+        existingExpense.setCurrency(currencyConverter.currencyOf(expense.getCurrency()));
+        existingExpense.setBaseAmount(currencyConverter.toBase(
+                expense.getAmount(), existingExpense.getCurrency(), expense.getDate()));
         
-        return expenseRepository.save(existingExpense);
+        Expense saved = expenseRepository.save(existingExpense);
+        eventPublisher.publishEvent(ExpenseChangedEvent.updated(before, ExpenseSnapshot.of(saved)));
+        return saved;
     }
 
     /**
@@ -111,10 +229,12 @@ public class ExpenseServiceImpl implements ExpenseService{
      * @throws ExpenseNotFoundException si el ID no existe
      */
     @Override
+    @Transactional
     public void deleteExpense(Long id) {
         // Verificar que el gasto existe antes de eliminar
         Expense expense = getExpenseById(id);
         expenseRepository.delete(expense);
+        eventPublisher.publishEvent(ExpenseChangedEvent.deleted(ExpenseSnapshot.of(expense)));
     }
 
     // ==================== FILTROS Y CONSULTAS ====================
@@ -123,11 +243,14 @@ public class ExpenseServiceImpl implements ExpenseService{
      * Filtra gastos por categoría.
      * 
      * @param category Categoría para filtrar
-     * @return Lista de gastos de la categoría especificada
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos de la categoría especificada
      */
     @Override
-    public List<Expense> getExpensesByCategory(CategoryEnum category) {
-        return expenseRepository.findByCategoryOrderByDateDesc(category);
+    public ExpensePage getExpensesByCategory(CategoryEnum category, ExpensePageRequest page) {
+        Window<Expense> window = expenseRepository.findByCategory(
+                category, ExpenseCursor.decode(page), page.sort().toSort(), Limit.of(page.size()));
+        return toPage(page, window, new ExpenseFilter(null, null, category, null));
     }
 
     /**
@@ -135,188 +258,444 @@ public class ExpenseServiceImpl implements ExpenseService{
      * 
      * @param startDate Fecha de inicio (inclusive)
      * @param endDate Fecha de fin (inclusive)
-     * @return Lista de gastos en el rango de fechas
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos en el rango de fechas
+     * @throws IllegalArgumentException si startDate es posterior a endDate
      */
     @Override
-    public List<Expense> getExpensesByDateBetween(LocalDate startDate, LocalDate endDate) {
-        return expenseRepository.findByDateBetweenOrderByDateDesc(startDate, endDate);
+    public ExpensePage getExpensesByDateBetween(LocalDate startDate, LocalDate endDate, ExpensePageRequest page) {
+        ExpenseFilter filter = new ExpenseFilter(startDate, endDate, null, null);
+        Window<Expense> window = expenseRepository.findByDateBetween(
+                startDate, endDate, ExpenseCursor.decode(page), page.sort().toSort(), Limit.of(page.size()));
+        return toPage(page, window, filter);
     }
 
     /**
      * Filtra gastos por método de pago.
      * 
      * @param paymentMethod Método de pago para filtrar
-     * @return Lista de gastos con el método de pago especificado
+     * @param page Tamaño, cursor y orden de la página
+     * @return Página de gastos con el método de pago especificado
      */
     @Override
-    public List<Expense> getExpensesByPaymentMethod(PaymentMethodEnum paymentMethod) {
-        return expenseRepository.findByPaymentMethodOrderByDateDesc(paymentMethod);
+    public ExpensePage getExpensesByPaymentMethod(PaymentMethodEnum paymentMethod, ExpensePageRequest page) {
+        Window<Expense> window = expenseRepository.findByPaymentMethod(
+                paymentMethod, ExpenseCursor.decode(page), page.sort().toSort(), Limit.of(page.size()));
+        return toPage(page, window, new ExpenseFilter(null, null, null, paymentMethod));
     }
 
-    // ==================== REPORTES ====================
+    /**
+     * Las marcas las genera ExpenseAnomalyDetector tras cada alta o modificación.
+     */
+    @Override
+    public List<ExpenseAnomaly> getAnomalies(int size) {
+        if (size < 1 || size > ExpensePageRequest.MAX_SIZE) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + ExpensePageRequest.MAX_SIZE);
+        }
+        return anomalyRepository.findAllByOrderByCreatedAtDescIdDesc(Limit.of(size));
+    }
 
     /**
-     * Genera reporte de gastos agrupados por categoría.
-     * Calcula el total y cuenta de gastos para cada categoría.
+     * ExpenseTextSearch devuelve los IDs de la página (uno más para saber si hay
+     * siguiente) y los gastos se cargan con una sola consulta por ID.
+     */
+    @Override
+    public ExpenseSearchPage searchExpenses(ExpenseSearchFilter filter, int page, int size) {
+        if (size < 1 || size > ExpensePageRequest.MAX_SIZE) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + ExpensePageRequest.MAX_SIZE);
+        }
+        if (page < 0 || (long) page * size > MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("page debe estar entre 0 y " + MAX_SEARCH_OFFSET / size);
+        }
+        List<ExpenseTextSearch.Match> matches = textSearch.search(filter, page * size, size + 1);
+        boolean hasNext = matches.size() > size;
+        if (hasNext) {
+            matches = matches.subList(0, size);
+        }
+
+        Map<Long, Expense> expenses = new HashMap<>();
+        expenseRepository.findAllById(matches.stream().map(ExpenseTextSearch.Match::id).toList())
+                .forEach(expense -> expenses.put(expense.getId(), expense));
+        List<ExpenseSearchHit> hits = new ArrayList<>(matches.size());
+        for (ExpenseTextSearch.Match match : matches) {
+            // Un gasto borrado entre las dos consultas se omite
+            Expense expense = expenses.get(match.id());
+            if (expense != null) {
+                hits.add(new ExpenseSearchHit(expense, match.relevance()));
+            }
+        }
+        return new ExpenseSearchPage(hits, page, size, hasNext);
+    }
+
+    /**
+     * Convierte una ventana de resultados en la página de la respuesta.
      * 
-     * @return Lista de Maps con información por categoría:
-     *         - category: nombre de la categoría
-     *         - totalAmount: suma total de gastos
-     *         - expenseCount: cantidad de gastos
+     * El total solo se calcula en la primera página (el cliente ya lo tiene al
+     * pedir las siguientes) y se lee de los acumulados diarios, no con un COUNT
+     * sobre la tabla de gastos.
      */
+    private ExpensePage toPage(ExpensePageRequest page, Window<Expense> window, ExpenseFilter filter) {
+        String nextCursor = window.hasNext()
+                ? ExpenseCursor.encode(page.sort(), window.positionAt(window.size() - 1))
+                : null;
+        Long total = page.isFirst()
+                ? rollupRepository.countExpenses(
+                        filter.startDate(), filter.endDate(), filter.category(), filter.paymentMethod())
+                : null;
+        return new ExpensePage(window.getContent(), page.size(), window.hasNext(), nextCursor, total);
+    }
 
+    /**
+     * Exporta los gastos filtrados recorriendo un cursor de la base de datos.
+     * 
+     * La transacción de solo lectura de la clase mantiene el cursor abierto
+     * mientras se escribe (en PostgreSQL el fetch size solo se aplica dentro
+     * de una transacción).
+     * 
+     * @param filter Filtros de fecha, categoría y método de pago
+     * @param format Formato del fichero
+     * @param out Salida donde escribir (no se cierra)
+     * @return Número de gastos exportados
+     * @throws IOException si falla la escritura
+     */
     @Override
-    public List<Map<String, Object>> getReportByCategory() {
-        List<Expense> allExpenses = expenseRepository.findAll();
-
-        // agrupar gastos por categoria
-        Map<CategoryEnum, List<Expense>> expensesByCategory = allExpenses.stream()
-                .collect(Collectors.groupingBy(Expense::getCategory));
-        // Crear lista de reportes por categoría
-        List<Map<String, Object>> report = new ArrayList<>();
-        
-        for (Map.Entry<CategoryEnum, List<Expense>> entry : expensesByCategory.entrySet()) {
-            CategoryEnum category = entry.getKey();
-            List<Expense> expenses = entry.getValue();
-            
-            // Calcular total sumando todos los montos de la categoría
-            BigDecimal totalAmount = expenses.stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // Crear el Map con los datos del reporte
-            Map<String, Object> categoryReport = new HashMap<>();
-            categoryReport.put("category", category.name());
-            categoryReport.put("totalAmount", totalAmount);
-            categoryReport.put("expenseCount", expenses.size());
-            
-            report.add(categoryReport);
+    public long exportExpenses(ExpenseFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        long exported = 0;
+        try (Stream<ExpenseExportRow> rows = expenseRepository.streamForExport(
+                        filter.startDate(), filter.endDate(), filter.category(), filter.paymentMethod());
+                ExpenseExportWriter writer = ExpenseExportWriter.of(format, out)) {
+            Iterator<ExpenseExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                exported++;
+            }
+            writer.finish();
         }
+        return exported;
+    }
 
-        // Ordenar por total descendente (mayor gasto primero)
-        report.sort((a, b) -> {
-            BigDecimal totalA = (BigDecimal) a.get("totalAmount");
-            BigDecimal totalB = (BigDecimal) b.get("totalAmount");
-            return totalB.compareTo(totalA);
-        });
-        
-        return report;
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Importa gastos desde un CSV por bloques (ver ExpenseImporter).
+     * 
+     * Se ejecuta fuera de la transacción de solo lectura de la clase:
+     * cada bloque confirma su propia transacción.
+     * 
+     * @param csv Contenido del fichero en UTF-8
+     * @return Resumen de la importación
+     * @throws IOException si falla la lectura
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExpenseImportReport importExpenses(InputStream csv) throws IOException {
+        return expenseImporter.importCsv(csv);
+    }
+
+    // ==================== REPORTES ====================
+
+    /**
+     * Genera reporte de gastos agrupados por categoría.
+     * Calcula el total y cuenta de gastos para cada categoría.
+     * 
+     * Se agrega sobre los acumulados diarios: el coste depende del número de
+     * días con gastos, no del número de gastos.
+     * 
+     * @return Lista de reportes por categoría (ordenada por total descendente)
+     */
+    @Override
+    public List<CategoryReport> getCategoryReport() {
+        // La consulta ya devuelve las categorías ordenadas por total descendente
+        return rollupRepository.sumByCategory().stream()
+                .map(CategoryReport::of)
+                .toList();
     }
 
     /**
      * Genera reporte de gastos en un período específico.
      * Calcula total, cantidad y promedio de gastos.
      * 
+     * Los meses cerrados se leen de los cierres mensuales (una fila por mes) y
+     * el resto de días de los acumulados diarios (ver ExpenseMonthCloser).
+     * 
      * @param startDate Fecha de inicio del período
      * @param endDate Fecha de fin del período
-     * @return Map con estadísticas del período:
-     *         - startDate: fecha inicial
-     *         - endDate: fecha final
-     *         - totalAmount: suma total de gastos
-     *         - expenseCount: cantidad de gastos
-     *         - averageExpense: promedio por gasto
+     * @return Reporte con total, cantidad y promedio por gasto del período
      */
     @Override
-    public Map<String, Object> getReportByPeriod(LocalDate startDate, LocalDate endDate) {
-        List<Expense> expenses = expenseRepository.findByDateBetweenOrderByDateDesc(startDate, endDate);
-        
-        // Calcular el total sumando todos los montos
-        BigDecimal totalAmount = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        int expenseCount = expenses.size();
+    public PeriodReport getPeriodReport(LocalDate startDate, LocalDate endDate) {
+        return toPeriodReport(startDate, endDate, monthCloser.sumBetween(startDate, endDate));
+    }
+
+    private static PeriodReport toPeriodReport(LocalDate startDate, LocalDate endDate, PeriodTotal period) {
+        BigDecimal totalAmount = period.total();
+        int expenseCount = (int) period.count();
         
-        // Calcular promedio (evitar división por cero)
+        // Calcular promedio en céntimos, 2 decimales con redondeo estándar (evitar división por cero)
         BigDecimal averageExpense = BigDecimal.ZERO;
         if (expenseCount > 0) {
-            averageExpense = totalAmount.divide(
-                    BigDecimal.valueOf(expenseCount),
-                    2,  // 2 decimales
-                    RoundingMode.HALF_UP  // Redondeo estándar
-            );
+            averageExpense = Cents.toAmount(Cents.divideHalfUp(Cents.of(totalAmount), expenseCount));
         }
         
-        // Construir el Map de respuesta
-        Map<String, Object> report = new HashMap<>();
-        report.put("startDate", startDate.toString());
-        report.put("endDate", endDate.toString());
-        report.put("totalAmount", totalAmount);
-        report.put("expenseCount", expenseCount);
-        report.put("averageExpense", averageExpense);
-        
-        return report;
+        return new PeriodReport(startDate, endDate, totalAmount, expenseCount, averageExpense);
     }
 
     /**
      * Genera reporte del mes actual con estadísticas completas.
      * Incluye total, cantidad, categoría más cara y más barata.
      * 
-     * @return Map con estadísticas del mes actual:
-     *         - month: nombre del mes
-     *         - year: año actual
-     *         - totalAmount: suma total de gastos
-     *         - expenseCount: cantidad de gastos
-     *         - mostExpensiveCategory: categoría con mayor gasto
-     *         - leastExpensiveCategory: categoría con menor gasto
+     * @return Reporte del mes actual (categorías null si no hay gastos)
      */
     @Override
-    public Map<String, Object> getCurrentMonthReport() {
+    public MonthReport getMonthReport() {
         // Calcular primer y último día del mes actual
         LocalDate now = LocalDate.now();
         LocalDate startOfMonth = now.withDayOfMonth(1);
         LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
         
-        // Obtener gastos del mes actual
-        List<Expense> monthExpenses = expenseRepository.findByDateBetweenOrderByDateDesc(
-                startOfMonth, 
-                endOfMonth
-        );
-        
-        // Calcular total del mes
-        BigDecimal totalAmount = monthExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Agrupar por categoría para encontrar la más y menos cara
-        Map<CategoryEnum, BigDecimal> totalsByCategory = monthExpenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Expense::getAmount,
-                                BigDecimal::add
-                        )
-                ));
+        // Totales del mes por categoría (como mucho una fila por categoría)
+        List<CategoryTotal> totalsByCategory = rollupRepository.sumByCategoryBetween(startOfMonth, endOfMonth);
         
-        // Encontrar categoría más cara y más barata
+        // Calcular total y cantidad del mes y la categoría más cara y más barata en una pasada (en céntimos)
+        long totalCents = 0;
+        long expenseCount = 0;
         CategoryEnum mostExpensive = null;
         CategoryEnum leastExpensive = null;
-        
-        if (!totalsByCategory.isEmpty()) {
-            // Categoría con mayor gasto
-            mostExpensive = totalsByCategory.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(null);
-            
-            // Categoría con menor gasto
-            leastExpensive = totalsByCategory.entrySet().stream()
-                    .min(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(null);
+        long mostExpensiveCents = Long.MIN_VALUE;
+        long leastExpensiveCents = Long.MAX_VALUE;
+        for (CategoryTotal total : totalsByCategory) {
+            long cents = Cents.of(total.totalAmount());
+            totalCents += cents;
+            expenseCount += total.expenseCount();
+            if (cents > mostExpensiveCents) {
+                mostExpensive = total.category();
+                mostExpensiveCents = cents;
+            }
+            if (cents < leastExpensiveCents) {
+                leastExpensive = total.category();
+                leastExpensiveCents = cents;
+            }
         }
         
-        // Construir el Map de respuesta
-        Map<String, Object> report = new HashMap<>();
-        report.put("month", now.getMonth().name());
-        report.put("year", now.getYear());
-        report.put("totalAmount", totalAmount);
-        report.put("expenseCount", monthExpenses.size());
-        report.put("mostExpensiveCategory", mostExpensive != null ? mostExpensive.name() : null);
-        report.put("leastExpensiveCategory", leastExpensive != null ? leastExpensive.name() : null);
-        
-        return report;
+        return new MonthReport(
+                now.getMonth(),
+                now.getYear(),
+                totalsByCategory.isEmpty() ? BigDecimal.ZERO : Cents.toAmount(totalCents),
+                (int) expenseCount,
+                mostExpensive,
+                leastExpensive
+        );
+    }
+
+    /**
+     * Resumen de un período con cuatro consultas a la vez (ver ReportQueryExecutor):
+     * 
+     * - Total y número de gastos (cierres mensuales y acumulados diarios)
+     * - Totales por categoría (acumulados diarios, como mucho 8 filas)
+     * - Totales por método de pago (acumulados diarios, como mucho 5 filas)
+     * - Gastos más altos (tabla de gastos, top-N del rango)
+     * 
+     * Sin transacción propia: cada consulta abre la suya en otro hilo y este
+     * hilo solo espera, sin retener una conexión.
+     * 
+     * @param startDate Primer día (null = día 1 del mes actual)
+     * @param endDate Último día (null = último día del mes actual)
+     * @param top Número de gastos más altos
+     * @return Resumen del período
+     * @throws IllegalArgumentException si el rango está invertido o top está fuera de límites
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExpenseOverview getOverview(LocalDate startDate, LocalDate endDate, int top) {
+        LocalDate now = LocalDate.now();
+        LocalDate start = startDate != null ? startDate : now.withDayOfMonth(1);
+        LocalDate end = endDate != null ? endDate : now.withDayOfMonth(now.lengthOfMonth());
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("startDate no puede ser posterior a endDate");
+        }
+        if (top < 1 || top > MAX_OVERVIEW_TOP) {
+            throw new IllegalArgumentException("top debe estar entre 1 y " + MAX_OVERVIEW_TOP);
+        }
+
+        CompletableFuture<PeriodTotal> period = reportQueries.submit(
+                () -> monthCloser.sumBetween(start, end));
+        CompletableFuture<List<CategoryTotal>> byCategory = reportQueries.submit(
+                () -> rollupRepository.sumByCategoryBetween(start, end));
+        CompletableFuture<List<PaymentMethodTotal>> byPaymentMethod = reportQueries.submit(
+                () -> rollupRepository.sumByPaymentMethodBetween(start, end));
+        CompletableFuture<List<Expense>> topExpenses = reportQueries.submit(
+                () -> expenseRepository.findByDateBetweenOrderByBaseAmountDescIdDesc(start, end, Limit.of(top)));
+
+        // Mayor gasto primero (como mucho una fila por categoría)
+        List<CategoryTotal> categories = new ArrayList<>(ReportQueryExecutor.join(byCategory));
+        categories.sort(Comparator.comparing(CategoryTotal::totalAmount).reversed());
+
+        return new ExpenseOverview(
+                toPeriodReport(start, end, ReportQueryExecutor.join(period)),
+                categories,
+                ReportQueryExecutor.join(byPaymentMethod),
+                ReportQueryExecutor.join(topExpenses)
+        );
+    }
+
+    /**
+     * Genera la serie temporal de gastos con relleno de huecos.
+     * 
+     * - Rango dentro de la caché (últimos meses): se suma en memoria, sin consultar la BD
+     * - Resto: GROUP BY date_trunc(...) en la base de datos sobre los acumulados diarios
+     * 
+     * @param granularity Tamaño de los intervalos
+     * @param split Cómo separar las series
+     * @param startDate Primer día (null = día 1 de hace 11 meses)
+     * @param endDate Último día (null = hoy)
+     * @return Serie temporal en formato columnar
+     * @throws IllegalArgumentException si el rango está invertido o tiene demasiados intervalos
+     */
+    @Override
+    public TimeSeriesReport getTimeSeries(TimeGranularity granularity, TimeSeriesSplit split,
+            LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null
+                ? startDate
+                : end.withDayOfMonth(1).minusMonths(DEFAULT_TIMESERIES_MONTHS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("startDate no puede ser posterior a endDate");
+        }
+
+        TimeSeriesAccumulator accumulator = new TimeSeriesAccumulator(
+                granularity, split, start, end, MAX_TIMESERIES_BUCKETS);
+
+        if (!timeSeriesCache.sumInto(accumulator, split, start, end)) {
+            for (BucketTotal total : rollupRepository.sumByBucket(granularity, split, start, end)) {
+                accumulator.add(
+                        accumulator.bucketOf(total.bucket()),
+                        split.seriesOf(total.key()),
+                        Cents.of(total.totalAmount()),
+                        total.expenseCount()
+                );
+            }
+        }
+        return accumulator.build();
+    }
+
+    /**
+     * Previsión del gasto a final de mes, en céntimos y por categoría:
+     * 
+     * - Gastado: acumulados del día 1 a hoy (una fila por categoría)
+     * - Recurrente: repeticiones de las plantillas en el mes, calculadas con sus
+     *   fechas (ya generadas = antes de generatedCount, pendientes = el resto)
+     * - Ritmo diario: (gastado - recurrente ya generado) / días transcurridos,
+     *   extendido a los días del mes. Así los gastos recurrentes no se cuentan
+     *   dos veces (un alquiler el día 1 no se proyecta como si fuera diario)
+     * 
+     * @return Previsión del mes actual
+     */
+    @Override
+    public SpendForecast getSpendForecast() {
+        return getSpendForecast(LocalDate.now());
+    }
+
+    /**
+     * Previsión del mes de today (con una fecha fija en las pruebas).
+     *
+     * @param today Último día transcurrido del mes
+     * @return Previsión del mes de today
+     */
+    SpendForecast getSpendForecast(LocalDate today) {
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+        LocalDate endOfMonth = today.withDayOfMonth(today.lengthOfMonth());
+        int daysElapsed = today.getDayOfMonth();
+        int daysInMonth = today.lengthOfMonth();
+
+        CategoryEnum[] categories = CategoryEnum.values();
+        long[] spent = new long[categories.length];
+        long[] recurring = new long[categories.length];
+        long[] pending = new long[categories.length];
+        for (CategoryTotal total : rollupRepository.sumByCategoryBetween(startOfMonth, today)) {
+            spent[total.category().ordinal()] = Cents.of(total.totalAmount());
+        }
+
+        for (RecurringExpense template : recurringRepository.findByEndDateIsNullOrEndDateGreaterThanEqual(startOfMonth)) {
+            int category = template.getCategory().ordinal();
+            // Ya generadas este mes: hacia atrás desde la última
+            for (long index = template.getGeneratedCount() - 1; index >= 0; index--) {
+                LocalDate date = template.occurrence(index);
+                if (date == null || date.isBefore(startOfMonth)) {
+                    break;
+                }
+                recurring[category] += baseCents(template, date);
+            }
+            // Pendientes hasta fin de mes: hacia delante desde la siguiente
+            for (long index = template.getGeneratedCount(); ; index++) {
+                LocalDate date = template.occurrence(index);
+                if (date == null || date.isAfter(endOfMonth)) {
+                    break;
+                }
+                pending[category] += baseCents(template, date);
+            }
+        }
+
+        List<SpendForecast.CategoryForecast> forecasts = new ArrayList<>();
+        long totalSpent = 0;
+        long totalProjected = 0;
+        for (CategoryEnum category : categories) {
+            int i = category.ordinal();
+            if (spent[i] == 0 && pending[i] == 0) {
+                continue;
+            }
+            // Las repeticiones se calculan con los valores actuales de la plantilla:
+            // si se cambió la cantidad, lo ya gastado puede ser menos
+            recurring[i] = Math.min(recurring[i], spent[i]);
+            long variable = spent[i] - recurring[i];
+            long projected = Cents.divideHalfUp(variable * daysInMonth, daysElapsed) + recurring[i] + pending[i];
+            totalSpent += spent[i];
+            totalProjected += projected;
+            forecasts.add(new SpendForecast.CategoryForecast(
+                    category,
+                    Cents.toAmount(spent[i]),
+                    Cents.toAmount(recurring[i]),
+                    Cents.toAmount(pending[i]),
+                    Cents.toAmount(projected)
+            ));
+        }
+
+        return new SpendForecast(
+                YearMonth.from(today),
+                today,
+                daysElapsed,
+                daysInMonth,
+                Cents.toAmount(totalSpent),
+                Cents.toAmount(totalProjected),
+                forecasts
+        );
+    }
+
+    private long baseCents(RecurringExpense template, LocalDate date) {
+        return Cents.of(currencyConverter.toBase(template.getAmount(), template.getCurrency(), date));
+    }
+
+    /**
+     * Reconstruye los acumulados diarios desde la tabla de gastos.
+     * Sin fechas se reconstruye todo el histórico.
+     * 
+     * @param startDate Primer día a reconstruir (null = todo el histórico)
+     * @param endDate Último día a reconstruir (null = todo el histórico)
+     * @return Número de filas de acumulados generadas
+     * @throws IllegalArgumentException si solo se indica una fecha o el rango está invertido
+     */
+    @Override
+    @Transactional
+    public int rebuildRollups(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return rollupMaintainer.rebuildAll();
+        }
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Indica startDate y endDate, o ninguna de las dos");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate no puede ser posterior a endDate");
+        }
+        return rollupMaintainer.rebuild(startDate, endDate);
     }
     
 }
@@ -0,0 +1,314 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchFilter;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Búsqueda de gastos por texto en la descripción, ordenada por relevancia.
+ *
+ * Se compara por trigramas (grupos de 3 caracteres de cada palabra): encuentra
+ * la descripción aunque el texto esté incompleto o tenga alguna errata
+ * ("mercadna" encuentra "Compra en Mercadona").
+ *
+ * Motor según la base de datos (se decide al arrancar):
+ * - PostgreSQL: extensión pg_trgm e índice GIN idx_expenses_description_trgm
+ *   sobre lower(description). JPA no sabe declarar un índice GIN con operadores,
+ *   así que se crea aquí (IF NOT EXISTS: solo la primera vez). La consulta es
+ *   ExpenseRepository.searchByDescription y no lee la tabla entera
+ * - PostgreSQL sin permiso para crear la extensión: solo LIKE en la base de datos
+ *   (ExpenseRepository.searchByDescriptionLike), sin erratas ni relevancia. Se
+ *   avisa en el log: hay que crear la extensión (CREATE EXTENSION pg_trgm con un
+ *   usuario administrador) y reiniciar. NO se usa el índice en memoria: con el
+ *   volumen de producción ocuparía la memoria de todas las descripciones y cada
+ *   instancia tendría el suyo
+ * - Otras bases de datos (H2 en los tests): índice invertido en memoria
+ *   (trigrama -> IDs de gastos) que puntúa de forma parecida a word_similarity
+ *   de pg_trgm. Se carga al arrancar y se mantiene DESPUÉS del commit de cada
+ *   alta/modificación/baja/importación, como ExpenseTimeSeriesCache; se recarga
+ *   tras reconstruir los acumulados (un cambio de tipo de cambio modifica las
+ *   cantidades en la moneda base)
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class ExpenseTextSearch {
+
+    // Mismo umbral por defecto que pg_trgm.word_similarity_threshold
+    private static final double SIMILARITY_THRESHOLD = 0.6;
+
+    static final String CREATE_EXTENSION_SQL = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+    static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_expenses_description_trgm "
+            + "ON expenses USING gin (lower(description) gin_trgm_ops)";
+
+    private final ExpenseRepository expenseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    enum Engine {
+        TRIGRAM,
+        LIKE,
+        MEMORY
+    }
+
+    // MEMORY hasta que initialize decide el motor
+    private volatile Engine engine = Engine.MEMORY;
+
+    // null hasta la primera carga (y siempre en PostgreSQL); se sustituye entero al recargar
+    private volatile MemoryIndex index;
+
+    public ExpenseTextSearch(
+            ExpenseRepository expenseRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.expenseRepository = expenseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Transacción de escritura: el DDL y la carga van siempre a la base de datos principal
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ==================== CARGA ====================
+
+    /**
+     * Prepara el índice de trigramas en PostgreSQL (o, sin pg_trgm, la búsqueda con LIKE);
+     * en otras bases de datos carga el índice en memoria.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        String database = newTransaction.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        if (!"PostgreSQL".equals(database)) {
+            reload();
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute(CREATE_EXTENSION_SQL);
+                jdbcTemplate.execute(CREATE_INDEX_SQL);
+            });
+            engine = Engine.TRIGRAM;
+            log.info("Búsqueda de texto con pg_trgm (idx_expenses_description_trgm)");
+        } catch (DataAccessException e) {
+            engine = Engine.LIKE;
+            log.warn("No se ha podido preparar pg_trgm, se busca solo con LIKE (sin erratas ni relevancia). "
+                    + "Crear la extensión con un usuario administrador y reiniciar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Los acumulados se han regenerado (p. ej. por un cambio de tipo de cambio): se recarga el índice.
+     */
+    @TransactionalEventListener
+    public void onRollupsRebuilt(ExpenseRollupsRebuiltEvent event) {
+        if (engine == Engine.MEMORY) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        MemoryIndex loaded = new MemoryIndex();
+        newTransaction.executeWithoutResult(status -> {
+            try (Stream<ExpenseSnapshot> expenses = expenseRepository.streamSnapshots()) {
+                expenses.forEach(loaded::add);
+            }
+        });
+        index = loaded;
+        log.info("Índice de búsqueda en memoria cargado: {} gastos", loaded.expenses.size());
+    }
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Aplica al índice en memoria el cambio de un gasto ya confirmado.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @TransactionalEventListener
+    public synchronized void onExpenseChanged(ExpenseChangedEvent event) {
+        MemoryIndex current = index;
+        if (current == null) {
+            return;
+        }
+        if (event.before() != null) {
+            current.remove(event.before());
+        }
+        if (event.after() != null) {
+            current.add(event.after());
+        }
+    }
+
+    /**
+     * Añade al índice en memoria un bloque de gastos importados ya confirmado.
+     *
+     * @param event -> Gastos insertados
+     */
+    @TransactionalEventListener
+    public synchronized void onExpensesImported(ExpensesImportedEvent event) {
+        MemoryIndex current = index;
+        if (current == null) {
+            return;
+        }
+        event.expenses().forEach(current::add);
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Busca los gastos que contienen el texto o se parecen a él.
+     *
+     * @param filter Texto y filtros opcionales
+     * @param offset Resultados a saltar
+     * @param limit Resultados a devolver
+     * @return IDs con su relevancia, de más a menos relevante (a igual relevancia, ID descendente).
+     *         Vacía si el índice en memoria aún no se ha cargado
+     */
+    List<Match> search(ExpenseSearchFilter filter, int offset, int limit) {
+        String pattern = "%" + escapeLike(filter.query()) + "%";
+        String category = filter.category() != null ? filter.category().name() : null;
+        List<Object[]> rows;
+        switch (engine) {
+            case TRIGRAM -> rows = expenseRepository.searchByDescription(filter.query(), pattern,
+                    filter.minAmount(), filter.maxAmount(), category, filter.startDate(), filter.endDate(),
+                    offset, limit);
+            case LIKE -> rows = expenseRepository.searchByDescriptionLike(pattern,
+                    filter.minAmount(), filter.maxAmount(), category, filter.startDate(), filter.endDate(),
+                    offset, limit);
+            default -> {
+                MemoryIndex current = index;
+                return current != null ? current.search(filter, offset, limit) : List.of();
+            }
+        }
+        List<Match> matches = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            matches.add(new Match(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue()));
+        }
+        return matches;
+    }
+
+    // \ es el carácter de escape por defecto de LIKE en PostgreSQL
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Trigramas de un texto como los calcula pg_trgm: cada palabra (letras y
+     * dígitos) en minúsculas, con dos espacios delante y uno detrás.
+     * "Pan" -> {"  p", " pa", "pan", "an "}
+     */
+    static Set<String> trigramsOf(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    record Match(Long id, double relevance) {
+    }
+
+    /**
+     * Índice invertido en memoria: gastos por ID y, por cada trigrama, los IDs
+     * de los gastos cuya descripción lo contiene.
+     */
+    private static final class MemoryIndex {
+
+        private final Map<Long, ExpenseSnapshot> expenses = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        private void add(ExpenseSnapshot expense) {
+            expenses.put(expense.id(), expense);
+            for (String trigram : trigramsOf(expense.description())) {
+                postings.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(expense.id());
+            }
+        }
+
+        private void remove(ExpenseSnapshot expense) {
+            expenses.remove(expense.id());
+            for (String trigram : trigramsOf(expense.description())) {
+                Set<Long> ids = postings.get(trigram);
+                if (ids != null) {
+                    ids.remove(expense.id());
+                }
+            }
+        }
+
+        /**
+         * Cuenta, por gasto, cuántos trigramas del texto contiene su descripción
+         * (solo se visitan los gastos que comparten alguno) y puntúa con
+         * compartidos / trigramas del texto, la aproximación de word_similarity.
+         */
+        private List<Match> search(ExpenseSearchFilter filter, int offset, int limit) {
+            Set<String> queryTrigrams = trigramsOf(filter.query());
+            Map<Long, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (Long id : postings.getOrDefault(trigram, Set.of())) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (Map.Entry<Long, Integer> candidate : shared.entrySet()) {
+                ExpenseSnapshot expense = expenses.get(candidate.getKey());
+                if (expense == null || !matchesFilters(expense, filter)) {
+                    continue;
+                }
+                double relevance = (double) candidate.getValue() / queryTrigrams.size();
+                if (relevance >= SIMILARITY_THRESHOLD
+                        || expense.description().toLowerCase(Locale.ROOT).contains(filter.query())) {
+                    matches.add(new Match(expense.id(), relevance));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(Match::relevance).reversed()
+                    .thenComparing(Match::id, Comparator.reverseOrder()));
+            return matches.subList(Math.min(offset, matches.size()), Math.min(offset + limit, matches.size()));
+        }
+
+        private static boolean matchesFilters(ExpenseSnapshot expense, ExpenseSearchFilter filter) {
+            boolean amountFilter = filter.minAmount() != null || filter.maxAmount() != null;
+            if (amountFilter && expense.baseAmount() == null) {
+                return false;
+            }
+            return (filter.minAmount() == null || expense.baseAmount().compareTo(filter.minAmount()) >= 0)
+                    && (filter.maxAmount() == null || expense.baseAmount().compareTo(filter.maxAmount()) <= 0)
+                    && (filter.category() == null || expense.category() == filter.category())
+                    && (filter.startDate() == null || !expense.date().isBefore(filter.startDate()))
+                    && (filter.endDate() == null || !expense.date().isAfter(filter.endDate()));
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseDailyRollup;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché en memoria, en formato columnar, de los acumulados diarios de los últimos N meses.
+ *
+ * Las gráficas del dashboard piden casi siempre el último año: esos rangos se
+ * responden desde aquí sin consultar la base de datos.
+ *
+ * Estructura:
+ * - Una columna por grupo (categoría x método de pago = 40 grupos)
+ * - Cada columna tiene una posición por día de la ventana con céntimos y cantidad
+ *   (12 meses ~ 40 x 366 x 2 longs ~ 230 KB)
+ *
+ * Mantenimiento:
+ * - Se carga al arrancar desde expense_daily_rollups
+ * - Cada alta/modificación/baja/importación se aplica DESPUÉS del commit (si la transacción
+ *   se deshace, la caché no cambia)
+ * - Se recarga al cambiar de mes (la ventana avanza) y tras reconstruir los acumulados
+ *
+ * Conciliación: cada expenses.reports.timeseries.reconcile-interval (10 min por defecto)
+ * la ventana se vuelve a cargar desde expense_daily_rollups. Un gasto confirmado
+ * mientras se cargaba la ventana puede quedar sumado dos veces (en la carga y en su
+ * evento); la conciliación lo corrige y avisa en el log.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class ExpenseTimeSeriesCache {
+
+    private static final int CATEGORIES = CategoryEnum.values().length;
+    private static final int PAYMENT_METHODS = PaymentMethodEnum.values().length;
+    private static final int GROUPS = CATEGORIES * PAYMENT_METHODS;
+
+    private final ExpenseRollupRepository rollupRepository;
+    private final int months;
+    private final TransactionTemplate newTransaction;
+
+    // null hasta la primera carga; se sustituye entera al recargar
+    private volatile Window window;
+
+    public ExpenseTimeSeriesCache(
+            ExpenseRollupRepository rollupRepository,
+            @Value("${expenses.reports.timeseries.cache-months:12}") int months,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.months = months;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ==================== CARGA ====================
+
+    /**
+     * Carga la ventana [día 1 de hace N-1 meses, fin del mes actual].
+     * 
+     * En una transacción nueva de escritura, no de solo lectura: con réplica
+     * (ver ReplicaDataSourceConfig) se lee siempre de la base de datos principal.
+     * Una copia con retraso dejaría la caché desviada, porque después solo se
+     * le aplican los cambios.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        reload(false);
+    }
+
+    /**
+     * Vuelve a cargar la ventana y avisa si la memoria se había desviado.
+     */
+    @Scheduled(fixedDelayString = "${expenses.reports.timeseries.reconcile-interval:PT10M}",
+            initialDelayString = "${expenses.reports.timeseries.reconcile-interval:PT10M}")
+    public void reconcile() {
+        reload(true);
+    }
+
+    private synchronized void reload(boolean warnOnDrift) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.withDayOfMonth(1).minusMonths(months - 1L);
+        LocalDate end = today.withDayOfMonth(today.lengthOfMonth());
+        Window loaded = new Window(start, end);
+        for (ExpenseDailyRollup rollup : newTransaction.execute(status ->
+                rollupRepository.findByIdDateBetween(start, end))) {
+            loaded.add(rollup.getId().getDate(), rollup.getId().getCategory(), rollup.getId().getPaymentMethod(),
+                    Cents.of(rollup.getTotalAmount()), rollup.getExpenseCount());
+        }
+        Window previous = window;
+        if (warnOnDrift && previous != null && previous.start.equals(start) && previous.end.equals(end)) {
+            int drifted = previous.countDifferences(loaded);
+            if (drifted > 0) {
+                log.warn("Caché de series temporales desviada en {} posiciones (día x grupo), corregida desde la BD",
+                        drifted);
+            }
+        }
+        window = loaded;
+        log.info("Caché de series temporales cargada: {} a {}", start, end);
+    }
+
+    /**
+     * Los acumulados se han regenerado desde la tabla de gastos: se recarga la ventana.
+     */
+    @TransactionalEventListener
+    public void onRollupsRebuilt(ExpenseRollupsRebuiltEvent event) {
+        reload();
+    }
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Aplica el cambio de un gasto ya confirmado en la base de datos.
+     *
+     * @param event -> Valores del gasto antes y después del cambio
+     */
+    @TransactionalEventListener
+    public synchronized void onExpenseChanged(ExpenseChangedEvent event) {
+        Window current = window;
+        if (current == null) {
+            return;
+        }
+        if (event.before() != null) {
+            apply(current, event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(current, event.after(), 1);
+        }
+    }
+
+    /**
+     * Aplica un bloque de gastos importados ya confirmado en la base de datos.
+     *
+     * @param event -> Gastos insertados
+     */
+    @TransactionalEventListener
+    public synchronized void onExpensesImported(ExpensesImportedEvent event) {
+        Window current = window;
+        if (current == null) {
+            return;
+        }
+        for (ExpenseSnapshot expense : event.expenses()) {
+            apply(current, expense, 1);
+        }
+    }
+
+    private static void apply(Window current, ExpenseSnapshot expense, int sign) {
+        if (current.contains(expense.date())) {
+            current.add(expense.date(), expense.category(), expense.paymentMethod(),
+                    sign * Cents.of(expense.baseAmount()), sign);
+        }
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Suma los días del rango en el acumulador, recorriendo cada columna en orden.
+     * Si la ventana se ha quedado atrás (cambio de mes) se recarga primero.
+     *
+     * @param accumulator Serie temporal a rellenar
+     * @param split Cómo se separan las series
+     * @param startDate Primer día del rango
+     * @param endDate Último día del rango
+     * @return false si el rango no está completo dentro de la ventana (no se suma nada)
+     */
+    boolean sumInto(TimeSeriesAccumulator accumulator, TimeSeriesSplit split, LocalDate startDate, LocalDate endDate) {
+        Window current = window;
+        if (current != null && LocalDate.now().isAfter(current.end)) {
+            reload();
+            current = window;
+        }
+        if (current == null || !current.contains(startDate) || !current.contains(endDate)) {
+            return false;
+        }
+        int firstDay = current.dayOf(startDate);
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        // Intervalo de cada día del rango (se calcula una sola vez para todas las columnas)
+        int[] bucketOfDay = new int[days];
+        LocalDate day = startDate;
+        for (int d = 0; d < days; d++) {
+            bucketOfDay[d] = accumulator.bucketOf(day);
+            day = day.plusDays(1);
+        }
+
+        CategoryEnum[] categories = CategoryEnum.values();
+        PaymentMethodEnum[] paymentMethods = PaymentMethodEnum.values();
+        for (int group = 0; group < GROUPS; group++) {
+            int series = split.seriesOf(categories[group / PAYMENT_METHODS], paymentMethods[group % PAYMENT_METHODS]);
+            int offset = group * current.days + firstDay;
+            for (int d = 0; d < days; d++) {
+                long count = current.counts.get(offset + d);
+                long cents = current.cents.get(offset + d);
+                if (count != 0 || cents != 0) {
+                    accumulator.add(bucketOfDay[d], series, cents, count);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ventana de días cargada: dos arrays planos [grupo * días + día].
+     */
+    private static final class Window {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final int days;
+        private final AtomicLongArray cents;
+        private final AtomicLongArray counts;
+
+        private Window(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+            this.days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+            this.cents = new AtomicLongArray(GROUPS * days);
+            this.counts = new AtomicLongArray(GROUPS * days);
+        }
+
+        private boolean contains(LocalDate date) {
+            return !date.isBefore(start) && !date.isAfter(end);
+        }
+
+        private int dayOf(LocalDate date) {
+            return (int) ChronoUnit.DAYS.between(start, date);
+        }
+
+        private int countDifferences(Window other) {
+            int differences = 0;
+            for (int i = 0; i < cents.length(); i++) {
+                if (cents.get(i) != other.cents.get(i) || counts.get(i) != other.counts.get(i)) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+
+        private void add(LocalDate date, CategoryEnum category, PaymentMethodEnum paymentMethod,
+                long amountCents, long count) {
+            int index = (category.ordinal() * PAYMENT_METHODS + paymentMethod.ordinal()) * days + dayOf(date);
+            cents.addAndGet(index, amountCents);
+            counts.addAndGet(index, count);
+        }
+    }
+}
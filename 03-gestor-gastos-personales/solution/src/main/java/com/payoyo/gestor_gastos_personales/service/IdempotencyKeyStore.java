@@ -0,0 +1,300 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.IdempotencyKey;
+import com.payoyo.gestor_gastos_personales.exceptions.IdempotencyKeyConflictException;
+import com.payoyo.gestor_gastos_personales.repository.IdempotencyKeyRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claves Idempotency-Key de las altas de gastos y la respuesta de cada una.
+ *
+ * Las apps móviles reintentan POST /api/expenses cuando vence el timeout: si
+ * el reintento trae la misma clave se devuelve el gasto de la petición
+ * original, sin crear otro ni consultar la tabla de gastos.
+ *
+ * Memoria (siempre):
+ * - STRIPES mapas independientes, cada uno con su propio cerrojo: la clave
+ *   elige su mapa por hash, así que dos peticiones con claves distintas casi
+ *   nunca se esperan. Buscar una clave es O(1)
+ * - Cada mapa guarda las claves por orden de llegada. Todas caducan tras el
+ *   mismo ttl, así que las caducadas están siempre al principio y se borran
+ *   al pasar (O(1) por clave). Si un mapa supera max-keys / STRIPES se olvidan
+ *   las más antiguas aunque no hayan caducado
+ * - Nunca se olvida una clave reservada cuya alta sigue en curso: un reintento
+ *   recibiría una reserva nueva y crearía un segundo gasto. La reserva sale del
+ *   mapa cuando termina su transacción
+ * - Una clave se reserva al empezar el alta (un segundo intento simultáneo
+ *   recibe un 409) y solo guarda la respuesta tras el commit. Si el alta se
+ *   deshace, la reserva se libera
+ *
+ * Tabla idempotency_keys (opcional, expenses.idempotency.persistent=true): la
+ * respuesta también se guarda en la misma transacción que el gasto. Las claves
+ * sobreviven a un reinicio y se comparten entre varias instancias (la clave
+ * primaria impide que dos instancias creen el mismo gasto).
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyStore {
+
+    // Potencia de 2: la clave elige su mapa con una máscara
+    private static final int STRIPES = 64;
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final int capacityPerStripe;
+    private final TransactionTemplate newTransaction;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public IdempotencyKeyStore(
+            IdempotencyKeyRepository keyRepository,
+            ObjectMapper objectMapper,
+            @Value("${expenses.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${expenses.idempotency.max-keys:100000}") int maxKeys,
+            @Value("${expenses.idempotency.persistent:false}") boolean persistent,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.keyRepository = keyRepository;
+        // baseAmount es de solo lectura en la API, pero al leer una respuesta guardada hay que rellenarlo
+        this.objectMapper = objectMapper.copy().addMixIn(Expense.class, StoredExpense.class);
+        this.ttl = ttl;
+        this.persistent = persistent;
+        this.capacityPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // ==================== ALTA ====================
+
+    /**
+     * Reserva la clave para un alta nueva o devuelve la respuesta de la petición original.
+     *
+     * Se llama dentro de la transacción del alta: la reserva se libera sola si
+     * la transacción se deshace.
+     *
+     * @param key Valor de la cabecera Idempotency-Key
+     * @param requestHash Huella del gasto pedido
+     * @return Gasto de la petición original (vacío si la clave es nueva y queda reservada)
+     * @throws IllegalArgumentException si la clave está vacía o es demasiado larga
+     * @throws IdempotencyKeyConflictException si la petición original sigue en curso o era otro gasto
+     */
+    public Optional<Expense> claim(String key, long requestHash) {
+        if (key.isBlank() || key.length() > IdempotencyKey.MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key debe tener entre 1 y " + IdempotencyKey.MAX_LENGTH + " caracteres");
+        }
+        Stripe stripe = stripeOf(key);
+        Entry original = stripe.get(key);
+        if (original == null && persistent) {
+            // Fuera del cerrojo: una consulta no debe bloquear las demás claves del mapa
+            original = load(key);
+            if (original != null) {
+                Entry cached = stripe.putIfAbsent(key, original);
+                original = cached != null ? cached : original;
+            }
+        }
+        if (original == null) {
+            Entry claimed = new Entry(requestHash, System.nanoTime() + ttl.toNanos(), null);
+            original = stripe.putIfAbsent(key, claimed);
+            if (original == null) {
+                TransactionSynchronizationManager.registerSynchronization(new Release(stripe, key, claimed));
+                return Optional.empty();
+            }
+        }
+        if (original.requestHash != requestHash) {
+            throw new IdempotencyKeyConflictException(
+                    "La Idempotency-Key " + key + " ya se usó con otro gasto");
+        }
+        if (original.response == null) {
+            throw new IdempotencyKeyConflictException(
+                    "La petición con Idempotency-Key " + key + " aún se está procesando");
+        }
+        return Optional.of(original.response);
+    }
+
+    /**
+     * Guarda la respuesta de un alta reservada con claim.
+     *
+     * En memoria se guarda tras el commit; en la tabla (si está activa), en la
+     * transacción del alta.
+     *
+     * @param key Clave reservada
+     * @param requestHash Huella del gasto pedido
+     * @param expense Gasto creado
+     * @throws IdempotencyKeyConflictException si otra instancia ha guardado la misma clave
+     */
+    public void record(String key, long requestHash, Expense expense) {
+        Entry claimed = stripeOf(key).get(key);
+        if (claimed != null && claimed.response == null) {
+            claimed.pending = expense;
+        }
+        if (persistent) {
+            try {
+                keyRepository.saveAndFlush(IdempotencyKey.builder()
+                        .key(key)
+                        .requestHash(requestHash)
+                        .responseBody(objectMapper.writeValueAsString(expense))
+                        .expiresAt(LocalDateTime.now().plus(ttl))
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                throw new IdempotencyKeyConflictException(
+                        "La petición con Idempotency-Key " + key + " ya se ha procesado en otra instancia");
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // ==================== TABLA ====================
+
+    /**
+     * Busca la clave en la tabla. Las caducadas se ignoran (se borran con purge).
+     */
+    private Entry load(String key) {
+        Optional<IdempotencyKey> stored = keyRepository.findById(key);
+        if (stored.isEmpty() || stored.get().getExpiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        try {
+            long remaining = Duration.between(LocalDateTime.now(), stored.get().getExpiresAt()).toNanos();
+            return new Entry(stored.get().getRequestHash(), System.nanoTime() + remaining,
+                    objectMapper.readValue(stored.get().getResponseBody(), Expense.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Borra de la tabla las claves caducadas cada expenses.idempotency.purge-interval.
+     */
+    @Scheduled(fixedDelayString = "${expenses.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${expenses.idempotency.purge-interval:PT1H}")
+    public void purge() {
+        if (!persistent) {
+            return;
+        }
+        Integer deleted = newTransaction.execute(status -> keyRepository.deleteExpired(LocalDateTime.now()));
+        log.info("Claves Idempotency-Key caducadas borradas: {}", deleted);
+    }
+
+    // ==================== MEMORIA ====================
+
+    private Stripe stripeOf(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Respuesta de una clave: null mientras el alta está en curso.
+     * pending es el gasto creado a la espera del commit.
+     */
+    private static final class Entry {
+
+        private final long requestHash;
+        private final long expiresAt;
+        private volatile Expense response;
+        private volatile Expense pending;
+
+        private Entry(long requestHash, long expiresAt, Expense response) {
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Un mapa de claves con su cerrojo, por orden de llegada.
+     */
+    private final class Stripe {
+
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+        private synchronized Entry get(String key) {
+            evict();
+            return entries.get(key);
+        }
+
+        /**
+         * @return Entrada que ya tenía la clave (null si se ha añadido la nueva)
+         */
+        private synchronized Entry putIfAbsent(String key, Entry entry) {
+            evict();
+            return entries.putIfAbsent(key, entry);
+        }
+
+        private synchronized void remove(String key, Entry entry) {
+            entries.remove(key, entry);
+        }
+
+        /**
+         * Borra las claves caducadas y, si sobran, las más antiguas, saltando
+         * las reservas en curso (sin respuesta todavía).
+         */
+        private void evict() {
+            long now = System.nanoTime();
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                Entry entry = oldest.next();
+                if (now - entry.expiresAt < 0 && entries.size() <= capacityPerStripe) {
+                    break;
+                }
+                if (entry.response != null) {
+                    oldest.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tras el commit la clave pasa a tener respuesta; si el alta se deshace, se libera.
+     */
+    private record Release(Stripe stripe, String key, Entry entry) implements TransactionSynchronization {
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED && entry.pending != null) {
+                entry.response = entry.pending;
+            } else {
+                stripe.remove(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Mixin de Jackson para leer las respuestas guardadas con baseAmount.
+     */
+    private abstract static class StoredExpense {
+
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private BigDecimal baseAmount;
+    }
+}
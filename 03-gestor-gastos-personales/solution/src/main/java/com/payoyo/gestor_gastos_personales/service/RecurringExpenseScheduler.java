@@ -0,0 +1,193 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.RecurringExpenseRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Convierte en gastos las repeticiones de las plantillas recurrentes.
+ *
+ * - Se ejecuta cada día al empezar (expenses.recurring.cron, 00:05 por defecto):
+ *   cualquier cambio de semana, mes o año cae en una de esas ejecuciones
+ * - También al arrancar, para crear las repeticiones que se perdieron con la
+ *   aplicación parada
+ * - Por bloques de 500 plantillas con repeticiones pendientes (índice sobre
+ *   next_date), cada bloque en su transacción: los gastos se insertan por
+ *   lotes JDBC y se publica un ExpensesImportedEvent, igual que al importar
+ * - Los gastos y el avance de la plantilla van en la misma transacción: una
+ *   repetición nunca se genera dos veces
+ *
+ * Si una repetición no se puede convertir a la moneda base (falta el tipo de
+ * cambio) la plantilla se deja como está y se reintenta en la siguiente ejecución.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+@Slf4j
+public class RecurringExpenseScheduler {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO expenses "
+            + "(description, amount, currency, base_amount, category, date, payment_method, "
+            + "created_at, updated_at, dedup_hash) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final RecurringExpenseRepository recurringRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrencyConverter currencyConverter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RecurringExpenseScheduler(
+            RecurringExpenseRepository recurringRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            CurrencyConverter currencyConverter,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.recurringRepository = recurringRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.currencyConverter = currencyConverter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        materializeDue();
+    }
+
+    /**
+     * Genera todas las repeticiones pendientes hasta hoy.
+     *
+     * @return Número de gastos creados
+     */
+    @Scheduled(cron = "${expenses.recurring.cron:0 5 0 * * *}")
+    public int materializeDue() {
+        return materializeDue(LocalDate.now());
+    }
+
+    /**
+     * Genera todas las repeticiones pendientes hasta today (con una fecha fija en las pruebas).
+     *
+     * @param today Fecha hasta la que generar
+     * @return Número de gastos creados
+     */
+    int materializeDue(LocalDate today) {
+        long afterId = 0;
+        int created = 0;
+        Batch batch;
+        do {
+            long from = afterId;
+            batch = transactionTemplate.execute(status -> materializeBatch(today, from));
+            created += batch.created();
+            afterId = batch.lastId();
+        } while (batch.templates() == BATCH_SIZE);
+
+        if (created > 0) {
+            log.info("Gastos recurrentes generados hasta {}: {}", today, created);
+        }
+        return created;
+    }
+
+    private Batch materializeBatch(LocalDate today, long afterId) {
+        List<RecurringExpense> due = recurringRepository
+                .findByNextDateLessThanEqualAndIdGreaterThanOrderByIdAsc(today, afterId, Limit.of(BATCH_SIZE));
+        List<Expense> expenses = new ArrayList<>();
+        for (RecurringExpense template : due) {
+            try {
+                collectDue(template, today, expenses);
+            } catch (IllegalArgumentException e) {
+                log.warn("Gasto recurrente {} pendiente: {}", template.getId(), e.getMessage());
+            }
+        }
+        insert(expenses);
+        return new Batch(due.size(), due.isEmpty() ? afterId : due.get(due.size() - 1).getId(), expenses.size());
+    }
+
+    /**
+     * Genera las repeticiones pendientes de una plantilla dentro de la
+     * transacción en curso (al crearla o modificarla).
+     *
+     * @param template Plantilla gestionada por JPA
+     * @param today Fecha hasta la que generar
+     * @return Número de gastos creados
+     * @throws IllegalArgumentException si alguna repetición no se puede convertir a la moneda base
+     */
+    int materialize(RecurringExpense template, LocalDate today) {
+        List<Expense> expenses = new ArrayList<>();
+        collectDue(template, today, expenses);
+        insert(expenses);
+        return expenses.size();
+    }
+
+    /**
+     * Añade a expenses un gasto por cada repetición hasta today y avanza la
+     * plantilla. Si una conversión falla no se añade ni se avanza nada.
+     */
+    private void collectDue(RecurringExpense template, LocalDate today, List<Expense> expenses) {
+        List<Expense> generated = new ArrayList<>();
+        long index = template.getGeneratedCount();
+        LocalDate date = template.getNextDate();
+        while (date != null && !date.isAfter(today)) {
+            generated.add(Expense.builder()
+                    .description(template.getDescription())
+                    .amount(template.getAmount())
+                    .currency(template.getCurrency())
+                    .baseAmount(currencyConverter.toBase(template.getAmount(), template.getCurrency(), date))
+                    .category(template.getCategory())
+                    .paymentMethod(template.getPaymentMethod())
+                    .date(date)
+                    .build());
+            index++;
+            date = template.occurrence(index);
+        }
+        expenses.addAll(generated);
+        template.setGeneratedCount(index);
+        template.setNextDate(date);
+    }
+
+    private void insert(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ExpenseBatchInsert.insert(jdbcTemplate, INSERT_SQL, expenses, BATCH_SIZE, (ps, expense) -> {
+            ps.setString(1, expense.getDescription());
+            ps.setBigDecimal(2, expense.getAmount());
+            ps.setString(3, expense.getCurrency());
+            ps.setBigDecimal(4, expense.getBaseAmount());
+            ps.setString(5, expense.getCategory().name());
+            ps.setObject(6, expense.getDate());
+            ps.setString(7, expense.getPaymentMethod().name());
+            ps.setObject(8, now);
+            ps.setObject(9, now);
+            ps.setLong(10, Expense.dedupHashOf(
+                    expense.getDate(), expense.getAmount(), expense.getCurrency(), expense.getDescription()));
+        }, Expense::setId);
+        eventPublisher.publishEvent(new ExpensesImportedEvent(expenses.stream().map(ExpenseSnapshot::of).toList()));
+    }
+
+    private record Batch(int templates, long lastId, int created) {
+    }
+}
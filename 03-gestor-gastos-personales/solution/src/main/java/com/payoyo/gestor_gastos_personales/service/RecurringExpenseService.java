@@ -0,0 +1,63 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+
+/**
+ * Servicio de plantillas de gastos recurrentes.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+public interface RecurringExpenseService {
+
+    /**
+     * Obtiene todas las plantillas, las de repetición más próxima primero.
+     * Endpoint: GET /api/recurring-expenses
+     * 
+     * @return Plantillas
+     */
+    List<RecurringExpense> getRecurringExpenses();
+
+    /**
+     * Obtiene una plantilla por su ID.
+     * Endpoint: GET /api/recurring-expenses/{id}
+     * 
+     * @param id ID de la plantilla
+     * @return Plantilla
+     * @throws com.payoyo.gestor_gastos_personales.exceptions.RecurringExpenseNotFoundException si no existe
+     */
+    RecurringExpense getRecurringExpense(Long id);
+
+    /**
+     * Crea una plantilla y genera ya las repeticiones con fecha hasta hoy.
+     * Endpoint: POST /api/recurring-expenses
+     * 
+     * @param recurringExpense Plantilla a crear
+     * @return Plantilla creada
+     * @throws IllegalArgumentException si endDate es anterior a startDate o falta el tipo de cambio
+     */
+    RecurringExpense createRecurringExpense(RecurringExpense recurringExpense);
+
+    /**
+     * Modifica una plantilla. Los gastos ya generados no cambian: la nueva
+     * programación continúa después de hoy (o del último gasto generado).
+     * Endpoint: PUT /api/recurring-expenses/{id}
+     * 
+     * @param id ID de la plantilla
+     * @param recurringExpense Nuevos valores
+     * @return Plantilla modificada
+     * @throws com.payoyo.gestor_gastos_personales.exceptions.RecurringExpenseNotFoundException si no existe
+     * @throws IllegalArgumentException si endDate es anterior a startDate o falta el tipo de cambio
+     */
+    RecurringExpense updateRecurringExpense(Long id, RecurringExpense recurringExpense);
+
+    /**
+     * Elimina una plantilla. Los gastos ya generados se conservan.
+     * Endpoint: DELETE /api/recurring-expenses/{id}
+     * 
+     * @param id ID de la plantilla
+     * @throws com.payoyo.gestor_gastos_personales.exceptions.RecurringExpenseNotFoundException si no existe
+     */
+    void deleteRecurringExpense(Long id);
+}
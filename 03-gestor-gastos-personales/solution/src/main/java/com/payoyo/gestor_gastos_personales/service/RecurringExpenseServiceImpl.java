@@ -0,0 +1,113 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+import com.payoyo.gestor_gastos_personales.exceptions.RecurringExpenseNotFoundException;
+import com.payoyo.gestor_gastos_personales.repository.RecurringExpenseRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación del servicio de plantillas de gastos recurrentes.
+ * 
+ * Las repeticiones con fecha pasada se generan en la misma transacción que el
+ * alta o la modificación; las siguientes las genera RecurringExpenseScheduler.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RecurringExpenseServiceImpl implements RecurringExpenseService {
+
+    private final RecurringExpenseRepository recurringRepository;
+    private final RecurringExpenseScheduler scheduler;
+    private final CurrencyConverter currencyConverter;
+
+    @Override
+    public List<RecurringExpense> getRecurringExpenses() {
+        return recurringRepository.findAllByOrderByNextDateAscIdAsc();
+    }
+
+    @Override
+    public RecurringExpense getRecurringExpense(Long id) {
+        return findRecurringExpense(id);
+    }
+
+    @Override
+    @Transactional
+    public RecurringExpense createRecurringExpense(RecurringExpense recurringExpense) {
+        RecurringExpense saved = RecurringExpense.builder().build();
+        apply(saved, recurringExpense);
+        saved.setNextDate(saved.occurrence(0));
+        saved = recurringRepository.save(saved);
+
+        scheduler.materialize(saved, LocalDate.now());
+        return saved;
+    }
+
+    /**
+     * Si la plantilla ya generó algún gasto, la nueva programación empieza en
+     * la primera repetición posterior a hoy y al último gasto generado: mover
+     * el alquiler del día 1 al 5 no vuelve a cobrar el mes en curso.
+     * Si aún no generó ninguno se generan las repeticiones pasadas, como al crearla.
+     */
+    @Override
+    @Transactional
+    public RecurringExpense updateRecurringExpense(Long id, RecurringExpense recurringExpense) {
+        RecurringExpense saved = findRecurringExpense(id);
+        LocalDate today = LocalDate.now();
+        LocalDate resumeAfter = null;
+        if (saved.getGeneratedCount() > 0) {
+            LocalDate lastGenerated = saved.getFrequency()
+                    .occurrence(saved.getStartDate(), saved.getGeneratedCount() - 1);
+            resumeAfter = lastGenerated.isAfter(today) ? lastGenerated : today;
+        }
+        apply(saved, recurringExpense);
+
+        long index = 0;
+        LocalDate next = saved.occurrence(0);
+        while (resumeAfter != null && next != null && !next.isAfter(resumeAfter)) {
+            next = saved.occurrence(++index);
+        }
+        saved.setGeneratedCount(index);
+        saved.setNextDate(next);
+
+        scheduler.materialize(saved, today);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteRecurringExpense(Long id) {
+        recurringRepository.delete(findRecurringExpense(id));
+    }
+
+    private void apply(RecurringExpense target, RecurringExpense values) {
+        if (values.getEndDate() != null && values.getEndDate().isBefore(values.getStartDate())) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+        String currency = currencyConverter.currencyOf(values.getCurrency());
+        // Falla ya si la moneda no tiene tipo de cambio, no en cada ejecución del planificador
+        currencyConverter.toBase(values.getAmount(), currency, values.getStartDate());
+
+        target.setDescription(values.getDescription());
+        target.setAmount(values.getAmount());
+        target.setCurrency(currency);
+        target.setCategory(values.getCategory());
+        target.setPaymentMethod(values.getPaymentMethod());
+        target.setFrequency(values.getFrequency());
+        target.setStartDate(values.getStartDate());
+        target.setEndDate(values.getEndDate());
+    }
+
+    private RecurringExpense findRecurringExpense(Long id) {
+        return recurringRepository.findById(id)
+                .orElseThrow(() -> new RecurringExpenseNotFoundException(id));
+    }
+}
@@ -0,0 +1,78 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payoyo.gestor_gastos_personales.config.ReadYourWritesContext;
+
+/**
+ * Ejecuta consultas de reportes independientes a la vez.
+ *
+ * - Un hilo virtual por consulta: esperar a la base de datos no ocupa un hilo
+ *   del sistema operativo
+ * - Cada consulta en su propia transacción de solo lectura, así que usa su
+ *   propia conexión del pool (las consultas de una misma transacción irían en serie)
+ * - El hilo que llama no debe tener una transacción abierta: se quedaría con
+ *   una conexión sin usarla mientras espera
+ * - Cada consulta lee de la misma base de datos que leería el hilo que llama
+ *   (ver ReadYourWritesContext): quien acaba de escribir ve su cambio
+ *
+ * El número de consultas simultáneas lo limita el pool de conexiones
+ * (spring.datasource.hikari.maximum-pool-size, 10 por defecto): si está lleno,
+ * las consultas esperan su turno.
+ *
+ * @author Jose Luis (Payoyo)
+ */
+@Component
+public class ReportQueryExecutor implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportQueryExecutor(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Lanza una consulta en un hilo virtual.
+     *
+     * @param query Consulta (se ejecuta en una transacción de solo lectura)
+     * @return Resultado futuro; recogerlo con join
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(
+                ReadYourWritesContext.propagate(() -> readOnlyTransaction.execute(status -> query.get())), executor);
+    }
+
+    /**
+     * Espera el resultado de una consulta lanzada con submit y relanza su
+     * excepción original (no envuelta en CompletionException).
+     *
+     * @param future Consulta lanzada
+     * @return Resultado de la consulta
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,125 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesReport;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
+
+/**
+ * Construye una serie temporal columnar y rellena los huecos.
+ * 
+ * Reserva una matriz [serie][intervalo] de céntimos y otra de cantidades para
+ * todos los intervalos del rango: los intervalos sin datos se quedan a 0,
+ * así que el relleno de huecos no cuesta nada.
+ * 
+ * Trabaja en céntimos (long) para sumar sin crear un BigDecimal por fila;
+ * solo se convierten al construir el resultado.
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+class TimeSeriesAccumulator {
+
+    private final TimeGranularity granularity;
+    private final TimeSeriesSplit split;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final LocalDate firstBucket;
+    private final int bucketCount;
+    private final long[][] cents;
+    private final long[][] counts;
+
+    /**
+     * @param granularity Tamaño de los intervalos
+     * @param split Cómo se separan las series
+     * @param startDate Primer día incluido
+     * @param endDate Último día incluido
+     * @param maxBuckets Número máximo de intervalos permitido
+     * @throws IllegalArgumentException si el rango tiene más de maxBuckets intervalos
+     */
+    TimeSeriesAccumulator(TimeGranularity granularity, TimeSeriesSplit split,
+            LocalDate startDate, LocalDate endDate, int maxBuckets) {
+        this.granularity = granularity;
+        this.split = split;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.firstBucket = granularity.truncate(startDate);
+        long buckets = granularity.between(firstBucket, granularity.truncate(endDate)) + 1L;
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("El rango tiene " + buckets + " intervalos de tipo " + granularity
+                    + " (máximo " + maxBuckets + "): usa un rango menor o una granularidad mayor");
+        }
+        this.bucketCount = (int) buckets;
+        int seriesCount = split.keys().length;
+        this.cents = new long[seriesCount][bucketCount];
+        this.counts = new long[seriesCount][bucketCount];
+    }
+
+    LocalDate firstBucket() {
+        return firstBucket;
+    }
+
+    /**
+     * Posición del intervalo que contiene un día.
+     * 
+     * @param day Día dentro del rango
+     * @return Índice del intervalo
+     */
+    int bucketOf(LocalDate day) {
+        return granularity.between(firstBucket, granularity.truncate(day));
+    }
+
+    /**
+     * Suma un importe y una cantidad a una serie e intervalo.
+     * 
+     * @param bucket Índice del intervalo
+     * @param series Índice de la serie (ver TimeSeriesSplit.seriesOf)
+     * @param amountCents Importe en céntimos
+     * @param count Cantidad de gastos
+     */
+    void add(int bucket, int series, long amountCents, long count) {
+        cents[series][bucket] += amountCents;
+        counts[series][bucket] += count;
+    }
+
+    /**
+     * Construye el resultado. Con separación por categoría o método de pago
+     * se omiten las series sin ningún gasto en el rango.
+     * 
+     * @return Serie temporal con todos los intervalos del rango
+     */
+    TimeSeriesReport build() {
+        List<LocalDate> buckets = new ArrayList<>(bucketCount);
+        LocalDate bucket = firstBucket;
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(bucket);
+            bucket = granularity.next(bucket);
+        }
+
+        String[] keys = split.keys();
+        List<TimeSeriesReport.Series> series = new ArrayList<>();
+        for (int s = 0; s < keys.length; s++) {
+            if (split != TimeSeriesSplit.NONE && isEmpty(counts[s])) {
+                continue;
+            }
+            BigDecimal[] totals = new BigDecimal[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                totals[i] = Cents.toAmount(cents[s][i]);
+            }
+            series.add(new TimeSeriesReport.Series(keys[s], totals, counts[s]));
+        }
+        return new TimeSeriesReport(granularity, split, startDate, endDate, buckets, series);
+    }
+
+    private static boolean isEmpty(long[] values) {
+        for (long value : values) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpenseExportRow;
+
+/**
+ * Exportación de gastos a Excel (XLSX) con SXSSF, el modo streaming de Apache POI.
+ * 
+ * - Solo las últimas 100 filas están en memoria; las anteriores se escriben
+ *   en un fichero temporal comprimido (la memoria no depende del número de filas)
+ * - Una hoja de Excel admite 1.048.576 filas: al llenarse se abre otra hoja
+ *   ("Gastos 2", "Gastos 3"...) con la misma cabecera
+ * - Las fechas e importes se guardan como valores (no como texto) para que
+ *   se puedan ordenar y sumar en Excel
+ * 
+ * @author Jose Luis (Payoyo)
+ */
+class XlsxExpenseWriter implements ExpenseExportWriter {
+
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String[] HEADER = {"id", "date", "description", "category", "paymentMethod", "amount", "currency"};
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle dateStyle;
+    private final CellStyle amountStyle;
+
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int rowIndex;
+
+    XlsxExpenseWriter(OutputStream out) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        this.dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        this.amountStyle = workbook.createCellStyle();
+        amountStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+
+        newSheet();
+    }
+
+    @Override
+    public void write(ExpenseExportRow row) {
+        if (rowIndex == MAX_ROWS_PER_SHEET) {
+            newSheet();
+        }
+        Row excelRow = sheet.createRow(rowIndex++);
+        excelRow.createCell(0).setCellValue(row.id());
+        excelRow.createCell(1).setCellValue(row.date());
+        excelRow.getCell(1).setCellStyle(dateStyle);
+        excelRow.createCell(2).setCellValue(row.description());
+        excelRow.createCell(3).setCellValue(row.category().name());
+        excelRow.createCell(4).setCellValue(row.paymentMethod().name());
+        excelRow.createCell(5).setCellValue(row.amount().doubleValue());
+        excelRow.getCell(5).setCellStyle(amountStyle);
+        excelRow.createCell(6).setCellValue(row.currency());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Borra los ficheros temporales de las hojas
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? "Gastos" : "Gastos " + sheetCount);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADER.length; i++) {
+            header.createCell(i).setCellValue(HEADER[i]);
+        }
+        rowIndex = 1;
+    }
+}
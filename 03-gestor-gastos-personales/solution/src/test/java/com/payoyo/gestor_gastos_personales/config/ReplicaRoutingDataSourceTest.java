@@ -0,0 +1,185 @@
+package com.payoyo.gestor_gastos_personales.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.exceptions.ExpenseNotFoundException;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+import com.payoyo.gestor_gastos_personales.service.ExpenseService;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+
+/*
+ * Reparto de conexiones entre la base de datos principal y la réplica de lectura
+ *
+ * Dos H2 en memoria hacen de principal y de réplica. No hay replicación entre
+ * ellas: la réplica solo tiene el esquema, así que una consulta que encuentra
+ * un gasto recién creado se ha servido desde la principal y una que no lo
+ * encuentra, desde la réplica (como una réplica con retraso)
+ *
+ * Sin petición HTTP el cliente es el hilo: la marca de lectura de lo recién
+ * escrito es de quien escribe, otro hilo sigue leyendo de la réplica.
+ * Con petición HTTP la marca viaja en la cookie read-primary-until
+ *
+ * Los gastos se guardan con el repositorio (una transacción de escritura, como
+ * createExpense) porque el upsert de los acumulados diarios es SQL de PostgreSQL
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "expenses.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+    "expenses.datasource.replica.username=sa",
+    "expenses.datasource.replica.password=",
+    "expenses.datasource.replica-lag=PT0.5S",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration LAG = Duration.ofMillis(500);
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    /* Copia en la réplica el esquema que Hibernate crea en la principal, antes de las tareas de arranque */
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @Bean
+        InitializingBean copySchemaToReplica(
+                EntityManagerFactory entityManagerFactory,
+                @Qualifier("primaryDataSource") DataSource primary,
+                @Qualifier("replicaDataSource") DataSource replica) {
+            return () -> {
+                JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+                new JdbcTemplate(primary).queryForList("SCRIPT NODATA", String.class).forEach(replicaJdbc::execute);
+            };
+        }
+    }
+
+    @AfterEach
+    void clearContext() {
+        ReadYourWritesContext.clear();
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("DELETE FROM expenses");
+        primary.update("DELETE FROM budgets");
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadsToReplicaAfterLag() throws InterruptedException {
+        LocalDate today = LocalDate.now();
+        Expense created = expenseRepository.save(expense(today));
+
+        /* La escritura solo llega a la principal */
+        assertEquals(1, count(primaryDataSource));
+        assertEquals(0, count(replicaDataSource));
+
+        /* Justo después de escribir se lee de la principal: se ve el gasto recién creado */
+        assertEquals(created.getId(), expenseService.getExpenseById(created.getId()).getId());
+        assertEquals(1, expenseService.getOverview(today, today, 5).topExpenses().size());
+
+        /* Pasado replica-lag las transacciones de solo lectura van a la réplica */
+        Thread.sleep(LAG.toMillis() + 200);
+        assertThrows(ExpenseNotFoundException.class, () -> expenseService.getExpenseById(created.getId()));
+        assertEquals(0, expenseService.getOverview(today, today, 5).topExpenses().size());
+
+        /* Las escrituras siguen yendo a la principal */
+        expenseRepository.deleteById(created.getId());
+        assertEquals(0, count(primaryDataSource));
+    }
+
+    /*
+     * La escritura de un cliente no desvía a la principal las lecturas de los demás
+     */
+    @Test
+    void writeOfOneClientKeepsOthersOnReplica() throws InterruptedException, ExecutionException {
+        Expense created = expenseRepository.save(expense(LocalDate.now()));
+
+        CompletableFuture<Throwable> otherClient = CompletableFuture.supplyAsync(() ->
+                assertThrows(ExpenseNotFoundException.class, () -> expenseService.getExpenseById(created.getId())));
+
+        assertNotNull(otherClient.get());
+        assertEquals(created.getId(), expenseService.getExpenseById(created.getId()).getId());
+    }
+
+    /*
+     * Se escribe un presupuesto: un gasto creado por HTTP pasaría por el upsert de los acumulados
+     */
+    @Test
+    void cookieCarriesReadYourWritesAcrossRequests() throws Exception {
+        Cookie mark = mockMvc.perform(put("/api/budgets/FOOD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"monthlyLimit\": 300.00, \"alertPercentage\": 80}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesContext.COOKIE);
+        assertNotNull(mark);
+
+        /* Con la cookie se lee de la principal, sin ella de la réplica */
+        mockMvc.perform(get("/api/budgets/FOOD").cookie(mark)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/budgets/FOOD")).andExpect(status().isNotFound());
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static Expense expense(LocalDate date) {
+        return Expense.builder()
+                .description("Compra en el mercado")
+                .amount(new BigDecimal("42.50"))
+                .currency("EUR")
+                .baseAmount(new BigDecimal("42.50"))
+                .category(CategoryEnum.FOOD)
+                .date(date)
+                .paymentMethod(PaymentMethodEnum.CASH)
+                .build();
+    }
+
+    private static long count(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM expenses", Long.class);
+    }
+}
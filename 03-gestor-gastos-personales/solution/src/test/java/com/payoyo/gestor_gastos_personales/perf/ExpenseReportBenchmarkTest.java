@@ -0,0 +1,403 @@
+package com.payoyo.gestor_gastos_personales.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payoyo.gestor_gastos_personales.dto.CategoryReport;
+import com.payoyo.gestor_gastos_personales.dto.CategoryTotal;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseOverview;
+import com.payoyo.gestor_gastos_personales.dto.ExportFormat;
+import com.payoyo.gestor_gastos_personales.dto.MonthReport;
+import com.payoyo.gestor_gastos_personales.dto.PeriodReport;
+import com.payoyo.gestor_gastos_personales.dto.TimeGranularity;
+import com.payoyo.gestor_gastos_personales.dto.TimeSeriesSplit;
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+import com.payoyo.gestor_gastos_personales.service.ExpenseRollupMaintainer;
+import com.payoyo.gestor_gastos_personales.service.ExpenseService;
+
+import jakarta.persistence.EntityManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Benchmark de los reportes de gastos (solo con: mvn -Pperf test)
+ *
+ * 1. Siembra perf.seed-rows gastos (1M por defecto) en el mes actual en una H2 en memoria
+ *    (1 de cada 10 en USD, ya convertidos a EUR como al guardarlos) y genera los
+ *    acumulados diarios desde cero (igual que el backfill de arranque)
+ * 2. Mide latencia y memoria asignada de:
+ *    - legacy: la implementación anterior de getReportByPeriod (cargar todos los
+ *      gastos del mes como entidades y sumarlos en memoria)
+ *    - getPeriodReport, getMonthReport y getCategoryReport actuales (agregados en SQL)
+ *    - serialización a JSON de los reportes tipados (streaming) frente al formato Map anterior
+ *    - serie temporal diaria por categoría de los últimos 12 meses (cache en memoria)
+ *    - resumen del mes (getOverview) frente a sus cuatro consultas una detrás de otra
+ * 3. Exporta todos los gastos a CSV y una categoría a XLSX (cursor + streaming)
+ * 4. Guarda los resultados en target/perf/expense-reports.csv
+ * 5. Falla si:
+ *    - los reportes no coinciden con el cálculo legacy
+ *    - la mejora de latencia es menor que perf.min-speedup
+ *    - algún reporte asigna más de perf.max-report-alloc-kb por petición
+ *      (memoria constante: no depende del número de gastos, solo de los días del rango)
+ *    - el JSON del reporte tipado no es idéntico al del formato Map, o asigna más memoria
+ *    - la serie temporal tarda más de perf.max-timeseries-ms (mediana)
+ *    - el resumen no coincide con sus consultas por separado, o tarda más que la
+ *      consulta más lenta más la mitad del resto (en paralelo debería tardar lo que la más lenta).
+ *      Con un solo procesador la H2 en memoria no puede solapar consultas y el
+ *      tiempo solo se muestra
+ *    - la exportación no escribe todas las filas
+ *
+ * Ejemplo con menos datos: mvn -Pperf test -Dperf.seed-rows=100000
+ */
+@Tag("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:perf;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN",
+    "logging.level.com.payoyo.gestor_gastos_personales.perf=INFO"
+})
+@Slf4j
+class ExpenseReportBenchmarkTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ExpenseRollupMaintainer rollupMaintainer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupRepository rollupRepository;
+
+    @Value("${perf.seed-rows:1000000}")
+    private int seedRows;
+
+    @Value("${perf.iterations:20}")
+    private int iterations;
+
+    @Value("${perf.legacy-iterations:3}")
+    private int legacyIterations;
+
+    @Value("${perf.json-iterations:10000}")
+    private int jsonIterations;
+
+    @Value("${perf.min-speedup:50}")
+    private double minSpeedup;
+
+    @Value("${perf.max-report-alloc-kb:1024}")
+    private long maxReportAllocKb;
+
+    @Value("${perf.max-timeseries-ms:50}")
+    private long maxTimeseriesMs;
+
+    private LocalDate startOfMonth;
+    private LocalDate endOfMonth;
+
+    @BeforeAll
+    void seed() {
+        LocalDate today = LocalDate.now();
+        startOfMonth = today.withDayOfMonth(1);
+        endOfMonth = today.withDayOfMonth(today.lengthOfMonth());
+        CategoryEnum[] categories = CategoryEnum.values();
+        PaymentMethodEnum[] paymentMethods = PaymentMethodEnum.values();
+        BigDecimal usdRate = new BigDecimal("0.92");
+        jdbcTemplate.update("INSERT INTO exchange_rates (currency, rate_date, rate) VALUES ('USD', ?, ?)",
+            Date.valueOf(startOfMonth), usdRate);
+
+        int chunk = 10_000;
+        for (int from = 0; from < seedRows; from += chunk) {
+            int size = Math.min(chunk, seedRows - from);
+            List<Object[]> rows = new ArrayList<>(size);
+            for (int i = from; i < from + size; i++) {
+                BigDecimal amount = BigDecimal.valueOf(100 + (i % 9_900), 2);
+                boolean usd = i % 10 == 0;
+                rows.add(new Object[] {
+                    "Gasto " + i,
+                    amount,
+                    usd ? "USD" : "EUR",
+                    usd ? amount.multiply(usdRate).setScale(2, RoundingMode.HALF_UP) : amount,
+                    categories[i % categories.length].name(),
+                    Date.valueOf(startOfMonth.plusDays(i % today.getDayOfMonth())),
+                    paymentMethods[(i / categories.length) % paymentMethods.length].name()
+                });
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO expenses (description, amount, currency, base_amount, category, date, payment_method) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+        rollupMaintainer.rebuildAll();
+    }
+
+    @Test
+    void reportsUseConstantMemoryAndBeatLegacy() throws IOException {
+        Map<String, Object> legacy = legacyReportByPeriod(startOfMonth, endOfMonth);
+        PeriodReport period = expenseService.getPeriodReport(startOfMonth, endOfMonth);
+        assertEquals(legacy, period.toMap(), "El reporte agregado en SQL no coincide con el cálculo en memoria");
+        assertEquals(seedRows, period.expenseCount());
+        assertEquals(legacy.get("totalAmount"), expenseService.getMonthReport().totalAmount());
+
+        // El JSON en streaming debe ser el mismo que el del formato Map anterior
+        MonthReport month = expenseService.getMonthReport();
+        List<CategoryReport> categories = expenseService.getCategoryReport();
+        assertEquals(objectMapper.readTree(json(period.toMap())), objectMapper.readTree(json(period)));
+        assertEquals(objectMapper.readTree(json(month.toMap())), objectMapper.readTree(json(month)));
+        assertEquals(objectMapper.readTree(json(categories.stream().map(CategoryReport::toMap).toList())),
+            objectMapper.readTree(json(categories)));
+
+        List<Measurement> results = List.of(
+            measure("legacyPeriod", legacyIterations, () -> legacyReportByPeriod(startOfMonth, endOfMonth)),
+            measure("period", iterations, () -> expenseService.getPeriodReport(startOfMonth, endOfMonth)),
+            measure("currentMonth", iterations, expenseService::getMonthReport),
+            measure("byCategory", iterations, expenseService::getCategoryReport),
+            measure("jsonMap", jsonIterations, () -> {
+                json(period.toMap());
+                json(month.toMap());
+                return json(categories.stream().map(CategoryReport::toMap).toList());
+            }),
+            measure("jsonTyped", jsonIterations, () -> {
+                json(period);
+                json(month);
+                return json(categories);
+            }),
+            measure("timeseries", iterations,
+                () -> json(expenseService.getTimeSeries(TimeGranularity.DAY, TimeSeriesSplit.CATEGORY, null, null)))
+        );
+
+        StringBuilder csv = new StringBuilder("report,iterations,median_ms,alloc_bytes_per_call\n");
+        for (Measurement m : results) {
+            csv.append(m.toCsv()).append('\n');
+            log.info(String.format("%-13s n=%d median=%.3fms alloc=%d bytes/llamada",
+                m.name(), m.iterations(), m.medianMs(), m.allocBytes()));
+        }
+        Path output = Path.of("target", "perf", "expense-reports.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, csv);
+
+        Measurement legacyResult = results.get(0);
+        List<String> violations = new ArrayList<>();
+        for (Measurement m : results.subList(1, 4)) {
+            if (m.allocBytes() > maxReportAllocKb * 1024) {
+                violations.add(m.name() + ": " + m.allocBytes() / 1024 + "KB por llamada > " + maxReportAllocKb + "KB");
+            }
+        }
+        double speedup = legacyResult.medianMs() / results.get(1).medianMs();
+        if (speedup < minSpeedup) {
+            violations.add(String.format("period: solo %.1fx más rápido que legacy (mínimo %.0fx)", speedup, minSpeedup));
+        }
+        Measurement jsonMap = results.get(4);
+        Measurement jsonTyped = results.get(5);
+        if (jsonTyped.allocBytes() >= jsonMap.allocBytes()) {
+            violations.add("jsonTyped: " + jsonTyped.allocBytes() + " bytes por llamada >= formato Map ("
+                + jsonMap.allocBytes() + " bytes)");
+        }
+        Measurement timeseries = results.get(6);
+        if (timeseries.medianMs() > maxTimeseriesMs) {
+            violations.add(String.format("timeseries: %.1fms > %dms", timeseries.medianMs(), maxTimeseriesMs));
+        }
+        assertTrue(violations.isEmpty(), "Regresión de rendimiento:\n" + String.join("\n", violations));
+    }
+
+    /*
+     * El resumen lanza sus cuatro consultas a la vez: debe tardar lo que la más
+     * lenta, no la suma de todas
+     */
+    @Test
+    void overviewRunsQueriesConcurrently() {
+        ExpenseOverview overview = expenseService.getOverview(startOfMonth, endOfMonth, 5);
+        assertEquals(expenseService.getPeriodReport(startOfMonth, endOfMonth), overview.period());
+        assertEquals(rollupRepository.sumByPaymentMethodBetween(startOfMonth, endOfMonth), overview.byPaymentMethod());
+        assertEquals(seedRows, overview.byCategory().stream().mapToLong(CategoryTotal::expenseCount).sum());
+        assertEquals(5, overview.topExpenses().size());
+
+        // Calentamiento de los hilos virtuales y las transacciones de cada consulta
+        for (int i = 0; i < 50; i++) {
+            expenseService.getOverview(startOfMonth, endOfMonth, 5);
+        }
+
+        List<Measurement> queries = List.of(
+            measure("ovPeriod", iterations, () -> rollupRepository.sumBetween(startOfMonth, endOfMonth)),
+            measure("ovCategory", iterations, () -> rollupRepository.sumByCategoryBetween(startOfMonth, endOfMonth)),
+            measure("ovPayment", iterations, () -> rollupRepository.sumByPaymentMethodBetween(startOfMonth, endOfMonth)),
+            measure("ovTop", iterations, () -> expenseRepository.findByDateBetweenOrderByBaseAmountDescIdDesc(
+                startOfMonth, endOfMonth, Limit.of(5)))
+        );
+        Measurement parallel = measure("overview", iterations, () -> expenseService.getOverview(startOfMonth, endOfMonth, 5));
+
+        double sum = 0;
+        double max = 0;
+        for (Measurement m : queries) {
+            log.info(String.format("%-13s n=%d median=%.3fms", m.name(), m.iterations(), m.medianMs()));
+            sum += m.medianMs();
+            max = Math.max(max, m.medianMs());
+        }
+        log.info(String.format("%-13s n=%d median=%.3fms (suma %.3fms, más lenta %.3fms)",
+            parallel.name(), parallel.iterations(), parallel.medianMs(), sum, max));
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            assertTrue(parallel.medianMs() <= max + (sum - max) / 2,
+                String.format("overview: %.3fms, más lenta %.3fms, suma %.3fms", parallel.medianMs(), max, sum));
+        }
+    }
+
+    /*
+     * Exporta todos los gastos sembrados a CSV y los de una categoría a XLSX
+     * y comprueba que salen todas las filas
+     */
+    @Test
+    void exportStreamsEveryRow() throws IOException {
+        CountingOutputStream csv = new CountingOutputStream();
+        long start = System.nanoTime();
+        long exported = expenseService.exportExpenses(new ExpenseFilter(null, null, null, null), ExportFormat.CSV, csv);
+        double csvSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(seedRows, exported);
+        assertEquals(seedRows + 1, csv.lines);
+
+        CountingOutputStream xlsx = new CountingOutputStream();
+        start = System.nanoTime();
+        long food = expenseService.exportExpenses(
+            new ExpenseFilter(startOfMonth, endOfMonth, CategoryEnum.FOOD, null), ExportFormat.XLSX, xlsx);
+        double xlsxSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals((seedRows + CategoryEnum.values().length - 1) / CategoryEnum.values().length, food);
+
+        log.info(String.format("exportCsv     rows=%d %.1fs (%.0f filas/s, %d MB)",
+            exported, csvSeconds, exported / csvSeconds, csv.bytes >> 20));
+        log.info(String.format("exportXlsx    rows=%d %.1fs (%.0f filas/s, %d MB)",
+            food, xlsxSeconds, food / xlsxSeconds, xlsx.bytes >> 20));
+    }
+
+    /*
+     * Implementación anterior de ExpenseServiceImpl.getReportByPeriod:
+     * carga todos los gastos del rango como entidades y suma en memoria
+     * (misma consulta que el antiguo findByDateBetweenOrderByDateDesc, sin paginar),
+     * sumando las cantidades ya convertidas a la moneda base
+     */
+    private Map<String, Object> legacyReportByPeriod(LocalDate startDate, LocalDate endDate) {
+        List<Expense> expenses = entityManager.createQuery(
+                "SELECT e FROM Expense e WHERE e.date BETWEEN :startDate AND :endDate ORDER BY e.date DESC",
+                Expense.class)
+            .setParameter("startDate", startDate)
+            .setParameter("endDate", endDate)
+            .getResultList();
+        BigDecimal totalAmount = expenses.stream()
+            .map(Expense::getBaseAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int expenseCount = expenses.size();
+        BigDecimal averageExpense = expenseCount > 0
+            ? totalAmount.divide(BigDecimal.valueOf(expenseCount), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        return Map.of(
+            "startDate", startDate.toString(),
+            "endDate", endDate.toString(),
+            "totalAmount", totalAmount,
+            "expenseCount", expenseCount,
+            "averageExpense", averageExpense);
+    }
+
+    // ========== MEDICIÓN ==========
+
+    private Measurement measure(String name, int iterations, Supplier<?> report) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // Calentamiento (JIT y cache de planes de la base de datos)
+        report.get();
+
+        long[] nanos = new long[iterations];
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            report.get();
+            nanos[i] = System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        Arrays.sort(nanos);
+        return new Measurement(name, iterations, nanos[iterations / 2] / 1_000_000.0, allocated / iterations);
+    }
+
+    private byte[] json(Object report) {
+        try {
+            return objectMapper.writeValueAsBytes(report);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Descarta lo escrito: solo cuenta bytes y líneas
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+
+    private record Measurement(String name, int iterations, double medianMs, long allocBytes) {
+
+        String toCsv() {
+            return String.format("%s,%d,%.3f,%d", name, iterations, medianMs, allocBytes);
+        }
+    }
+}
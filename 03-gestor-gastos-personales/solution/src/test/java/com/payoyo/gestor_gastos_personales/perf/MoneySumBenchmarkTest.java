@@ -0,0 +1,172 @@
+package com.payoyo.gestor_gastos_personales.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.payoyo.gestor_gastos_personales.service.Cents;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Microbenchmark JMH de la suma de importes (solo con: mvn -Pperf test)
+ *
+ * Compara, sobre perf.money-amounts importes (10M por defecto) de 0.01 a 9999.99:
+ * - bigDecimalReduce: reduce(BigDecimal.ZERO, BigDecimal::add), como los reportes antiguos
+ * - centsFromBigDecimal: Cents.of(amount) de cada importe y suma en long
+ *   (lo que hacen las agregaciones que reciben entidades o snapshots)
+ * - longCents: suma de un long[] de céntimos (acumuladores de la cache y del presupuesto)
+ *
+ * La clase es pública porque JMH genera subclases de ella.
+ *
+ * Guarda los resultados en target/perf/money-sum.csv y falla si:
+ * - la suma en céntimos no es exactamente igual a la de BigDecimal
+ * - longCents no es al menos perf.min-cents-speedup veces más rápido que bigDecimalReduce
+ *
+ * Ejemplo con menos datos: mvn -Pperf test -Dtest=MoneySumBenchmarkTest -Dperf.money-amounts=1000000
+ */
+@Tag("perf")
+@Slf4j
+public class MoneySumBenchmarkTest {
+
+    private static final int DEFAULT_AMOUNTS = 10_000_000;
+
+    @Test
+    void longCentsSumIsExactAndFaster() throws Exception {
+        int size = Integer.getInteger("perf.money-amounts", DEFAULT_AMOUNTS);
+        double minSpeedup = Double.parseDouble(System.getProperty("perf.min-cents-speedup", "5"));
+
+        /* Misma precisión: la suma en céntimos devuelve exactamente el mismo BigDecimal */
+        Amounts amounts = new Amounts();
+        amounts.size = size;
+        amounts.generate();
+        BigDecimal expected = Arrays.stream(amounts.decimals).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long cents = 0;
+        for (long c : amounts.cents) {
+            cents += c;
+        }
+        assertEquals(expected, Cents.toAmount(cents));
+        amounts = null;
+
+        Options options = new OptionsBuilder()
+            .include(MoneySumBenchmarkTest.class.getName() + "\\.")
+            .param("size", String.valueOf(size))
+            .jvmArgsAppend("-Xmx3g")
+            .shouldFailOnError(true)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        StringBuilder csv = new StringBuilder("benchmark,amounts,ms_per_op,error_ms\n");
+        double bigDecimalMs = 0;
+        double longCentsMs = 0;
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            double score = result.getPrimaryResult().getScore();
+            double error = result.getPrimaryResult().getScoreError();
+            csv.append(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f%n", name, size, score, error));
+            log.info(String.format("%-19s n=%d %.3f ms/op (+-%.3f)", name, size, score, error));
+            if (name.equals("bigDecimalReduce")) {
+                bigDecimalMs = score;
+            } else if (name.equals("longCents")) {
+                longCentsMs = score;
+            }
+        }
+        Path output = Path.of("target", "perf", "money-sum.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, csv);
+
+        assertTrue(longCentsMs > 0 && bigDecimalMs >= longCentsMs * minSpeedup,
+            String.format("longCents %.3f ms vs bigDecimalReduce %.3f ms: mejora menor que x%.0f",
+                longCentsMs, bigDecimalMs, minSpeedup));
+    }
+
+    /* ==================== BENCHMARKS JMH ==================== */
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public BigDecimal bigDecimalReduce(Amounts amounts) {
+        return Arrays.stream(amounts.decimals).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public BigDecimal centsFromBigDecimal(Amounts amounts) {
+        long total = 0;
+        for (BigDecimal amount : amounts.decimals) {
+            total += Cents.of(amount);
+        }
+        return Cents.toAmount(total);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public BigDecimal longCents(Amounts amounts) {
+        long total = 0;
+        for (long cents : amounts.cents) {
+            total += cents;
+        }
+        return Cents.toAmount(total);
+    }
+
+    /* Importes aleatorios (semilla fija) en las dos representaciones */
+    @State(Scope.Benchmark)
+    public static class Amounts {
+
+        @Param("10000000")
+        public int size;
+
+        BigDecimal[] decimals;
+        long[] cents;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(42);
+            decimals = new BigDecimal[size];
+            cents = new long[size];
+            for (int i = 0; i < size; i++) {
+                cents[i] = 1 + random.nextInt(999_999);
+                decimals[i] = BigDecimal.valueOf(cents[i], 2);
+            }
+        }
+    }
+}
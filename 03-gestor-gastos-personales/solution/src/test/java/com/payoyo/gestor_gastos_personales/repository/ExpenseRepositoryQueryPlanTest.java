@@ -0,0 +1,334 @@
+package com.payoyo.gestor_gastos_personales.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payoyo.gestor_gastos_personales.dto.ExpensePageRequest;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSort;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+
+/*
+ * Planes de ejecución de las consultas de ExpenseRepository en PostgreSQL
+ *
+ * 1. Crea las tablas en el esquema query_plan_test (no toca las del esquema por defecto)
+ * 2. Siembra plan-test.rows gastos (200.000 por defecto) repartidos en 3 años,
+ *    insertados en orden de fecha como en el uso real, y ejecuta ANALYZE
+ * 3. Ejecuta cada consulta del repositorio, captura el SQL que genera Hibernate
+ *    y lo pasa por EXPLAIN (FORMAT JSON) con los mismos parámetros
+ * 4. Falla si el plan tiene un Seq Scan o un Sort, o no usa el índice esperado:
+ *    los índices de Expense deben servir el filtro, el ORDER BY date DESC, id DESC
+ *    y el salto a la página siguiente (cursor), sin leer las páginas anteriores
+ * 5. La búsqueda de texto ordena por relevancia (siempre hay un Sort): solo se
+ *    comprueba que el índice de trigramas evita el Seq Scan
+ *
+ * Solo se ejecuta si hay un PostgreSQL accesible (se omite en otro caso):
+ *   mvn test -Dtest=ExpenseRepositoryQueryPlanTest \
+ *       -Dplan-test.url=jdbc:postgresql://localhost:5432/postgres -Dplan-test.username=postgres
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIf("postgresAvailable")
+@SpringBootTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.default_schema=query_plan_test",
+    "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.payoyo.gestor_gastos_personales.repository.ExpenseRepositoryQueryPlanTest$SqlRecorder",
+    "logging.level.com.payoyo=WARN"
+})
+class ExpenseRepositoryQueryPlanTest {
+
+    private static final String URL = System.getProperty("plan-test.url", "jdbc:postgresql://localhost:5432/postgres");
+    private static final String USERNAME = System.getProperty("plan-test.username", "postgres");
+    private static final String PASSWORD = System.getProperty("plan-test.password", "");
+    private static final int ROWS = Integer.getInteger("plan-test.rows", 200_000);
+
+    /* Primera página de un listado: Spring Data pide una fila más para saber si hay siguiente */
+    private static final Sort SORT = ExpenseSort.DATE_DESC.toSort();
+    private static final Limit PAGE = Limit.of(ExpensePageRequest.DEFAULT_SIZE);
+    private static final int PAGE_ROWS = ExpensePageRequest.DEFAULT_SIZE + 1;
+
+    /*
+     * Descripciones variadas como las reales (con todas iguales un Seq Scan sería lo correcto)
+     * y una poco frecuente (1 de cada 1000) que es la que se busca
+     */
+    private static final String[] DESCRIPTIONS = {
+        "Compra en Mercadona", "Gasolina Repsol", "Cena restaurante", "Farmacia", "Recibo luz Iberdrola",
+        "Cine Yelmo", "Taxi aeropuerto", "Libros Amazon", "Seguro coche Mapfre", "Gimnasio mensual"
+    };
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().minusYears(3);
+    private static final LocalDate LAST_DAY = LocalDate.now();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    static boolean postgresAvailable() {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws SQLException {
+        /*
+         * pg_trgm en public antes de arrancar: ExpenseTextSearch la crearía en el primer
+         * esquema del search_path (query_plan_test) y Hibernate no podría borrarlo al terminar
+         */
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            connection.createStatement().execute("CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public");
+        }
+        /*
+         * currentSchema: las consultas nativas (sin esquema) también van a query_plan_test
+         * public: los operadores de pg_trgm deben ser visibles
+         */
+        registry.add("spring.datasource.url", () -> URL + (URL.contains("?") ? "&" : "?")
+                + "currentSchema=query_plan_test,public");
+        registry.add("spring.datasource.username", () -> USERNAME);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+    }
+
+    @BeforeAll
+    void seed() {
+        CategoryEnum[] categories = CategoryEnum.values();
+        PaymentMethodEnum[] paymentMethods = PaymentMethodEnum.values();
+        long days = FIRST_DAY.until(LAST_DAY, ChronoUnit.DAYS) + 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            double amount = random.nextInt(100, 100_000) / 100.0;
+            batch.add(new Object[] {
+                    (i % 1000 == 0 ? "Ferreteria Garcia" : DESCRIPTIONS[i % DESCRIPTIONS.length]) + " " + i,
+                    amount,
+                    amount,
+                    Date.valueOf(FIRST_DAY.plusDays(i * days / ROWS)),
+                    categories[random.nextInt(categories.length)].name(),
+                    paymentMethods[random.nextInt(paymentMethods.length)].name()
+            });
+            if (batch.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO expenses (description, amount, base_amount, currency, date, category, "
+                        + "payment_method, created_at, updated_at) VALUES (?, ?, ?, 'EUR', ?, ?, ?, now(), now())", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE expenses");
+    }
+
+    // ==================== CONSULTAS ====================
+
+    @Test
+    void findByCategoryAndDateBetweenUsesCategoryDateIndex() throws Exception {
+        LocalDate start = LAST_DAY.minusMonths(1);
+        assertIndexScanWithoutSort("idx_expenses_category_date",
+                () -> expenseRepository.findByCategoryAndDateBetween(
+                        CategoryEnum.FOOD, start, LAST_DAY, ScrollPosition.keyset(), SORT, PAGE),
+                CategoryEnum.FOOD.name(), Date.valueOf(start), Date.valueOf(LAST_DAY), PAGE_ROWS);
+    }
+
+    @Test
+    void findByCategoryUsesCategoryDateIndex() throws Exception {
+        assertIndexScanWithoutSort("idx_expenses_category_date",
+                () -> expenseRepository.findByCategory(CategoryEnum.FOOD, ScrollPosition.keyset(), SORT, PAGE),
+                CategoryEnum.FOOD.name(), PAGE_ROWS);
+    }
+
+    @Test
+    void findByCategoryNextPageSeeksCategoryDateIndex() throws Exception {
+        LocalDate date = LAST_DAY.minusYears(2);
+        ScrollPosition position = ScrollPosition.forward(new LinkedHashMap<>(Map.of("date", date, "id", 1L)));
+        assertIndexScanWithoutSort("idx_expenses_category_date",
+                () -> expenseRepository.findByCategory(CategoryEnum.FOOD, position, SORT, PAGE),
+                CategoryEnum.FOOD.name(), Date.valueOf(date), Date.valueOf(date), 1L, PAGE_ROWS);
+    }
+
+    @Test
+    void findByPaymentMethodUsesPaymentMethodDateIndex() throws Exception {
+        assertIndexScanWithoutSort("idx_expenses_payment_method_date",
+                () -> expenseRepository.findByPaymentMethod(
+                        PaymentMethodEnum.CASH, ScrollPosition.keyset(), SORT, PAGE),
+                PaymentMethodEnum.CASH.name(), PAGE_ROWS);
+    }
+
+    @Test
+    void findByDateBetweenUsesDateIndex() throws Exception {
+        LocalDate start = LAST_DAY.minusMonths(1);
+        assertIndexScanWithoutSort("idx_expenses_date",
+                () -> expenseRepository.findByDateBetween(start, LAST_DAY, ScrollPosition.keyset(), SORT, PAGE),
+                Date.valueOf(start), Date.valueOf(LAST_DAY), PAGE_ROWS);
+    }
+
+    @Test
+    void findAllUsesDateIndex() throws Exception {
+        assertIndexScanWithoutSort("idx_expenses_date",
+                () -> expenseRepository.findAllBy(ScrollPosition.keyset(), SORT, PAGE),
+                PAGE_ROWS);
+    }
+
+    @Test
+    void findAllNextPageSeeksDateIndex() throws Exception {
+        LocalDate date = LAST_DAY.minusYears(2);
+        ScrollPosition position = ScrollPosition.forward(new LinkedHashMap<>(Map.of("date", date, "id", 1L)));
+        assertIndexScanWithoutSort("idx_expenses_date",
+                () -> expenseRepository.findAllBy(position, SORT, PAGE),
+                Date.valueOf(date), Date.valueOf(date), 1L, PAGE_ROWS);
+    }
+
+    @Test
+    void findAllByAmountUsesBaseAmountIndex() throws Exception {
+        assertIndexScanWithoutSort("idx_expenses_base_amount",
+                () -> expenseRepository.findAllBy(ScrollPosition.keyset(), ExpenseSort.AMOUNT_DESC.toSort(), PAGE),
+                PAGE_ROWS);
+    }
+
+    @Test
+    void findAllByAmountNextPageSeeksBaseAmountIndex() throws Exception {
+        BigDecimal amount = new BigDecimal("500.00");
+        ScrollPosition position = ScrollPosition.forward(new LinkedHashMap<>(Map.of("baseAmount", amount, "id", 1L)));
+        assertIndexScanWithoutSort("idx_expenses_base_amount",
+                () -> expenseRepository.findAllBy(position, ExpenseSort.AMOUNT_DESC.toSort(), PAGE),
+                amount, amount, 1L, PAGE_ROWS);
+    }
+
+    @Test
+    void streamForExportWithoutFiltersUsesDateIndex() throws Exception {
+        assertIndexScanWithoutSort("idx_expenses_date",
+                () -> {
+                    try (var rows = expenseRepository.streamForExport(null, null, null, null)) {
+                        rows.findFirst();
+                    }
+                },
+                /* Nulos con tipo: "? is null" no deja a PostgreSQL deducirlo */
+                nullOf(Types.DATE), nullOf(Types.DATE), nullOf(Types.DATE), nullOf(Types.DATE),
+                nullOf(Types.VARCHAR), nullOf(Types.VARCHAR), nullOf(Types.VARCHAR), nullOf(Types.VARCHAR));
+    }
+
+    @Test
+    void searchByDescriptionUsesTrigramIndex() throws Exception {
+        SqlRecorder.LAST.remove();
+        expenseRepository.searchByDescription("ferreteira", "%ferreteira%", null, null, null, null, null, 0, 21);
+        String sql = SqlRecorder.LAST.get();
+        assertTrue(sql != null, "No se ha capturado el SQL de la consulta");
+
+        /* Con una errata: solo lo encuentra el operador de similitud (<%) */
+        JsonNode plan = explain(sql, "ferreteira", "%ferreteira%", "ferreteira",
+                nullOf(Types.NUMERIC), nullOf(Types.NUMERIC), nullOf(Types.NUMERIC), nullOf(Types.NUMERIC),
+                nullOf(Types.VARCHAR), nullOf(Types.VARCHAR),
+                nullOf(Types.DATE), nullOf(Types.DATE), nullOf(Types.DATE), nullOf(Types.DATE), 0, 21);
+        String description = sql + "\n" + plan.toPrettyString();
+        List<String> nodes = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collect(plan, nodes, indexes);
+        assertFalse(nodes.contains("Seq Scan"), "Seq Scan en el plan de:\n" + description);
+        assertTrue(indexes.contains("idx_expenses_description_trgm"),
+                "No usa idx_expenses_description_trgm:\n" + description);
+    }
+
+    // ==================== UTILIDADES ====================
+
+    /*
+     * Ejecuta la consulta, recupera su SQL y comprueba el plan con los parámetros
+     * indicados (en el orden de los ? del SQL)
+     */
+    private void assertIndexScanWithoutSort(String index, Runnable query, Object... parameters) throws Exception {
+        SqlRecorder.LAST.remove();
+        /* streamForExport necesita una transacción abierta */
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        String sql = SqlRecorder.LAST.get();
+        assertTrue(sql != null, "No se ha capturado el SQL de la consulta");
+
+        JsonNode plan = explain(sql, parameters);
+        String description = sql + "\n" + plan.toPrettyString();
+        List<String> nodes = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collect(plan, nodes, indexes);
+        assertFalse(nodes.contains("Seq Scan"), "Seq Scan en el plan de:\n" + description);
+        assertFalse(nodes.stream().anyMatch(node -> node.endsWith("Sort")), "Sort en el plan de:\n" + description);
+        assertTrue(indexes.contains(index), "No usa " + index + ":\n" + description);
+    }
+
+    private JsonNode explain(String sql, Object... parameters) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, parameters);
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SqlParameterValue nullOf(int sqlType) {
+        return new SqlParameterValue(sqlType, null);
+    }
+
+    private static void collect(JsonNode node, List<String> nodes, List<String> indexes) {
+        nodes.add(node.get("Node Type").asText());
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> collect(child, nodes, indexes));
+        }
+    }
+
+    /*
+     * Guarda el último SELECT que Hibernate envía a la BD en el hilo actual
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                LAST.set(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.payoyo.gestor_gastos_personales.dto.CategoryTotal;
+import com.payoyo.gestor_gastos_personales.entity.Budget;
+import com.payoyo.gestor_gastos_personales.entity.BudgetAlert;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.BudgetAlertRepository;
+import com.payoyo.gestor_gastos_personales.repository.BudgetRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+/*
+ * Totales del mes en memoria: umbrales de aviso, cambio de mes y recarga
+ * desde los acumulados sin contar dos veces un gasto confirmado
+ *
+ * Sin contexto de Spring: los repositorios son mocks y la transacción de cada
+ * gasto se simula abriendo la sincronización a mano y cerrándola con commit
+ *
+ * Presupuesto de FOOD: 100,00 con aviso al 80 %
+ */
+class BudgetTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 14);
+
+    private BudgetRepository budgetRepository;
+    private BudgetAlertRepository alertRepository;
+    private ExpenseRollupRepository rollupRepository;
+    private MutableClock clock;
+    private BudgetTracker tracker;
+
+    private final Budget food = Budget.builder()
+            .category(CategoryEnum.FOOD)
+            .monthlyLimit(new BigDecimal("100.00"))
+            .alertPercentage(80)
+            .build();
+
+    @BeforeEach
+    void createTracker() {
+        budgetRepository = mock(BudgetRepository.class);
+        alertRepository = mock(BudgetAlertRepository.class);
+        rollupRepository = mock(ExpenseRollupRepository.class);
+        clock = new MutableClock(TODAY);
+        when(budgetRepository.findAll()).thenReturn(List.of(food));
+        tracker = new BudgetTracker(budgetRepository, alertRepository, rollupRepository,
+                mock(PlatformTransactionManager.class), clock);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadReadsMonthFromRollups() {
+        monthInDatabase("42.50");
+
+        tracker.load();
+
+        assertEquals(new BigDecimal("42.50"), tracker.statusOf(food).spentAmount());
+        verify(rollupRepository).sumByCategoryBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+    }
+
+    @Test
+    void crossingAlertPercentageRecordsOneAlert() {
+        monthInDatabase("70.00");
+        tracker.load();
+
+        created("5.00");
+        verify(alertRepository, never()).save(any());
+
+        created("6.00");
+        created("1.00");
+
+        List<BudgetAlert> alerts = savedAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(80, alerts.get(0).getThresholdPercentage());
+        assertEquals(new BigDecimal("81.00"), alerts.get(0).getSpentAmount());
+        assertEquals(LocalDate.of(2025, 3, 1), alerts.get(0).getMonth());
+    }
+
+    /*
+     * Un solo gasto que pasa del 70 % al 120 %: avisos del 80 % y del 100 %
+     */
+    @Test
+    void jumpOverBothThresholdsRecordsTwoAlerts() {
+        monthInDatabase("70.00");
+        tracker.load();
+
+        created("50.00");
+
+        assertEquals(List.of(80, 100), savedAlerts().stream().map(BudgetAlert::getThresholdPercentage).toList());
+    }
+
+    @Test
+    void importCrossingLimitRecordsAlert() {
+        monthInDatabase("90.00");
+        tracker.load();
+
+        tracker.onExpensesImported(new ExpensesImportedEvent(List.of(
+                snapshot("6.00", TODAY), snapshot("4.00", TODAY), snapshot("500.00", TODAY.minusMonths(1)))));
+
+        assertEquals(new BigDecimal("100.00"), tracker.statusOf(food).spentAmount());
+        assertEquals(List.of(100), savedAlerts().stream().map(BudgetAlert::getThresholdPercentage).toList());
+    }
+
+    @Test
+    void expensesOfOtherMonthsAreIgnored() {
+        monthInDatabase("10.00");
+        tracker.load();
+
+        created("85.00", TODAY.minusMonths(1));
+
+        assertEquals(new BigDecimal("10.00"), tracker.statusOf(food).spentAmount());
+        verify(alertRepository, never()).save(any());
+    }
+
+    @Test
+    void rolledBackExpenseIsNotCounted() {
+        monthInDatabase("70.00");
+        tracker.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.onExpenseChanged(ExpenseChangedEvent.created(snapshot("20.00", TODAY)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(new BigDecimal("70.00"), tracker.statusOf(food).spentAmount());
+        verify(alertRepository, never()).save(any());
+    }
+
+    /*
+     * Al cambiar de mes el total empieza en 0 y los avisos son del mes nuevo
+     */
+    @Test
+    void monthRolloverStartsFromZero() {
+        monthInDatabase("95.00");
+        tracker.load();
+
+        clock.set(LocalDate.of(2025, 4, 1));
+        assertEquals(BigDecimal.ZERO.setScale(2), tracker.statusOf(food).spentAmount());
+
+        created("85.00", LocalDate.of(2025, 4, 1));
+
+        assertEquals(new BigDecimal("85.00"), tracker.statusOf(food).spentAmount());
+        List<BudgetAlert> alerts = savedAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(LocalDate.of(2025, 4, 1), alerts.get(0).getMonth());
+    }
+
+    /*
+     * El gasto ya está en la BD (confirmado) pero su listener aún no se ha
+     * ejecutado: la conciliación no puede instalar un total que lo incluye
+     */
+    @Test
+    void reconcileWhileChangeInFlightDoesNotDoubleCount() {
+        monthInDatabase("70.00");
+        tracker.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.onExpenseChanged(ExpenseChangedEvent.created(snapshot("15.00", TODAY)));
+        monthInDatabase("85.00");
+        tracker.reconcile();
+        commit();
+
+        assertEquals(new BigDecimal("85.00"), tracker.statusOf(food).spentAmount());
+        assertEquals(List.of(80), savedAlerts().stream().map(BudgetAlert::getThresholdPercentage).toList());
+    }
+
+    /*
+     * Un gasto que empieza y se confirma mientras se consulta la BD: la
+     * consulta puede haberlo leído o no, así que se repite
+     */
+    @Test
+    void changeDuringReconcileQueryRetriesQuery() {
+        monthInDatabase("70.00");
+        tracker.load();
+
+        List<String> answers = new ArrayList<>(List.of("85.00", "85.00"));
+        when(rollupRepository.sumByCategoryBetween(any(), any())).thenAnswer(invocation -> {
+            if (answers.size() == 2) {
+                created("15.00");
+            }
+            return List.of(new CategoryTotal(CategoryEnum.FOOD, new BigDecimal(answers.remove(0)), 1L));
+        });
+        tracker.reconcile();
+
+        assertEquals(new BigDecimal("85.00"), tracker.statusOf(food).spentAmount());
+        assertEquals(1, savedAlerts().size());
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private void monthInDatabase(String amount) {
+        when(rollupRepository.sumByCategoryBetween(any(), any()))
+                .thenReturn(List.of(new CategoryTotal(CategoryEnum.FOOD, new BigDecimal(amount), 1L)));
+    }
+
+    private void created(String amount) {
+        created(amount, TODAY);
+    }
+
+    // Alta confirmada: evento dentro de la transacción y commit
+    private void created(String amount, LocalDate date) {
+        boolean transaction = !TransactionSynchronizationManager.isSynchronizationActive();
+        if (transaction) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        tracker.onExpenseChanged(ExpenseChangedEvent.created(snapshot(amount, date)));
+        if (transaction) {
+            commit();
+        }
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+
+    private List<BudgetAlert> savedAlerts() {
+        ArgumentCaptor<BudgetAlert> captor = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(alertRepository, atLeast(0)).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static ExpenseSnapshot snapshot(String amount, LocalDate date) {
+        return new ExpenseSnapshot(1L, "Compra en Mercadona", new BigDecimal(amount), CategoryEnum.FOOD, date,
+                PaymentMethodEnum.DEBIT_CARD);
+    }
+
+    /* Reloj que se puede mover a otro día */
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(LocalDate date) {
+            set(date);
+        }
+
+        private void set(LocalDate date) {
+            instant = date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
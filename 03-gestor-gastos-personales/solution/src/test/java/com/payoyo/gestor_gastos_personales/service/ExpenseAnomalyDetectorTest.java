@@ -0,0 +1,253 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.payoyo.gestor_gastos_personales.dto.AmountStats;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseAnomaly;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseAnomalyRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+
+/*
+ * Detección de gastos inusuales: estadísticas de Welford (añadir, quitar y
+ * cargar desde la consulta agregada) y marcas
+ *
+ * Sin contexto de Spring: los repositorios son mocks y la transacción de cada
+ * gasto se simula abriendo la sincronización a mano y cerrándola con commit
+ *
+ * Grupo de referencia (FOOD / CASH): 10 gastos de 8 a 12 con media 10,00 y
+ * desviación típica 1,41 (varianza 2). Umbral: 3 desviaciones, 10 gastos como mínimo
+ */
+class ExpenseAnomalyDetectorTest {
+
+    private static final String[] NORMAL = {"10", "12", "8", "11", "9", "10", "12", "8", "11", "9"};
+
+    private ExpenseRepository expenseRepository;
+    private ExpenseAnomalyRepository anomalyRepository;
+    private ExpenseAnomalyDetector detector;
+
+    @BeforeEach
+    void createDetector() {
+        expenseRepository = mock(ExpenseRepository.class);
+        anomalyRepository = mock(ExpenseAnomalyRepository.class);
+        when(expenseRepository.findAmountStats()).thenReturn(List.of());
+        detector = new ExpenseAnomalyDetector(expenseRepository, anomalyRepository,
+                mock(PlatformTransactionManager.class), 3.0, 10);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void outlierAgainstLoadedStatsIsFlagged() {
+        inDatabase(NORMAL);
+        detector.load();
+
+        created(100L, "20");
+
+        ExpenseAnomaly anomaly = flagged().get(0);
+        assertEquals(100L, anomaly.getExpenseId());
+        assertEquals(new BigDecimal("10.00"), anomaly.getMean());
+        assertEquals(new BigDecimal("1.41"), anomaly.getStandardDeviation());
+        assertEquals(7.07, anomaly.getZScore());
+    }
+
+    @Test
+    void normalAndLowAmountsAreNotFlagged() {
+        inDatabase(NORMAL);
+        detector.load();
+
+        created(100L, "13");
+        created(101L, "0.50");
+
+        verify(anomalyRepository, never()).save(any());
+    }
+
+    @Test
+    void fewerThanMinSamplesIsNotFlagged() {
+        inDatabase(Arrays.copyOf(NORMAL, 9));
+        detector.load();
+
+        created(100L, "500");
+
+        verify(anomalyRepository, never()).save(any());
+    }
+
+    /*
+     * Añadir de uno en uno da las mismas estadísticas que cargarlas de la BD
+     */
+    @Test
+    void addingOneByOneMatchesLoad() {
+        detector.load();
+        for (int i = 0; i < NORMAL.length; i++) {
+            created((long) i, NORMAL[i]);
+        }
+        verify(anomalyRepository, never()).save(any());
+
+        created(100L, "20");
+
+        ExpenseAnomaly anomaly = flagged().get(0);
+        assertEquals(new BigDecimal("10.00"), anomaly.getMean());
+        assertEquals(new BigDecimal("1.41"), anomaly.getStandardDeviation());
+    }
+
+    /*
+     * Quitar un gasto deja el grupo como si no se hubiera añadido, y borra su marca
+     */
+    @Test
+    void deletingExpenseRemovesItFromStats() {
+        inDatabase(NORMAL);
+        detector.load();
+        created(100L, "30");
+
+        commit(() -> detector.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(100L, "30"))));
+        verify(anomalyRepository).deleteByExpenseId(100L);
+
+        created(101L, "20");
+
+        ExpenseAnomaly anomaly = flagged().get(1);
+        assertEquals(101L, anomaly.getExpenseId());
+        assertEquals(new BigDecimal("10.00"), anomaly.getMean());
+        assertEquals(new BigDecimal("1.41"), anomaly.getStandardDeviation());
+    }
+
+    /*
+     * Una modificación se compara con el grupo sin el valor anterior del propio gasto
+     */
+    @Test
+    void updateIsEvaluatedWithoutItsPreviousAmount() {
+        inDatabase("10", "12", "8", "11", "9", "10", "12", "8", "11", "9", "10");
+        detector.load();
+
+        commit(() -> detector.onExpenseChanged(
+                ExpenseChangedEvent.updated(snapshot(5L, "10"), snapshot(5L, "20"))));
+
+        verify(anomalyRepository).deleteByExpenseId(5L);
+        ExpenseAnomaly anomaly = flagged().get(0);
+        assertEquals(5L, anomaly.getExpenseId());
+        assertEquals(new BigDecimal("10.00"), anomaly.getMean());
+        assertEquals(new BigDecimal("1.41"), anomaly.getStandardDeviation());
+    }
+
+    /*
+     * Los gastos importados traen su ID: se evalúan en orden y las marcas se guardan juntas
+     */
+    @Test
+    void importedOutliersAreFlagged() {
+        inDatabase(NORMAL);
+        detector.load();
+
+        commit(() -> detector.onExpensesImported(new ExpensesImportedEvent(List.of(
+                snapshot(200L, "10"), snapshot(201L, "25"), snapshot(202L, "9"), snapshot(203L, "40")))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExpenseAnomaly>> captor = ArgumentCaptor.forClass(List.class);
+        verify(anomalyRepository).saveAll(captor.capture());
+        assertEquals(List.of(201L, 203L), captor.getValue().stream().map(ExpenseAnomaly::getExpenseId).toList());
+    }
+
+    @Test
+    void rolledBackImportIsIgnored() {
+        inDatabase(NORMAL);
+        detector.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        detector.onExpensesImported(new ExpensesImportedEvent(List.of(snapshot(200L, "40"))));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(anomalyRepository, never()).saveAll(anyList());
+    }
+
+    /*
+     * El gasto 11 ya está en la BD (confirmado) pero su listener aún no se ha
+     * ejecutado: la recarga no puede instalar unas estadísticas que lo incluyen.
+     * Contado una vez la desviación es sqrt(20 / 11) = 1,35; dos veces, 1,29
+     */
+    @Test
+    void reloadWhileChangeInFlightDoesNotDoubleCount() {
+        inDatabase(NORMAL);
+        detector.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        detector.onExpenseChanged(ExpenseChangedEvent.created(snapshot(11L, "10")));
+        inDatabase("10", "12", "8", "11", "9", "10", "12", "8", "11", "9", "10");
+        detector.reconcile();
+        commit(() -> { });
+
+        created(100L, "20");
+
+        assertEquals(new BigDecimal("1.35"), flagged().get(0).getStandardDeviation());
+    }
+
+    // ==================== UTILIDADES ====================
+
+    // Lo que devolvería la consulta agregada con estas cantidades en FOOD / CASH
+    private void inDatabase(String... amounts) {
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal sumOfSquares = BigDecimal.ZERO;
+        for (String amount : amounts) {
+            BigDecimal value = new BigDecimal(amount);
+            sum = sum.add(value);
+            sumOfSquares = sumOfSquares.add(value.multiply(value));
+        }
+        when(expenseRepository.findAmountStats()).thenReturn(List.of(new AmountStats(
+                CategoryEnum.FOOD, PaymentMethodEnum.CASH, (long) amounts.length, sum, sumOfSquares)));
+    }
+
+    private void created(Long id, String amount) {
+        commit(() -> detector.onExpenseChanged(ExpenseChangedEvent.created(snapshot(id, amount))));
+    }
+
+    // Publica dentro de una transacción (si no hay una abierta) y la confirma
+    private static void commit(Runnable publish) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        publish.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private List<ExpenseAnomaly> flagged() {
+        ArgumentCaptor<ExpenseAnomaly> captor = ArgumentCaptor.forClass(ExpenseAnomaly.class);
+        verify(anomalyRepository, atLeast(1)).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static ExpenseSnapshot snapshot(Long id, String amount) {
+        return new ExpenseSnapshot(id, "Compra en el mercado", new BigDecimal(amount), CategoryEnum.FOOD,
+                LocalDate.of(2025, 3, 14), PaymentMethodEnum.CASH);
+    }
+}
@@ -0,0 +1,185 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.payoyo.gestor_gastos_personales.dto.LedgerTotal;
+import com.payoyo.gestor_gastos_personales.dto.PeriodTotal;
+import com.payoyo.gestor_gastos_personales.entity.ExpenseMonthlyLedger;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseMonthlyLedgerRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+/*
+ * Suma de un rango de días combinando cierres mensuales y acumulados diarios
+ *
+ * Sin contexto de Spring: los repositorios son mocks que suman unos datos en
+ * memoria (un gasto por día desde el 1 de noviembre de 2024 hasta hoy,
+ * 14 de junio de 2025, con cierres de noviembre a mayo). Cada prueba compara el
+ * resultado con la suma día a día y comprueba qué rangos se han leído de cada tabla
+ */
+class ExpenseMonthCloserTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 14);
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 11, 1);
+
+    private final NavigableMap<LocalDate, BigDecimal> days = new TreeMap<>();
+    private final NavigableMap<LocalDate, ExpenseMonthlyLedger> ledgers = new TreeMap<>();
+
+    private ExpenseMonthlyLedgerRepository ledgerRepository;
+    private ExpenseRollupRepository rollupRepository;
+    private ExpenseMonthCloser closer;
+
+    @BeforeEach
+    void createCloser() {
+        for (LocalDate day = FIRST_DAY; !day.isAfter(TODAY); day = day.plusDays(1)) {
+            days.put(day, new BigDecimal(day.getDayOfMonth() + ".25"));
+        }
+        for (YearMonth month = YearMonth.from(FIRST_DAY); month.isBefore(YearMonth.from(TODAY)); month = month.plusMonths(1)) {
+            Map<LocalDate, BigDecimal> monthDays = days.subMap(month.atDay(1), true, month.atEndOfMonth(), true);
+            ledgers.put(month.atDay(1), ExpenseMonthlyLedger.builder()
+                    .month(month.atDay(1))
+                    .totalAmount(monthDays.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                    .expenseCount(monthDays.size())
+                    .build());
+        }
+
+        ledgerRepository = mock(ExpenseMonthlyLedgerRepository.class);
+        rollupRepository = mock(ExpenseRollupRepository.class);
+        when(rollupRepository.sumBetween(any(), any())).thenAnswer(invocation ->
+                sumOfDays(invocation.getArgument(0), invocation.getArgument(1)));
+        when(ledgerRepository.sumBetween(any(), any())).thenAnswer(invocation -> {
+            Map<LocalDate, ExpenseMonthlyLedger> range = ledgers.subMap(
+                    invocation.getArgument(0), true, invocation.getArgument(1), true);
+            if (range.isEmpty()) {
+                return new LedgerTotal(null, null, 0L);
+            }
+            return new LedgerTotal(
+                    range.values().stream().map(ExpenseMonthlyLedger::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add),
+                    range.values().stream().mapToLong(ExpenseMonthlyLedger::getExpenseCount).sum(),
+                    (long) range.size());
+        });
+        when(ledgerRepository.findByMonthBetweenOrderByMonthAsc(any(), any())).thenAnswer(invocation ->
+                List.copyOf(ledgers.subMap(invocation.getArgument(0), true, invocation.getArgument(1), true).values()));
+
+        closer = new ExpenseMonthCloser(ledgerRepository, rollupRepository, mock(PlatformTransactionManager.class),
+                Clock.fixed(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    /*
+     * Empieza y termina a mitad de mes: días sueltos + cierres de los meses completos + días sueltos
+     */
+    @Test
+    void rangeStartingAndEndingMidMonth() {
+        LocalDate start = LocalDate.of(2024, 11, 15);
+        LocalDate end = LocalDate.of(2025, 3, 10);
+
+        assertEquals(sumOfDays(start, end), closer.sumBetween(start, end));
+
+        verify(rollupRepository).sumBetween(start, LocalDate.of(2024, 11, 30));
+        verify(ledgerRepository).sumBetween(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 2, 1));
+        verify(rollupRepository).sumBetween(LocalDate.of(2025, 3, 1), end);
+    }
+
+    @Test
+    void rangeInsideOneMonthReadsOnlyRollups() {
+        LocalDate start = LocalDate.of(2025, 2, 3);
+        LocalDate end = LocalDate.of(2025, 2, 20);
+
+        assertEquals(sumOfDays(start, end), closer.sumBetween(start, end));
+
+        verify(rollupRepository).sumBetween(start, end);
+        verify(ledgerRepository, never()).sumBetween(any(), any());
+    }
+
+    @Test
+    void wholeClosedMonthReadsOnlyItsLedger() {
+        LocalDate start = LocalDate.of(2025, 2, 1);
+        LocalDate end = LocalDate.of(2025, 2, 28);
+
+        assertEquals(sumOfDays(start, end), closer.sumBetween(start, end));
+
+        verify(ledgerRepository).sumBetween(start, start);
+        verify(rollupRepository, never()).sumBetween(any(), any());
+    }
+
+    /*
+     * Cierre de enero invalidado (borrado por un gasto con fecha atrasada):
+     * enero se suma de los acumulados y el resto de meses de sus cierres
+     */
+    @Test
+    void ledgerInvalidatedInsideRange() {
+        ledgers.remove(LocalDate.of(2025, 1, 1));
+        LocalDate start = LocalDate.of(2024, 11, 1);
+        LocalDate end = LocalDate.of(2025, 4, 30);
+
+        assertEquals(sumOfDays(start, end), closer.sumBetween(start, end));
+
+        verify(ledgerRepository).findByMonthBetweenOrderByMonthAsc(start, LocalDate.of(2025, 4, 1));
+        verify(rollupRepository).sumBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+    }
+
+    /*
+     * El mes en curso no tiene cierre: se suma siempre de los acumulados,
+     * aunque el rango llegue a fin de mes
+     */
+    @Test
+    void rangeIncludingCurrentMonth() {
+        LocalDate start = LocalDate.of(2025, 4, 10);
+        LocalDate end = LocalDate.of(2025, 6, 30);
+
+        assertEquals(sumOfDays(start, end), closer.sumBetween(start, end));
+
+        verify(rollupRepository).sumBetween(start, LocalDate.of(2025, 4, 30));
+        verify(ledgerRepository).sumBetween(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 1));
+        verify(rollupRepository).sumBetween(LocalDate.of(2025, 6, 1), end);
+    }
+
+    @Test
+    void currentMonthAloneReadsOnlyRollups() {
+        LocalDate start = LocalDate.of(2025, 6, 1);
+        LocalDate end = LocalDate.of(2025, 6, 30);
+
+        assertEquals(sumOfDays(start, end), closer.sumBetween(start, end));
+
+        verify(ledgerRepository, never()).sumBetween(any(), any());
+    }
+
+    /*
+     * Meses anteriores al primer gasto: no tienen cierre y no hay gastos
+     */
+    @Test
+    void rangeWithoutExpensesReturnsNulls() {
+        PeriodTotal total = closer.sumBetween(LocalDate.of(2024, 8, 5), LocalDate.of(2024, 10, 31));
+
+        assertEquals(new PeriodTotal(null, null), total);
+    }
+
+    // ==================== UTILIDADES ====================
+
+    // Lo que devolvería la consulta de los acumulados diarios (campos null si no hay gastos)
+    private PeriodTotal sumOfDays(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, BigDecimal> range = days.subMap(startDate, true, endDate, true);
+        if (range.isEmpty()) {
+            return new PeriodTotal(null, null);
+        }
+        return new PeriodTotal(range.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add), (long) range.size());
+    }
+}
@@ -0,0 +1,209 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.payoyo.gestor_gastos_personales.entity.ExpenseDailyRollup;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseChangedEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseRollupsRebuiltEvent;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+/*
+ * Incrementos de los acumulados diarios en cada alta, modificación, baja,
+ * importación y reconstrucción
+ *
+ * Sin contexto de Spring: el upsert es SQL de PostgreSQL, así que se comprueban
+ * los incrementos que recibe el repositorio (mock)
+ */
+class ExpenseRollupMaintainerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private ExpenseRepository expenseRepository;
+    private ExpenseRollupRepository rollupRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private ExpenseRollupMaintainer maintainer;
+
+    @BeforeEach
+    void createMaintainer() {
+        expenseRepository = mock(ExpenseRepository.class);
+        rollupRepository = mock(ExpenseRollupRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        maintainer = new ExpenseRollupMaintainer(expenseRepository, rollupRepository, eventPublisher);
+    }
+
+    @Test
+    void createAddsAmountAndOneExpense() {
+        maintainer.onExpenseChanged(ExpenseChangedEvent.created(
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD)));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("25.50"), 1);
+    }
+
+    @Test
+    void deleteSubtractsAmountAndOneExpense() {
+        maintainer.onExpenseChanged(ExpenseChangedEvent.deleted(
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD)));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("-25.50"), -1);
+    }
+
+    /*
+     * Mismo grupo: un solo UPDATE con la diferencia, sin tocar el número de gastos
+     */
+    @Test
+    void updateInSameGroupAppliesOnlyDifference() {
+        maintainer.onExpenseChanged(ExpenseChangedEvent.updated(
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("30.00", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD)));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("4.50"), 0);
+        verify(rollupRepository).applyDelta(any(), anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void updateWithoutAmountChangeDoesNothing() {
+        maintainer.onExpenseChanged(ExpenseChangedEvent.updated(
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("25.5", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD)));
+
+        verify(rollupRepository, never()).applyDelta(any(), anyString(), anyString(), any(), anyLong());
+    }
+
+    /*
+     * Cambio de día, categoría o método de pago: el gasto sale de un grupo y entra en otro
+     */
+    @Test
+    void updateAcrossGroupsMovesExpense() {
+        LocalDate nextDay = DAY.plusDays(1);
+
+        maintainer.onExpenseChanged(ExpenseChangedEvent.updated(
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("30.00", CategoryEnum.TRANSPORT, nextDay, PaymentMethodEnum.CASH)));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("-25.50"), -1);
+        verify(rollupRepository).applyDelta(nextDay, "TRANSPORT", "CASH", new BigDecimal("30.00"), 1);
+    }
+
+    @Test
+    void updateOfPaymentMethodOnlyMovesExpense() {
+        maintainer.onExpenseChanged(ExpenseChangedEvent.updated(
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.CASH)));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("-25.50"), -1);
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "CASH", new BigDecimal("25.50"), 1);
+    }
+
+    /*
+     * Importación: un incremento por grupo, ordenados por (día, categoría, método de pago)
+     */
+    @Test
+    void importSendsOneDeltaPerGroupInKeyOrder() {
+        LocalDate nextDay = DAY.plusDays(1);
+
+        maintainer.onExpensesImported(new ExpensesImportedEvent(List.of(
+                snapshot("10.00", CategoryEnum.FOOD, nextDay, PaymentMethodEnum.CASH),
+                snapshot("12.40", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("0.10", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("60.00", CategoryEnum.TRANSPORT, DAY, PaymentMethodEnum.DEBIT_CARD),
+                snapshot("0.20", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD))));
+
+        List<ExpenseDailyRollup> deltas = capturedDeltas();
+        assertEquals(3, deltas.size());
+        assertDelta(deltas.get(0), DAY, CategoryEnum.FOOD, PaymentMethodEnum.DEBIT_CARD, "12.70", 3);
+        assertDelta(deltas.get(1), DAY, CategoryEnum.TRANSPORT, PaymentMethodEnum.DEBIT_CARD, "60.00", 1);
+        assertDelta(deltas.get(2), nextDay, CategoryEnum.FOOD, PaymentMethodEnum.CASH, "10.00", 1);
+        verify(rollupRepository, never()).applyDelta(any(), anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void rebuildReplacesRangeAndPublishesEvent() {
+        LocalDate endDate = DAY.plusDays(30);
+        when(rollupRepository.insertRangeFromExpenses(DAY, endDate)).thenReturn(12);
+
+        assertEquals(12, maintainer.rebuild(DAY, endDate));
+
+        InOrder order = inOrder(rollupRepository, eventPublisher);
+        order.verify(rollupRepository).deleteRange(DAY, endDate);
+        order.verify(rollupRepository).insertRangeFromExpenses(DAY, endDate);
+        order.verify(eventPublisher).publishEvent(new ExpenseRollupsRebuiltEvent(DAY, endDate));
+    }
+
+    @Test
+    void rebuildAllCoversWholeHistory() {
+        LocalDate lastDay = DAY.plusYears(1);
+        List<Object[]> range = new ArrayList<>();
+        range.add(new Object[] {DAY, lastDay});
+        when(expenseRepository.findDateRange()).thenReturn(range);
+        when(rollupRepository.insertRangeFromExpenses(DAY, lastDay)).thenReturn(40);
+
+        assertEquals(40, maintainer.rebuildAll());
+
+        InOrder order = inOrder(rollupRepository, eventPublisher);
+        order.verify(rollupRepository).deleteAllInBatch();
+        order.verify(rollupRepository).insertRangeFromExpenses(DAY, lastDay);
+        order.verify(eventPublisher).publishEvent(new ExpenseRollupsRebuiltEvent(null, null));
+    }
+
+    @Test
+    void rebuildAllWithoutExpensesOnlyClearsTable() {
+        List<Object[]> range = new ArrayList<>();
+        range.add(new Object[] {null, null});
+        when(expenseRepository.findDateRange()).thenReturn(range);
+
+        assertEquals(0, maintainer.rebuildAll());
+
+        verify(rollupRepository).deleteAllInBatch();
+        verify(rollupRepository, never()).insertRangeFromExpenses(any(), any());
+        verify(eventPublisher).publishEvent(new ExpenseRollupsRebuiltEvent(null, null));
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static ExpenseSnapshot snapshot(String amount, CategoryEnum category, LocalDate date,
+            PaymentMethodEnum paymentMethod) {
+        return new ExpenseSnapshot(1L, "Gasto", new BigDecimal(amount), category, date, paymentMethod);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ExpenseDailyRollup> capturedDeltas() {
+        ArgumentCaptor<Collection<ExpenseDailyRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository).applyDeltas(captor.capture());
+        return List.copyOf(captor.getValue());
+    }
+
+    private static void assertDelta(ExpenseDailyRollup delta, LocalDate date, CategoryEnum category,
+            PaymentMethodEnum paymentMethod, String amount, long count) {
+        assertEquals(date, delta.getId().getDate());
+        assertEquals(category, delta.getId().getCategory());
+        assertEquals(paymentMethod, delta.getId().getPaymentMethod());
+        assertEquals(0, new BigDecimal(amount).compareTo(delta.getTotalAmount()),
+                "Importe " + delta.getTotalAmount() + " en lugar de " + amount);
+        assertEquals(count, delta.getExpenseCount());
+    }
+}
@@ -0,0 +1,188 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.payoyo.gestor_gastos_personales.dto.CategoryTotal;
+import com.payoyo.gestor_gastos_personales.dto.SpendForecast;
+import com.payoyo.gestor_gastos_personales.dto.SpendForecast.CategoryForecast;
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.RecurrenceFrequencyEnum;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+import com.payoyo.gestor_gastos_personales.repository.RecurringExpenseRepository;
+
+/*
+ * Previsión del gasto a final de mes: gastado, recurrente ya generado,
+ * recurrente pendiente y ritmo diario del resto
+ *
+ * Sin contexto de Spring: solo se usan los acumulados, las plantillas
+ * recurrentes y el conversor de moneda (mocks); el resto de dependencias del
+ * servicio no intervienen. Hoy es el 10 de abril de 2025 (10 de 30 días)
+ */
+class ExpenseServiceForecastTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 4, 10);
+
+    private ExpenseRollupRepository rollupRepository;
+    private RecurringExpenseRepository recurringRepository;
+    private ExpenseServiceImpl expenseService;
+
+    private final List<RecurringExpense> templates = new ArrayList<>();
+
+    @BeforeEach
+    void createService() {
+        rollupRepository = mock(ExpenseRollupRepository.class);
+        recurringRepository = mock(RecurringExpenseRepository.class);
+        CurrencyConverter currencyConverter = mock(CurrencyConverter.class);
+        when(currencyConverter.toBase(any(), eq("EUR"), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(currencyConverter.toBase(any(), eq("USD"), any())).thenAnswer(invocation -> invocation.<BigDecimal>getArgument(0)
+                .multiply(new BigDecimal("0.90")).setScale(2, RoundingMode.HALF_UP));
+        when(recurringRepository.findByEndDateIsNullOrEndDateGreaterThanEqual(any())).thenReturn(templates);
+
+        expenseService = new ExpenseServiceImpl(null, rollupRepository, null, null, null, null, null, null,
+                recurringRepository, null, currencyConverter, null, null);
+    }
+
+    @Test
+    void projectsVariableSpendAtDailyRateAndRecurringByDate() {
+        spent(Map.of(
+                CategoryEnum.FOOD, "100.00",
+                CategoryEnum.UTILITIES, "560.00",
+                CategoryEnum.ENTERTAINMENT, "25.00"));
+        // Alquiler del día 1, ya generado en abril
+        templates.add(template(CategoryEnum.UTILITIES, RecurrenceFrequencyEnum.MONTHLY, "500.00", "EUR",
+                LocalDate.of(2025, 1, 1), 4));
+        // Suscripción semanal: 3 y 10 de abril generadas, 17 y 24 pendientes
+        templates.add(template(CategoryEnum.ENTERTAINMENT, RecurrenceFrequencyEnum.WEEKLY, "10.00", "EUR",
+                LocalDate.of(2025, 4, 3), 2));
+
+        SpendForecast forecast = expenseService.getSpendForecast(TODAY);
+
+        assertEquals(YearMonth.of(2025, 4), forecast.month());
+        assertEquals(10, forecast.daysElapsed());
+        assertEquals(30, forecast.daysInMonth());
+        assertEquals(List.of(
+                /* Solo variable: 100 / 10 días x 30 */
+                forecast(CategoryEnum.FOOD, "100.00", "0.00", "0.00", "300.00"),
+                /* 5 variable x 3 + 20 generado + 20 pendiente */
+                forecast(CategoryEnum.ENTERTAINMENT, "25.00", "20.00", "20.00", "55.00"),
+                /* 60 variable x 3 + 500 de alquiler (no se proyecta como diario) */
+                forecast(CategoryEnum.UTILITIES, "560.00", "500.00", "0.00", "680.00")
+        ), forecast.categories());
+        assertEquals(new BigDecimal("685.00"), forecast.spentAmount());
+        assertEquals(new BigDecimal("1035.00"), forecast.projectedAmount());
+    }
+
+    /*
+     * Una categoría sin gastos todavía aparece si tiene repeticiones pendientes,
+     * convertidas a la moneda base con la fecha de cada una
+     */
+    @Test
+    void pendingOnlyCategoryIsForecast() {
+        spent(Map.of());
+        templates.add(template(CategoryEnum.TRANSPORT, RecurrenceFrequencyEnum.MONTHLY, "30.00", "EUR",
+                LocalDate.of(2025, 4, 20), 0));
+        templates.add(template(CategoryEnum.SHOPPING, RecurrenceFrequencyEnum.MONTHLY, "10.00", "USD",
+                LocalDate.of(2025, 4, 25), 0));
+
+        SpendForecast forecast = expenseService.getSpendForecast(TODAY);
+
+        assertEquals(List.of(
+                forecast(CategoryEnum.TRANSPORT, "0.00", "0.00", "30.00", "30.00"),
+                forecast(CategoryEnum.SHOPPING, "0.00", "0.00", "9.00", "9.00")
+        ), forecast.categories());
+        assertEquals(new BigDecimal("0.00"), forecast.spentAmount());
+        assertEquals(new BigDecimal("39.00"), forecast.projectedAmount());
+    }
+
+    /*
+     * Si la plantilla subió de precio, lo recurrente ya generado (con el precio
+     * nuevo) no puede superar lo gastado: nada se proyecta como variable
+     */
+    @Test
+    void recurringIsCappedAtSpent() {
+        spent(Map.of(CategoryEnum.EDUCATION, "40.00"));
+        templates.add(template(CategoryEnum.EDUCATION, RecurrenceFrequencyEnum.MONTHLY, "50.00", "EUR",
+                LocalDate.of(2025, 2, 5), 3));
+
+        SpendForecast forecast = expenseService.getSpendForecast(TODAY);
+
+        assertEquals(List.of(forecast(CategoryEnum.EDUCATION, "40.00", "40.00", "0.00", "40.00")),
+                forecast.categories());
+    }
+
+    /*
+     * Repeticiones de meses anteriores no cuentan como generadas este mes
+     */
+    @Test
+    void occurrencesBeforeMonthAreNotRecurring() {
+        spent(Map.of(CategoryEnum.HEALTH, "12.00"));
+        templates.add(template(CategoryEnum.HEALTH, RecurrenceFrequencyEnum.MONTHLY, "20.00", "EUR",
+                LocalDate.of(2025, 1, 15), 3));
+
+        SpendForecast forecast = expenseService.getSpendForecast(TODAY);
+
+        /* 12 variable x 3 + la repetición del 15 de abril pendiente */
+        assertEquals(List.of(forecast(CategoryEnum.HEALTH, "12.00", "0.00", "20.00", "56.00")),
+                forecast.categories());
+    }
+
+    /*
+     * El ritmo diario se redondea al céntimo (mitad hacia arriba): 0,50 / 3 x 28 = 4,666...
+     */
+    @Test
+    void dailyRateRoundsHalfUp() {
+        spent(Map.of(CategoryEnum.OTHER, "0.50"));
+
+        SpendForecast forecast = expenseService.getSpendForecast(LocalDate.of(2025, 2, 3));
+
+        assertEquals(new BigDecimal("4.67"), forecast.projectedAmount());
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private void spent(Map<CategoryEnum, String> amounts) {
+        when(rollupRepository.sumByCategoryBetween(any(), any())).thenReturn(amounts.entrySet().stream()
+                .map(entry -> new CategoryTotal(entry.getKey(), new BigDecimal(entry.getValue()), 1L))
+                .toList());
+    }
+
+    private static CategoryForecast forecast(CategoryEnum category, String spent, String recurring, String pending,
+            String projected) {
+        return new CategoryForecast(category, new BigDecimal(spent), new BigDecimal(recurring),
+                new BigDecimal(pending), new BigDecimal(projected));
+    }
+
+    // Plantilla con generated repeticiones ya generadas
+    private static RecurringExpense template(CategoryEnum category, RecurrenceFrequencyEnum frequency, String amount,
+            String currency, LocalDate start, long generated) {
+        RecurringExpense template = RecurringExpense.builder()
+                .description("Gasto recurrente")
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .category(category)
+                .paymentMethod(PaymentMethodEnum.DEBIT_CARD)
+                .frequency(frequency)
+                .startDate(start)
+                .generatedCount(generated)
+                .build();
+        template.setNextDate(template.occurrence(generated));
+        return template;
+    }
+}
@@ -0,0 +1,109 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+/*
+ * Cada escritura de ExpenseService llega a los acumulados diarios con el
+ * incremento correcto (ExpenseChangedEvent -> ExpenseRollupMaintainer)
+ *
+ * Los acumulados diarios se sustituyen por un mock: su upsert es SQL de PostgreSQL
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:text-search;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+class ExpenseServiceRollupTest {
+
+    private static final LocalDate DAY = LocalDate.now().minusDays(3);
+
+    @MockitoBean
+    private ExpenseRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    private Expense expense;
+
+    @BeforeEach
+    void createExpense() {
+        expense = expenseService.createExpense(expense("25.50", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD));
+    }
+
+    @Test
+    void createAddsToItsGroup() {
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("25.50"), 1);
+    }
+
+    @Test
+    void updateAcrossGroupsMovesExpense() {
+        clearInvocations(rollupRepository);
+
+        expenseService.updateExpense(expense.getId(),
+                expense("30.00", CategoryEnum.TRANSPORT, DAY.plusDays(1), PaymentMethodEnum.CASH));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("-25.50"), -1);
+        verify(rollupRepository).applyDelta(DAY.plusDays(1), "TRANSPORT", "CASH", new BigDecimal("30.00"), 1);
+        verifyDeltaCount(2);
+    }
+
+    @Test
+    void updateInSameGroupAppliesDifference() {
+        clearInvocations(rollupRepository);
+
+        expenseService.updateExpense(expense.getId(),
+                expense("20.00", CategoryEnum.FOOD, DAY, PaymentMethodEnum.DEBIT_CARD));
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("-5.50"), 0);
+        verifyDeltaCount(1);
+    }
+
+    @Test
+    void deleteSubtractsFromItsGroup() {
+        clearInvocations(rollupRepository);
+
+        expenseService.deleteExpense(expense.getId());
+
+        verify(rollupRepository).applyDelta(DAY, "FOOD", "DEBIT_CARD", new BigDecimal("-25.50"), -1);
+        verifyDeltaCount(1);
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private void verifyDeltaCount(int count) {
+        verify(rollupRepository, times(count)).applyDelta(any(), anyString(), anyString(), any(), anyLong());
+    }
+
+    private static Expense expense(String amount, CategoryEnum category, LocalDate date,
+            PaymentMethodEnum paymentMethod) {
+        return Expense.builder()
+                .description("Compra en Mercadona")
+                .amount(new BigDecimal(amount))
+                .category(category)
+                .paymentMethod(paymentMethod)
+                .date(date)
+                .build();
+    }
+}
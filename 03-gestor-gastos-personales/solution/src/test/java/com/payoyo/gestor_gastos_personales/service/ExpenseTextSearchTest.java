@@ -0,0 +1,139 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.payoyo.gestor_gastos_personales.dto.ExpenseImportReport;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchFilter;
+import com.payoyo.gestor_gastos_personales.dto.ExpenseSearchHit;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRepository;
+import com.payoyo.gestor_gastos_personales.repository.ExpenseRollupRepository;
+
+/*
+ * Búsqueda de texto con el índice en memoria (H2, sin pg_trgm)
+ *
+ * Los gastos importados llegan al índice por ExpensesImportedEvent tras el
+ * commit de cada bloque: deben poder buscarse sin reiniciar ni recargar
+ *
+ * El motor en PostgreSQL se comprueba sin base de datos: JdbcTemplate y el
+ * repositorio son mocks
+ *
+ * Los acumulados diarios se sustituyen por un mock: su upsert es SQL de PostgreSQL
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:text-search;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.payoyo=WARN"
+})
+class ExpenseTextSearchTest {
+
+    @MockitoBean
+    private ExpenseRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseImporter importer;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void importedExpensesAreSearchable() throws IOException {
+        LocalDate date = LocalDate.now().minusDays(1);
+        String csv = "date,description,amount,category,paymentMethod\n"
+                + date + ",Ferreteria Garcia tornillos,12.40,OTHER,CASH\n"
+                + date + ",Compra en Mercadona,55.10,FOOD,DEBIT_CARD\n"
+                + date + ",Gasolina Repsol,60.00,TRANSPORT,CREDIT_CARD\n";
+
+        ExpenseImportReport report = importer.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(3, report.imported());
+
+        // Con una errata: solo lo encuentra la similitud por trigramas
+        List<ExpenseSearchHit> hits = expenseService.searchExpenses(
+                new ExpenseSearchFilter("mercadna", null, null, null, null, null), 0, 20).content();
+
+        assertEquals(1, hits.size());
+        assertEquals("Compra en Mercadona", hits.get(0).expense().getDescription());
+        assertTrue(hits.get(0).relevance() > 0);
+    }
+
+    /*
+     * PostgreSQL sin permiso para crear pg_trgm: LIKE en la base de datos,
+     * nunca el índice en memoria
+     */
+    @Test
+    void postgresWithoutTrigramsFallsBackToLike() {
+        ExpenseRepository repository = mock(ExpenseRepository.class);
+        JdbcTemplate jdbcTemplate = postgres();
+        doThrow(new BadSqlGrammarException("pg_trgm", ExpenseTextSearch.CREATE_EXTENSION_SQL,
+                new SQLException("permission denied to create extension")))
+                .when(jdbcTemplate).execute(ExpenseTextSearch.CREATE_EXTENSION_SQL);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {7L, new BigDecimal("1.0")});
+        when(repository.searchByDescriptionLike(eq("%100\\%%"), any(), any(), eq("FOOD"), any(), any(), eq(0), eq(21)))
+                .thenReturn(rows);
+        ExpenseTextSearch search = new ExpenseTextSearch(repository, jdbcTemplate, mock(PlatformTransactionManager.class));
+
+        search.initialize();
+        List<ExpenseTextSearch.Match> matches = search.search(
+                new ExpenseSearchFilter("100%", null, null, CategoryEnum.FOOD, null, null), 0, 21);
+
+        assertEquals(List.of(new ExpenseTextSearch.Match(7L, 1.0)), matches);
+        verify(repository, never()).streamSnapshots();
+        verify(repository, never()).searchByDescription(any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void postgresWithTrigramsSearchesInDatabase() {
+        ExpenseRepository repository = mock(ExpenseRepository.class);
+        JdbcTemplate jdbcTemplate = postgres();
+        ExpenseTextSearch search = new ExpenseTextSearch(repository, jdbcTemplate, mock(PlatformTransactionManager.class));
+
+        search.initialize();
+        search.search(new ExpenseSearchFilter("mercadna", null, null, null, null, null), 0, 21);
+
+        verify(jdbcTemplate).execute(ExpenseTextSearch.CREATE_INDEX_SQL);
+        verify(repository).searchByDescription(eq("mercadna"), eq("%mercadna%"), any(), any(), any(), any(), any(),
+                eq(0), eq(21));
+        verify(repository, never()).streamSnapshots();
+    }
+
+    // ==================== UTILIDADES ====================
+
+    @SuppressWarnings("unchecked")
+    private static JdbcTemplate postgres() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        return jdbcTemplate;
+    }
+}
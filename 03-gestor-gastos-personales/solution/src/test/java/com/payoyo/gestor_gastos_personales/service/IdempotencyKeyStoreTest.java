@@ -0,0 +1,184 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payoyo.gestor_gastos_personales.entity.Expense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.exceptions.IdempotencyKeyConflictException;
+import com.payoyo.gestor_gastos_personales.repository.IdempotencyKeyRepository;
+
+/*
+ * Reserva, repetición, conflicto y liberación de claves Idempotency-Key en memoria
+ *
+ * Sin contexto de Spring: cada alta se simula abriendo la sincronización de
+ * transacción a mano y cerrándola con commit o rollback (lo que haría
+ * el gestor de transacciones al terminar createExpense)
+ */
+class IdempotencyKeyStoreTest {
+
+    private static final long REQUEST_HASH = 42L;
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void retryAfterCommitReturnsOriginalExpense() {
+        IdempotencyKeyStore store = store(100_000);
+        Expense created = expense(1L);
+
+        begin();
+        assertTrue(store.claim("key-1", REQUEST_HASH).isEmpty());
+        store.record("key-1", REQUEST_HASH, created);
+        end(TransactionSynchronization.STATUS_COMMITTED);
+
+        begin();
+        Optional<Expense> replayed = store.claim("key-1", REQUEST_HASH);
+        end(TransactionSynchronization.STATUS_COMMITTED);
+        assertSame(created, replayed.orElseThrow());
+    }
+
+    @Test
+    void retryWhileOriginalInProgressIsConflict() {
+        IdempotencyKeyStore store = store(100_000);
+
+        begin();
+        store.claim("key-1", REQUEST_HASH);
+        assertThrows(IdempotencyKeyConflictException.class, () -> store.claim("key-1", REQUEST_HASH));
+    }
+
+    @Test
+    void sameKeyWithAnotherExpenseIsConflict() {
+        IdempotencyKeyStore store = store(100_000);
+
+        begin();
+        store.claim("key-1", REQUEST_HASH);
+        store.record("key-1", REQUEST_HASH, expense(1L));
+        end(TransactionSynchronization.STATUS_COMMITTED);
+
+        begin();
+        assertThrows(IdempotencyKeyConflictException.class, () -> store.claim("key-1", REQUEST_HASH + 1));
+    }
+
+    @Test
+    void rollbackReleasesKey() {
+        IdempotencyKeyStore store = store(100_000);
+
+        begin();
+        store.claim("key-1", REQUEST_HASH);
+        store.record("key-1", REQUEST_HASH, expense(1L));
+        end(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        begin();
+        assertTrue(store.claim("key-1", REQUEST_HASH).isEmpty());
+    }
+
+    @Test
+    void invalidKeyIsRejected() {
+        IdempotencyKeyStore store = store(100_000);
+
+        assertThrows(IllegalArgumentException.class, () -> store.claim(" ", REQUEST_HASH));
+        assertThrows(IllegalArgumentException.class, () -> store.claim("k".repeat(101), REQUEST_HASH));
+    }
+
+    /*
+     * Con max-keys = 1 cada mapa guarda una clave: con 65 claves al menos dos
+     * caen en el mismo mapa (hay 64) y la capacidad se supera
+     */
+    @Test
+    void evictionKeepsClaimsInProgress() {
+        IdempotencyKeyStore store = store(1);
+        List<String> keys = keys(65);
+
+        begin();
+        for (String key : keys) {
+            assertTrue(store.claim(key, REQUEST_HASH).isEmpty());
+        }
+        for (String key : keys) {
+            assertThrows(IdempotencyKeyConflictException.class, () -> store.claim(key, REQUEST_HASH),
+                    "La reserva en curso de " + key + " se ha olvidado");
+        }
+    }
+
+    @Test
+    void evictionForgetsOldestCompletedKeys() {
+        IdempotencyKeyStore store = store(1);
+        List<String> keys = keys(65);
+
+        for (String key : keys) {
+            begin();
+            store.claim(key, REQUEST_HASH);
+            store.record(key, REQUEST_HASH, expense(1L));
+            end(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        int forgotten = 0;
+        for (String key : keys) {
+            begin();
+            if (store.claim(key, REQUEST_HASH).isEmpty()) {
+                forgotten++;
+            }
+            end(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertTrue(forgotten > 0, "Ninguna clave completada se ha olvidado con el mapa lleno");
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static IdempotencyKeyStore store(int maxKeys) {
+        return new IdempotencyKeyStore(mock(IdempotencyKeyRepository.class), new ObjectMapper(),
+                Duration.ofHours(24), maxKeys, false, mock(PlatformTransactionManager.class));
+    }
+
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void end(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add("key-" + i);
+        }
+        return keys;
+    }
+
+    private static Expense expense(Long id) {
+        return Expense.builder()
+                .id(id)
+                .description("Compra en Mercadona")
+                .amount(new BigDecimal("25.50"))
+                .currency("EUR")
+                .baseAmount(new BigDecimal("25.50"))
+                .category(CategoryEnum.FOOD)
+                .paymentMethod(PaymentMethodEnum.DEBIT_CARD)
+                .date(LocalDate.now())
+                .build();
+    }
+}
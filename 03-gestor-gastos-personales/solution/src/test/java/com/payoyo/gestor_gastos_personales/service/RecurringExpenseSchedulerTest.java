@@ -0,0 +1,203 @@
+package com.payoyo.gestor_gastos_personales.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.payoyo.gestor_gastos_personales.entity.RecurringExpense;
+import com.payoyo.gestor_gastos_personales.entity.enums.CategoryEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.PaymentMethodEnum;
+import com.payoyo.gestor_gastos_personales.entity.enums.RecurrenceFrequencyEnum;
+import com.payoyo.gestor_gastos_personales.events.ExpenseSnapshot;
+import com.payoyo.gestor_gastos_personales.events.ExpensesImportedEvent;
+import com.payoyo.gestor_gastos_personales.repository.RecurringExpenseRepository;
+
+/*
+ * Generación de los gastos de las plantillas recurrentes con repeticiones
+ * pendientes (al arrancar y cada día)
+ *
+ * Sin contexto de Spring: el JdbcTemplate es un mock que devuelve un ID por
+ * fila insertada y el conversor de moneda deja las cantidades en EUR tal cual.
+ * Hoy es el 15 de abril de 2025
+ */
+class RecurringExpenseSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 4, 15);
+
+    private RecurringExpenseRepository recurringRepository;
+    private CurrencyConverter currencyConverter;
+    private ApplicationEventPublisher eventPublisher;
+    private RecurringExpenseScheduler scheduler;
+    private long nextId = 1000;
+
+    @BeforeEach
+    void createScheduler() {
+        recurringRepository = mock(RecurringExpenseRepository.class);
+        currencyConverter = mock(CurrencyConverter.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(currencyConverter.toBase(any(), eq("EUR"), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keys = invocation.getArgument(2);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keys.getKeyList().add(Map.of("id", nextId++));
+            }
+            return new int[setter.getBatchSize()];
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class));
+
+        scheduler = new RecurringExpenseScheduler(recurringRepository, jdbcTemplate,
+                mock(PlatformTransactionManager.class), currencyConverter, eventPublisher);
+    }
+
+    /*
+     * Plantilla mensual del día 31 parada desde enero: se generan las
+     * repeticiones de enero, febrero (28) y marzo y queda pendiente la de abril (30)
+     */
+    @Test
+    void catchUpGeneratesEveryMissedOccurrence() {
+        RecurringExpense rent = template(1L, RecurrenceFrequencyEnum.MONTHLY, LocalDate.of(2025, 1, 31), 0);
+        due(List.of(rent));
+
+        assertEquals(3, scheduler.materializeDue(TODAY));
+
+        assertEquals(List.of(LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 31)),
+                published().stream().map(ExpenseSnapshot::date).toList());
+        assertEquals(List.of(1000L, 1001L, 1002L), published().stream().map(ExpenseSnapshot::id).toList());
+        assertEquals(3, rent.getGeneratedCount());
+        assertEquals(LocalDate.of(2025, 4, 30), rent.getNextDate());
+    }
+
+    /*
+     * Las repeticiones ya generadas no se repiten: se sigue desde generatedCount
+     * y la repetición de hoy se incluye
+     */
+    @Test
+    void catchUpContinuesFromGeneratedCount() {
+        RecurringExpense gym = template(1L, RecurrenceFrequencyEnum.WEEKLY, LocalDate.of(2025, 3, 18), 2);
+
+        assertEquals(3, scheduler.materialize(gym, TODAY));
+
+        assertEquals(List.of(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 8), LocalDate.of(2025, 4, 15)),
+                published().stream().map(ExpenseSnapshot::date).toList());
+        assertEquals(5, gym.getGeneratedCount());
+        assertEquals(LocalDate.of(2025, 4, 22), gym.getNextDate());
+    }
+
+    @Test
+    void templatePastEndDateIsFinished() {
+        RecurringExpense course = template(1L, RecurrenceFrequencyEnum.MONTHLY, LocalDate.of(2025, 1, 10), 1);
+        course.setEndDate(LocalDate.of(2025, 3, 10));
+
+        assertEquals(2, scheduler.materialize(course, TODAY));
+
+        assertEquals(3, course.getGeneratedCount());
+        assertNull(course.getNextDate());
+    }
+
+    /*
+     * Sin tipo de cambio la plantilla se queda como estaba (se reintenta
+     * mañana) y las demás se generan igualmente
+     */
+    @Test
+    void templateWithoutExchangeRateIsLeftForNextRun() {
+        RecurringExpense dollars = template(1L, RecurrenceFrequencyEnum.MONTHLY, LocalDate.of(2025, 3, 1), 0);
+        dollars.setCurrency("USD");
+        when(currencyConverter.toBase(any(), eq("USD"), any()))
+                .thenThrow(new IllegalArgumentException("No hay tipo de cambio para USD"));
+        RecurringExpense euros = template(2L, RecurrenceFrequencyEnum.MONTHLY, LocalDate.of(2025, 4, 1), 0);
+        due(List.of(dollars, euros));
+
+        assertEquals(1, scheduler.materializeDue(TODAY));
+
+        assertEquals(0, dollars.getGeneratedCount());
+        assertEquals(LocalDate.of(2025, 3, 1), dollars.getNextDate());
+        assertEquals(1, euros.getGeneratedCount());
+    }
+
+    /*
+     * Un bloque lleno (500 plantillas) hace leer el siguiente a partir del último ID
+     */
+    @Test
+    void fullBatchReadsNextBatchAfterLastId() {
+        List<RecurringExpense> firstBatch = new ArrayList<>();
+        LongStream.rangeClosed(1, 500).forEach(id ->
+                firstBatch.add(template(id, RecurrenceFrequencyEnum.MONTHLY, LocalDate.of(2025, 4, 1), 0)));
+        RecurringExpense last = template(501L, RecurrenceFrequencyEnum.MONTHLY, LocalDate.of(2025, 4, 1), 0);
+        when(recurringRepository.findByNextDateLessThanEqualAndIdGreaterThanOrderByIdAsc(eq(TODAY), anyLong(), any()))
+                .thenReturn(firstBatch, List.of(last));
+
+        assertEquals(501, scheduler.materializeDue(TODAY));
+
+        verify(recurringRepository).findByNextDateLessThanEqualAndIdGreaterThanOrderByIdAsc(TODAY, 0L, Limit.of(500));
+        verify(recurringRepository).findByNextDateLessThanEqualAndIdGreaterThanOrderByIdAsc(TODAY, 500L, Limit.of(500));
+    }
+
+    @Test
+    void nothingDuePublishesNothing() {
+        due(List.of());
+
+        assertEquals(0, scheduler.materializeDue(TODAY));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private void due(List<RecurringExpense> templates) {
+        when(recurringRepository.findByNextDateLessThanEqualAndIdGreaterThanOrderByIdAsc(eq(TODAY), anyLong(), any()))
+                .thenReturn(templates, List.of());
+    }
+
+    // Gastos de todos los ExpensesImportedEvent publicados
+    private List<ExpenseSnapshot> published() {
+        ArgumentCaptor<ExpensesImportedEvent> captor = ArgumentCaptor.forClass(ExpensesImportedEvent.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(captor.capture());
+        return captor.getAllValues().stream().flatMap(event -> event.expenses().stream()).toList();
+    }
+
+    // Plantilla con generated repeticiones ya generadas
+    private static RecurringExpense template(Long id, RecurrenceFrequencyEnum frequency, LocalDate start, long generated) {
+        RecurringExpense template = RecurringExpense.builder()
+                .id(id)
+                .description("Gasto recurrente " + id)
+                .amount(new BigDecimal("25.00"))
+                .currency("EUR")
+                .category(CategoryEnum.UTILITIES)
+                .paymentMethod(PaymentMethodEnum.DEBIT_CARD)
+                .frequency(frequency)
+                .startDate(start)
+                .generatedCount(generated)
+                .build();
+        template.setNextDate(template.occurrence(generated));
+        return template;
+    }
+}